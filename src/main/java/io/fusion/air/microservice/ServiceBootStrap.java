@@ -17,6 +17,7 @@ package io.fusion.air.microservice;
 
 // Custom
 import io.fusion.air.microservice.server.config.ServiceConfig;
+import io.fusion.air.microservice.utils.JsonMappers;
 import io.fusion.air.microservice.utils.Utils;
 // Spring Framework
 import org.springframework.beans.factory.annotation.Value;
@@ -37,7 +38,6 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.client.RestTemplate;
 // FasterXML
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 // Java
 import java.util.*;
@@ -222,14 +222,12 @@ public class ServiceBootStrap {
 	}
 
 	/**
-	 * Returns the Object Mapper
+	 * Returns the Shared Object Mapper (Same Mapper as the Utils, Filters and Rest Client)
 	 * @return
 	 */
 
 	@Bean
 	public ObjectMapper objectMapper() {
-		return new ObjectMapper()
-				.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-				.findAndRegisterModules();
+		return JsonMappers.mapper();
 	}
 }
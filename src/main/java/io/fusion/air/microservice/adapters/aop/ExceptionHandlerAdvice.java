@@ -22,6 +22,7 @@ import io.fusion.air.microservice.server.config.ServiceConfig;
 import io.fusion.air.microservice.utils.Utils;
 // Spring
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -522,6 +523,28 @@ public class ExceptionHandlerAdvice extends ResponseEntityExceptionHandler {
         return createErrorResponse(utEx, "Version Mismatch (Pessimistic Lock)!", "457", request);
     }
 
+    /**
+     * Unable to Save Due to Dirty Read/Write (Optimistic Lock translated by Spring)
+     * @param olEx
+     * @param request
+     * @return
+     */
+    @ExceptionHandler(value = OptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException olEx,  WebRequest request) {
+        return createErrorResponse(olEx, "Version Mismatch (Optimistic Lock)!", "456", null, HttpStatus.CONFLICT, request);
+    }
+
+    /**
+     * Unable to Save Due to Dirty Read/Write (Retries Exhausted)
+     * @param dvEx
+     * @param request
+     * @return
+     */
+    @ExceptionHandler(value = DataVersionMismatchException.class)
+    public ResponseEntity<Object> handleDataVersionMismatchException(DataVersionMismatchException dvEx,  WebRequest request) {
+        return createErrorResponse(dvEx, dvEx.getMessage(), "456", null, HttpStatus.CONFLICT, request);
+    }
+
     /**
      * Unable to Save Due to  Persistence Exception
      * @param pEx
@@ -0,0 +1,42 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retry On Conflict
+ *
+ * Re-executes the Method in a new Transaction when the Optimistic Lock (Version) check fails. The
+ * Method must load the Entity and apply the Mutation itself (Ex. findById -> set -> save), so that
+ * every Attempt works on the latest Version of the Row. Methods that save an Entity supplied by the
+ * caller (with the caller's Version) should NOT be annotated, as the retry will fail again.
+ *
+ * Retries are skipped if the Method joins an existing Transaction.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+public @interface RetryOnConflict {
+    String entity() default "";     // Entity Name for the Metrics, Optional (Extracted from the Exception)
+    int maxAttempts() default 0;    // Max Attempts including the first call, 0 = db.conflict.retry.max.attempts
+}
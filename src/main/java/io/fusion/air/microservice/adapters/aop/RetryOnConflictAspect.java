@@ -0,0 +1,228 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.aop;
+// Custom
+import io.fusion.air.microservice.adapters.logging.ConflictTracker;
+import io.fusion.air.microservice.domain.entities.core.AbstractBaseEntityWithUUID;
+import io.fusion.air.microservice.domain.exceptions.DataVersionMismatchException;
+import io.fusion.air.microservice.server.config.ConflictRetryConfig;
+// Aspect J
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+// Spring
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+// Other
+import jakarta.persistence.OptimisticLockException;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.StaleStateException;
+// Java
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+// Logging
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Retry On Conflict Aspect
+ *
+ * Runs outside the Transaction Interceptor (Higher Precedence), so every Attempt is a new Transaction
+ * which reloads the Row with the latest Version. Between the Attempts the Thread sleeps for a random
+ * time between 0 and min(backoff.max, backoff.base * 2^attempt) (Full Jitter), this spreads the
+ * competing writers instead of making them collide again at the same time.
+ *
+ * Every Retry is taken from the Retry Budget (ConflictTracker), under a Conflict storm the Budget runs
+ * out and the Conflicts are returned to the caller (409) instead of multiplying the load.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Aspect
+@Configuration
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RetryOnConflictAspect {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final ConflictRetryConfig retryConfig;
+    private final ConflictTracker conflictTracker;
+
+    /**
+     * Autowired using the Constructor
+     * @param retryConfig
+     * @param conflictTracker
+     */
+    public RetryOnConflictAspect(ConflictRetryConfig retryConfig, ConflictTracker conflictTracker) {
+        this.retryConfig = retryConfig;
+        this.conflictTracker = conflictTracker;
+    }
+
+    /**
+     * Retry the Method on Optimistic Lock Conflicts
+     * @param joinPoint
+     * @param retryOnConflict
+     * @return
+     * @throws Throwable
+     */
+    @Around(value = "@annotation(retryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        if(!retryConfig.isRetryEnabled() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Can't Retry within the caller's Transaction
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        int maxAttempts = retryOnConflict.maxAttempts() > 0 ? retryOnConflict.maxAttempts() : retryConfig.getMaxAttempts();
+        conflictTracker.recordCall();
+        int attempt = 1;
+        while(true) {
+            try {
+                Object result = joinPoint.proceed();
+                if(attempt > 1) {
+                    conflictTracker.recordRecovered(method);
+                }
+                return result;
+            } catch (Throwable e) {
+                if(!isConflict(e)) {
+                    throw e;
+                }
+                String entity = getEntityName(e, retryOnConflict, joinPoint);
+                Object id = getEntityId(e, joinPoint);
+                conflictTracker.recordConflict(entity, id, method);
+                if(attempt >= maxAttempts) {
+                    conflictTracker.recordExhausted(method, "attempts");
+                    throw conflict(entity, id, attempt, e);
+                }
+                if(!conflictTracker.tryAcquireRetry()) {
+                    conflictTracker.recordExhausted(method, "budget");
+                    throw conflict(entity, id, attempt, e);
+                }
+                log.debug("Version Conflict on {} {} Attempt {} of {} for {} ", entity, id, attempt, maxAttempts, method);
+                conflictTracker.recordRetry(method);
+                backoff(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Sleep for the Jittered Backoff
+     * @param attempt
+     */
+    private void backoff(int attempt) throws InterruptedException {
+        long ceiling = Math.min(retryConfig.getBackoffMax(),
+                retryConfig.getBackoffBase() << Math.min(attempt - 1, 20));
+        if(ceiling > 0) {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        }
+    }
+
+    /**
+     * Returns the Exception for the Client once the Retries are exhausted
+     * @param entity
+     * @param id
+     * @param attempts
+     * @param e
+     * @return
+     */
+    private DataVersionMismatchException conflict(String entity, Object id, int attempts, Throwable e) {
+        return new DataVersionMismatchException("Update Conflict on "+entity+" "+id
+                +" after "+attempts+" attempt(s), Please retry later.", e);
+    }
+
+    /**
+     * Returns True if the Exception (or the Cause) is an Optimistic Lock Failure
+     * @param e
+     * @return
+     */
+    private boolean isConflict(Throwable e) {
+        for(Throwable t = e; t != null; t = (t.getCause() == t) ? null : t.getCause()) {
+            if(t instanceof OptimisticLockingFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof StaleStateException
+                    || t instanceof DataVersionMismatchException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the Entity Name from the Exception or the Annotation
+     * @param e
+     * @param retryOnConflict
+     * @param joinPoint
+     * @return
+     */
+    private String getEntityName(Throwable e, RetryOnConflict retryOnConflict, ProceedingJoinPoint joinPoint) {
+        if(!retryOnConflict.entity().isEmpty()) {
+            return retryOnConflict.entity();
+        }
+        for(Throwable t = e; t != null; t = (t.getCause() == t) ? null : t.getCause()) {
+            String name = null;
+            if(t instanceof ObjectOptimisticLockingFailureException oolEx) {
+                name = oolEx.getPersistentClassName();
+            } else if(t instanceof StaleObjectStateException sosEx) {
+                name = sosEx.getEntityName();
+            } else if(t instanceof OptimisticLockException olEx && olEx.getEntity() != null) {
+                name = olEx.getEntity().getClass().getName();
+            }
+            if(name != null) {
+                return name.substring(name.lastIndexOf('.') + 1);
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+
+    /**
+     * Returns the Entity Id from the Exception or the Method Arguments
+     * @param e
+     * @param joinPoint
+     * @return
+     */
+    private Object getEntityId(Throwable e, ProceedingJoinPoint joinPoint) {
+        for(Throwable t = e; t != null; t = (t.getCause() == t) ? null : t.getCause()) {
+            if(t instanceof ObjectOptimisticLockingFailureException oolEx && oolEx.getIdentifier() != null) {
+                return oolEx.getIdentifier();
+            } else if(t instanceof StaleObjectStateException sosEx && sosEx.getIdentifier() != null) {
+                return sosEx.getIdentifier();
+            } else if(t instanceof OptimisticLockException olEx
+                    && olEx.getEntity() instanceof AbstractBaseEntityWithUUID entity) {
+                return entity.getUuid();
+            }
+        }
+        Object fallback = null;
+        for(Object arg : joinPoint.getArgs()) {
+            if(arg instanceof UUID || arg instanceof AbstractBaseEntityWithUUID) {
+                return (arg instanceof AbstractBaseEntityWithUUID entity) ? entity.getUuid() : arg;
+            }
+            if(fallback == null && arg instanceof String) {
+                fallback = arg;
+            }
+        }
+        return fallback;
+    }
+}
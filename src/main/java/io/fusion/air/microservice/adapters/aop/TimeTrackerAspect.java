@@ -21,9 +21,16 @@ import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
+// Micrometer
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 // Spring
 import org.slf4j.Logger;
 import org.springframework.context.annotation.Configuration;
+// Java
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import static java.lang.invoke.MethodHandles.lookup;
 import static org.slf4j.LoggerFactory.getLogger;
 
@@ -51,6 +58,22 @@ public class TimeTrackerAspect {
     // Set Logger -> Lookup will automatically determine the class name.
     private static final Logger log = getLogger(lookup().lookupClass());
 
+    private static final String REPOSITORY_PKG = "io.fusion.air.microservice.adapters.repository";
+
+    // Autowired using the Constructor
+    private final MeterRegistry meterRegistry;
+
+    // Repository Name by the Proxy Class
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    /**
+     * Autowired using the Constructor
+     * @param meterRegistry
+     */
+    public TimeTrackerAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     /**
      * Log Message before the Log Execution
      * For All Classes = "execution(* io.fusion.air.microservice.adapters.controllers.*.*(..))")
@@ -101,13 +124,49 @@ public class TimeTrackerAspect {
 
     /**
      * Capture Overall Method Execution Time for Repository Services
+     * Latency Histogram (db.repository.call) is recorded per Repository & Method
      * @param joinPoint
      * @return
      * @throws Throwable
      */
     @Around(value = "execution(* io.fusion.air.microservice.adapters.repository..*.*(..))")
     public Object timeTrackerRepository(ProceedingJoinPoint joinPoint) throws Throwable {
-        return trackTime(2, "DS", joinPoint);
+        long startTime = System.nanoTime();
+        String status = "success";
+        try {
+            return trackTime(2, "DS", joinPoint);
+        } catch (Throwable e) {
+            status = "error";
+            throw e;
+        } finally {
+            Timer.builder("db.repository.call")
+                    .tag("repository", repositoryName(joinPoint))
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("status", status)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the Repository Interface Name (Ex. CartRepository) for the Spring Data Proxy
+     * @param joinPoint
+     * @return
+     */
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        Object repository = joinPoint.getThis();
+        if(repository == null) {
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        }
+        return repositoryNames.computeIfAbsent(repository.getClass(), proxyClass -> {
+            for(Class<?> type : proxyClass.getInterfaces()) {
+                if(type.getName().startsWith(REPOSITORY_PKG)) {
+                    return type.getSimpleName();
+                }
+            }
+            return joinPoint.getSignature().getDeclaringType().getSimpleName();
+        });
     }
 
     /**
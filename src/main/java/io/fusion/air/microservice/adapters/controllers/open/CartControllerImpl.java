@@ -18,11 +18,13 @@ package io.fusion.air.microservice.adapters.controllers.open;
 import io.fusion.air.microservice.adapters.logging.MetricsCounter;
 import io.fusion.air.microservice.adapters.logging.MetricsPath;
 import io.fusion.air.microservice.adapters.security.jwt.AuthorizationRequired;
+import io.fusion.air.microservice.adapters.service.ResourceVersions;
 import io.fusion.air.microservice.domain.entities.order.CartEntity;
 import io.fusion.air.microservice.domain.exceptions.AbstractServiceException;
 import io.fusion.air.microservice.domain.models.core.StandardResponse;
 import io.fusion.air.microservice.domain.models.order.CartItem;
 import io.fusion.air.microservice.domain.ports.services.CartService;
+import io.fusion.air.microservice.domain.ports.services.ReactiveCartService;
 import io.fusion.air.microservice.server.controllers.AbstractController;
 // Swagger - Open API
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,12 +35,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 // Spring
 import org.slf4j.Logger;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 // Java
 import jakarta.validation.Valid;
 import org.springframework.web.util.HtmlUtils;
+// Reactor
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -72,14 +78,24 @@ public class CartControllerImpl extends AbstractController {
 	// Autowired using the Constructor
 	private CartService cartService;
 
+	// Autowired using the Constructor
+	private ReactiveCartService reactiveCartService;
+
+	// Autowired using the Constructor
+	private ResourceVersions resourceVersions;
+
 	private static final String CART_RETRIEVED = "CartItem Retrieved. Items =  ";
 
 	/**
 	 * Autowired using the Constructor
 	 * @param cartSvc
+	 * @param reactiveCartSvc
+	 * @param versions
 	 */
-	public CartControllerImpl(CartService cartSvc) {
+	public CartControllerImpl(CartService cartSvc, ReactiveCartService reactiveCartSvc, ResourceVersions versions) {
 		cartService = cartSvc;
+		reactiveCartService = reactiveCartSvc;
+		resourceVersions = versions;
 		serviceName = super.name();
 	}
 
@@ -99,7 +115,10 @@ public class CartControllerImpl extends AbstractController {
 	})
 	@GetMapping("/all")
 	@MetricsCounter(endpoint = "/all", tags = {"layer", "ws", "public", "yes"})
-	public ResponseEntity<StandardResponse> fetchCarts() throws AbstractServiceException {
+	public ResponseEntity<StandardResponse> fetchCarts(WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.CART, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to Get CartItem For the Customers ", serviceName);
 		List<CartEntity> cart = cartService.findAll();
 		StandardResponse stdResponse = createSuccessResponse(CART_RETRIEVED+cart.size());
@@ -123,9 +142,12 @@ public class CartControllerImpl extends AbstractController {
     })
 	@GetMapping("/customer/{customerId}")
 	@MetricsCounter(endpoint = "/customer", tags = {"layer", "ws", "public", "yes"})
-	public ResponseEntity<StandardResponse> fetchCart(@PathVariable("customerId") String customerId) throws AbstractServiceException {
-
+	public ResponseEntity<StandardResponse> fetchCart(@PathVariable("customerId") String customerId,
+													  WebRequest webRequest) throws AbstractServiceException {
 		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.CART, safeCustomerId)) {
+			return null;
+		}
 		log.debug("| {} |Request to Get CartItem For the Customer {} ", serviceName, safeCustomerId);
 		List<CartEntity> cart = cartService.findByCustomerId(safeCustomerId);
 		StandardResponse stdResponse = createSuccessResponse(CART_RETRIEVED+cart.size());
@@ -133,6 +155,31 @@ public class CartControllerImpl extends AbstractController {
 		return ResponseEntity.ok(stdResponse);
 	}
 
+	/**
+	 * Stream the CartItems of the Customer (NDJSON or Server Sent Events based on the Accept Header)
+	 *
+	 * @param customerId
+	 * @param active
+	 * @return
+	 */
+	@Operation(summary = "Stream The CartItems for the Customer (NDJSON / SSE)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "CartItems Streamed!",
+					content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+							@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)})
+	})
+	@GetMapping(value = "/stream/customer/{customerId}",
+			produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+	@MetricsCounter(endpoint = "/stream/customer", tags = {"layer", "ws", "public", "yes"})
+	public Flux<CartEntity> streamCart(@PathVariable("customerId") String customerId,
+									   @RequestParam(name = "active", defaultValue = "false") boolean active) {
+		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
+		log.debug("| {} |Request to Stream CartItem For the Customer {} ", serviceName, safeCustomerId);
+		return active ? reactiveCartService.fetchActiveItems(safeCustomerId)
+				: reactiveCartService.findByCustomerId(safeCustomerId);
+	}
+
 	/**
 	 * GET Method Call to Get CartItem for the Customer for the Price Greater Than
 	 *
@@ -152,8 +199,12 @@ public class CartControllerImpl extends AbstractController {
 	@GetMapping("/customer/{customerId}/price/{price}")
 	@MetricsCounter(endpoint = "/customer/price", tags = {"layer", "ws", "public", "yes"})
 	public ResponseEntity<StandardResponse> fetchCartForItems(@PathVariable("customerId") String customerId,
-															  @PathVariable("price") BigDecimal price) throws AbstractServiceException {
+															  @PathVariable("price") BigDecimal price,
+															  WebRequest webRequest) throws AbstractServiceException {
 		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.CART, safeCustomerId)) {
+			return null;
+		}
 		log.debug("| {} |Request to Get CartItem For the Customer {} ",serviceName ,safeCustomerId);
 		List<CartEntity> cart = cartService.fetchProductsByPriceGreaterThan(safeCustomerId, price);
 		StandardResponse stdResponse = createSuccessResponse(CART_RETRIEVED+cart.size());
@@ -17,6 +17,8 @@ package io.fusion.air.microservice.adapters.controllers.open;
 // Custom
 import io.fusion.air.microservice.adapters.logging.MetricsCounter;
 import io.fusion.air.microservice.adapters.logging.MetricsPath;
+import io.fusion.air.microservice.adapters.service.ResourceVersions;
+import io.fusion.air.microservice.adapters.service.ResponseBytesCache;
 import io.fusion.air.microservice.domain.entities.order.CountryEntity;
 import io.fusion.air.microservice.domain.entities.order.CountryGeoEntity;
 import io.fusion.air.microservice.domain.exceptions.AbstractServiceException;
@@ -35,6 +37,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 // Java
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -67,6 +70,8 @@ public class CountryControllerImpl extends AbstractController {
 
 	// Autowired using the Constructor
 	private CountryService countryService;
+	private ResourceVersions resourceVersions;
+	private ResponseBytesCache responseCache;
 	private String serviceName;
 
 
@@ -75,9 +80,14 @@ public class CountryControllerImpl extends AbstractController {
 	/**
 	 * Autowired using the Constructor
 	 * @param countrySvc
+	 * @param versions
+	 * @param responseCache
 	 */
-	public CountryControllerImpl(CountryService countrySvc) {
+	public CountryControllerImpl(CountryService countrySvc, ResourceVersions versions,
+								 ResponseBytesCache responseCache) {
 		countryService = countrySvc;
+		resourceVersions = versions;
+		this.responseCache = responseCache;
 		serviceName = super.name();
 	}
 
@@ -98,13 +108,21 @@ public class CountryControllerImpl extends AbstractController {
 	@GetMapping("/geo/page/{page}/size/{size}")
 	@MetricsCounter(endpoint = "/geo/page/size")
 	public ResponseEntity<StandardResponse> fetchCountriesByPageAndSize(@PathVariable("page") int page,
-													@PathVariable("size") int size) throws AbstractServiceException {
+													@PathVariable("size") int size,
+													HttpServletRequest request,
+													HttpServletResponse response,
+													WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.COUNTRY, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to Get All Countries by page no {} & Size =  {}", serviceName, page, size);
-
-		Page<CountryGeoEntity> countries = countryService.getAllGeoCountries(page, size);
-		StandardResponse stdResponse = createSuccessResponse(DATA_FETCH);
-		stdResponse.setPayload(countries);
-		return ResponseEntity.ok(stdResponse);
+		responseCache.write(ResourceVersions.COUNTRY, request, response, () -> {
+			Page<CountryGeoEntity> countries = countryService.getAllGeoCountries(page, size);
+			StandardResponse stdResponse = createSuccessResponse(DATA_FETCH);
+			stdResponse.setPayload(countries);
+			return stdResponse;
+		});
+		return null;
 	}
 
 	/**
@@ -124,12 +142,19 @@ public class CountryControllerImpl extends AbstractController {
 	@GetMapping("/geo/all/")
 	@MetricsCounter(endpoint = "/geo/all")
 	public ResponseEntity<StandardResponse> fetchAllGeoCountries(HttpServletRequest request,
-														   HttpServletResponse response) throws AbstractServiceException {
+														   HttpServletResponse response,
+														   WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.COUNTRY, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to get All Countries ... ",serviceName);
-		Page<CountryGeoEntity> countries = countryService.getAllGeoCountries();
-		StandardResponse stdResponse = createSuccessResponse(DATA_FETCH);
-		stdResponse.setPayload(countries);
-		return ResponseEntity.ok(stdResponse);
+		responseCache.write(ResourceVersions.COUNTRY, request, response, () -> {
+			Page<CountryGeoEntity> countries = countryService.getAllGeoCountries();
+			StandardResponse stdResponse = createSuccessResponse(DATA_FETCH);
+			stdResponse.setPayload(countries);
+			return stdResponse;
+		});
+		return null;
 	}
 
 	/**
@@ -149,12 +174,19 @@ public class CountryControllerImpl extends AbstractController {
 	@GetMapping("/all/")
 	@MetricsCounter(endpoint = "/all")
 	public ResponseEntity<StandardResponse> fetchAlCountries(HttpServletRequest request,
-														   HttpServletResponse response) throws AbstractServiceException {
+														   HttpServletResponse response,
+														   WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.COUNTRY, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to get All Countries ... ", serviceName);
-		List<CountryEntity> countries = countryService.getAllCountries();
-		StandardResponse stdResponse = createSuccessResponse(DATA_FETCH);
-		stdResponse.setPayload(countries);
-		return ResponseEntity.ok(stdResponse);
+		responseCache.write(ResourceVersions.COUNTRY, request, response, () -> {
+			List<CountryEntity> countries = countryService.getAllCountries();
+			StandardResponse stdResponse = createSuccessResponse(DATA_FETCH);
+			stdResponse.setPayload(countries);
+			return stdResponse;
+		});
+		return null;
 	}
 
  }
\ No newline at end of file
@@ -17,12 +17,17 @@ package io.fusion.air.microservice.adapters.controllers.open;
 //  Custom
 import io.fusion.air.microservice.adapters.logging.MetricsCounter;
 import io.fusion.air.microservice.adapters.logging.MetricsPath;
+import io.fusion.air.microservice.adapters.service.OrderBulkEventProcessor;
+import io.fusion.air.microservice.adapters.service.OrderMailboxDispatcher;
+import io.fusion.air.microservice.adapters.service.OrderSummaryReadModel;
 import io.fusion.air.microservice.domain.entities.order.OrderEntity;
 import io.fusion.air.microservice.domain.exceptions.AbstractServiceException;
 import io.fusion.air.microservice.domain.exceptions.BusinessServiceException;
 import io.fusion.air.microservice.domain.exceptions.ControllerException;
 import io.fusion.air.microservice.domain.exceptions.InputDataException;
 import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.domain.models.order.OrderEventResult;
+import io.fusion.air.microservice.domain.models.order.OrderSummary;
 import io.fusion.air.microservice.domain.models.order.PaymentDetails;
 import io.fusion.air.microservice.domain.models.order.PaymentStatus;
 import io.fusion.air.microservice.domain.models.order.PaymentType;
@@ -43,12 +48,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 // Java
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.web.util.HtmlUtils;
 
+import java.io.BufferedReader;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static java.lang.invoke.MethodHandles.lookup;
@@ -77,13 +86,26 @@ public class OrderControllerImpl extends AbstractController {
 	private String serviceName;
 	// @Autowired not required - Constructor based Autowiring
 	private final OrderService orderService;
+	// @Autowired not required - Constructor based Autowiring
+	private final OrderMailboxDispatcher orderMailbox;
+	// @Autowired not required - Constructor based Autowiring
+	private final OrderBulkEventProcessor bulkEventProcessor;
+	// @Autowired not required - Constructor based Autowiring
+	private final OrderSummaryReadModel orderReadModel;
 
 	/**
 	 * Constructor for Autowiring
 	 * @param orderSvc
+	 * @param orderMailbox
+	 * @param bulkEventProcessor
+	 * @param orderReadModel
 	 */
-	public OrderControllerImpl(OrderService orderSvc) {
+	public OrderControllerImpl(OrderService orderSvc, OrderMailboxDispatcher orderMailbox,
+							   OrderBulkEventProcessor bulkEventProcessor, OrderSummaryReadModel orderReadModel) {
 		orderService = orderSvc;
+		this.orderMailbox = orderMailbox;
+		this.bulkEventProcessor = bulkEventProcessor;
+		this.orderReadModel = orderReadModel;
 		serviceName = super.name();
 	}
 
@@ -127,15 +149,148 @@ public class OrderControllerImpl extends AbstractController {
     })
 	@GetMapping("/customer/{customerId}")
 	@MetricsCounter(endpoint = "/customer")
-	public ResponseEntity<StandardResponse> fetchOrder(@PathVariable("customerId") String customerId) throws AbstractServiceException {
+	public ResponseEntity<StandardResponse> fetchOrder(@PathVariable("customerId") String customerId,
+													  @RequestParam(name = "months", required = false) Integer months)
+			throws AbstractServiceException {
 		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
 		log.debug("| {} |Request to Get Order For the Customer {} ",serviceName, safeCustomerId);
-		List<OrderEntity> orders = orderService.findByCustomerId(safeCustomerId);
+		// Orders of the last N Months (Partition Pruned) or All the Orders (Hot Tables)
+		List<OrderEntity> orders = (months != null)
+				? orderService.findByCustomerId(safeCustomerId, months)
+				: orderService.findByCustomerId(safeCustomerId);
 		StandardResponse stdResponse = createSuccessResponse("Order Retrieved. Orders =  "+orders.size());
 		stdResponse.setPayload(orders);
 		return ResponseEntity.ok(stdResponse);
 	}
 
+	/**
+	 * GET Method Call to Get the Order Summaries of the Customer (Read Model)
+	 * The Summaries are served from Memory, from the Orders until the Read Model is rebuilt.
+	 *
+	 * @return
+	 */
+	@Operation(summary = "Get The Order Summaries (State, Result, Total) of the Customer")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Order Summaries Retrieved!",
+					content = {@Content(mediaType = "application/json")})
+	})
+	@GetMapping("/customer/{customerId}/summary")
+	@MetricsCounter(endpoint = "/customer/summary")
+	public ResponseEntity<StandardResponse> fetchOrderSummaries(@PathVariable("customerId") String customerId)
+			throws AbstractServiceException {
+		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
+		log.debug("| {} |Request to Get Order Summaries For the Customer {} ",serviceName, safeCustomerId);
+		List<OrderSummary> summaries = orderReadModel.isReady()
+				? orderReadModel.findByCustomerId(safeCustomerId)
+				: orderService.findByCustomerId(safeCustomerId).stream()
+					.map(OrderSummary::of)
+					.toList();
+		StandardResponse stdResponse = createSuccessResponse("Order Summaries Retrieved. Orders =  "+summaries.size());
+		stdResponse.setPayload(summaries);
+		return ResponseEntity.ok(stdResponse);
+	}
+
+	/**
+	 * GET Method Call to Get the Order of the Customer (Active or Archived)
+	 *
+	 * @return
+	 */
+	@Operation(summary = "Get The Order (Active or Archived) of the Customer")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Order Retrieved!",
+					content = {@Content(mediaType = "application/json")}),
+			@ApiResponse(responseCode = "404",
+					description = "Order Not Found",
+					content = @Content)
+	})
+	@GetMapping("/customer/{customerId}/{orderId}")
+	@MetricsCounter(endpoint = "/customer/order")
+	public ResponseEntity<StandardResponse> fetchOrderById(@PathVariable("customerId") String customerId,
+														  @PathVariable("orderId") String orderId)
+			throws AbstractServiceException {
+		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
+		log.debug("| {} |Request to Get Order {} For the Customer {} ",serviceName, orderId, safeCustomerId);
+		Optional<OrderEntity> order = orderService.findById(safeCustomerId, orderId);
+		StandardResponse stdResponse = createSuccessResponse("Order Retrieved.");
+		stdResponse.setPayload(order.orElse(null));
+		return ResponseEntity.ok(stdResponse);
+	}
+
+	/**
+	 * Handle the Order Event (Order State Machine)
+	 * The Events of an Order are processed one after the other in the Mailbox of the Order.
+	 *
+	 * @return
+	 */
+	@Operation(summary = "Handle the Order Event (Order State Transition)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Order State Changed!",
+					content = {@Content(mediaType = "application/json")}),
+			@ApiResponse(responseCode = "400",
+					description = "Event not allowed in the Order State",
+					content = @Content),
+			@ApiResponse(responseCode = "429",
+					description = "Order Mailbox is Full",
+					content = @Content)
+	})
+	@PutMapping("/customer/{customerId}/{orderId}/event/{event}")
+	@MetricsCounter(endpoint = "/customer/order/event")
+	public ResponseEntity<StandardResponse> handleEvent(@PathVariable("customerId") String customerId,
+														@PathVariable("orderId") String orderId,
+														@PathVariable("event") String event)
+			throws AbstractServiceException {
+		String safeCustomerId = HtmlUtils.htmlEscape(customerId);
+		log.debug("| {} |Request to Handle Event {} For the Order {} ",serviceName, event, orderId);
+		UUID orderUuid;
+		try {
+			orderUuid = UUID.fromString(orderId);
+		} catch (IllegalArgumentException e) {
+			throw new InputDataException("Invalid Order ID "+orderId);
+		}
+		OrderEntity order = orderMailbox.execute(orderUuid,
+				() -> orderService.handleEvent(safeCustomerId, orderId, event));
+		StandardResponse stdResponse = createSuccessResponse("Order State = "+order.getOrderState());
+		stdResponse.setPayload(order);
+		return ResponseEntity.ok(stdResponse);
+	}
+
+	/**
+	 * Handle the Order Events in Bulk (Shipment & Delivery Updates)
+	 * The Request Body is NDJSON, one Event per Line
+	 * {"customerId":"...", "orderId":"...", "event":"ORDER_SHIPPED_EVENT"}
+	 *
+	 * @return Result per Event (Line)
+	 */
+	@Operation(summary = "Handle the Order Events in Bulk (NDJSON)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Order Events Processed (Result per Event)",
+					content = {@Content(mediaType = "application/json")}),
+			@ApiResponse(responseCode = "400",
+					description = "Unable to read the Order Events",
+					content = @Content)
+	})
+	@PostMapping(value = "/events/bulk", consumes = {"application/x-ndjson", "text/plain"})
+	@MetricsCounter(endpoint = "/events/bulk")
+	public ResponseEntity<StandardResponse> handleEvents(HttpServletRequest request)
+			throws AbstractServiceException {
+		log.debug("| {} |Request to Handle Bulk Order Events ",serviceName);
+		List<OrderEventResult> results;
+		try (BufferedReader reader = request.getReader()) {
+			results = bulkEventProcessor.process(reader);
+		} catch (IOException e) {
+			throw new InputDataException("Unable to read the Order Events! "+e.getMessage(), e);
+		}
+		long accepted = results.stream().filter(r -> OrderEventResult.ACCEPTED.equals(r.status())).count();
+		StandardResponse stdResponse = createSuccessResponse("Order Events = "+results.size()
+				+" Accepted = "+accepted+" Rejected = "+(results.size() - accepted));
+		stdResponse.setPayload(results);
+		return ResponseEntity.ok(stdResponse);
+	}
+
 	/**
 	 * Save Order
 	 */
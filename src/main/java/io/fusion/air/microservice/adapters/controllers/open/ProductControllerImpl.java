@@ -19,11 +19,14 @@ import io.fusion.air.microservice.adapters.logging.MetricsCounter;
 import io.fusion.air.microservice.adapters.logging.MetricsPath;
 import io.fusion.air.microservice.adapters.security.jwt.AuthorizationRequired;
 import io.fusion.air.microservice.adapters.security.jwt.SingleTokenAuthorizationRequired;
+import io.fusion.air.microservice.adapters.service.ResourceVersions;
+import io.fusion.air.microservice.adapters.service.ResponseBytesCache;
 import io.fusion.air.microservice.domain.entities.order.ProductEntity;
 import io.fusion.air.microservice.domain.exceptions.AbstractServiceException;
 import io.fusion.air.microservice.domain.models.core.StandardResponse;
 import io.fusion.air.microservice.domain.models.order.Product;
 import io.fusion.air.microservice.domain.ports.services.ProductService;
+import io.fusion.air.microservice.domain.ports.services.ReactiveProductService;
 import io.fusion.air.microservice.server.controllers.AbstractController;
 // Swagger
 import io.fusion.air.microservice.utils.Utils;
@@ -37,14 +40,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import org.slf4j.Logger;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 // Java
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.web.util.HtmlUtils;
+// Reactor
+import reactor.core.publisher.Flux;
 
 import java.math.BigDecimal;
 import java.util.*;
@@ -79,13 +86,26 @@ public class ProductControllerImpl extends AbstractController {
 	private String serviceName;
 	// @Autowired not required - Constructor based Autowiring
 	private final ProductService productServiceImpl;
+	// @Autowired not required - Constructor based Autowiring
+	private final ReactiveProductService reactiveProductService;
+	// @Autowired not required - Constructor based Autowiring
+	private final ResourceVersions resourceVersions;
+	// @Autowired not required - Constructor based Autowiring
+	private final ResponseBytesCache responseCache;
 
 	/**
 	 * Constructor based Autowiring
 	 * @param productSvc
+	 * @param reactiveProductSvc
+	 * @param versions
+	 * @param responseCache
 	 */
-	public ProductControllerImpl(ProductService productSvc) {
+	public ProductControllerImpl(ProductService productSvc, ReactiveProductService reactiveProductSvc,
+								 ResourceVersions versions, ResponseBytesCache responseCache) {
 		productServiceImpl = productSvc;
+		reactiveProductService = reactiveProductSvc;
+		resourceVersions = versions;
+		this.responseCache = responseCache;
 		serviceName = super.name();
 	}
 
@@ -129,7 +149,11 @@ public class ProductControllerImpl extends AbstractController {
 	@MetricsCounter(endpoint = "/status")
 	public ResponseEntity<StandardResponse> getProductStatus(@PathVariable("productId") UUID productId,
 														HttpServletRequest request,
-														HttpServletResponse response) throws AbstractServiceException {
+														HttpServletResponse response,
+														WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to Get Product Status. {} ", serviceName, productId);
 		ProductEntity product = productServiceImpl.getProductById(productId);
 		StandardResponse stdResponse = createSuccessResponse("Data Fetch Success!");
@@ -137,6 +161,31 @@ public class ProductControllerImpl extends AbstractController {
 		return ResponseEntity.ok(stdResponse);
 	}
 
+	/**
+	 * POST Method Call to Get the Products By Product UUIDs (Multi-Get)
+	 * Lookups are batched with the concurrent Product Lookups into a single Query.
+	 *
+	 * @return
+	 */
+	@Operation(summary = "Get the Products By Product UUIDs")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Products Retrieved",
+					content = {@Content(mediaType = "application/json")}),
+			@ApiResponse(responseCode = "400",
+					description = "Invalid Product IDs.",
+					content = @Content)
+	})
+	@PostMapping("/batch")
+	@MetricsCounter(endpoint = "/batch")
+	public ResponseEntity<StandardResponse> getProducts(@RequestBody List<UUID> productIds) throws AbstractServiceException {
+		log.debug("| {} |Request to Get Products. {} ", serviceName, productIds);
+		List<ProductEntity> products = productServiceImpl.getProductsById(productIds);
+		StandardResponse stdResponse = createSuccessResponse("Products Found = "+products.size());
+		stdResponse.setPayload(products);
+		return ResponseEntity.ok(stdResponse);
+	}
+
 	/**
 	 * GET Method Call to Get All the Products - Without Any Tokens
 	 * @param request
@@ -156,8 +205,14 @@ public class ProductControllerImpl extends AbstractController {
 	@GetMapping("/all/public")
 	@MetricsCounter(endpoint = "/all/public")
 	public ResponseEntity<StandardResponse> getAllProducts(HttpServletRequest request,
-														   HttpServletResponse response) throws AbstractServiceException {
-		return getAllProducts("Public");
+														   HttpServletResponse response,
+														   WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
+		// Serialized Response is written from the Response Cache
+		responseCache.write(ResourceVersions.PRODUCT, request, response, () -> getAllProducts("Public").getBody());
+		return null;
 	}
 
 	/**
@@ -180,7 +235,11 @@ public class ProductControllerImpl extends AbstractController {
 	@GetMapping("/all/secured/single")
 	@MetricsCounter(endpoint = "/all/secured/single")
 	public ResponseEntity<StandardResponse> getAllProductsSecured(HttpServletRequest request,
-														   HttpServletResponse response) throws AbstractServiceException {
+														   HttpServletResponse response,
+														   WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
 		return getAllProducts("Auth-Token");
 	}
 
@@ -204,7 +263,11 @@ public class ProductControllerImpl extends AbstractController {
 	@GetMapping("/all/secured/tx")
 	@MetricsCounter(endpoint = "/all/secured/tx")
 	public ResponseEntity<StandardResponse> getAllProductsWithTxToken(HttpServletRequest request,
-																  HttpServletResponse response) throws AbstractServiceException {
+																  HttpServletResponse response,
+																  WebRequest webRequest) throws AbstractServiceException {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
 		return getAllProducts("Tx-Token");
 	}
 
@@ -245,7 +308,11 @@ public class ProductControllerImpl extends AbstractController {
 			@PathVariable("productName")
 			@NotBlank(message = "The Product Name is  required.")
 			@Size(min = 3, max = 32, message = "The length of Product Name must be between 3 and 32 characters.")
-			String productName) {
+			String productName,
+			WebRequest webRequest) {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
 		String safeProductName = HtmlUtils.htmlEscape(productName);
 		log.debug("| {} |Request to Search the Product By Name ...  {} ", serviceName, safeProductName);
 		List<ProductEntity> products = productServiceImpl.fetchProductsByName(safeProductName);
@@ -268,7 +335,11 @@ public class ProductControllerImpl extends AbstractController {
 	})
 	@GetMapping("/search/price/{price}")
 	@MetricsCounter(endpoint = "/search/price")
-	public ResponseEntity<StandardResponse> searchProductsByPrice(@PathVariable("price") BigDecimal price) {
+	public ResponseEntity<StandardResponse> searchProductsByPrice(@PathVariable("price") BigDecimal price,
+															   WebRequest webRequest) {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to Search the Product By Price... {} ", serviceName, price);
 		List<ProductEntity> products = productServiceImpl.fetchProductsByPriceGreaterThan(price);
 		StandardResponse stdResponse = createSuccessResponse("Products Found for Price >= "+price);
@@ -290,7 +361,10 @@ public class ProductControllerImpl extends AbstractController {
 	})
 	@GetMapping("/search/active/")
 	@MetricsCounter(endpoint = "/search/active")
-	public ResponseEntity<StandardResponse> searchActiveProducts() {
+	public ResponseEntity<StandardResponse> searchActiveProducts(WebRequest webRequest) {
+		if(resourceVersions.checkNotModified(webRequest, ResourceVersions.PRODUCT, null)) {
+			return null;
+		}
 		log.debug("| {} |Request to Search the Active Products ... ", serviceName);
 		List<ProductEntity> products = productServiceImpl.fetchActiveProducts();
 		StandardResponse stdResponse = createSuccessResponse("Active Products Found = "+products.size());
@@ -298,6 +372,50 @@ public class ProductControllerImpl extends AbstractController {
 		return ResponseEntity.ok(stdResponse);
 	}
 
+	/**
+	 * Stream the Products (NDJSON or Server Sent Events based on the Accept Header)
+	 * The Products are read Page by Page as the Client consumes the Stream.
+	 */
+	@Operation(summary = "Stream the Products (NDJSON / SSE)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Products Streamed!",
+					content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+							@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)})
+	})
+	@GetMapping(value = "/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+	@MetricsCounter(endpoint = "/stream")
+	public Flux<ProductEntity> streamProducts(@RequestParam(name = "active", defaultValue = "true") boolean active) {
+		log.debug("| {} |Request to Stream the Products. Active Only = {} ", serviceName, active);
+		return reactiveProductService.streamProducts(active);
+	}
+
+	/**
+	 * Stream the Products by Product Name (NDJSON or Server Sent Events)
+	 */
+	@Operation(summary = "Stream the Products By Product Name (NDJSON / SSE)")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200",
+					description = "Product(s) Streamed!",
+					content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+							@Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)}),
+			@ApiResponse(responseCode = "400",
+					description = "Unable to Find the Product(s)!",
+					content = @Content)
+	})
+	@GetMapping(value = "/stream/search/{productName}",
+			produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+	@MetricsCounter(endpoint = "/stream/search")
+	public Flux<ProductEntity> streamProductsByName(
+			@PathVariable("productName")
+			@NotBlank(message = "The Product Name is  required.")
+			@Size(min = 3, max = 32, message = "The length of Product Name must be between 3 and 32 characters.")
+			String productName) {
+		String safeProductName = HtmlUtils.htmlEscape(productName);
+		log.debug("| {} |Request to Stream the Products By Name ...  {} ", serviceName, safeProductName);
+		return reactiveProductService.fetchProductsByName(safeProductName);
+	}
+
 	/**
 	 * De-Activate the Product
 	 */
@@ -58,14 +58,18 @@ public class AppExternalServiceImpl {
     private static final String REQUEST = "REQUEST";
     private static final String RESPONSE = "RESPONSE";
     private static final String SESSIONID = "sessionId";
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
 
     private String paymentURL;
     private String echoURL;
 
     private boolean urlsSet = false;
 
-    // @Autowired
+    // External Services (Payment Gateway) - JSON
     private RestClientService restClient;
+    // Internal Services (Remote Echo) - Smile / CBOR, falls back to JSON
+    private RestClientService internalClient;
 
     /**
      * Autowired using the Constructor
@@ -74,6 +78,8 @@ public class AppExternalServiceImpl {
     @Autowired
     public AppExternalServiceImpl(ServiceConfig serviceCfg) {
         serviceConfig = serviceCfg;
+        restClient = new RestClientService();
+        internalClient = new RestClientService(true);
     }
 
     /**
@@ -84,6 +90,7 @@ public class AppExternalServiceImpl {
         log.info("{} |PaymentGW Constructor(host,port) ...", LocalDateTime.now());
         serviceConfig = new ServiceConfig(host, port);
         restClient = new RestClientService();
+        internalClient = new RestClientService(true);
         setURLs();
     }
 
@@ -118,7 +125,7 @@ public class AppExternalServiceImpl {
         setURLs();
         String w = Utils.toJsonString(word);
         log.info("{}|> {}", REQUEST, w);
-        EchoResponseData erd = restClient.getForObject(echoURL +"/"+ word,  EchoResponseData.class);
+        EchoResponseData erd = internalClient.getForObject(echoURL +"/"+ word,  EchoResponseData.class);
         String e = Utils.toJsonString(erd);
         log.info("{}|> {}", RESPONSE, e);
         return erd;
@@ -141,14 +148,14 @@ public class AppExternalServiceImpl {
      */
     public EchoResponseData remoteEcho(String url, EchoData word) {
         // Set Headers
-        HttpHeaders headers = getHeadersWithCookies();
+        HttpHeaders headers = getInternalHeaders();
         HttpEntity<EchoData> request = new HttpEntity<>(word, headers);
         String s =  Utils.toJsonString(request);
         log.info("{} 2|> {}", REQUEST, s);
         String c = Utils.createCurlCommand("POST", url, headers, word);
         log.info(c);
         // Call Remote Service > POST
-        EchoResponseData erd = restClient.postForObject(url, request, EchoResponseData.class);
+        EchoResponseData erd = internalClient.postForObject(url, request, EchoResponseData.class);
         String e = Utils.toJsonString(erd);
         log.info("{} 3|> {}", RESPONSE, e);
         return erd;
@@ -156,14 +163,14 @@ public class AppExternalServiceImpl {
 
     public EchoResponseData remoteEchoGET(String url, EchoData word) {
         // Set Headers
-        HttpHeaders headers = getHeadersWithCookies();
+        HttpHeaders headers = getInternalHeaders();
         HttpEntity<EchoData> request = new HttpEntity<>(word, headers);
         String s =  Utils.toJsonString(request);
         log.info("{} 2|> {}", REQUEST, s);
         String c = Utils.createCurlCommand("POST", url, headers, word);
         log.info(c);
         // Call Remote Service > POST
-        EchoResponseData erd = restClient.getForObject(url, EchoResponseData.class);
+        EchoResponseData erd = internalClient.getForObject(url, EchoResponseData.class);
         String e = Utils.toJsonString(erd);
         log.info("{} 3|> {}", RESPONSE, e);
         return erd;
@@ -196,6 +203,18 @@ public class AppExternalServiceImpl {
         return headers;
     }
 
+    /**
+     * Returns the Headers (with Cookies) for the Internal Services
+     * The Body is sent as Smile and the Response is asked as Smile / CBOR, JSON is the Fallback.
+     * @return
+     */
+    public static HttpHeaders getInternalHeaders() {
+        HttpHeaders headers = getHeadersWithCookies();
+        headers.setAccept(List.of(SMILE, CBOR, MediaType.APPLICATION_JSON));
+        headers.setContentType(SMILE);
+        return headers;
+    }
+
     /**
      * Returns Cookies
      */
@@ -0,0 +1,77 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.external;
+// Custom
+import io.fusion.air.microservice.domain.ports.services.OrderStageHandler;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStage;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+// Spring
+import org.springframework.stereotype.Service;
+// Java
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Billing Stage
+ * Creates the Invoice and sends the Bill to the Customer.
+ * The Call to the External System is simulated with the Latency (order.stage.billing.latency).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Service
+public class OrderBillingHandler implements OrderStageHandler {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final OrderForkConfig forkConfig;
+
+    /**
+     * Autowired using the Constructor
+     * @param forkConfig
+     */
+    public OrderBillingHandler(OrderForkConfig forkConfig) {
+        this.forkConfig = forkConfig;
+    }
+
+    /**
+     * Returns the Stage handled
+     * @return
+     */
+    @Override
+    public OrderStage getStage() {
+        return OrderStage.BILLING;
+    }
+
+    /**
+     * Execute the Billing Stage for the Order
+     * @param customerId
+     * @param orderId
+     * @param idempotencyKey Sent to the External System (Applied once per Key)
+     * @throws InterruptedException
+     */
+    @Override
+    public void execute(String customerId, UUID orderId, String idempotencyKey) throws InterruptedException {
+        log.debug("Billing Stage Order ID = {} Customer = {} Idempotency Key = {}", orderId, customerId, idempotencyKey);
+        Thread.sleep(forkConfig.getBillingLatency());
+    }
+}
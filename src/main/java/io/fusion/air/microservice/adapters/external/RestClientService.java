@@ -14,6 +14,8 @@
  * limitations under the License.
  */
 package io.fusion.air.microservice.adapters.external;
+// Custom
+import io.fusion.air.microservice.utils.JsonMappers;
 // Java
 import java.util.ArrayList;
 import java.util.Collections;
@@ -26,15 +28,20 @@ import org.slf4j.Logger;
 import org.springframework.http.MediaType;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 // Faster XML
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 
 /**
+ * Rest Client
  *
+ * JSON by Default (External Services like the Payment Gateway). Binary Content (Smile, CBOR) is opt-in
+ * per Target: create the Client for an Internal Service with RestClientService(true), the Accept Header
+ * then asks for Smile / CBOR first and falls back to JSON.
  *
  * @author arafkarsh
  *
@@ -45,20 +52,38 @@ public class RestClientService  extends RestTemplate {
     // Set Logger -> Lookup will automatically determine the class name.
     private static final Logger log = getLogger(lookup().lookupClass());
 
+    /**
+     * JSON Rest Client
+     */
     public RestClientService() {
+        this(false);
+    }
+
+    /**
+     * Rest Client for the Target
+     * @param binaryContent True for the Internal Services with the Binary Converters (Smile, CBOR)
+     */
+    public RestClientService(boolean binaryContent) {
         // Set Object Mapper For Serialization
         log.debug("Initialized RestClientService.... 1");
-        setMessageConverters(getDataConverters1());
+        setMessageConverters(getDataConverters1(binaryContent));
         // Set Factory to RestTemplate
         log.debug("Initialized RestClientService.... 2");
     }
 
     /**
      * Returns Converters 1
+     * Binary (Smile, CBOR) first if enabled: The Accept Header asks for Smile / CBOR and falls back to JSON,
+     * a Body without a Content-Type is sent as Smile.
+     * @param binaryContent
      * @return
      */
-    public List<HttpMessageConverter<?>> getDataConverters1() {
+    public List<HttpMessageConverter<?>> getDataConverters1(boolean binaryContent) {
         List<HttpMessageConverter<?>> messageConverters = new ArrayList<>();
+        if(binaryContent) {
+            messageConverters.add(new MappingJackson2SmileHttpMessageConverter(JsonMappers.smile()));
+            messageConverters.add(new MappingJackson2CborHttpMessageConverter(JsonMappers.cbor()));
+        }
         MappingJackson2HttpMessageConverter converter =
                 new MappingJackson2HttpMessageConverter(getObjectMapper());
         converter.setSupportedMediaTypes(
@@ -79,13 +104,11 @@ public class RestClientService  extends RestTemplate {
     }
 
     /**
-     * Return Object Mapper
+     * Return the Shared Object Mapper
      * @return
      */
     public ObjectMapper getObjectMapper() {
-        return new ObjectMapper()
-                .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, true)
-                .findAndRegisterModules();
+        return JsonMappers.mapper();
     }
 
     /**
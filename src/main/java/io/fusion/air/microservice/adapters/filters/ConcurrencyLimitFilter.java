@@ -0,0 +1,286 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.filters;
+// Custom
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.server.config.ConcurrencyLimitConfig;
+import io.fusion.air.microservice.server.config.ServiceConfig;
+import io.fusion.air.microservice.utils.Utils;
+import io.fusion.air.microservice.utils.algos.GradientLimit;
+// Spring
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+// Java
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Concurrency Limit Filter (Load Shedding)
+ *
+ * The Requests in Flight are limited by an Adaptive Limit (GradientLimit) driven by the observed Latency.
+ * When the Database slows down the Limit shrinks and the extra Requests are shed at the Door (503 with
+ * Retry-After) instead of piling up on the Request Threads.
+ *
+ * Priority (by Route)
+ * CRITICAL - concurrency.limit.critical.paths (Health) - never shed
+ * HIGH     - concurrency.limit.high.paths (Payments)   - up to high.share of the Limit
+ * BROWSE   - all the other Requests                    - up to browse.share of the Limit
+ *
+ * The Filter only counts the Requests in Flight (No Thread Locals, No Blocking), so it works the same
+ * with the Virtual Thread Executor and the Fixed Thread Pool (TomcatServerConfig). The 503 Response is
+ * pre-serialized and refreshed once per Second (Request Time). A Streaming (Async) Request holds its Slot
+ * till the Stream completes, its Latency is the Time to the Last Byte.
+ *
+ * Metrics
+ * concurrency.limit              - Current Limit
+ * concurrency.in.flight          - Requests in Flight
+ * concurrency.rejected{priority} - Requests shed
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    /**
+     * Request Priority
+     */
+    public enum Priority { CRITICAL, HIGH, BROWSE }
+
+    // Autowired using the Constructor
+    private final ConcurrencyLimitConfig limitConfig;
+    private final ServiceConfig serviceConfig;
+
+    private final GradientLimit gradientLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter highRejected;
+    private final Counter browseRejected;
+    private final String retryAfter;
+
+    // 503 Response of the last Second
+    private volatile ShedResponse shedResponse = new ShedResponse(-1, new byte[0]);
+
+    /**
+     * Autowired using the Constructor
+     * @param limitConfig
+     * @param serviceConfig
+     * @param meterReg
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitConfig limitConfig, ServiceConfig serviceConfig,
+                                  MeterRegistry meterReg) {
+        this.limitConfig = limitConfig;
+        this.serviceConfig = serviceConfig;
+        this.gradientLimit = new GradientLimit(limitConfig.getInitialLimit(), limitConfig.getMinLimit(),
+                limitConfig.getMaxLimit(), limitConfig.getSmoothing(), limitConfig.getTolerance(),
+                limitConfig.getWindow());
+        this.retryAfter = String.valueOf(Math.max(1, limitConfig.getRetryAfter()));
+        Gauge.builder("concurrency.limit", gradientLimit, GradientLimit::getLimit)
+                .register(meterReg);
+        Gauge.builder("concurrency.in.flight", inFlight, AtomicInteger::get)
+                .register(meterReg);
+        this.highRejected = meterReg.counter("concurrency.rejected", "priority", Priority.HIGH.name());
+        this.browseRejected = meterReg.counter("concurrency.rejected", "priority", Priority.BROWSE.name());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !limitConfig.isLimitEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Priority priority = priority(request.getRequestURI());
+        int started = acquire(priority);
+        if(started < 0) {
+            (priority == Priority.HIGH ? highRejected : browseRejected).increment();
+            log.debug("Request shed. Priority = {} Limit = {} In Flight = {}",
+                    priority, gradientLimit.getLimit(), inFlight.get());
+            shed(response);
+            return;
+        }
+        Slot slot = new Slot(System.nanoTime(), started);
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if(request.isAsyncStarted()) {
+                // Streaming Response (Flux, SSE): the Slot is held till the Stream completes
+                request.getAsyncContext().addListener(slot);
+                async = true;
+            }
+        } finally {
+            if(!async) {
+                slot.release();
+            }
+        }
+    }
+
+    /**
+     * Take a Slot for the Request
+     * @param priority
+     * @return Requests in Flight (including this Request) or -1 if the Request is shed
+     */
+    private int acquire(Priority priority) {
+        if(priority == Priority.CRITICAL) {
+            return inFlight.incrementAndGet();
+        }
+        double share = (priority == Priority.HIGH) ? limitConfig.getHighShare() : limitConfig.getBrowseShare();
+        int allowed = Math.max(1, (int) (gradientLimit.getLimit() * share));
+        while (true) {
+            int current = inFlight.get();
+            if(current >= allowed) {
+                return -1;
+            }
+            if(inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Priority of the Route
+     * @param uri
+     * @return
+     */
+    private Priority priority(String uri) {
+        for(String path : limitConfig.getCriticalPaths()) {
+            if(uri.contains(path)) {
+                return Priority.CRITICAL;
+            }
+        }
+        for(String path : limitConfig.getHighPaths()) {
+            if(uri.contains(path)) {
+                return Priority.HIGH;
+            }
+        }
+        return Priority.BROWSE;
+    }
+
+    /**
+     * Write the pre-serialized 503 Response
+     * @param response
+     * @throws IOException
+     */
+    private void shed(HttpServletResponse response) throws IOException {
+        byte[] body = shedBody();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        response.flushBuffer();
+    }
+
+    /**
+     * 503 Standard Response, serialized once per Second
+     * @return
+     */
+    private byte[] shedBody() {
+        long second = System.currentTimeMillis() / 1000;
+        ShedResponse last = shedResponse;
+        if(last.second != second) {
+            String errorPrefix = (serviceConfig != null) ? serviceConfig.getServiceApiErrorPrefix() : "AKH";
+            HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+            StandardResponse error = new StandardResponse();
+            error.initFailure(errorPrefix + status.value(), "Service is busy! Retry after "+retryAfter+" Seconds.");
+            // No Request Details (MDC), the Response is shared by the Requests of the Second
+            LinkedHashMap<String, Object> errorData = new LinkedHashMap<>();
+            errorData.put("code", status.value());
+            errorData.put("mesg", status.name());
+            errorData.put("srv", (serviceConfig != null) ? serviceConfig.getServiceName() : "Unknown");
+            LinkedHashMap<String, Object> payload = new LinkedHashMap<>();
+            payload.put("errors", errorData);
+            error.setPayload(payload);
+            last = new ShedResponse(second, Utils.toJsonString(error).getBytes(StandardCharsets.UTF_8));
+            shedResponse = last;
+        }
+        return last.body;
+    }
+
+    private record ShedResponse(long second, byte[] body) {}
+
+    /**
+     * Slot of a Request in Flight, released once (Handler returned or the Async Request completed)
+     */
+    private class Slot implements AsyncListener {
+
+        private final long start;
+        private final int started;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Slot(long start, int started) {
+            this.start = start;
+            this.started = started;
+        }
+
+        /**
+         * Release the Slot and sample the Latency of the Request
+         */
+        private void release() {
+            if(released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                gradientLimit.onSample(System.nanoTime() - start, started);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Async restarted (Ex. Async Dispatch), keep listening on the new Context
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -15,7 +15,7 @@
  */
 package io.fusion.air.microservice.adapters.filters;
 // Custom
-import io.fusion.air.microservice.utils.Utils;
+import io.fusion.air.microservice.utils.CookieTemplate;
 // Jakarta
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -33,7 +33,6 @@ import org.slf4j.Logger;
 import org.slf4j.MDC;
 // Spring
 import org.springframework.core.annotation.Order;
-import org.springframework.http.HttpHeaders;
 
 /**
  * Servlet Filter with WebFilter Example
@@ -55,6 +54,8 @@ public class CountryFilter implements Filter {
     private static final Logger log = getLogger(lookup().lookupClass());
 
     private static final String COOKIE = "Set-Cookie";
+    // Request Id Cookie Header built once, the Request Id and the Path are spliced in
+    private static final CookieTemplate REQUEST_COOKIE = new CookieTemplate("CNT-RID", 300);
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
@@ -63,10 +64,9 @@ public class CountryFilter implements Filter {
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         HttpServletResponse response = (HttpServletResponse) servletResponse;
 
-        HttpHeaders headers = Utils.createSecureCookieHeaders("CNT-RID", MDC.get("ReqId"), 300);
-        response.addHeader(COOKIE, headers.getFirst(COOKIE));
-        Object o =  headers.getFirst(COOKIE);
-        log.debug("<[4]>>> Country Filter Called => {} ", o);
+        String cookie = REQUEST_COOKIE.header(MDC.get("URI"), MDC.get("ReqId"));
+        response.addHeader(COOKIE, cookie);
+        log.debug("<[4]>>> Country Filter Called => {} ", cookie);
 
         filterChain.doFilter(request, response);
     }
@@ -0,0 +1,354 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.filters;
+// Custom
+import io.fusion.air.microservice.adapters.security.jwt.ClaimsManager;
+import io.fusion.air.microservice.adapters.service.IdempotencyStore;
+import io.fusion.air.microservice.domain.exceptions.AuthorizationException;
+import io.fusion.air.microservice.domain.models.core.IdempotentResponse;
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.server.config.IdempotencyConfig;
+import io.fusion.air.microservice.server.config.ServiceConfig;
+import io.fusion.air.microservice.utils.Utils;
+// Spring
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+// Java
+import jakarta.servlet.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Idempotency Key Filter
+ *
+ * POST Requests of the configured Paths (idempotency.paths) with the Idempotency-Key Header are executed
+ * once per Key (Scoped by the Path and the Subject of the validated Token - JwtAuthFilter). The Response Bytes are stored and the Retries with the
+ * same Key get the stored Response (Header Idempotent-Replayed: true) without reaching the Services.
+ * A Retry while the Request is in Flight waits for the Response, the Key reused with a different Request
+ * Body is Rejected (422). Only the Success (2xx) and the Deterministic Client Errors (4xx) are stored. The
+ * Server Errors (5xx) and the Transient Client Errors (401, 408, 409, 425, 429) are not, so the Retry is
+ * executed again. A Key whose
+ * Response could not be stored is Rejected (409) until the Expiry, the Request is never executed twice.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Order(40)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final int MAX_ATTEMPTS = 3;
+
+    // Autowired using the Constructor
+    private final IdempotencyConfig idempotencyConfig;
+    private final IdempotencyStore idempotencyStore;
+    private final ServiceConfig serviceConfig;
+    private final ClaimsManager claimsManager;
+
+    /**
+     * Autowired using the Constructor
+     * @param idempotencyConfig
+     * @param idempotencyStore
+     * @param serviceConfig
+     * @param claimsManager Claims of the Request (Set by the JwtAuthFilter)
+     */
+    public IdempotencyFilter(IdempotencyConfig idempotencyConfig, IdempotencyStore idempotencyStore,
+                             ServiceConfig serviceConfig, ClaimsManager claimsManager) {
+        this.idempotencyConfig = idempotencyConfig;
+        this.idempotencyStore = idempotencyStore;
+        this.serviceConfig = serviceConfig;
+        this.claimsManager = claimsManager;
+    }
+
+    /**
+     * Only the POST Requests of the Idempotent Paths with the Idempotency Key
+     * @param request
+     * @return
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if(!idempotencyConfig.isIdempotencyEnabled() || !"POST".equals(request.getMethod())
+                || request.getHeader(idempotencyConfig.getHeader()) == null) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        for(String path : idempotencyConfig.getPaths()) {
+            if(uri.endsWith(path.trim())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(idempotencyConfig.getHeader()).trim();
+        if(idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Invalid "+idempotencyConfig.getHeader()+" Header!");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(idempotencyConfig.getMaxBody() + 1);
+        if(body.length > idempotencyConfig.getMaxBody()) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request Body exceeds "+idempotencyConfig.getMaxBody()+" Bytes!");
+            return;
+        }
+        String key = sha256((request.getMethod()+" "+request.getRequestURI()+" "+subject()
+                +" "+idempotencyKey).getBytes(StandardCharsets.UTF_8));
+        String fingerprint = sha256(body);
+
+        for(int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            IdempotencyStore.Claim claim = idempotencyStore.claim(key, fingerprint);
+            switch (claim.decision()) {
+                case EXECUTE:
+                    execute(new CachedBodyRequest(request, body), response, filterChain, key, fingerprint);
+                    return;
+                case REPLAY:
+                    replay(response, claim.response(), fingerprint);
+                    return;
+                case CONFLICT:
+                    writeError(response, HttpStatus.CONFLICT, "Request with the "+idempotencyConfig.getHeader()
+                            +" is in progress!");
+                    return;
+                case UNKNOWN:
+                    writeError(response, HttpStatus.CONFLICT, "Request with the "+idempotencyConfig.getHeader()
+                            +" was executed, the Response is unknown! Check the Resource before using a new Key.");
+                    return;
+                case WAIT:
+                    IdempotentResponse inFlight;
+                    try {
+                        inFlight = claim.inFlight().get(idempotencyConfig.getWaitTimeout(), TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "Request interrupted!");
+                        return;
+                    } catch (ExecutionException | TimeoutException e) {
+                        writeError(response, HttpStatus.CONFLICT, "Request with the "+idempotencyConfig.getHeader()
+                                +" is in progress!");
+                        return;
+                    }
+                    if(inFlight != null) {
+                        replay(response, inFlight, fingerprint);
+                        return;
+                    }
+                    // The Request in Flight failed, Claim the Key again
+                    break;
+            }
+        }
+        writeError(response, HttpStatus.CONFLICT, "Request with the "+idempotencyConfig.getHeader()+" is in progress!");
+    }
+
+    /**
+     * Execute the Request and store the Response
+     * @param request
+     * @param response
+     * @param filterChain
+     * @param key
+     * @param fingerprint
+     * @throws ServletException
+     * @throws IOException
+     */
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            byte[] responseBody = wrapper.getContentAsByteArray();
+            if(isStorable(wrapper.getStatus()) && responseBody.length <= idempotencyConfig.getMaxBody()) {
+                idempotencyStore.complete(key, new IdempotentResponse(fingerprint, wrapper.getStatus(),
+                        wrapper.getContentType(), responseBody));
+                stored = true;
+            }
+        } finally {
+            if(!stored) {
+                idempotencyStore.abandon(key);
+            }
+            wrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Returns True if the Retry with the same Request gets the same Response (2xx and Deterministic 4xx).
+     * Timeouts, Conflicts, Rate Limits and expired Tokens (Transient) are retried with the Key.
+     * @param status
+     * @return
+     */
+    static boolean isStorable(int status) {
+        if(status >= 200 && status < 300) {
+            return true;
+        }
+        if(status < 400 || status >= 500) {
+            return false;
+        }
+        return switch (status) {
+            case 401, 408, 409, 425, 429 -> false;
+            default -> true;
+        };
+    }
+
+    /**
+     * Subject of the validated Token (JwtAuthFilter), empty for the Requests without a Token
+     * @return
+     */
+    private String subject() {
+        try {
+            return claimsManager.isClaimsInitialized() ? claimsManager.getSubject() : "";
+        } catch (AuthorizationException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Write the Stored Response
+     * @param response
+     * @param stored
+     * @param fingerprint
+     * @throws IOException
+     */
+    private void replay(HttpServletResponse response, IdempotentResponse stored, String fingerprint) throws IOException {
+        if(!stored.fingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, idempotencyConfig.getHeader()
+                    +" is already used with a different Request!");
+            return;
+        }
+        log.debug("Idempotent Response replayed. Status = {}", stored.status());
+        response.setStatus(stored.status());
+        if(stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+        response.flushBuffer();
+    }
+
+    /**
+     * Write the Error Response
+     * @param response
+     * @param status
+     * @param message
+     * @throws IOException
+     */
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        String errorPrefix = (serviceConfig != null) ? serviceConfig.getServiceApiErrorPrefix() : "AKH";
+        StandardResponse error = Utils.createErrorResponse(null, errorPrefix, String.valueOf(status.value()),
+                status, message);
+        response.setStatus(status.value());
+        response.setContentType("application/json");
+        PrintWriter out = response.getWriter();
+        out.write(Utils.toJsonString(error));
+        out.flush();
+    }
+
+    /**
+     * SHA-256 (Hex)
+     * @param data
+     * @return
+     */
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Request with the Body already read (Replays the Body for the Controllers)
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    (encoding != null) ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
@@ -16,7 +16,7 @@
 package io.fusion.air.microservice.adapters.filters;
 // Custom
 import io.fusion.air.microservice.server.config.ServiceConfig;
-import io.fusion.air.microservice.utils.CPU;
+import io.fusion.air.microservice.server.service.SystemStatsSampler;
 // Spring
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
@@ -45,13 +45,16 @@ public class LogFilter implements Filter {
 
     // Autowired using Constructor
     private final ServiceConfig serviceConfig;
+    private final SystemStatsSampler statsSampler;
 
     /**
      * Autowired using Constructor
      * @param serviceCfg
+     * @param statsSampler
      */
-    public LogFilter(ServiceConfig serviceCfg) {
+    public LogFilter(ServiceConfig serviceCfg, SystemStatsSampler statsSampler) {
         serviceConfig = serviceCfg;
+        this.statsSampler = statsSampler;
     }
 
     @Override
@@ -63,8 +66,8 @@ public class LogFilter implements Filter {
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         HttpServletResponse response = (HttpServletResponse) servletResponse;
 
-        String s = CPU.printCpuStats();
-        log.info("1|LF|TIME=|STATUS=INIT|CLASS={}", s);
+        // Latest Snapshot of the Sampler (No MX Bean Calls in the Request Thread)
+        log.info("1|LF|TIME=|STATUS=INIT|CLASS={}", statsSampler.latest().summary());
 
         filterChain.doFilter(request, response);
 
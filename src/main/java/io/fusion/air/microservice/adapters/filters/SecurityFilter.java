@@ -17,11 +17,12 @@ package io.fusion.air.microservice.adapters.filters;
 // Custom
 import io.fusion.air.microservice.domain.models.core.StandardResponse;
 import io.fusion.air.microservice.server.config.ServiceConfig;
+import io.fusion.air.microservice.utils.CookieTemplate;
+import io.fusion.air.microservice.utils.RequestIds;
 import io.fusion.air.microservice.utils.Utils;
 // Spring
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.web.firewall.RequestRejectedException;
 import org.springframework.stereotype.Component;
@@ -34,7 +35,6 @@ import org.slf4j.Logger;
 import org.slf4j.MDC;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.UUID;
 
 import static java.lang.invoke.MethodHandles.lookup;
 import static org.slf4j.LoggerFactory.getLogger;
@@ -61,6 +61,8 @@ public class SecurityFilter extends OncePerRequestFilter {
     private final ServiceConfig serviceConfig;
 
     private static final String COOKIE = "Set-Cookie";
+    // Session Cookie Header built once, the Session Id and the Path are spliced in
+    private static final CookieTemplate SESSION_COOKIE = new CookieTemplate("JSESSIONID", 3000);
 
     /**
      * Autowired using constructor
@@ -83,11 +85,10 @@ public class SecurityFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterchain) throws ServletException, IOException {
         try {
-            HttpHeaders headers = Utils.createSecureCookieHeaders("JSESSIONID", UUID.randomUUID().toString(), 3000);
-            Object o = headers.getFirst(COOKIE);
-            log.info("1|SF|TIME=|STATUS=INIT|CLASS=| Security Filter invoked {} ", o);
+            String cookie = SESSION_COOKIE.header(MDC.get("URI"), RequestIds.sessionId().toString());
+            log.info("1|SF|TIME=|STATUS=INIT|CLASS=| Security Filter invoked {} ", cookie);
             filterchain.doFilter(request, response);
-            response.setHeader(COOKIE, headers.getFirst(COOKIE));
+            response.setHeader(COOKIE, cookie);
             // Return the Headers
             HeaderManager.returnHeaders(request, response);
         } catch (RequestRejectedException e ) {
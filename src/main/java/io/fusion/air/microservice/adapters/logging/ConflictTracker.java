@@ -0,0 +1,279 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging;
+// Custom
+import io.fusion.air.microservice.server.config.ConflictRetryConfig;
+// Micrometer
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+// Spring
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+// Other
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+// Logging
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Optimistic Lock Conflict Tracker
+ *
+ * Counts the Conflicts per Entity Id (Row) and exports the Top N Hot Rows of the last Interval as the
+ * Gauge db.conflict.hot.rows {entity, id}. Only the Top N Rows are exported to keep the Tag cardinality
+ * bounded. Also holds the Retry Budget (Token Bucket) used by the @RetryOnConflict Aspect.
+ *
+ *  1. db.conflict.total      {entity, method}  = Version Conflicts
+ *  2. db.conflict.retries    {method}          = Retries Attempted
+ *  3. db.conflict.recovered  {method}          = Calls that Succeeded after a Retry
+ *  4. db.conflict.exhausted  {method, reason}  = Calls Failed (reason = attempts | budget)
+ *  5. db.conflict.retry.budget                 = Retries Available in the Budget
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class ConflictTracker {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Max Rows tracked in an Interval
+    private static final int MAX_ROWS = 10_000;
+    // Budget Tokens are kept in Milli Tokens (1 Retry = 1000)
+    private static final long TOKEN = 1000L;
+
+    // Autowired using the Constructor
+    private final MeterRegistry meterRegistry;
+    private final ConflictRetryConfig retryConfig;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile ConcurrentHashMap<RowKey, LongAdder> rows = new ConcurrentHashMap<>();
+    private volatile List<HotRow> hotRows = List.of();
+    private final MultiGauge hotRowsGauge;
+
+    // Retry Budget
+    private final long deposit;
+    private final long capacity;
+    private final long refillPerSecond;
+    private long tokens;
+    private long lastRefill;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Autowired using the Constructor
+     * @param meterReg
+     * @param retryConfig
+     */
+    public ConflictTracker(MeterRegistry meterReg, ConflictRetryConfig retryConfig) {
+        this.meterRegistry = meterReg;
+        this.retryConfig = retryConfig;
+        this.deposit = Math.max(0L, Math.round(retryConfig.getBudgetRatio() * TOKEN));
+        this.refillPerSecond = Math.max(0L, retryConfig.getBudgetMin() * TOKEN);
+        // Up to 10 Seconds of the Min Retries can be saved up
+        this.capacity = Math.max(TOKEN, refillPerSecond * 10);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+        this.hotRowsGauge = MultiGauge.builder("db.conflict.hot.rows")
+                .description("Optimistic Lock Conflicts per Row in the last Interval (Top N)")
+                .register(meterReg);
+        Gauge.builder("db.conflict.retry.budget", this, ConflictTracker::availableRetries)
+                .description("Retries Available in the Retry Budget")
+                .register(meterReg);
+    }
+
+    /**
+     * Start the Hot Rows Refresh
+     */
+    @PostConstruct
+    public void start() {
+        long interval = Math.max(1L, retryConfig.getHotRowsInterval());
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "conflict-tracker");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshHotRows, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the Hot Rows Refresh
+     */
+    @PreDestroy
+    public void stop() {
+        if(scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Record a Call (Deposits into the Retry Budget)
+     */
+    public synchronized void recordCall() {
+        tokens = Math.min(capacity, tokens + deposit);
+    }
+
+    /**
+     * Withdraw a Retry from the Budget
+     * @return false if the Budget is exhausted
+     */
+    public synchronized boolean tryAcquireRetry() {
+        long now = System.nanoTime();
+        long refill = (now - lastRefill) * refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        if(refill > 0) {
+            tokens = Math.min(capacity, tokens + refill);
+            lastRefill = now;
+        }
+        if(tokens < TOKEN) {
+            return false;
+        }
+        tokens -= TOKEN;
+        return true;
+    }
+
+    /**
+     * Returns the Retries Available in the Budget
+     * @return
+     */
+    public synchronized double availableRetries() {
+        return (double) tokens / TOKEN;
+    }
+
+    /**
+     * Record a Version Conflict on the Row
+     * @param entity
+     * @param id
+     * @param method
+     */
+    public void recordConflict(String entity, Object id, String method) {
+        counter("db.conflict.total", "entity", entity, "method", method).increment();
+        if(id == null) {
+            return;
+        }
+        RowKey row = new RowKey(entity, id.toString());
+        ConcurrentHashMap<RowKey, LongAdder> current = rows;
+        LongAdder count = current.get(row);
+        if(count == null) {
+            if(current.size() >= MAX_ROWS) {
+                return;
+            }
+            count = current.computeIfAbsent(row, k -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /**
+     * Record a Retry
+     * @param method
+     */
+    public void recordRetry(String method) {
+        counter("db.conflict.retries", "method", method).increment();
+    }
+
+    /**
+     * Record a Call Succeeded after Retries
+     * @param method
+     */
+    public void recordRecovered(String method) {
+        counter("db.conflict.recovered", "method", method).increment();
+    }
+
+    /**
+     * Record a Call Failed after the Retries (reason = attempts | budget)
+     * @param method
+     * @param reason
+     */
+    public void recordExhausted(String method, String reason) {
+        counter("db.conflict.exhausted", "method", method, "reason", reason).increment();
+    }
+
+    /**
+     * Returns the Hot Rows (Top N) of the last Interval
+     * @return
+     */
+    public List<HotRow> getHotRows() {
+        return hotRows;
+    }
+
+    /**
+     * Publish the Top N Rows of the Interval and start a new Interval
+     */
+    protected void refreshHotRows() {
+        try {
+            ConcurrentHashMap<RowKey, LongAdder> interval = rows;
+            rows = new ConcurrentHashMap<>();
+            List<HotRow> top = new ArrayList<>();
+            interval.entrySet().stream()
+                    .map(e -> new HotRow(e.getKey().entity(), e.getKey().id(), e.getValue().sum()))
+                    .sorted(Comparator.comparingLong(HotRow::conflicts).reversed())
+                    .limit(Math.max(0, retryConfig.getHotRowsTop()))
+                    .forEach(top::add);
+            hotRows = Collections.unmodifiableList(top);
+            List<MultiGauge.Row<?>> gaugeRows = new ArrayList<>();
+            for(HotRow row : top) {
+                gaugeRows.add(MultiGauge.Row.of(Tags.of("entity", row.entity(), "id", row.id()), row.conflicts()));
+            }
+            hotRowsGauge.register(gaugeRows, true);
+            if(!top.isEmpty()) {
+                log.info("Hot Rows (Optimistic Lock Conflicts) = {} ", top);
+            }
+        } catch (Exception e) {
+            log.error("Unable to refresh the Hot Rows {} ", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the Counter (Cached)
+     * @param name
+     * @param tags
+     * @return
+     */
+    private Counter counter(String name, String... tags) {
+        String key = name + "|" + String.join("|", tags);
+        return counters.computeIfAbsent(key, k -> meterRegistry.counter(name, tags));
+    }
+
+    /**
+     * Row (Entity + Id) with the Conflicts in the Interval
+     * @param entity
+     * @param id
+     * @param conflicts
+     */
+    public record HotRow(String entity, String id, long conflicts) {
+    }
+
+    /**
+     * Row Key (Entity + Id)
+     * @param entity
+     * @param id
+     */
+    private record RowKey(String entity, String id) {
+    }
+}
@@ -0,0 +1,258 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging.sql;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Instrumented DataSource (JDBC Proxy)
+ *
+ * Wraps the DataSource, Connection, Statement and ResultSet with JDK Dynamic Proxies to measure the
+ * execution time of every Statement, capture the Bind Values and count the Rows returned.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class InstrumentedDataSource {
+
+    private InstrumentedDataSource() {
+    }
+
+    /**
+     * Wrap the DataSource
+     * @param ds
+     * @param recorder
+     * @return
+     */
+    public static DataSource wrap(DataSource ds, SqlStatsRecorder recorder) {
+        return proxy(DataSource.class, ds, (proxy, method, args) -> {
+            Object result = invoke(ds, method, args);
+            if(result instanceof Connection con) {
+                return wrapConnection(con, recorder);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Wrap the Connection
+     * @param con
+     * @param recorder
+     * @return
+     */
+    private static Connection wrapConnection(Connection con, SqlStatsRecorder recorder) {
+        return proxy(Connection.class, con, (proxy, method, args) -> {
+            Object result = invoke(con, method, args);
+            if(result instanceof Statement stmt && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // prepareStatement / prepareCall has the SQL as the first argument
+                String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : null;
+                return wrapStatement(stmt, method.getReturnType(), sql, recorder);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Wrap the Statement / PreparedStatement / CallableStatement
+     * @param stmt
+     * @param type
+     * @param sql
+     * @param recorder
+     * @return
+     */
+    private static Object wrapStatement(Statement stmt, Class<?> type, String sql, SqlStatsRecorder recorder) {
+        StatementHandler handler = new StatementHandler(stmt, sql, recorder);
+        return Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> (method.getDeclaringClass() == Object.class)
+                        ? objectMethod(proxy, stmt, method, args)
+                        : handler.invoke(proxy, method, args));
+    }
+
+    /**
+     * Statement Invocation Handler
+     */
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement stmt;
+        private final String preparedSql;
+        private final SqlStatsRecorder recorder;
+        private Object[] bindValues = new Object[0];
+        // Execution of the last execute() - Rows are read from getResultSet / getUpdateCount
+        private SqlStatsRecorder.Execution lastExecution;
+
+        private StatementHandler(Statement stmt, String preparedSql, SqlStatsRecorder recorder) {
+            this.stmt = stmt;
+            this.preparedSql = preparedSql;
+            this.recorder = recorder;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if(name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+                return InstrumentedDataSource.invoke(stmt, method, args);
+            }
+            if(name.equals("clearParameters")) {
+                bindValues = new Object[0];
+                return InstrumentedDataSource.invoke(stmt, method, args);
+            }
+            if(!name.startsWith("execute")) {
+                Object result = InstrumentedDataSource.invoke(stmt, method, args);
+                if(lastExecution != null) {
+                    if(result instanceof ResultSet rs && name.equals("getResultSet")) {
+                        return wrapResultSet(rs, takeExecution());
+                    }
+                    if(result instanceof Integer count && count >= 0 && name.equals("getUpdateCount")) {
+                        takeExecution().rows(count);
+                    }
+                }
+                return result;
+            }
+            // Statement.execute(sql) / PreparedStatement.execute()
+            String sql = (args != null && args.length > 0 && args[0] instanceof String s) ? s : preparedSql;
+            lastExecution = null;
+            long start = System.nanoTime();
+            Object result = InstrumentedDataSource.invoke(stmt, method, args);
+            long nanos = System.nanoTime() - start;
+            if(sql == null) {
+                return result;
+            }
+            SqlStatsRecorder.Execution execution = recorder.record(sql, nanos,
+                    (preparedSql != null) ? bindValues.clone() : null);
+            if(result instanceof Boolean) {
+                // execute() - the ResultSet / Update Count is read after the Call
+                lastExecution = execution;
+                return result;
+            }
+            if(result instanceof ResultSet rs) {
+                return wrapResultSet(rs, execution);
+            }
+            if(result instanceof Integer count) {
+                execution.rows(count);
+            } else if(result instanceof Long count) {
+                execution.rows(count);
+            } else if(result instanceof int[] counts) {
+                execution.rows(Arrays.stream(counts).filter(c -> c > 0).sum());
+            } else if(result instanceof long[] counts) {
+                execution.rows(Arrays.stream(counts).filter(c -> c > 0).sum());
+            }
+            return result;
+        }
+
+        /**
+         * Returns the Execution of the last execute() once (Rows are recorded only once)
+         * @return
+         */
+        private SqlStatsRecorder.Execution takeExecution() {
+            SqlStatsRecorder.Execution execution = lastExecution;
+            lastExecution = null;
+            return execution;
+        }
+
+        private void bind(int index, Object value) {
+            if(index > bindValues.length) {
+                bindValues = Arrays.copyOf(bindValues, index);
+            }
+            bindValues[index - 1] = value;
+        }
+    }
+
+    /**
+     * Wrap the ResultSet to count the Rows
+     * @param rs
+     * @param execution
+     * @return
+     */
+    private static ResultSet wrapResultSet(ResultSet rs, SqlStatsRecorder.Execution execution) {
+        if(execution == null) {
+            return rs;
+        }
+        long[] rows = new long[1];
+        boolean[] closed = new boolean[1];
+        return proxy(ResultSet.class, rs, (proxy, method, args) -> {
+            Object result = invoke(rs, method, args);
+            String name = method.getName();
+            if(name.equals("next") && Boolean.TRUE.equals(result)) {
+                rows[0]++;
+            } else if(name.equals("close") && !closed[0]) {
+                closed[0] = true;
+                execution.rows(rows[0]);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Create the Proxy
+     * @param type
+     * @param target
+     * @param handler
+     * @return
+     * @param <T>
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> (method.getDeclaringClass() == Object.class)
+                        ? objectMethod(proxy, target, method, args)
+                        : handler.invoke(proxy, method, args));
+    }
+
+    /**
+     * Identity based equals and hashCode for the Proxy (Hibernate keeps the Statements in a HashMap)
+     * @param proxy
+     * @param target
+     * @param method
+     * @param args
+     * @return
+     * @throws Throwable
+     */
+    private static Object objectMethod(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return invoke(target, method, args);
+        }
+    }
+
+    /**
+     * Invoke the Target and unwrap the InvocationTargetException
+     * @param target
+     * @param method
+     * @param args
+     * @return
+     * @throws Throwable
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
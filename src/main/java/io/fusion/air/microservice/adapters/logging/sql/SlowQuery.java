@@ -0,0 +1,174 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging.sql;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Slow Query captured by the SqlStatsRecorder
+ *
+ * Only the Bind Parameter Shape (Position:Type) is exposed. The Bind Values are kept in memory
+ * to run the EXPLAIN on demand and are never serialized.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public class SlowQuery implements Comparable<SlowQuery> {
+
+    private final long id;
+    private final String shape;
+    private final String sql;
+    private final String paramShape;
+    private final long durationNanos;
+    private final long timestamp;
+    private final String thread;
+    @JsonIgnore
+    private final Object[] bindValues;
+    private volatile long rows = -1;
+    private volatile String explain;
+
+    /**
+     * Create Slow Query
+     * @param id
+     * @param shape
+     * @param sql
+     * @param paramShape
+     * @param durationNanos
+     * @param bindValues
+     */
+    public SlowQuery(long id, String shape, String sql, String paramShape, long durationNanos, Object[] bindValues) {
+        this.id = id;
+        this.shape = shape;
+        this.sql = sql;
+        this.paramShape = paramShape;
+        this.durationNanos = durationNanos;
+        this.bindValues = bindValues;
+        this.timestamp = System.currentTimeMillis();
+        this.thread = Thread.currentThread().getName();
+    }
+
+    /**
+     * Slow Query ID
+     * @return
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Normalized SQL
+     * @return
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    /**
+     * SQL (with the ? Place Holders)
+     * @return
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Bind Parameter Shape Ex. 1:String, 2:BigDecimal
+     * @return
+     */
+    public String getParamShape() {
+        return paramShape;
+    }
+
+    /**
+     * Execution Time in Milli Seconds
+     * @return
+     */
+    public double getDurationMs() {
+        return durationNanos / 1_000_000.0;
+    }
+
+    /**
+     * Rows Returned / Updated (-1 if not known)
+     * @return
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Set the Rows Returned
+     * @param rows
+     */
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Captured Time
+     * @return
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Thread Name
+     * @return
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * Explain Plan (Captured on demand)
+     * @return
+     */
+    public String getExplain() {
+        return explain;
+    }
+
+    /**
+     * Set the Explain Plan
+     * @param explain
+     */
+    public void setExplain(String explain) {
+        this.explain = explain;
+    }
+
+    /**
+     * Bind Values (for the EXPLAIN)
+     * @return
+     */
+    @JsonIgnore
+    public Object[] getBindValues() {
+        return bindValues;
+    }
+
+    /**
+     * Returns the Duration in Nano Seconds
+     * @return
+     */
+    @JsonIgnore
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public int compareTo(SlowQuery other) {
+        return Long.compare(durationNanos, other.durationNanos);
+    }
+}
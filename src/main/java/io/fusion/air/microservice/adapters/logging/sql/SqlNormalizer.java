@@ -0,0 +1,92 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging.sql;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * SQL Normalizer
+ *
+ * Converts the SQL into a Statement Shape (used as the Metric Tag) by removing the comments and literals,
+ * collapsing the IN lists and the white spaces. Hibernate generates a finite set of SQL Statements, so the
+ * normalized value is cached by the raw SQL.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class SqlNormalizer {
+
+    private static final int MAX_LENGTH = 256;
+    private static final int MAX_CACHE = 2000;
+
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern STRINGS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBERS = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private SqlNormalizer() {
+    }
+
+    /**
+     * Returns the Normalized SQL (Statement Shape)
+     * @param sql
+     * @return
+     */
+    public static String normalize(String sql) {
+        if(sql == null) {
+            return "";
+        }
+        String shape = cache.get(sql);
+        if(shape != null) {
+            return shape;
+        }
+        String s = COMMENTS.matcher(sql).replaceAll(" ");
+        s = STRINGS.matcher(s).replaceAll("?");
+        s = NUMBERS.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?)");
+        s = SPACES.matcher(s).replaceAll(" ").trim().toLowerCase();
+        if(s.length() > MAX_LENGTH) {
+            s = s.substring(0, MAX_LENGTH);
+        }
+        if(cache.size() >= MAX_CACHE) {
+            cache.clear();
+        }
+        cache.put(sql, s);
+        return s;
+    }
+
+    /**
+     * Returns the Statement Type (select, insert, update, delete, other)
+     * @param shape
+     * @return
+     */
+    public static String statementType(String shape) {
+        int end = shape.indexOf(' ');
+        String type = (end > 0) ? shape.substring(0, end) : shape;
+        switch (type) {
+            case "select", "insert", "update", "delete", "merge", "with":
+                return type;
+            default:
+                return "other";
+        }
+    }
+}
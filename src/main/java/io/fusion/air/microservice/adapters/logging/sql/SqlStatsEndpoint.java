@@ -0,0 +1,82 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging.sql;
+// Spring
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+// Java
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator Endpoint for the SQL Statistics
+ *
+ * GET    /actuator/sqlstats          Latency & Rows per Statement Shape and the Slow Queries
+ * GET    /actuator/sqlstats/{id}     Slow Query with the EXPLAIN Plan (captured on demand)
+ * DELETE /actuator/sqlstats          Clear the Slow Queries
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+
+    // Autowired using the Constructor
+    private final SqlStatsRecorder recorder;
+
+    /**
+     * Autowired using the Constructor
+     * @param recorder
+     */
+    public SqlStatsEndpoint(SqlStatsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Returns the Statement Shapes and the Slow Queries
+     * @return
+     */
+    @ReadOperation
+    public Map<String, Object> sqlStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statements", recorder.getShapeStats());
+        stats.put("slowQueries", recorder.getSlowQueries());
+        return stats;
+    }
+
+    /**
+     * Returns the Slow Query with the EXPLAIN Plan
+     * @param id
+     * @return
+     */
+    @ReadOperation
+    public SlowQuery explain(@Selector long id) {
+        return recorder.explain(id).orElse(null);
+    }
+
+    /**
+     * Clear the Slow Queries
+     */
+    @DeleteOperation
+    public void clear() {
+        recorder.clearSlowQueries();
+    }
+}
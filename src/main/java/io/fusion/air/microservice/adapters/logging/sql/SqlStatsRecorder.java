@@ -0,0 +1,329 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging.sql;
+// Custom
+import io.fusion.air.microservice.server.config.DatabaseConfig;
+// Micrometer
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+// Spring
+import org.springframework.stereotype.Component;
+// Java
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+// Logging
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * SQL Statistics Recorder
+ *
+ * Records the Latency Histogram (db.sql.statement) and the Rows (db.sql.rows) per Statement Shape.
+ * The number of Shapes is bounded (db.sql.stats.max.shapes), statements beyond the limit are recorded
+ * under the shape "other". The slowest N Statements (above the threshold) are kept for analysis.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class SqlStatsRecorder {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    public static final String OTHER = "other";
+
+    /**
+     * Statistics of a Statement Shape
+     */
+    public static final class ShapeStats {
+        private final String shape;
+        private final String type;
+        private final Timer timer;
+        private final DistributionSummary rows;
+        // Cumulative Totals for the Endpoint (Registry Values depend on the Exporter Step / Temporality)
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder totalRows = new LongAdder();
+        private final AtomicLong maxRows = new AtomicLong();
+
+        private ShapeStats(String shape, MeterRegistry registry) {
+            this.shape = shape;
+            this.type = SqlNormalizer.statementType(shape);
+            this.timer = Timer.builder("db.sql.statement")
+                    .tag("sql", shape)
+                    .tag("type", type)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            this.rows = DistributionSummary.builder("db.sql.rows")
+                    .tag("sql", shape)
+                    .tag("type", type)
+                    .register(registry);
+        }
+
+        private void record(long nanos) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void recordRows(long rowCount) {
+            rows.record(rowCount);
+            totalRows.add(rowCount);
+            maxRows.accumulateAndGet(rowCount, Math::max);
+        }
+
+        /**
+         * Returns the Statistics as a Map
+         * @return
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", shape);
+            map.put("type", type);
+            long executions = count.sum();
+            long total = totalNanos.sum();
+            map.put("count", executions);
+            map.put("totalMs", toMillis(total));
+            map.put("meanMs", executions > 0 ? toMillis(total / executions) : 0.0);
+            map.put("maxMs", toMillis(maxNanos.get()));
+            map.put("rows", totalRows.sum());
+            map.put("maxRows", maxRows.get());
+            return map;
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+
+    /**
+     * Execution of a Statement (Rows are recorded when the ResultSet is closed)
+     */
+    public static final class Execution {
+        private final ShapeStats stats;
+        private final SlowQuery slowQuery;
+
+        private Execution(ShapeStats stats, SlowQuery slowQuery) {
+            this.stats = stats;
+            this.slowQuery = slowQuery;
+        }
+
+        /**
+         * Record the Rows Returned / Updated
+         * @param rows
+         */
+        public void rows(long rows) {
+            if(rows < 0) {
+                return;
+            }
+            stats.recordRows(rows);
+            if(slowQuery != null) {
+                slowQuery.setRows(rows);
+            }
+        }
+    }
+
+    // Autowired using the Constructor
+    private final MeterRegistry meterRegistry;
+    private final DatabaseConfig dbConfig;
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final PriorityQueue<SlowQuery> slowQueries = new PriorityQueue<>();
+    private final AtomicLong slowQueryId = new AtomicLong();
+    private final long slowThresholdNanos;
+    // Minimum Duration to enter the Slow Queries (Threshold or the Fastest of the Slow Queries)
+    private volatile long slowFloorNanos;
+    private DataSource dataSource;
+
+    /**
+     * Autowired using the Constructor
+     * @param meterReg
+     * @param dbConfig
+     */
+    public SqlStatsRecorder(MeterRegistry meterReg, DatabaseConfig dbConfig) {
+        this.meterRegistry = meterReg;
+        this.dbConfig = dbConfig;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(dbConfig.getSqlSlowThreshold());
+        this.slowFloorNanos = slowThresholdNanos;
+    }
+
+    /**
+     * Wrap the DataSource to record the SQL Statistics
+     * @param ds
+     * @return
+     */
+    public DataSource instrument(DataSource ds) {
+        if(!dbConfig.isSqlStatsEnabled()) {
+            return ds;
+        }
+        this.dataSource = ds;
+        log.info("DB-SQL Stats Enabled: Max Shapes = {} Slow Queries = {} Threshold = {} ms ",
+                dbConfig.getSqlStatsMaxShapes(), dbConfig.getSqlSlowSize(), dbConfig.getSqlSlowThreshold());
+        return InstrumentedDataSource.wrap(ds, this);
+    }
+
+    /**
+     * Record the Statement Execution
+     * @param sql
+     * @param nanos
+     * @param bindValues
+     * @return
+     */
+    public Execution record(String sql, long nanos, Object[] bindValues) {
+        String shape = SqlNormalizer.normalize(sql);
+        ShapeStats stats = shapes.get(shape);
+        if(stats == null) {
+            stats = (shapes.size() < dbConfig.getSqlStatsMaxShapes())
+                    ? shapes.computeIfAbsent(shape, s -> new ShapeStats(s, meterRegistry))
+                    : shapes.computeIfAbsent(OTHER, s -> new ShapeStats(s, meterRegistry));
+        }
+        stats.record(nanos);
+        SlowQuery slowQuery = null;
+        if(nanos >= slowFloorNanos) {
+            slowQuery = addSlowQuery(shape, sql, nanos, bindValues);
+        }
+        return new Execution(stats, slowQuery);
+    }
+
+    /**
+     * Returns the Statistics of all the Statement Shapes (Slowest Total Time First)
+     * @return
+     */
+    public List<Map<String, Object>> getShapeStats() {
+        List<Map<String, Object>> list = new ArrayList<>();
+        shapes.values().stream()
+                .sorted(Comparator.comparingLong((ShapeStats s) -> s.totalNanos.sum()).reversed())
+                .forEach(s -> list.add(s.toMap()));
+        return list;
+    }
+
+    /**
+     * Returns the Slow Queries (Slowest First)
+     * @return
+     */
+    public List<SlowQuery> getSlowQueries() {
+        List<SlowQuery> list;
+        synchronized (slowQueries) {
+            list = new ArrayList<>(slowQueries);
+        }
+        list.sort(Comparator.reverseOrder());
+        return list;
+    }
+
+    /**
+     * Clear the Slow Queries
+     */
+    public void clearSlowQueries() {
+        synchronized (slowQueries) {
+            slowQueries.clear();
+            slowFloorNanos = slowThresholdNanos;
+        }
+    }
+
+    /**
+     * Run the EXPLAIN for the Slow Query (SELECT Only) and cache the Plan in the Slow Query
+     * @param id
+     * @return
+     */
+    public Optional<SlowQuery> explain(long id) {
+        Optional<SlowQuery> slowQuery = getSlowQueries().stream().filter(q -> q.getId() == id).findFirst();
+        if(slowQuery.isEmpty() || slowQuery.get().getExplain() != null || dataSource == null) {
+            return slowQuery;
+        }
+        SlowQuery query = slowQuery.get();
+        if(!"select".equals(SqlNormalizer.statementType(query.getShape()))) {
+            query.setExplain("EXPLAIN is supported only for SELECT Statements");
+            return slowQuery;
+        }
+        // Uses the Raw DataSource (The EXPLAIN is NOT recorded)
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("EXPLAIN " + query.getSql())) {
+            con.setReadOnly(true);
+            Object[] values = query.getBindValues();
+            for(int i=0; values != null && i < values.length; i++) {
+                ps.setObject(i+1, values[i]);
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append("\n");
+                }
+            }
+            query.setExplain(plan.toString().trim());
+        } catch (SQLException e) {
+            query.setExplain("EXPLAIN Failed: "+e.getMessage());
+        }
+        return slowQuery;
+    }
+
+    /**
+     * Add the Statement to the Slow Queries (Keeps the Slowest N)
+     * @param shape
+     * @param sql
+     * @param nanos
+     * @param bindValues
+     * @return
+     */
+    private SlowQuery addSlowQuery(String shape, String sql, long nanos, Object[] bindValues) {
+        int maxSize = dbConfig.getSqlSlowSize();
+        synchronized (slowQueries) {
+            if(slowQueries.size() >= maxSize) {
+                if(nanos <= slowQueries.peek().getDurationNanos()) {
+                    return null;
+                }
+                slowQueries.poll();
+            }
+            SlowQuery query = new SlowQuery(slowQueryId.incrementAndGet(), shape, sql,
+                    paramShape(bindValues), nanos, bindValues);
+            slowQueries.add(query);
+            if(slowQueries.size() >= maxSize) {
+                slowFloorNanos = Math.max(slowThresholdNanos, slowQueries.peek().getDurationNanos());
+            }
+            return query;
+        }
+    }
+
+    /**
+     * Returns the Bind Parameter Shape Ex. 1:String, 2:BigDecimal
+     * @param bindValues
+     * @return
+     */
+    private static String paramShape(Object[] bindValues) {
+        if(bindValues == null || bindValues.length == 0) {
+            return "";
+        }
+        StringJoiner shape = new StringJoiner(", ");
+        for(int i=0; i<bindValues.length; i++) {
+            Object v = bindValues[i];
+            shape.add((i+1) + ":" + (v == null ? "null" : v.getClass().getSimpleName()));
+        }
+        return shape.toString();
+    }
+}
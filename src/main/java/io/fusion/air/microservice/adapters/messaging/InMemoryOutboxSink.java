@@ -0,0 +1,97 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.messaging;
+// Custom
+import io.fusion.air.microservice.domain.models.core.OutboxMessage;
+import io.fusion.air.microservice.domain.ports.services.OutboxSink;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+// Spring
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+// Java
+import java.util.*;
+
+/**
+ * In-Memory Outbox Sink (Stand-in for Kafka in Development and Tests)
+ * Keeps the last N (outbox.memory.capacity) Messages in the Delivery Order.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = OutboxConfig.SINK_MEMORY, matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    /**
+     * Autowired using the Constructor
+     * @param outboxConfig
+     */
+    public InMemoryOutboxSink(OutboxConfig outboxConfig) {
+        this.capacity = Math.max(1, outboxConfig.getMemoryCapacity());
+    }
+
+    /**
+     * Returns the Sink Name
+     * @return
+     */
+    @Override
+    public String name() {
+        return OutboxConfig.SINK_MEMORY;
+    }
+
+    /**
+     * Store the Batch and Acknowledge all the Messages
+     * @param batch
+     * @return
+     */
+    @Override
+    public Set<Long> publish(List<OutboxMessage> batch) {
+        Set<Long> acked = new HashSet<>(batch.size() * 2);
+        synchronized (messages) {
+            for(OutboxMessage message : batch) {
+                if(messages.size() == capacity) {
+                    messages.removeFirst();
+                }
+                messages.addLast(message);
+                acked.add(message.id());
+            }
+        }
+        return acked;
+    }
+
+    /**
+     * Returns the Messages in the Delivery Order
+     * @return
+     */
+    public List<OutboxMessage> getMessages() {
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
+    }
+
+    /**
+     * Clear the Messages
+     */
+    public void clear() {
+        synchronized (messages) {
+            messages.clear();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.messaging;
+// Custom
+import io.fusion.air.microservice.adapters.service.OrderSummaryReadModel;
+import io.fusion.air.microservice.adapters.service.OutboxWriter;
+import io.fusion.air.microservice.domain.entities.order.OrderStateHistoryEntity;
+import io.fusion.air.microservice.domain.events.OrderArchivedEvent;
+import io.fusion.air.microservice.domain.events.OrderChangedEvent;
+import io.fusion.air.microservice.server.config.OrderReadModelConfig;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+// Spring
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Component;
+// Kafka
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+// Other
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Kafka Order Summary Consumer
+ *
+ * Feeds the Order Summary Read Model of this Instance from the Outbox Topic, so the Changes committed
+ * on the other Instances are visible here. Every Instance has its own Consumer Group (Prefix + Instance Id)
+ * and starts at the Latest Offset before the Read Model is rebuilt, the Order Version decides which
+ * Update wins. Only the OrderSummaryChanged, OrderStateChanged and OrderArchived Events are read, the
+ * others are skipped using the Event Type Header.
+ *
+ * Metrics
+ * orders.read.model.consumed{event}
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = OutboxConfig.SINK_KAFKA)
+public class KafkaOrderSummaryConsumer implements MessageListener<String, String> {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final OutboxConfig outboxConfig;
+    private final OrderReadModelConfig readModelConfig;
+    private final OrderSummaryReadModel readModel;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private KafkaMessageListenerContainer<String, String> container;
+
+    /**
+     * Autowired using the Constructor
+     * @param outboxConfig
+     * @param readModelConfig
+     * @param readModel
+     * @param mapper
+     * @param meterReg
+     */
+    public KafkaOrderSummaryConsumer(OutboxConfig outboxConfig, OrderReadModelConfig readModelConfig,
+                                     OrderSummaryReadModel readModel, ObjectMapper mapper, MeterRegistry meterReg) {
+        this.outboxConfig = outboxConfig;
+        this.readModelConfig = readModelConfig;
+        this.readModel = readModel;
+        this.objectMapper = mapper;
+        this.meterRegistry = meterReg;
+    }
+
+    /**
+     * Start the Consumer (before the Read Model is rebuilt at the Application Ready)
+     */
+    @PostConstruct
+    public void start() {
+        if(!readModelConfig.isReadModelEnabled()) {
+            return;
+        }
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, outboxConfig.getKafkaBootstrapServers());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        ContainerProperties containerProps = new ContainerProperties(outboxConfig.getKafkaTopic());
+        containerProps.setGroupId(readModelConfig.getKafkaGroup() + "-" + UUID.randomUUID());
+        containerProps.setMessageListener(this);
+        container = new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(props), containerProps);
+        container.start();
+        log.info("Order Read Model consuming the Outbox Topic {}", outboxConfig.getKafkaTopic());
+    }
+
+    /**
+     * Stop the Consumer
+     */
+    @PreDestroy
+    public void stop() {
+        if(container != null) {
+            container.stop();
+        }
+    }
+
+    /**
+     * Apply the Order Summary Changes and Evictions to the Read Model
+     * @param consumerRecord
+     */
+    @Override
+    public void onMessage(ConsumerRecord<String, String> consumerRecord) {
+        Header header = consumerRecord.headers().lastHeader(KafkaOutboxSink.HEADER_EVENT_TYPE);
+        String eventType = (header != null) ? new String(header.value(), StandardCharsets.UTF_8) : null;
+        try {
+            if(OutboxWriter.ORDER_SUMMARY_CHANGED.equals(eventType)) {
+                readModel.apply(objectMapper.readValue(consumerRecord.value(), OrderChangedEvent.class).toSummary());
+            } else if(OutboxWriter.ORDER_STATE_CHANGED.equals(eventType)) {
+                // The Record Key is the Order Id, the Record Time is the Time of the Transition
+                OrderStateHistoryEntity transition = objectMapper.readValue(consumerRecord.value(), OrderStateHistoryEntity.class);
+                readModel.applyTransition(UUID.fromString(consumerRecord.key()), transition.getTargetState(),
+                        transition.getResult(), consumerRecord.timestamp(), transition.getOrderVersion());
+            } else if(OutboxWriter.ORDER_ARCHIVED.equals(eventType)) {
+                readModel.evict(objectMapper.readValue(consumerRecord.value(), OrderArchivedEvent.class).orderId());
+            } else {
+                return;
+            }
+            meterRegistry.counter("orders.read.model.consumed", "event", eventType).increment();
+        } catch (Exception e) {
+            log.warn("Order Read Model skipped the Event {} of {}! {}", eventType, consumerRecord.key(), e.getMessage());
+        }
+    }
+}
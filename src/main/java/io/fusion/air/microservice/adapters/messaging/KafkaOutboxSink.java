@@ -0,0 +1,144 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.messaging;
+// Custom
+import io.fusion.air.microservice.domain.models.core.OutboxMessage;
+import io.fusion.air.microservice.domain.ports.services.OutboxSink;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+// Spring
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+// Kafka
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+// Java
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Kafka Outbox Sink
+ *
+ * The Aggregate Id is the Record Key, so the Events of an Aggregate go to the same Partition in
+ * the Outbox Order. The Producer is Idempotent (acks=all) and compresses the Record Batches
+ * (outbox.kafka.compression). The Idempotency Key, Event Type, Aggregate Type and Aggregate Version
+ * are sent as Headers.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = OutboxConfig.SINK_KAFKA)
+public class KafkaOutboxSink implements OutboxSink {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    public static final String HEADER_IDEMPOTENCY_KEY = "idempotency-key";
+    public static final String HEADER_EVENT_TYPE = "event-type";
+    public static final String HEADER_AGGREGATE_TYPE = "aggregate-type";
+    public static final String HEADER_AGGREGATE_VERSION = "aggregate-version";
+
+    private final OutboxConfig outboxConfig;
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    /**
+     * Autowired using the Constructor
+     * @param outboxConfig
+     */
+    public KafkaOutboxSink(OutboxConfig outboxConfig) {
+        this.outboxConfig = outboxConfig;
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, outboxConfig.getKafkaBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, outboxConfig.getKafkaCompression());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, outboxConfig.getKafkaLinger());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        // Don't block the Relay (Metadata fetch / Full Buffer) beyond the Send Timeout
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, outboxConfig.getKafkaSendTimeout());
+        this.producerFactory = new DefaultKafkaProducerFactory<>(props);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Returns the Sink Name
+     * @return
+     */
+    @Override
+    public String name() {
+        return OutboxConfig.SINK_KAFKA;
+    }
+
+    /**
+     * Send the Batch and wait (outbox.kafka.send.timeout) for the Broker Acknowledgements
+     * @param batch
+     * @return
+     */
+    @Override
+    public Set<Long> publish(List<OutboxMessage> batch) {
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for(OutboxMessage message : batch) {
+            ProducerRecord<String, String> producerRecord = new ProducerRecord<>(
+                    outboxConfig.getKafkaTopic(), message.aggregateId(), message.payload());
+            producerRecord.headers()
+                    .add(HEADER_IDEMPOTENCY_KEY, message.idempotencyKey().getBytes(StandardCharsets.UTF_8))
+                    .add(HEADER_EVENT_TYPE, message.eventType().getBytes(StandardCharsets.UTF_8))
+                    .add(HEADER_AGGREGATE_TYPE, message.aggregateType().getBytes(StandardCharsets.UTF_8))
+                    .add(HEADER_AGGREGATE_VERSION, Long.toString(message.aggregateVersion()).getBytes(StandardCharsets.UTF_8));
+            futures.add(kafkaTemplate.send(producerRecord));
+        }
+        Set<Long> acked = new HashSet<>(batch.size() * 2);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(outboxConfig.getKafkaSendTimeout());
+        for(int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acked.add(batch.get(i).id());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                log.warn("Outbox Event {} not acknowledged by Kafka: {}", batch.get(i).id(), e.getMessage());
+            }
+        }
+        return acked;
+    }
+
+    /**
+     * Close the Kafka Producer
+     */
+    @PreDestroy
+    public void stop() {
+        producerFactory.destroy();
+    }
+}
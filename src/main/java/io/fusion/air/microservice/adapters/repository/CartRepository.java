@@ -22,6 +22,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -74,4 +75,12 @@ public interface CartRepository extends JpaRepository<CartEntity, UUID> {
      */
     public List<CartEntity> findByCustomerIdAndProductNameContains(String customerId, String name);
 
+    /**
+     * Returns the Item IDs already in the Database
+     * @param itemIds
+     * @return
+     */
+    @Query("SELECT cart.uuid FROM CartEntity cart WHERE cart.uuid IN :itemIds")
+    public List<UUID> findExistingIds(@Param("itemIds") Collection<UUID> itemIds);
+
 }
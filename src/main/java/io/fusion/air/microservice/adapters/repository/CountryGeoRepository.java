@@ -15,7 +15,13 @@
  */
 package io.fusion.air.microservice.adapters.repository;
 
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
 import io.fusion.air.microservice.domain.entities.order.CountryGeoEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
@@ -35,6 +41,10 @@ public interface CountryGeoRepository extends PagingAndSortingRepository<Country
      * @param cid
      * @return
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.COUNTRY_GEO_QUERY)
+    })
     public Optional<CountryGeoEntity> findByGeoNameId(int cid);
 
     /**
@@ -42,5 +52,20 @@ public interface CountryGeoRepository extends PagingAndSortingRepository<Country
      * @param continent
      * @return
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.COUNTRY_GEO_QUERY)
+    })
     public List<CountryGeoEntity> findByContinentName(String continent);
+
+    /**
+     * List All Countries (Paged)
+     * @param pageable
+     * @return
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.COUNTRY_GEO_QUERY)
+    })
+    public Page<CountryGeoEntity> findAll(Pageable pageable);
 }
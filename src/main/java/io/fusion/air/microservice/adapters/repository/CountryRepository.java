@@ -15,10 +15,16 @@
  */
 package io.fusion.air.microservice.adapters.repository;
 
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
 import io.fusion.air.microservice.domain.entities.order.CountryEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * @author: Araf Karsh Hamid
  * @version:
@@ -26,4 +32,14 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface CountryRepository extends JpaRepository<CountryEntity, Long> {
+
+    /**
+     * Returns All the Countries (Query Cache)
+     * @return
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.COUNTRY_QUERY)
+    })
+    public List<CountryEntity> findAll();
 }
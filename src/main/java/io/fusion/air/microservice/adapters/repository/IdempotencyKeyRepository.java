@@ -0,0 +1,112 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.idempotency.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+/**
+ * Idempotency Key Repository
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    /**
+     * Take over the Key if it's Expired or its PENDING Lease was not renewed (Instance failed before the Response)
+     * @param id
+     * @param fingerprint
+     * @param staleBefore
+     * @param now
+     * @param expiryTime
+     * @return 1 if the Key is taken over
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = 'PENDING', k.fingerprint = :fingerprint, k.httpStatus = 0, "
+            + "k.contentType = NULL, k.body = NULL, k.createdTime = :now, k.leaseTime = :now, k.expiryTime = :expiryTime "
+            + "WHERE k.id = :id AND (k.expiryTime < :now OR (k.status = 'PENDING' AND k.leaseTime < :staleBefore))")
+    public int takeOver(@Param("id") String id, @Param("fingerprint") String fingerprint,
+                        @Param("staleBefore") Timestamp staleBefore, @Param("now") Timestamp now,
+                        @Param("expiryTime") Timestamp expiryTime);
+
+    /**
+     * Store the Response of the Key
+     * @param id
+     * @param httpStatus
+     * @param contentType
+     * @param body
+     * @return
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = 'COMPLETED', k.httpStatus = :httpStatus, "
+            + "k.contentType = :contentType, k.body = :body WHERE k.id = :id AND k.status = 'PENDING'")
+    public int complete(@Param("id") String id, @Param("httpStatus") int httpStatus,
+                        @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    /**
+     * Renew the Lease of the PENDING Keys (Requests in Flight on this Instance)
+     * @param ids
+     * @param now
+     * @return
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKeyEntity k SET k.leaseTime = :now WHERE k.id IN :ids AND k.status = 'PENDING'")
+    public int renewLease(@Param("ids") Collection<String> ids, @Param("now") Timestamp now);
+
+    /**
+     * Mark the PENDING Key as UNKNOWN (Request executed, the Response could not be stored)
+     * @param id
+     * @return
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyKeyEntity k SET k.status = 'UNKNOWN' WHERE k.id = :id AND k.status = 'PENDING'")
+    public int markUnknown(@Param("id") String id);
+
+    /**
+     * Remove the PENDING Key (Request failed, the Retry is executed)
+     * @param id
+     * @return
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.id = :id AND k.status = 'PENDING'")
+    public int deletePending(@Param("id") String id);
+
+    /**
+     * Remove the Expired Keys
+     * @param now
+     * @return
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expiryTime < :now")
+    public int deleteExpired(@Param("now") Timestamp now);
+}
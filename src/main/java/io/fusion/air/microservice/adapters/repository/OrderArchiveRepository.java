@@ -0,0 +1,50 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.order.OrderArchiveEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Archived (Cold) Orders Repository
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface OrderArchiveRepository extends JpaRepository<OrderArchiveEntity, UUID> {
+
+    /**
+     * Find the Archived Order by Customer ID and Order ID
+     * @param customerId
+     * @param orderId
+     * @return
+     */
+    public Optional<OrderArchiveEntity> findByCustomerIdAndOrderId(String customerId, UUID orderId);
+
+    /**
+     * Find the Archived Orders of the Customer
+     * @param customerId
+     * @return
+     */
+    public List<OrderArchiveEntity> findByCustomerIdOrderByOrderIdDesc(String customerId);
+}
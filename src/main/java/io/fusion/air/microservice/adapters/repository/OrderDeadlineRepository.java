@@ -0,0 +1,91 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.order.OrderDeadlineEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Order Deadline (Saga Timeout) Repository
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface OrderDeadlineRepository extends JpaRepository<OrderDeadlineEntity, UUID> {
+
+    /**
+     * First Page of the Deadlines (Recovery after a Restart)
+     * @param page
+     * @return
+     */
+    public List<OrderDeadlineEntity> findAllByOrderByOrderIdAsc(Pageable page);
+
+    /**
+     * Next Page of the Deadlines after the Order Id (Key Set Paging)
+     * @param orderId Last Order Id of the previous Page
+     * @param page
+     * @return
+     */
+    public List<OrderDeadlineEntity> findByOrderIdGreaterThanOrderByOrderIdAsc(UUID orderId, Pageable page);
+
+    /**
+     * Page of the expired Deadlines which are not Claimed after the Order Id (Key Set Paging)
+     * @param now Epoch Milli Seconds
+     * @param orderId Last Order Id of the previous Page
+     * @param page
+     * @return
+     */
+    @Query("SELECT d FROM OrderDeadlineEntity d WHERE d.deadline <= :now AND d.claimUntil < :now "
+            + "AND d.orderId > :orderId ORDER BY d.orderId ASC")
+    public List<OrderDeadlineEntity> findExpired(@Param("now") long now, @Param("orderId") UUID orderId,
+                                                 Pageable page);
+
+    /**
+     * Claim the expired Deadline of the Order (Only one Instance fires the Timeout)
+     * The Owner can extend the Claim, the other Instances take over only after the Claim expired.
+     * @param orderId
+     * @param owner Instance Id
+     * @param now Epoch Milli Seconds
+     * @param until End of the Claim (Epoch Milli Seconds)
+     * @return 1 if the Deadline is Claimed
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OrderDeadlineEntity d SET d.claimOwner = :owner, d.claimUntil = :until "
+            + "WHERE d.orderId = :orderId AND d.deadline <= :now AND (d.claimUntil < :now OR d.claimOwner = :owner)")
+    public int claim(@Param("orderId") UUID orderId, @Param("owner") String owner,
+                     @Param("now") long now, @Param("until") long until);
+
+    /**
+     * Remove the Deadline of the Order (The Order left the State)
+     * @param orderId
+     * @return
+     */
+    @Modifying
+    @Query("DELETE FROM OrderDeadlineEntity d WHERE d.orderId = :orderId")
+    public int deleteByOrderId(@Param("orderId") UUID orderId);
+}
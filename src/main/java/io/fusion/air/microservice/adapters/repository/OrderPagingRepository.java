@@ -16,16 +16,27 @@
 package io.fusion.air.microservice.adapters.repository;
 
 import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.models.order.OrderSummary;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
+ * Order Ids are Time Ordered (UUID v7), the Id Range Predicates (uuid >= fromId) prunes the Monthly
+ * Partitions in PostgreSQL and becomes a Primary Key Range Scan in H2. The Id Bounds come from the
+ * OrderArchiveService, they are open for the Time Ranges which may have Legacy (UUID v4) Ids.
+ *
  * @author: Araf Karsh Hamid
  * @version:
  * @date:
@@ -61,5 +72,68 @@ public interface OrderPagingRepository extends PagingAndSortingRepository<OrderE
             @Param("customerId") String customerId,
             @Param("orderId") UUID orderId);
 
+    /**
+     * Find by Customer ID and Order ID and Lock the Order (Serializes the Events of the Order)
+     * @param customerId
+     * @param orderId
+     * @return
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT order FROM OrderEntity order WHERE order.customerId = :customerId AND order.uuid = :orderId ")
+    public Optional<OrderEntity> findByCustomerIdAndOrderIdForUpdate(
+            @Param("customerId") String customerId,
+            @Param("orderId") UUID orderId);
+
+    /**
+     * Find the Orders and Lock them in the Id Order (Bulk Order Events)
+     * @param orderIds
+     * @return
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT order FROM OrderEntity order WHERE order.uuid IN :orderIds ORDER BY order.uuid")
+    public List<OrderEntity> findByOrderIdsForUpdate(@Param("orderIds") Collection<UUID> orderIds);
+
+    /**
+     * Find the Customer Orders created since the Time (Latest First)
+     * The Id Lower Bound prunes the Partitions, the Time is the Source of Truth (Legacy UUID v4 Ids).
+     *
+     * @param customerId
+     * @param fromId Smallest UUID v7 Id of the Time (Min Id for the Legacy UUID v4 Ids)
+     * @param fromTime
+     * @return
+     */
+    @Query("SELECT order FROM OrderEntity order WHERE order.customerId = :customerId AND order.uuid >= :fromId "
+            + "AND order.auditLog.createdTime >= :fromTime ORDER BY order.uuid DESC")
+    public List<OrderEntity> findByCustomerIdSince(
+            @Param("customerId") String customerId,
+            @Param("fromId") UUID fromId,
+            @Param("fromTime") Timestamp fromTime);
+
+    /**
+     * Find the Orders in the States created before the Time (Oldest First) for the Archival
+     *
+     * @param states
+     * @param beforeId Smallest UUID v7 Id of the Time (Max Id for the Legacy UUID v4 Ids)
+     * @param beforeTime
+     * @param pageable
+     * @return
+     */
+    @Query("SELECT order FROM OrderEntity order WHERE order.orderState IN :states AND order.uuid < :beforeId "
+            + "AND order.auditLog.createdTime < :beforeTime ORDER BY order.uuid")
+    public List<OrderEntity> findByStatesBefore(
+            @Param("states") Collection<OrderState> states,
+            @Param("beforeId") UUID beforeId,
+            @Param("beforeTime") Timestamp beforeTime,
+            Pageable pageable);
 
+    /**
+     * Order Summaries of the Snapshots after the Order Id (Key Set Paging - Read Model Rebuild)
+     * @param afterId
+     * @param pageable
+     * @return
+     */
+    @Query("SELECT new io.fusion.air.microservice.domain.models.order.OrderSummary(order.uuid, order.customerId, "
+            + "order.orderState, order.result, order.totalOrderValue, order.currency, "
+            + "COALESCE(order.auditLog.updatedTime, order.auditLog.createdTime), order.snapshotVersion) FROM OrderEntity order WHERE order.uuid > :afterId ORDER BY order.uuid")
+    public List<OrderSummary> findSummariesAfter(@Param("afterId") UUID afterId, Pageable pageable);
 }
@@ -0,0 +1,60 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.order.OrderStageEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Order Stage (Fork Branch Progress) Repository
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface OrderStageRepository extends JpaRepository<OrderStageEntity, UUID> {
+
+    /**
+     * Find the Stages of the Order
+     * @param orderId
+     * @return
+     */
+    public List<OrderStageEntity> findByOrderId(UUID orderId);
+
+    /**
+     * Find the Orders with the Stages not yet Joined (Forks to be Resumed after a Restart)
+     * @return
+     */
+    @Query("SELECT DISTINCT s.orderId FROM OrderStageEntity s")
+    public List<UUID> findForkedOrderIds();
+
+    /**
+     * Remove the Stages of the Order (After the Join)
+     * @param orderId
+     * @return
+     */
+    @Modifying
+    @Query("DELETE FROM OrderStageEntity s WHERE s.orderId = :orderId")
+    public int deleteByOrderId(@Param("orderId") UUID orderId);
+}
@@ -0,0 +1,69 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.order.OrderStateHistoryEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Order State History (Order Event Log) Repository
+ * Events are only appended, the Index (order_id, orderVersion) serves the Tail Reads in the Stored Order.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface OrderStateHistoryRepository extends JpaRepository<OrderStateHistoryEntity, UUID> {
+
+    /**
+     * Find the Events of the Order after the Version (Tail after the Snapshot)
+     * @param orderId
+     * @param afterVersion
+     * @return
+     */
+    @Query("SELECT h FROM OrderStateHistoryEntity h WHERE h.orderId = :orderId AND h.orderVersion > :afterVersion "
+            + "ORDER BY h.orderVersion")
+    public List<OrderStateHistoryEntity> findTail(
+            @Param("orderId") UUID orderId,
+            @Param("afterVersion") int afterVersion);
+
+    /**
+     * Find the Events of the Orders after their Snapshots (Tails of the Orders in a Single Query)
+     * @param orderIds
+     * @return Events in the Order Id and Order Version
+     */
+    @Query("SELECT h FROM OrderStateHistoryEntity h, OrderEntity o WHERE o.uuid IN :orderIds AND h.orderId = o.uuid "
+            + "AND h.orderVersion > o.snapshotVersion ORDER BY h.orderId, h.orderVersion")
+    public List<OrderStateHistoryEntity> findTails(@Param("orderIds") Collection<UUID> orderIds);
+
+    /**
+     * Delete the Events of the Orders (Order Archived, the Events are in the Archive Payload)
+     * @param orderIds
+     * @return
+     */
+    @Modifying
+    @Query("DELETE FROM OrderStateHistoryEntity h WHERE h.orderId IN :orderIds")
+    public int deleteByOrderIds(@Param("orderIds") Collection<UUID> orderIds);
+}
@@ -0,0 +1,95 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.outbox.OutboxAggregateEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Transactional Outbox Aggregate Repository
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface OutboxAggregateRepository extends JpaRepository<OutboxAggregateEntity, String> {
+
+    // Lock Timeout -2 = SKIP LOCKED (Hibernate)
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Find the Aggregate and Lock it (Serializes the Version Assignment of the Aggregate)
+     * @param id
+     * @return
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM OutboxAggregateEntity a WHERE a.id = :id")
+    public Optional<OutboxAggregateEntity> findByIdForUpdate(@Param("id") String id);
+
+    /**
+     * Insert the Aggregate if it's absent (First Event of the Aggregate). A concurrent Insert of the same
+     * Aggregate is ignored (ON CONFLICT DO NOTHING) instead of failing the Transaction on the Primary Key.
+     * @param id
+     * @param aggregateType
+     * @param aggregateId
+     * @return 1 if the Row was inserted, 0 if it exists
+     */
+    @Modifying
+    @Query("INSERT INTO OutboxAggregateEntity (id, aggregateType, aggregateId, version) "
+            + "VALUES (:id, :aggregateType, :aggregateId, 0) ON CONFLICT DO NOTHING")
+    public int insertIfAbsent(@Param("id") String id, @Param("aggregateType") String aggregateType,
+                              @Param("aggregateId") String aggregateId);
+
+    /**
+     * Claim the Aggregates with Pending Events and without a live Lease.
+     * SELECT ... FOR UPDATE SKIP LOCKED, Aggregates claimed by other Relays (or being written) are skipped.
+     * @param now
+     * @param pageable
+     * @return
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT a FROM OutboxAggregateEntity a WHERE (a.leaseUntil IS NULL OR a.leaseUntil < :now) "
+            + "AND EXISTS (SELECT 1 FROM OutboxEventEntity e WHERE e.published = false "
+            + "AND e.aggregateId = a.aggregateId AND e.aggregateType = a.aggregateType) ORDER BY a.id")
+    public List<OutboxAggregateEntity> claimPending(@Param("now") Timestamp now, Pageable pageable);
+
+    /**
+     * Release the Lease of the Aggregates held by the Relay Instance
+     * @param ids
+     * @param owner
+     * @return
+     */
+    @Modifying
+    @Query("UPDATE OutboxAggregateEntity a SET a.leaseOwner = null, a.leaseUntil = null "
+            + "WHERE a.id IN :ids AND a.leaseOwner = :owner")
+    public int releaseLease(@Param("ids") Collection<String> ids, @Param("owner") String owner);
+}
@@ -0,0 +1,92 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+
+import io.fusion.air.microservice.domain.entities.outbox.OutboxEventEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Transactional Outbox Repository
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Returns the Pending Events of the (Claimed) Aggregates in the Aggregate Version Order
+     * The Aggregate Type is filtered by the Caller.
+     * @param aggregateIds
+     * @param pageable
+     * @return
+     */
+    @Query("SELECT e FROM OutboxEventEntity e WHERE e.published = false AND e.aggregateId IN :aggregateIds "
+            + "ORDER BY e.aggregateType, e.aggregateId, e.aggregateVersion")
+    public List<OutboxEventEntity> findPendingFor(@Param("aggregateIds") Collection<String> aggregateIds,
+                                                  Pageable pageable);
+
+    /**
+     * Returns the Created Time of the Oldest Pending Event
+     * @return
+     */
+    @Query("SELECT MIN(e.createdTime) FROM OutboxEventEntity e WHERE e.published = false")
+    public Timestamp findOldestPendingTime();
+
+    /**
+     * Returns the Number of Pending Events
+     * @return
+     */
+    public long countByPublishedFalse();
+
+    /**
+     * Mark the Events as Published
+     * @param ids
+     * @param publishedTime
+     * @return
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.published = true, e.publishedTime = :publishedTime WHERE e.id IN :ids")
+    public int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedTime") Timestamp publishedTime);
+
+    /**
+     * Increment the Publish Attempts of the Events
+     * @param ids
+     * @return
+     */
+    @Modifying
+    @Query("UPDATE OutboxEventEntity e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    public int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Purge the Events Published before the Time
+     * @param publishedTime
+     * @return
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEventEntity e WHERE e.published = true AND e.publishedTime < :publishedTime")
+    public int purgePublished(@Param("publishedTime") Timestamp publishedTime);
+}
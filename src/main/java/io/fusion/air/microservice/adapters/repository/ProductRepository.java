@@ -15,9 +15,14 @@
  */
 package io.fusion.air.microservice.adapters.repository;
 
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
 import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -48,6 +53,10 @@ public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
      * @param price
      * @return
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PRODUCT_QUERY)
+    })
     @Query("SELECT product FROM ProductEntity product WHERE product.productPrice >= :price ")
     public List<ProductEntity> fetchProductsByPriceGreaterThan(@Param("price") BigDecimal price);
 
@@ -55,6 +64,10 @@ public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
      * Returns Active Products Only
      * @return
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PRODUCT_QUERY)
+    })
     @Query("SELECT product FROM ProductEntity product WHERE product.isActive = true")
     public List<ProductEntity> fetchActiveProducts();
 
@@ -63,8 +76,24 @@ public interface ProductRepository extends JpaRepository<ProductEntity, UUID> {
      * @param name
      * @return
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.PRODUCT_QUERY)
+    })
     public List<ProductEntity> findByProductNameContains(String name);
 
+    /**
+     * Products after the Id (Keyset Paging in the Id Order) - Used for Streaming
+     * @param afterId
+     * @param activeOnly
+     * @param pageable
+     * @return
+     */
+    @Query("SELECT product FROM ProductEntity product WHERE product.uuid > :afterId "
+            + "AND (:activeOnly = false OR product.isActive = true) ORDER BY product.uuid")
+    public List<ProductEntity> fetchProductsAfter(@Param("afterId") UUID afterId,
+                                                  @Param("activeOnly") boolean activeOnly, Pageable pageable);
+
     // Added remark
 
 }
@@ -68,8 +68,9 @@ public class ClaimsManager {
     public void setClaims(Claims claims) {
         this.claims = claims;
         claimsInitialized = true;
-        String c =  Utils.toJsonString(this.claims);
-        log.debug("ClaimsManager: CLAIMS = {}", c);
+        if(log.isDebugEnabled()) {
+            log.debug("ClaimsManager: CLAIMS = {}", Utils.toJsonString(this.claims));
+        }
     }
 
     /**
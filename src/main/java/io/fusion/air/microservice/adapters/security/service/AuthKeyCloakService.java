@@ -17,12 +17,12 @@ package io.fusion.air.microservice.adapters.security.service;
 
 // FasterXML
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 // Custom
 import io.fusion.air.microservice.domain.exceptions.AuthorizationException;
 import io.fusion.air.microservice.domain.models.auth.Token;
 import io.fusion.air.microservice.security.crypto.CryptoKeyGenerator;
 import io.fusion.air.microservice.security.jwt.core.KeyCloakConfig;
+import io.fusion.air.microservice.utils.JsonMappers;
 // Spring
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -142,7 +142,7 @@ public class AuthKeyCloakService {
      */
     public JsonNode getPublicKeyFromKeycloak() throws IOException {
         // Assuming the key info is in a "keys" array
-        return new ObjectMapper().readTree(getPublicKey()).get("keys").get(1);
+        return JsonMappers.mapper().readTree(getPublicKey()).get("keys").get(1);
     }
 
     /**
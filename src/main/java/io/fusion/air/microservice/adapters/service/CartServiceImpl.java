@@ -16,13 +16,16 @@
 package io.fusion.air.microservice.adapters.service;
 
 // Custom
+import io.fusion.air.microservice.adapters.aop.RetryOnConflict;
 import io.fusion.air.microservice.adapters.repository.CartRepository;
 import io.fusion.air.microservice.domain.entities.order.CartEntity;
+import io.fusion.air.microservice.domain.events.ResourceChangedEvent;
 import io.fusion.air.microservice.domain.exceptions.DataNotFoundException;
 import io.fusion.air.microservice.domain.models.order.CartItem;
 import io.fusion.air.microservice.domain.ports.services.CartService;
 import io.fusion.air.microservice.utils.Utils;
 // Spring
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 // Other
@@ -69,14 +72,30 @@ public class CartServiceImpl implements CartService {
     // Autowired using the Constructor
     private final MeterRegistry meterRegistry;
 
+    // Autowired using the Constructor
+    private final CartWriteBehindStore cartStore;
+
+    // Autowired using the Constructor
+    private final OutboxWriter outboxWriter;
+
+    // Autowired using the Constructor
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Autowired using the Constructor
      * @param cartRepo
      * @param meterReg
+     * @param cartStore
+     * @param outboxWriter
+     * @param eventPublisher
      */
-    public CartServiceImpl(CartRepository cartRepo, MeterRegistry meterReg) {
+    public CartServiceImpl(CartRepository cartRepo, MeterRegistry meterReg, CartWriteBehindStore cartStore,
+                           OutboxWriter outboxWriter, ApplicationEventPublisher eventPublisher) {
         cartRepository = cartRepo;
         meterRegistry = meterReg;
+        this.cartStore = cartStore;
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -96,6 +115,9 @@ public class CartServiceImpl implements CartService {
      */
     @Transactional(readOnly = true)
     public List<CartEntity> findByCustomerId(String customerId) {
+        if(cartStore.isEnabled()) {
+            return cartStore.overlay(customerId, cartRepository.findByCustomerId(customerId), c -> true);
+        }
         return cartRepository.findByCustomerId(customerId);
     }
 
@@ -108,7 +130,7 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional(readOnly = true)
     public Optional<CartEntity> findById(String itemId, String customerId) {
-        return cartRepository.findByuuidAndCustomerId(Utils.getUUID(itemId), customerId);
+        return findById(Utils.getUUID(itemId), customerId);
     }
 
     /**
@@ -119,6 +141,9 @@ public class CartServiceImpl implements CartService {
      */
     @Override
     public Optional<CartEntity> findById(UUID itemId, String customerId) {
+        if(cartStore.isEnabled()) {
+            return cartStore.overlay(customerId, itemId, cartRepository.findByuuidAndCustomerId(itemId, customerId));
+        }
         return cartRepository.findByuuidAndCustomerId(itemId, customerId);
     }
 
@@ -130,6 +155,10 @@ public class CartServiceImpl implements CartService {
      */
     @Override
     public List<CartEntity> fetchProductsByPriceGreaterThan(String customerId, BigDecimal price) {
+        if(cartStore.isEnabled()) {
+            return cartStore.overlay(customerId, cartRepository.fetchProductsByPriceGreaterThan(customerId, price),
+                    c -> c.getPrice() != null && c.getPrice().compareTo(price) >= 0);
+        }
         return cartRepository.fetchProductsByPriceGreaterThan(customerId, price);
     }
 
@@ -140,6 +169,10 @@ public class CartServiceImpl implements CartService {
      */
     @Override
     public List<CartEntity> fetchActiveItems(String customerId) {
+        if(cartStore.isEnabled()) {
+            // Buffered Activations are not visible to the Active Items Query
+            return cartStore.overlay(customerId, cartRepository.findByCustomerId(customerId), CartEntity::isActive);
+        }
         return cartRepository.fetchActiveItems(customerId);
     }
 
@@ -151,11 +184,17 @@ public class CartServiceImpl implements CartService {
      */
     @Override
     public List<CartEntity> findByItemNameContains(String customerId, String name) {
+        if(cartStore.isEnabled()) {
+            return cartStore.overlay(customerId, cartRepository.findByCustomerIdAndProductNameContains(customerId, name),
+                    c -> c.getProductName() != null && c.getProductName().contains(name));
+        }
         return cartRepository.findByCustomerIdAndProductNameContains(customerId, name);
     }
 
     /**
      * Save the CartItem
+     * In Write-Behind mode the Item gets its UUID when it is buffered and is written on the Flush.
+     * The CartItemAdded Event is written to the Outbox in the Transaction that inserts the Item.
      *
      * @param cartItemModel
      * @return
@@ -163,9 +202,14 @@ public class CartServiceImpl implements CartService {
     @Override
     @Transactional
     public CartEntity save(CartItem cartItemModel) {
-        CartEntity cart = new CartEntity(cartItemModel);
         meterRegistry.counter("cart.saved", "status", "CartItem Saved!").increment();
-        return cartRepository.save(cart);
+        cartChanged(cartItemModel.customerId());
+        if(cartStore.isEnabled()) {
+            return cartStore.add(cartItemModel);
+        }
+        CartEntity cart = cartRepository.save(new CartEntity(cartItemModel));
+        outboxWriter.append(OutboxWriter.CART, cart.getCustomerId(), OutboxWriter.CART_ITEM_ADDED, cart);
+        return cart;
     }
 
     /**
@@ -176,10 +220,16 @@ public class CartServiceImpl implements CartService {
      * @return
      */
     @Override
+    @RetryOnConflict
     @Transactional
     public CartEntity deActivateCartItem(String customerId, UUID cartItemUUID) {
         Optional<CartEntity> cartItem = findById(cartItemUUID,customerId);
         if(cartItem.isPresent()) {
+            cartChanged(customerId);
+            if(cartStore.isEnabled()) {
+                cartStore.changeState(customerId, cartItemUUID, false);
+                return cartStore.overlay(customerId, cartItem).orElseThrow();
+            }
             cartItem.get().deActivate();
             cartRepository.saveAndFlush(cartItem.get());
             return cartItem.get();
@@ -194,15 +244,22 @@ public class CartServiceImpl implements CartService {
      * @return
      */
     @Override
+    @RetryOnConflict
     @Transactional
     public CartEntity activateCartItem(String customerId, UUID cartItemUUID) {
         Optional<CartEntity> cartItem = findById(cartItemUUID,customerId);
         if(cartItem.isPresent()) {
+            cartChanged(customerId);
+            if(cartStore.isEnabled()) {
+                cartStore.changeState(customerId, cartItemUUID, true);
+                return cartStore.overlay(customerId, cartItem).orElseThrow();
+            }
             cartItem.get().activate();
             cartRepository.saveAndFlush(cartItem.get());
             return cartItem.get();
         }
-        throw new DataNotFoundException("CartItem Item Not Found");    }
+        throw new DataNotFoundException("CartItem Item Not Found");
+    }
 
     /**
      * Delete the CartItem item (Permanently Deletes the Item)
@@ -214,7 +271,20 @@ public class CartServiceImpl implements CartService {
     public void deleteCartItem(String customerId, UUID cartItemUUID) {
         Optional<CartEntity> cartItem = findById(cartItemUUID,customerId);
         if(cartItem.isPresent()) {
+            cartChanged(customerId);
+            if(cartStore.isEnabled()) {
+                cartStore.delete(customerId, cartItemUUID);
+                return;
+            }
             cartRepository.delete(cartItem.get());
         }
     }
+
+    /**
+     * The Cart Versions (ETags) of the Customer move forward after the Commit
+     * @param customerId
+     */
+    private void cartChanged(String customerId) {
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceVersions.CART, customerId));
+    }
 }
@@ -0,0 +1,718 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+
+// Custom
+import io.fusion.air.microservice.adapters.repository.CartRepository;
+import io.fusion.air.microservice.domain.entities.order.CartEntity;
+import io.fusion.air.microservice.domain.exceptions.DatabaseException;
+import io.fusion.air.microservice.domain.models.order.CartItem;
+import io.fusion.air.microservice.server.config.CartStoreConfig;
+import io.fusion.air.microservice.utils.UUIDv7;
+// Spring
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+// Jackson
+import com.fasterxml.jackson.databind.ObjectMapper;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+// Java
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+// Logging
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Write-Behind Cart Store
+ *
+ * Cart mutations are appended to a local journal and then applied to a per customer buffer.
+ * Successive operations on the same item are coalesced (Last Write Wins), so an add / remove / re-add
+ * sequence within a flush window results in a single database write (The removed item is never inserted). The buffer is flushed to the
+ * database in a single transaction on a timer or when the pending operations cross the flush size.
+ *
+ * Reads are served by overlaying the buffered (and in-flight) operations on top of the database rows.
+ * Journal segments are deleted only after a successful flush. On startup any leftover segments are
+ * replayed into the buffer, so a crash does not lose an acknowledged mutation.
+ *
+ * New items get their UUID (Version 7) when they are buffered and the UUID is journaled with the item,
+ * so the item can be activated / de-activated / deleted before the flush. The replay skips the items
+ * already in the database (Crash after the commit but before the segment was deleted).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class CartWriteBehindStore {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    private static final String SEGMENT_PREFIX = "cart-journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * Cart Operations
+     */
+    public enum Operation { ADD, ACTIVATE, DEACTIVATE, DELETE }
+
+    /**
+     * Journal Entry (One line per Entry in the Journal Segment)
+     */
+    public record JournalEntry(Operation operation, String customerId, UUID itemId, CartItem item) {}
+
+    /**
+     * Coalesced Operations of a Single Customer
+     */
+    private static final class CustomerBuffer {
+        // New Items by Cart Item ID
+        private final Map<UUID, CartItem> additions = new LinkedHashMap<>();
+        // Active State by Cart Item ID
+        private final Map<UUID, Boolean> states = new HashMap<>();
+        private final Set<UUID> deletions = new HashSet<>();
+
+        private int size() {
+            return additions.size() + states.size() + deletions.size();
+        }
+    }
+
+    // Autowired using the Constructor
+    private final CartStoreConfig storeConfig;
+    private final CartRepository cartRepository;
+    private final TransactionTemplate txTemplate;
+    private final OutboxWriter outboxWriter;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    private final Map<String, CustomerBuffer> buffers = new ConcurrentHashMap<>();
+    private volatile Map<String, CustomerBuffer> inFlight = Collections.emptyMap();
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final List<Path> sealedSegments = new ArrayList<>();
+    private final Object journalMonitor = new Object();
+
+    private final Counter coalescedCounter;
+    private final Counter flushedCounter;
+    private final Counter flushFailedCounter;
+    private final Timer flushTimer;
+
+    private ScheduledExecutorService scheduler;
+    private Path journalDir;
+    private FileChannel journal;
+    private long segmentNo;
+
+    /**
+     * Autowired using the Constructor
+     * @param storeConfig
+     * @param cartRepo
+     * @param txManager
+     * @param entityManager
+     * @param mapper
+     * @param meterReg
+     * @param outboxWriter
+     */
+    public CartWriteBehindStore(CartStoreConfig storeConfig, CartRepository cartRepo,
+                                PlatformTransactionManager txManager, EntityManager entityManager,
+                                ObjectMapper mapper, MeterRegistry meterReg, OutboxWriter outboxWriter) {
+        this.storeConfig = storeConfig;
+        this.cartRepository = cartRepo;
+        this.outboxWriter = outboxWriter;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.objectMapper = mapper;
+        this.entityManager = entityManager;
+        this.coalescedCounter = meterReg.counter("cart.write.behind.coalesced");
+        this.flushedCounter = meterReg.counter("cart.write.behind.flushed");
+        this.flushFailedCounter = meterReg.counter("cart.write.behind.flush.failed");
+        this.flushTimer = meterReg.timer("cart.write.behind.flush");
+        meterReg.gauge("cart.write.behind.pending", pending);
+    }
+
+    /**
+     * Returns True if the Write-Behind Mode is Enabled
+     * @return
+     */
+    public boolean isEnabled() {
+        return storeConfig.isWriteBehindEnabled();
+    }
+
+    /**
+     * Replay the Journal (if any) and start the Flush Timer
+     */
+    @PostConstruct
+    public void start() {
+        if(!isEnabled()) {
+            return;
+        }
+        try {
+            journalDir = Paths.get(storeConfig.getJournalPath());
+            Files.createDirectories(journalDir);
+            replayJournal();
+            openSegment();
+        } catch (IOException e) {
+            throw new DatabaseException("Unable to open the Cart Journal: "+e.getMessage(), e);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cart-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = storeConfig.getFlushInterval();
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Cart Write-Behind Store started. Journal = {} Pending = {}", journalDir, pending.get());
+    }
+
+    /**
+     * Flush the Pending Operations and Close the Journal
+     */
+    @PreDestroy
+    public void stop() {
+        if(scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(storeConfig.getFlushInterval(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        synchronized (journalMonitor) {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Buffer a New Cart Item
+     * @param cartItem
+     * @return
+     */
+    public CartEntity add(CartItem cartItem) {
+        UUID itemId = UUIDv7.generate();
+        record(new JournalEntry(Operation.ADD, cartItem.customerId(), itemId, cartItem));
+        CartEntity cart = new CartEntity(itemId, cartItem);
+        cart.activate();
+        return cart;
+    }
+
+    /**
+     * Buffer the Activate / De-Activate of a Cart Item
+     * @param customerId
+     * @param itemId
+     * @param active
+     */
+    public void changeState(String customerId, UUID itemId, boolean active) {
+        record(new JournalEntry(active ? Operation.ACTIVATE : Operation.DEACTIVATE, customerId, itemId, null));
+    }
+
+    /**
+     * Buffer the Delete of a Cart Item
+     * @param customerId
+     * @param itemId
+     */
+    public void delete(String customerId, UUID itemId) {
+        record(new JournalEntry(Operation.DELETE, customerId, itemId, null));
+    }
+
+    /**
+     * Returns True if the Item is marked for Deletion
+     * @param customerId
+     * @param itemId
+     * @return
+     */
+    public boolean isDeleted(String customerId, UUID itemId) {
+        return isDeleted(buffers.get(customerId), itemId) || isDeleted(inFlight.get(customerId), itemId);
+    }
+
+    /**
+     * Overlay the Buffered Operations on the Cart Item
+     * @param customerId
+     * @param cartItem
+     * @return
+     */
+    public Optional<CartEntity> overlay(String customerId, Optional<CartEntity> cartItem) {
+        if(cartItem.isEmpty()) {
+            return cartItem;
+        }
+        List<CartEntity> items = overlay(customerId, List.of(cartItem.get()), c -> true, false);
+        return items.isEmpty() ? Optional.empty() : Optional.of(items.get(0));
+    }
+
+    /**
+     * Overlay the Buffered Operations on the Cart Item. The Item is looked up in the Buffered
+     * Additions if it's not in the Database.
+     * @param customerId
+     * @param itemId
+     * @param cartItem
+     * @return
+     */
+    public Optional<CartEntity> overlay(String customerId, UUID itemId, Optional<CartEntity> cartItem) {
+        if(cartItem.isPresent()) {
+            return overlay(customerId, cartItem);
+        }
+        List<CartEntity> items = overlay(customerId, List.of(), c -> itemId.equals(c.getUuid()), true);
+        return items.isEmpty() ? Optional.empty() : Optional.of(items.get(0));
+    }
+
+    /**
+     * Overlay the Buffered Operations on the Cart Items from the Database
+     * @param customerId
+     * @param items
+     * @param filter
+     * @return
+     */
+    public List<CartEntity> overlay(String customerId, List<CartEntity> items, Predicate<CartEntity> filter) {
+        return overlay(customerId, items, filter, true);
+    }
+
+    /**
+     * Overlay the In-Flight and the Buffered Operations
+     * @param customerId
+     * @param items
+     * @param filter
+     * @param withAdditions
+     * @return
+     */
+    private List<CartEntity> overlay(String customerId, List<CartEntity> items,
+                                     Predicate<CartEntity> filter, boolean withAdditions) {
+        List<CustomerBuffer> layers = new ArrayList<>(2);
+        CustomerBuffer flushing = inFlight.get(customerId);
+        if(flushing != null) {
+            layers.add(flushing);
+        }
+        CustomerBuffer buffer = buffers.get(customerId);
+        if(buffer != null) {
+            layers.add(buffer);
+        }
+        if(layers.isEmpty()) {
+            return items;
+        }
+        Map<UUID, CartItem> additions = new LinkedHashMap<>();
+        Map<UUID, Boolean> states = new HashMap<>();
+        Set<UUID> deletions = new HashSet<>();
+        for(CustomerBuffer layer : layers) {
+            synchronized (layer) {
+                additions.putAll(layer.additions);
+                states.putAll(layer.states);
+                deletions.addAll(layer.deletions);
+            }
+        }
+        List<CartEntity> result = new ArrayList<>(items.size() + additions.size());
+        for(CartEntity cart : items) {
+            // The In-Flight Additions are in the Database once the Flush is committed
+            additions.remove(cart.getUuid());
+            if(deletions.contains(cart.getUuid())) {
+                continue;
+            }
+            Boolean active = states.get(cart.getUuid());
+            if(active != null) {
+                // Detach the Entity so that the Overlay is NOT written by the Dirty Check
+                if(entityManager.contains(cart)) {
+                    entityManager.detach(cart);
+                }
+                applyState(cart, active);
+            }
+            if(filter.test(cart)) {
+                result.add(cart);
+            }
+        }
+        if(withAdditions) {
+            for(Map.Entry<UUID, CartItem> addition : additions.entrySet()) {
+                if(deletions.contains(addition.getKey())) {
+                    continue;
+                }
+                CartEntity cart = new CartEntity(addition.getKey(), addition.getValue());
+                applyState(cart, states.getOrDefault(addition.getKey(), true));
+                if(filter.test(cart)) {
+                    result.add(cart);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Flush the Buffered Operations to the Database
+     */
+    public void flush() {
+        if(!isEnabled() || !flushLock.tryLock()) {
+            return;
+        }
+        try {
+            flushRequested.set(false);
+            Map<String, CustomerBuffer> snapshot = drain();
+            if(snapshot.isEmpty()) {
+                deleteSealedSegments();
+                return;
+            }
+            int operations = snapshot.values().stream().mapToInt(CustomerBuffer::size).sum();
+            try {
+                flushTimer.record(() -> txTemplate.executeWithoutResult(status -> persist(snapshot)));
+                inFlight = Collections.emptyMap();
+                flushedCounter.increment(operations);
+                deleteSealedSegments();
+                log.debug("Cart Write-Behind flushed {} Operations for {} Customers", operations, snapshot.size());
+            } catch (Exception e) {
+                flushFailedCounter.increment();
+                restore(snapshot);
+                inFlight = Collections.emptyMap();
+                log.error("Cart Write-Behind flush failed! {} Operations will be retried. {}", operations, e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Append the Entry to the Journal and Apply it to the Buffer
+     * @param entry
+     */
+    private void record(JournalEntry entry) {
+        rotationLock.readLock().lock();
+        try {
+            CustomerBuffer buffer = buffers.computeIfAbsent(entry.customerId(), k -> new CustomerBuffer());
+            synchronized (buffer) {
+                append(entry);
+                apply(buffer, entry);
+            }
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if(pending.get() >= storeConfig.getFlushSize() && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Coalesce the Entry into the Customer Buffer
+     * @param buffer
+     * @param entry
+     */
+    private void apply(CustomerBuffer buffer, JournalEntry entry) {
+        int before = buffer.size();
+        boolean coalesced = false;
+        switch (entry.operation()) {
+            case ADD:
+                buffer.additions.put(entry.itemId(), entry.item());
+                break;
+            case ACTIVATE:
+            case DEACTIVATE:
+                if(!buffer.deletions.contains(entry.itemId())) {
+                    boolean active = entry.operation() == Operation.ACTIVATE;
+                    coalesced = buffer.states.put(entry.itemId(), active) != null;
+                }
+                break;
+            case DELETE:
+                coalesced = buffer.states.remove(entry.itemId()) != null;
+                if(buffer.additions.remove(entry.itemId()) != null) {
+                    // Added and Removed within the Window - Never written to the Database
+                    coalesced = true;
+                } else {
+                    buffer.deletions.add(entry.itemId());
+                }
+                break;
+        }
+        if(coalesced) {
+            coalescedCounter.increment();
+        }
+        pending.addAndGet(buffer.size() - before);
+    }
+
+    /**
+     * Swap the Buffers and Seal the current Journal Segment
+     * @return
+     */
+    private Map<String, CustomerBuffer> drain() {
+        rotationLock.writeLock().lock();
+        try {
+            if(buffers.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            Map<String, CustomerBuffer> snapshot = new HashMap<>(buffers);
+            buffers.clear();
+            pending.set(0);
+            inFlight = snapshot;
+            synchronized (journalMonitor) {
+                closeSegment();
+                openSegment();
+            }
+            return snapshot;
+        } catch (IOException e) {
+            throw new DatabaseException("Unable to rotate the Cart Journal: "+e.getMessage(), e);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Merge the Failed Snapshot back into the Buffers. Operations received after the
+     * Snapshot was taken takes precedence.
+     * @param snapshot
+     */
+    private void restore(Map<String, CustomerBuffer> snapshot) {
+        rotationLock.writeLock().lock();
+        try {
+            for(Map.Entry<String, CustomerBuffer> e : snapshot.entrySet()) {
+                CustomerBuffer older = e.getValue();
+                CustomerBuffer current = buffers.computeIfAbsent(e.getKey(), k -> new CustomerBuffer());
+                synchronized (current) {
+                    int before = current.size();
+                    older.additions.forEach((id, item) -> {
+                        // Deleted after the Snapshot was taken - Never written to the Database
+                        if(!current.deletions.remove(id)) {
+                            current.additions.putIfAbsent(id, item);
+                        }
+                    });
+                    current.deletions.addAll(older.deletions);
+                    older.states.forEach((id, active) -> {
+                        if(!current.deletions.contains(id)) {
+                            current.states.putIfAbsent(id, active);
+                        }
+                    });
+                    pending.addAndGet(current.size() - before);
+                }
+            }
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write the Snapshot to the Database (Called within a Transaction)
+     * @param snapshot
+     */
+    private void persist(Map<String, CustomerBuffer> snapshot) {
+        Map<UUID, CartItem> newItems = new LinkedHashMap<>();
+        Map<UUID, Boolean> states = new HashMap<>();
+        Set<UUID> deletions = new HashSet<>();
+        for(CustomerBuffer buffer : snapshot.values()) {
+            newItems.putAll(buffer.additions);
+            states.putAll(buffer.states);
+            deletions.addAll(buffer.deletions);
+        }
+        if(!newItems.isEmpty()) {
+            // Replayed Items committed before a Crash are already in the Database (with the Outbox Event)
+            newItems.keySet().removeAll(cartRepository.findExistingIds(newItems.keySet()));
+            for(Map.Entry<UUID, CartItem> addition : newItems.entrySet()) {
+                CartEntity cart = new CartEntity(addition.getKey(), addition.getValue());
+                entityManager.persist(cart);
+                Boolean active = states.remove(cart.getUuid());
+                if(active != null) {
+                    // After the Persist (Items are Active on Insert), written by the Dirty Check
+                    applyState(cart, active);
+                }
+                outboxWriter.append(OutboxWriter.CART, cart.getCustomerId(), OutboxWriter.CART_ITEM_ADDED, cart);
+            }
+        }
+        if(!states.isEmpty()) {
+            // Managed Entities are updated by the Dirty Check on Commit
+            for(CartEntity cart : cartRepository.findAllById(states.keySet())) {
+                applyState(cart, states.get(cart.getUuid()));
+            }
+        }
+        if(!deletions.isEmpty()) {
+            cartRepository.deleteAllByIdInBatch(deletions);
+        }
+    }
+
+    /**
+     * Replay the Journal Segments left over from the previous run
+     * @throws IOException
+     */
+    private void replayJournal() throws IOException {
+        List<Path> segments = listSegments();
+        int entries = 0;
+        for(Path segment : segments) {
+            segmentNo = Math.max(segmentNo, segmentNumber(segment));
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if(line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        JournalEntry entry = objectMapper.readValue(line, JournalEntry.class);
+                        if(entry.operation() == Operation.ADD && entry.itemId() == null) {
+                            // Journal written before the Item IDs were assigned on Add
+                            entry = new JournalEntry(Operation.ADD, entry.customerId(), UUIDv7.generate(), entry.item());
+                        }
+                        apply(buffers.computeIfAbsent(entry.customerId(), k -> new CustomerBuffer()), entry);
+                        entries++;
+                    } catch (IOException e) {
+                        // A torn write at the tail of the segment (Crash during the append)
+                        log.warn("Skipping corrupt Cart Journal Entry in {} : {}", segment, e.getMessage());
+                    }
+                }
+            }
+            sealedSegments.add(segment);
+        }
+        if(entries > 0) {
+            log.info("Cart Journal replayed {} Entries from {} Segments", entries, segments.size());
+        }
+    }
+
+    /**
+     * Append the Entry to the Active Journal Segment
+     * @param entry
+     */
+    private void append(JournalEntry entry) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(entry);
+            ByteBuffer line = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n').flip();
+            synchronized (journalMonitor) {
+                while (line.hasRemaining()) {
+                    journal.write(line);
+                }
+                if(storeConfig.isJournalSync()) {
+                    journal.force(false);
+                }
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Unable to write to the Cart Journal: "+e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Open a New Journal Segment
+     * @throws IOException
+     */
+    private void openSegment() throws IOException {
+        segmentNo++;
+        Path segment = journalDir.resolve(SEGMENT_PREFIX + segmentNo + SEGMENT_SUFFIX);
+        journal = FileChannel.open(segment, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Close the Active Journal Segment and mark it as Sealed
+     */
+    private void closeSegment() {
+        if(journal == null) {
+            return;
+        }
+        try {
+            journal.force(true);
+            journal.close();
+        } catch (IOException e) {
+            log.error("Unable to close the Cart Journal Segment {} : {}", segmentNo, e.getMessage());
+        }
+        sealedSegments.add(journalDir.resolve(SEGMENT_PREFIX + segmentNo + SEGMENT_SUFFIX));
+        journal = null;
+    }
+
+    /**
+     * Delete the Sealed Segments (All the Entries are in the Database)
+     */
+    private void deleteSealedSegments() {
+        synchronized (journalMonitor) {
+            Iterator<Path> it = sealedSegments.iterator();
+            while (it.hasNext()) {
+                try {
+                    Files.deleteIfExists(it.next());
+                    it.remove();
+                } catch (IOException e) {
+                    log.warn("Unable to delete the Cart Journal Segment: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * List the Journal Segments in the Order they were Created
+     * @return
+     * @throws IOException
+     */
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files
+                    .filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(this::segmentNumber))
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns the Segment Number from the File Name
+     * @param segment
+     * @return
+     */
+    private long segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns True if the Item is marked for Deletion in the Buffer
+     * @param buffer
+     * @param itemId
+     * @return
+     */
+    private boolean isDeleted(CustomerBuffer buffer, UUID itemId) {
+        if(buffer == null) {
+            return false;
+        }
+        synchronized (buffer) {
+            return buffer.deletions.contains(itemId);
+        }
+    }
+
+    /**
+     * Apply the Active State to the Cart Item
+     * @param cart
+     * @param active
+     */
+    private void applyState(CartEntity cart, boolean active) {
+        if(active) {
+            cart.activate();
+        } else {
+            cart.deActivate();
+        }
+    }
+}
@@ -0,0 +1,334 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.IdempotencyKeyRepository;
+import io.fusion.air.microservice.domain.entities.idempotency.IdempotencyKeyEntity;
+import io.fusion.air.microservice.domain.models.core.IdempotentResponse;
+import io.fusion.air.microservice.server.config.IdempotencyConfig;
+import io.fusion.air.microservice.utils.Threads;
+// Spring
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+// Other
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Idempotency Key Store
+ *
+ * Hot Tier : Completed Responses in Memory (Bounded, TTL) and the Requests in Flight on this Instance.
+ *            A Duplicate of a Request in Flight waits for its Response instead of being executed.
+ * DB Tier  : A Row per Key (idempotency_key_tx) inserted before the Request is executed, so a Duplicate
+ *            on another Instance is Rejected (Conflict) while the Request is in Flight and Replayed after.
+ *            The Lease of the Keys in Flight is renewed every lease / 3, so a slow Request is not taken over.
+ *            A Response which can't be stored (after the Retries) leaves the Key UNKNOWN, the Request is
+ *            never executed twice for the Key (Retries are Rejected until the Expiry).
+ *
+ * Metrics
+ * idempotency.keys{result}  - execute / replay / wait / conflict / unknown
+ * idempotency.store.failed  - Responses not stored (Key UNKNOWN)
+ * idempotency.in.flight
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class IdempotencyStore {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    private static final int MAX_STORE_ATTEMPTS = 3;
+    private static final long STORE_RETRY_DELAY = 50;
+
+    /**
+     * Result of the Claim of a Key
+     */
+    public enum Decision { EXECUTE, REPLAY, WAIT, CONFLICT, UNKNOWN }
+
+    /**
+     * Claim of a Key
+     * @param decision
+     * @param response Stored Response (REPLAY)
+     * @param inFlight Response of the Request in Flight (WAIT), completed with null if the Request failed
+     */
+    public record Claim(Decision decision, IdempotentResponse response, CompletableFuture<IdempotentResponse> inFlight) {}
+
+    // Autowired using the Constructor
+    private final IdempotencyKeyRepository keyRepository;
+    private final IdempotencyConfig idempotencyConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, IdempotentResponse> responses;
+    private final ConcurrentHashMap<String, CompletableFuture<IdempotentResponse>> inFlight = new ConcurrentHashMap<>();
+    // Keys Claimed (EXECUTE) by this Instance, the Lease is renewed till the Response is stored
+    private final Set<String> executing = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService cleaner;
+
+    /**
+     * Autowired using the Constructor
+     * @param keyRepo
+     * @param idempotencyConfig
+     * @param meterReg
+     */
+    public IdempotencyStore(IdempotencyKeyRepository keyRepo, IdempotencyConfig idempotencyConfig,
+                            MeterRegistry meterReg) {
+        this.keyRepository = keyRepo;
+        this.idempotencyConfig = idempotencyConfig;
+        this.meterRegistry = meterReg;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(idempotencyConfig.getCacheSize())
+                .expireAfterWrite(Duration.ofMillis(idempotencyConfig.getTtl()))
+                .build();
+        meterReg.gaugeMapSize("idempotency.in.flight", Tags.empty(), inFlight);
+    }
+
+    /**
+     * Start the Cleaner (Expired Keys)
+     */
+    @PostConstruct
+    public void start() {
+        if(!idempotencyConfig.isIdempotencyEnabled()) {
+            return;
+        }
+        long interval = Math.max(1, idempotencyConfig.getCleanupInterval());
+        cleaner = Executors.newSingleThreadScheduledExecutor(Threads.daemon("idempotency-cleaner"));
+        cleaner.scheduleWithFixedDelay(this::removeExpired, interval, interval, TimeUnit.SECONDS);
+        long renew = Math.max(100, idempotencyConfig.getLease() / 3);
+        cleaner.scheduleWithFixedDelay(this::renewLeases, renew, renew, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the Cleaner
+     */
+    @PreDestroy
+    public void stop() {
+        if(cleaner != null) {
+            cleaner.shutdownNow();
+        }
+    }
+
+    /**
+     * Claim the Key. EXECUTE: the Caller executes the Request and must call complete() or abandon().
+     * @param key Hash of the Key
+     * @param fingerprint Hash of the Request Body
+     * @return
+     */
+    public Claim claim(String key, String fingerprint) {
+        IdempotentResponse cached = responses.getIfPresent(key);
+        if(cached != null) {
+            return count(new Claim(Decision.REPLAY, cached, null));
+        }
+        CompletableFuture<IdempotentResponse> owner = new CompletableFuture<>();
+        CompletableFuture<IdempotentResponse> existing = inFlight.putIfAbsent(key, owner);
+        if(existing != null) {
+            return count(new Claim(Decision.WAIT, null, existing));
+        }
+        try {
+            if(insert(key, fingerprint)) {
+                return execute(key, owner);
+            }
+            Optional<IdempotencyKeyEntity> row = keyRepository.findById(key);
+            if(row.isPresent() && row.get().isCompleted() && !row.get().isExpired()) {
+                IdempotencyKeyEntity stored = row.get();
+                IdempotentResponse response = new IdempotentResponse(stored.getFingerprint(),
+                        stored.getHttpStatus(), stored.getContentType(), stored.getBody());
+                responses.put(key, response);
+                release(key, response);
+                return count(new Claim(Decision.REPLAY, response, null));
+            }
+            if(row.isPresent() && row.get().isUnknown() && !row.get().isExpired()) {
+                release(key, null);
+                return count(new Claim(Decision.UNKNOWN, null, null));
+            }
+            if(takeOver(key, fingerprint) || (row.isEmpty() && insert(key, fingerprint))) {
+                return execute(key, owner);
+            }
+            // In Flight on another Instance
+            release(key, null);
+            return count(new Claim(Decision.CONFLICT, null, null));
+        } catch (RuntimeException e) {
+            release(key, null);
+            throw e;
+        }
+    }
+
+    /**
+     * Store the Response of the Key (Claimed with EXECUTE) and release the Duplicates waiting
+     * @param key
+     * @param response
+     */
+    public void complete(String key, IdempotentResponse response) {
+        // Replayed from the Hot Tier even if the DB Tier fails
+        responses.put(key, response);
+        try {
+            for(int attempt = 1; ; attempt++) {
+                try {
+                    keyRepository.complete(key, response.status(), response.contentType(), response.body());
+                    return;
+                } catch (RuntimeException e) {
+                    if(attempt >= MAX_STORE_ATTEMPTS) {
+                        unknown(key, e);
+                        return;
+                    }
+                    log.warn("Idempotent Response {} not stored (Attempt {})! {}", key, attempt, e.getMessage());
+                    Thread.sleep(STORE_RETRY_DELAY * attempt);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unknown(key, e);
+        } finally {
+            executing.remove(key);
+            release(key, response);
+        }
+    }
+
+    /**
+     * Remove the Key (Claimed with EXECUTE) without a Response, the next Request with the Key is executed
+     * @param key
+     */
+    public void abandon(String key) {
+        try {
+            keyRepository.deletePending(key);
+        } finally {
+            executing.remove(key);
+            release(key, null);
+        }
+    }
+
+    /**
+     * The Key is Claimed (EXECUTE) by this Instance
+     * @param key
+     * @param owner
+     * @return
+     */
+    private Claim execute(String key, CompletableFuture<IdempotentResponse> owner) {
+        executing.add(key);
+        return count(new Claim(Decision.EXECUTE, null, owner));
+    }
+
+    /**
+     * The Request was executed but the Response could not be stored. The Key is kept (UNKNOWN) so that
+     * the Request is not executed again, the PENDING Key (DB down) is no longer renewed.
+     * @param key
+     * @param e
+     */
+    private void unknown(String key, Exception e) {
+        meterRegistry.counter("idempotency.store.failed").increment();
+        log.error("Unable to store the Idempotent Response {}! Key is UNKNOWN. {}", key, e.getMessage());
+        try {
+            keyRepository.markUnknown(key);
+        } catch (RuntimeException ex) {
+            log.error("Unable to mark the Idempotency Key {} UNKNOWN! {}", key, ex.getMessage());
+        }
+    }
+
+    /**
+     * Renew the Lease of the Keys in Flight on this Instance
+     */
+    private void renewLeases() {
+        if(executing.isEmpty()) {
+            return;
+        }
+        try {
+            keyRepository.renewLease(new ArrayList<>(executing), new Timestamp(System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.error("Unable to renew the Idempotency Key Leases! {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Insert the Key (PENDING)
+     * @param key
+     * @param fingerprint
+     * @return False if the Key exists
+     */
+    private boolean insert(String key, String fingerprint) {
+        try {
+            keyRepository.saveAndFlush(new IdempotencyKeyEntity(key, fingerprint, idempotencyConfig.getTtl()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Take over the Expired Key or the Key PENDING longer than the Lease
+     * @param key
+     * @param fingerprint
+     * @return
+     */
+    private boolean takeOver(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        return keyRepository.takeOver(key, fingerprint, new Timestamp(now - idempotencyConfig.getLease()),
+                new Timestamp(now), new Timestamp(now + idempotencyConfig.getTtl())) > 0;
+    }
+
+    /**
+     * Release the Duplicates waiting for the Key
+     * @param key
+     * @param response null if the Request failed
+     */
+    private void release(String key, IdempotentResponse response) {
+        CompletableFuture<IdempotentResponse> owner = inFlight.remove(key);
+        if(owner != null) {
+            owner.complete(response);
+        }
+    }
+
+    /**
+     * Remove the Expired Keys from the Database
+     */
+    private void removeExpired() {
+        try {
+            int removed = keyRepository.deleteExpired(new Timestamp(System.currentTimeMillis()));
+            if(removed > 0) {
+                log.info("Idempotency Keys expired = {}", removed);
+            }
+        } catch (Exception e) {
+            log.error("Unable to remove the Expired Idempotency Keys! {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Count the Claim
+     * @param claim
+     * @return
+     */
+    private Claim count(Claim claim) {
+        meterRegistry.counter("idempotency.keys", "result", claim.decision().name().toLowerCase()).increment();
+        return claim;
+    }
+}
@@ -0,0 +1,323 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderArchiveRepository;
+import io.fusion.air.microservice.adapters.repository.OrderPagingRepository;
+import io.fusion.air.microservice.adapters.repository.OrderRepository;
+import io.fusion.air.microservice.adapters.repository.OrderStateHistoryRepository;
+import io.fusion.air.microservice.domain.entities.order.OrderArchiveEntity;
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.events.OrderArchivedEvent;
+import io.fusion.air.microservice.domain.exceptions.DatabaseException;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.server.config.DatabaseConfig;
+import io.fusion.air.microservice.server.config.OrderArchiveConfig;
+import io.fusion.air.microservice.utils.UUIDv7;
+// Spring
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+// Other
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+// Java
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Archive (Hot / Cold Tiering)
+ *
+ * The Archival Job moves the Closed Orders (Completed, Cancelled, Returned, Delivered) older than
+ * order.archive.after.months from the Hot Tables (order_tx, order_item_tx, order_state_history_tx)
+ * to order_archive_tx as GZip compressed JSON. Each Batch is moved in a single Transaction. The Archived
+ * Orders are evicted from the Order Summary Read Models (OrderArchived Event, Local and Outbox).
+ *
+ * The Order Ids are Time Ordered (UUID v7), so the Id Bounds returned by this service let the Queries
+ * prune the Monthly Partitions. The Orders created before db.uuid.v7.since may have (Legacy) UUID v4 Ids,
+ * for them the Bounds are open and the Time Predicate decides.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class OrderArchiveService {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    public static final Set<OrderState> CLOSED_STATES = Collections.unmodifiableSet(EnumSet.of(
+            OrderState.ORDER_COMPLETED, OrderState.CANCELLED, OrderState.RETURNED, OrderState.DELIVERED));
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+
+    // Autowired using the Constructor
+    private final OrderArchiveConfig archiveConfig;
+    private final DatabaseConfig dbConfig;
+    private final OrderPagingRepository orderPagingRepository;
+    private final OrderRepository orderRepository;
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final OrderStateHistoryRepository historyRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate txTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReentrantLock archiveLock = new ReentrantLock();
+    private final Counter archivedCounter;
+    private final Counter lookupCounter;
+    private final Timer archiveTimer;
+    private final DistributionSummary compressedSize;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Autowired using the Constructor
+     * @param archiveConfig
+     * @param dbConfig
+     * @param orderPagingRepo
+     * @param orderRepo
+     * @param orderArchiveRepo
+     * @param historyRepo
+     * @param entityManager
+     * @param txManager
+     * @param mapper
+     * @param outboxWriter
+     * @param eventPublisher
+     * @param meterReg
+     */
+    public OrderArchiveService(OrderArchiveConfig archiveConfig, DatabaseConfig dbConfig,
+                               OrderPagingRepository orderPagingRepo, OrderRepository orderRepo,
+                               OrderArchiveRepository orderArchiveRepo, OrderStateHistoryRepository historyRepo,
+                               EntityManager entityManager,
+                               PlatformTransactionManager txManager, ObjectMapper mapper,
+                               OutboxWriter outboxWriter, ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterReg) {
+        this.archiveConfig = archiveConfig;
+        this.dbConfig = dbConfig;
+        this.orderPagingRepository = orderPagingRepo;
+        this.orderRepository = orderRepo;
+        this.orderArchiveRepository = orderArchiveRepo;
+        this.historyRepository = historyRepo;
+        this.entityManager = entityManager;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.objectMapper = mapper;
+        this.outboxWriter = outboxWriter;
+        this.eventPublisher = eventPublisher;
+        this.archivedCounter = meterReg.counter("order.archive.archived");
+        this.lookupCounter = meterReg.counter("order.archive.lookup");
+        this.archiveTimer = meterReg.timer("order.archive.run");
+        this.compressedSize = DistributionSummary.builder("order.archive.compressed")
+                .baseUnit("bytes")
+                .register(meterReg);
+    }
+
+    /**
+     * Start the Archival Job
+     */
+    @PostConstruct
+    public void start() {
+        if(!archiveConfig.isArchiveEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-archive");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = archiveConfig.getArchiveInterval();
+        scheduler.scheduleWithFixedDelay(this::archive, interval, interval, TimeUnit.MINUTES);
+        log.info("Order Archival started. Archive after {} Months, every {} Minutes",
+                archiveConfig.getArchiveAfterMonths(), interval);
+    }
+
+    /**
+     * Stop the Archival Job
+     */
+    @PreDestroy
+    public void stop() {
+        if(scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Lower Bound Id (Inclusive) of the Orders created at or after the Time
+     * @param epochMillis
+     * @return
+     */
+    public UUID lowerBoundId(long epochMillis) {
+        // Legacy Orders (UUID v4) created after the Time could have any Id
+        return epochMillis >= dbConfig.getUuidV7Since() ? UUIDv7.lowerBound(epochMillis) : MIN_ID;
+    }
+
+    /**
+     * Archive the Closed Orders older than the Archive Age
+     * @return Number of Orders Archived
+     */
+    public int archive() {
+        if(!archiveLock.tryLock()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            long cutoff = LocalDate.now().minusMonths(archiveConfig.getArchiveAfterMonths())
+                    .atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            long v7Since = dbConfig.getUuidV7Since();
+            // Legacy Orders (UUID v4 Ids) are found by the Time only
+            if(v7Since > 0) {
+                total += archiveAll(MAX_ID, Math.min(cutoff, v7Since));
+            }
+            // The rest have UUID v7 Ids and the Id Bound prunes the Partitions
+            if(cutoff > v7Since) {
+                total += archiveAll(UUIDv7.lowerBound(cutoff), cutoff);
+            }
+            if(total > 0) {
+                log.info("Order Archival moved {} Orders created before {}", total, new Timestamp(cutoff));
+            }
+        } catch (Exception e) {
+            log.error("Order Archival failed! {}", e.getMessage());
+        } finally {
+            archiveTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            archiveLock.unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Find the Archived Order (Read Only, the Order is not in the Hot Tables)
+     * @param customerId
+     * @param orderId
+     * @return
+     */
+    public Optional<OrderEntity> findArchived(String customerId, UUID orderId) {
+        Optional<OrderArchiveEntity> archived = orderArchiveRepository.findByCustomerIdAndOrderId(customerId, orderId);
+        if(archived.isEmpty()) {
+            return Optional.empty();
+        }
+        lookupCounter.increment();
+        return Optional.of(toOrder(archived.get()));
+    }
+
+    /**
+     * Move the Orders created before the Time to the Archive (Batch by Batch)
+     * @param beforeId
+     * @param beforeTime
+     * @return
+     */
+    private int archiveAll(UUID beforeId, long beforeTime) {
+        int total = 0;
+        int archived;
+        do {
+            archived = archiveBatch(beforeId, beforeTime);
+            total += archived;
+        } while (archived == archiveConfig.getArchiveBatchSize());
+        return total;
+    }
+
+    /**
+     * Move a Batch of Orders to the Archive
+     * @param beforeId
+     * @param beforeTime
+     * @return
+     */
+    private int archiveBatch(UUID beforeId, long beforeTime) {
+        Integer archived = txTemplate.execute(status -> {
+            List<OrderEntity> orders = orderPagingRepository.findByStatesBefore(CLOSED_STATES,
+                    beforeId, new Timestamp(beforeTime),
+                    PageRequest.of(0, archiveConfig.getArchiveBatchSize()));
+            List<OutboxWriter.Entry> entries = new ArrayList<>(orders.size());
+            for(OrderEntity order : orders) {
+                byte[] payload = compress(order);
+                compressedSize.record(payload.length);
+                entityManager.persist(new OrderArchiveEntity(order, payload));
+                OrderArchivedEvent event = new OrderArchivedEvent(order.getUuid(), order.getCustomerId());
+                eventPublisher.publishEvent(event);
+                entries.add(new OutboxWriter.Entry(OutboxWriter.ORDER, order.getOrderId(), OutboxWriter.ORDER_ARCHIVED, event));
+            }
+            outboxWriter.appendAll(entries);
+            // The Order Event Log is not cascaded from the Order (Append Only), it's deleted with the Order
+            historyRepository.deleteByOrderIds(orders.stream().map(OrderEntity::getUuid).toList());
+            // Cascades to the Items and the Payment
+            orderRepository.deleteAll(orders);
+            return orders.size();
+        });
+        int count = archived == null ? 0 : archived;
+        archivedCounter.increment(count);
+        return count;
+    }
+
+    /**
+     * Serialize the Order Aggregate as GZip compressed JSON
+     * @param order
+     * @return
+     */
+    private byte[] compress(OrderEntity order) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, order);
+        } catch (IOException e) {
+            throw new DatabaseException("Unable to archive the Order "+order.getOrderId()+": "+e.getMessage(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restore the Order Aggregate from the Archive
+     * @param archived
+     * @return
+     */
+    private OrderEntity toOrder(OrderArchiveEntity archived) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archived.getPayload()))) {
+            OrderEntity order = objectMapper.readValue(in, OrderEntity.class);
+            order.markArchived();
+            return order;
+        } catch (IOException e) {
+            throw new DatabaseException("Unable to read the Archived Order "+archived.getOrderId()+": "+e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,222 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.exceptions.BusinessServiceException;
+import io.fusion.air.microservice.domain.models.order.OrderEventRequest;
+import io.fusion.air.microservice.domain.models.order.OrderEventResult;
+import io.fusion.air.microservice.domain.ports.services.OrderService;
+import io.fusion.air.microservice.server.config.OrderBulkConfig;
+import io.fusion.air.microservice.utils.Threads;
+// Spring
+import org.springframework.stereotype.Component;
+// Other
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Bulk Order Events Processor (NDJSON)
+ *
+ * The Events are read from the Request Stream in Chunks (order.bulk.chunk.size). A Chunk is applied in
+ * a single Transaction on a Worker Thread while the next Chunk is parsed (Pipeline of 1 Chunk, so the
+ * Events of an Order are always applied in the Request Order). Lines which are not valid JSON are
+ * Rejected, the Events after order.bulk.max.events are not processed.
+ *
+ * Metrics
+ * orders.bulk.chunk            - Time to apply a Chunk
+ * orders.bulk.events{status}
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class OrderBulkEventProcessor {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final OrderService orderService;
+    private final OrderBulkConfig bulkConfig;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Timer chunkTimer;
+    private final Counter invalidCounter;
+
+    private ExecutorService workers;
+
+    /**
+     * Autowired using the Constructor
+     * @param orderService
+     * @param bulkConfig
+     * @param mapper
+     * @param meterReg
+     */
+    public OrderBulkEventProcessor(OrderService orderService, OrderBulkConfig bulkConfig,
+                                   ObjectMapper mapper, MeterRegistry meterReg) {
+        this.orderService = orderService;
+        this.bulkConfig = bulkConfig;
+        this.objectMapper = mapper;
+        this.meterRegistry = meterReg;
+        this.chunkTimer = meterReg.timer("orders.bulk.chunk");
+        this.invalidCounter = meterReg.counter("orders.bulk.events", "status", "invalid");
+    }
+
+    /**
+     * Start the Worker Threads
+     */
+    @PostConstruct
+    public void start() {
+        ExecutorService virtual = Threads.virtualThreadExecutor();
+        if(virtual != null) {
+            workers = virtual;
+        } else {
+            int threads = Math.max(1, bulkConfig.getThreads());
+            // The Request Thread applies the Chunk when all the Workers are busy (No Pipeline)
+            workers = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), Threads.daemon("order-bulk"),
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    /**
+     * Stop the Worker Threads
+     */
+    @PreDestroy
+    public void stop() {
+        if(workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Process the Order Events (One JSON Object per Line)
+     * @param reader
+     * @return Results in the Line Order
+     * @throws IOException
+     */
+    public List<OrderEventResult> process(BufferedReader reader) throws IOException {
+        int chunkSize = Math.max(1, bulkConfig.getChunkSize());
+        List<OrderEventResult> results = new ArrayList<>();
+        List<OrderEventRequest> chunk = new ArrayList<>(chunkSize);
+        Future<List<OrderEventResult>> inFlight = null;
+        OrderEventResult limit = null;
+        int firstLine = 1;
+        int lineNo = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if(line.isBlank()) {
+                continue;
+            }
+            lineNo++;
+            if(lineNo > bulkConfig.getMaxEvents()) {
+                limit = new OrderEventResult(lineNo, null, null, OrderEventResult.REJECTED, null,
+                        "Max Events per Request ("+bulkConfig.getMaxEvents()+") exceeded! The remaining Events are not processed.");
+                break;
+            }
+            chunk.add(parse(line));
+            if(chunk.size() == chunkSize) {
+                await(inFlight, results);
+                inFlight = submit(chunk, firstLine);
+                firstLine = lineNo + 1;
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        await(inFlight, results);
+        if(!chunk.isEmpty()) {
+            await(submit(chunk, firstLine), results);
+        }
+        if(limit != null) {
+            results.add(limit);
+        }
+        return results;
+    }
+
+    /**
+     * Apply the Chunk on a Worker Thread
+     * @param chunk
+     * @param firstLine
+     * @return
+     */
+    private Future<List<OrderEventResult>> submit(List<OrderEventRequest> chunk, int firstLine) {
+        return workers.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                List<OrderEventResult> results = orderService.handleEvents(chunk, firstLine);
+                for(OrderEventResult result : results) {
+                    meterRegistry.counter("orders.bulk.events", "status", result.status()).increment();
+                }
+                return results;
+            } finally {
+                chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Wait for the Chunk and collect the Results
+     * @param chunk
+     * @param results
+     */
+    private void await(Future<List<OrderEventResult>> chunk, List<OrderEventResult> results) {
+        if(chunk == null) {
+            return;
+        }
+        try {
+            results.addAll(chunk.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessServiceException("Bulk Order Events interrupted after "+results.size()+" Events", e);
+        } catch (ExecutionException e) {
+            log.error("Bulk Order Events Chunk failed after {} Events! {}", results.size(), e.getCause().getMessage());
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BusinessServiceException("Bulk Order Events failed after "+results.size()+" Events", e.getCause());
+        }
+    }
+
+    /**
+     * Parse the Line (Invalid JSON is Rejected by the Order Service)
+     * @param line
+     * @return
+     */
+    private OrderEventRequest parse(String line) {
+        try {
+            return objectMapper.readValue(line, OrderEventRequest.class);
+        } catch (JsonProcessingException e) {
+            invalidCounter.increment();
+            return new OrderEventRequest(null, null, null);
+        }
+    }
+}
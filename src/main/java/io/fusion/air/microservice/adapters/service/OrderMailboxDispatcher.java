@@ -0,0 +1,284 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.exceptions.BusinessServiceException;
+import io.fusion.air.microservice.domain.exceptions.LimitExceededException;
+import io.fusion.air.microservice.server.config.OrderMailboxConfig;
+import io.fusion.air.microservice.utils.Threads;
+// Spring
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Mailbox Dispatcher (Actor Style)
+ *
+ * Order Events are routed to a Mailbox (Stripe) by the Hash of the Order Id. Every Mailbox is drained
+ * by a single Thread (Virtual Thread on Java 21+), so the Events of an Order are processed one after
+ * the other and never compete for the Order Row Lock, while the Orders of other Mailboxes run in parallel.
+ *
+ * Back Pressure: a Full Mailbox (order.mailbox.capacity) makes the Caller wait up to order.mailbox.offer.timeout,
+ * after that the Event is Rejected (429). A Task submitted from the Thread of the same Mailbox is executed
+ * inline to avoid a Dead Lock. A Task whose Caller timed out (503) is Abandoned and skipped by the Mailbox.
+ *
+ * Metrics
+ * orders.mailbox.depth{stripe}  - Events waiting in the Mailbox
+ * orders.mailbox.wait           - Time in the Mailbox before the Event is processed
+ * orders.mailbox.rejected
+ * orders.mailbox.abandoned      - Events skipped as the Caller timed out
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class OrderMailboxDispatcher {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Stripe of the Mailbox Thread (-1 for the other Threads)
+    private static final ThreadLocal<Integer> currentStripe = ThreadLocal.withInitial(() -> -1);
+
+    // Autowired using the Constructor
+    private final OrderMailboxConfig mailboxConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter rejectedCounter;
+    private final Counter abandonedCounter;
+    private final Timer waitTimer;
+
+    private BlockingQueue<Runnable>[] mailboxes;
+    private ExecutorService workers;
+
+    /**
+     * Autowired using the Constructor
+     * @param mailboxConfig
+     * @param meterReg
+     */
+    public OrderMailboxDispatcher(OrderMailboxConfig mailboxConfig, MeterRegistry meterReg) {
+        this.mailboxConfig = mailboxConfig;
+        this.meterRegistry = meterReg;
+        this.rejectedCounter = meterReg.counter("orders.mailbox.rejected");
+        this.abandonedCounter = meterReg.counter("orders.mailbox.abandoned");
+        this.waitTimer = Timer.builder("orders.mailbox.wait")
+                .publishPercentileHistogram()
+                .register(meterReg);
+    }
+
+    /**
+     * Start the Mailbox Threads
+     */
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void start() {
+        if(!mailboxConfig.isMailboxEnabled()) {
+            return;
+        }
+        int stripes = Math.max(1, mailboxConfig.getStripes());
+        ExecutorService virtual = mailboxConfig.isVirtualThreads() ? Threads.virtualThreadExecutor() : null;
+        workers = (virtual != null) ? virtual : Executors.newFixedThreadPool(stripes, Threads.daemon("order-mailbox"));
+        mailboxes = new BlockingQueue[stripes];
+        for(int i = 0; i < stripes; i++) {
+            BlockingQueue<Runnable> mailbox = new ArrayBlockingQueue<>(Math.max(1, mailboxConfig.getCapacity()));
+            mailboxes[i] = mailbox;
+            Gauge.builder("orders.mailbox.depth", mailbox, BlockingQueue::size)
+                    .tag("stripe", String.valueOf(i))
+                    .register(meterRegistry);
+            int stripe = i;
+            workers.execute(() -> drain(stripe, mailbox));
+        }
+        log.info("Order Mailboxes started. Stripes = {} Capacity = {} Virtual Threads = {}",
+                stripes, mailboxConfig.getCapacity(), virtual != null);
+    }
+
+    /**
+     * Stop the Mailbox Threads
+     */
+    @PreDestroy
+    public void stop() {
+        if(workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    /**
+     * Process the Task in the Mailbox of the Order and Wait for the Result (order.mailbox.timeout)
+     * The Task is executed directly if the Mailboxes are disabled.
+     *
+     * @param orderId
+     * @param task
+     * @return
+     */
+    public <T> T execute(UUID orderId, Supplier<T> task) {
+        if(mailboxes == null || currentStripe.get() == stripe(orderId)) {
+            return task.get();
+        }
+        CompletableFuture<T> result = submit(orderId, task);
+        try {
+            return result.get(mailboxConfig.getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new BusinessServiceException("Order Event failed for "+orderId+"! "+e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(result);
+            throw new BusinessServiceException("Order Event interrupted for "+orderId, HttpStatus.SERVICE_UNAVAILABLE, e);
+        } catch (TimeoutException e) {
+            if(!abandon(result)) {
+                // Completed while timing out
+                return result.join();
+            }
+            throw new BusinessServiceException("Order Event timed out for "+orderId, HttpStatus.SERVICE_UNAVAILABLE, e);
+        }
+    }
+
+    /**
+     * Queue the Task in the Mailbox of the Order
+     * A Full Mailbox makes the Caller wait up to order.mailbox.offer.timeout
+     * @param orderId
+     * @param task
+     * @return
+     */
+    public <T> CompletableFuture<T> submit(UUID orderId, Supplier<T> task) {
+        return enqueue(orderId, task, mailboxConfig.getOfferTimeout());
+    }
+
+    /**
+     * Queue the Task in the Mailbox of the Order without waiting (Scheduler Threads)
+     * @param orderId
+     * @param task
+     * @return
+     * @throws LimitExceededException if the Mailbox is Full
+     */
+    public <T> CompletableFuture<T> trySubmit(UUID orderId, Supplier<T> task) {
+        return enqueue(orderId, task, 0);
+    }
+
+    /**
+     * Queue the Task in the Mailbox of the Order
+     * @param orderId
+     * @param task
+     * @param offerTimeout Milli Seconds to wait for a Full Mailbox
+     * @return
+     */
+    private <T> CompletableFuture<T> enqueue(UUID orderId, Supplier<T> task, long offerTimeout) {
+        if(mailboxes == null) {
+            return CompletableFuture.supplyAsync(task, Runnable::run);
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        int stripe = stripe(orderId);
+        long queued = System.nanoTime();
+        Runnable event = () -> {
+            waitTimer.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+            if(result.isDone()) {
+                // Abandoned by the Caller
+                abandonedCounter.increment();
+                return;
+            }
+            try {
+                result.complete(task.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        boolean accepted;
+        try {
+            accepted = (offerTimeout > 0)
+                    ? mailboxes[stripe].offer(event, offerTimeout, TimeUnit.MILLISECONDS)
+                    : mailboxes[stripe].offer(event);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if(!accepted) {
+            rejectedCounter.increment();
+            throw new LimitExceededException("Order Mailbox "+stripe+" is Full!");
+        }
+        return result;
+    }
+
+    /**
+     * Abandon the Task (Caller timed out), the Mailbox skips it if not yet started.
+     * A Task already running completes, but its Result is discarded.
+     * @param result
+     * @return False if the Task is already completed
+     */
+    private boolean abandon(CompletableFuture<?> result) {
+        return result.cancel(false) || result.isCancelled();
+    }
+
+    /**
+     * Returns the Events waiting in the Mailbox of the Order
+     * @param orderId
+     * @return
+     */
+    public int getDepth(UUID orderId) {
+        return mailboxes == null ? 0 : mailboxes[stripe(orderId)].size();
+    }
+
+    /**
+     * Process the Events of the Mailbox one after the other
+     * @param stripe
+     * @param mailbox
+     */
+    private void drain(int stripe, BlockingQueue<Runnable> mailbox) {
+        currentStripe.set(stripe);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Runnable event = mailbox.take();
+                try {
+                    event.run();
+                } catch (Throwable e) {
+                    // Keep the Mailbox alive
+                    log.error("Order Mailbox {} Event failed! {}", stripe, e.toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Mailbox (Stripe) of the Order
+     * @param orderId
+     * @return
+     */
+    private int stripe(UUID orderId) {
+        if(mailboxes == null) {
+            return -1;
+        }
+        int h = orderId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), mailboxes.length);
+    }
+}
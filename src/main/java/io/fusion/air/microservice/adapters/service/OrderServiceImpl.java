@@ -15,31 +15,58 @@
  */
 package io.fusion.air.microservice.adapters.service;
 // Custom
+import io.fusion.air.microservice.adapters.aop.RetryOnConflict;
+import io.fusion.air.microservice.adapters.repository.OrderDeadlineRepository;
 import io.fusion.air.microservice.adapters.repository.OrderPagingRepository;
 import io.fusion.air.microservice.adapters.repository.OrderRepository;
+import io.fusion.air.microservice.adapters.repository.OrderStageRepository;
+import io.fusion.air.microservice.adapters.repository.OrderStateHistoryRepository;
+import io.fusion.air.microservice.domain.entities.order.OrderDeadlineEntity;
 import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.entities.order.OrderStageEntity;
+import io.fusion.air.microservice.domain.entities.order.OrderStateHistoryEntity;
+import io.fusion.air.microservice.domain.events.OrderChangedEvent;
+import io.fusion.air.microservice.domain.events.OrderDeadlineEvent;
+import io.fusion.air.microservice.domain.events.OrderForkedEvent;
 import io.fusion.air.microservice.domain.exceptions.BusinessServiceException;
 import io.fusion.air.microservice.domain.exceptions.DataNotFoundException;
 import io.fusion.air.microservice.domain.exceptions.InputDataException;
+import io.fusion.air.microservice.domain.models.order.OrderEventRequest;
+import io.fusion.air.microservice.domain.models.order.OrderEventResult;
+import io.fusion.air.microservice.domain.models.order.OrderSummary;
 import io.fusion.air.microservice.domain.ports.services.OrderService;
 import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStage;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStageStatus;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStateMachine;
+import io.fusion.air.microservice.server.config.OrderBulkConfig;
+import io.fusion.air.microservice.server.config.OrderEventStoreConfig;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+import io.fusion.air.microservice.server.config.OrderTimeoutConfig;
 import io.fusion.air.microservice.utils.Utils;
 // Spring
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.slf4j.Logger;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 // Java
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
 
 import static java.lang.invoke.MethodHandles.lookup;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * Order Service
- * Order Processing is implemented with Spring State Machine
+ * Order Processing is implemented with the Order State Machine (Compiled Transition Table)
  * 1. Request for Credit
  * 2. Payment Processing
  * 3. Shipping the Product
@@ -63,16 +90,87 @@ public class OrderServiceImpl implements OrderService {
     // Autowired using Constructor
     private final MeterRegistry meterRegistry;
 
+    // Autowired using Constructor
+    private final OutboxWriter outboxWriter;
+
+    // Autowired using Constructor
+    private final OrderArchiveService orderArchive;
+
+    // Autowired using Constructor
+    private final OrderStateMachine orderStateMachine;
+
+    // Autowired using Constructor
+    private final OrderStateHistoryRepository historyRepository;
+
+    // Autowired using Constructor
+    private final OrderEventStoreConfig eventStoreConfig;
+
+    // Autowired using Constructor
+    private final OrderStageRepository stageRepository;
+
+    // Autowired using Constructor
+    private final OrderForkConfig forkConfig;
+
+    // Autowired using Constructor
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Autowired using Constructor
+    private final OrderBulkConfig bulkConfig;
+
+    // Autowired using Constructor
+    private final EntityManager entityManager;
+
+    // Autowired using Constructor
+    private final OrderDeadlineRepository deadlineRepository;
+
+    // Autowired using Constructor
+    private final OrderTimeoutConfig timeoutConfig;
+
+    private final Counter snapshotCounter;
+    private final DistributionSummary replayEvents;
+
     /**
      * Autowiring through the Constructor
      * @param orderPagingRepo
      * @param orderRepo
      * @param meterReg
+     * @param outboxWriter
+     * @param orderArchive
+     * @param orderStateMachine
+     * @param historyRepo
+     * @param eventStoreConfig
+     * @param stageRepo
+     * @param forkConfig
+     * @param eventPublisher
+     * @param bulkConfig
+     * @param entityManager
+     * @param deadlineRepo
+     * @param timeoutConfig
      */
-    public OrderServiceImpl(OrderPagingRepository orderPagingRepo, OrderRepository orderRepo, MeterRegistry meterReg) {
+    public OrderServiceImpl(OrderPagingRepository orderPagingRepo, OrderRepository orderRepo, MeterRegistry meterReg,
+                            OutboxWriter outboxWriter, OrderArchiveService orderArchive,
+                            OrderStateMachine orderStateMachine, OrderStateHistoryRepository historyRepo,
+                            OrderEventStoreConfig eventStoreConfig, OrderStageRepository stageRepo,
+                            OrderForkConfig forkConfig, ApplicationEventPublisher eventPublisher,
+                            OrderBulkConfig bulkConfig, EntityManager entityManager,
+                            OrderDeadlineRepository deadlineRepo, OrderTimeoutConfig timeoutConfig) {
         orderPagingRepository = orderPagingRepo;
         orderRepository = orderRepo;
         meterRegistry = meterReg;
+        this.outboxWriter = outboxWriter;
+        this.orderArchive = orderArchive;
+        this.orderStateMachine = orderStateMachine;
+        this.historyRepository = historyRepo;
+        this.eventStoreConfig = eventStoreConfig;
+        this.stageRepository = stageRepo;
+        this.forkConfig = forkConfig;
+        this.eventPublisher = eventPublisher;
+        this.bulkConfig = bulkConfig;
+        this.entityManager = entityManager;
+        this.deadlineRepository = deadlineRepo;
+        this.timeoutConfig = timeoutConfig;
+        this.snapshotCounter = meterReg.counter("orders.snapshots");
+        this.replayEvents = meterReg.summary("orders.replay.events");
     }
 
     /**
@@ -82,7 +180,7 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public List<OrderEntity> findAll() {
-        return (List<OrderEntity>) orderRepository.findAll();
+        return replay((List<OrderEntity>) orderRepository.findAll());
     }
 
     /**
@@ -93,11 +191,29 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public List<OrderEntity> findByCustomerId(String customerId) {
-        return orderPagingRepository.findByCustomerId(customerId);
+        return replay(orderPagingRepository.findByCustomerId(customerId));
+    }
+
+    /**
+     * Find the Orders of the Customer created in the last N Months (Hot Working Set)
+     * The Time Ordered Id Bound prunes the older Partitions.
+     *
+     * @param customerId
+     * @param months
+     * @return
+     */
+    @Override
+    public List<OrderEntity> findByCustomerId(String customerId, int months) {
+        if(months < 1) {
+            throw new InputDataException("Invalid Months "+months);
+        }
+        long from = LocalDate.now().minusMonths(months).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return replay(orderPagingRepository.findByCustomerIdSince(customerId, orderArchive.lowerBoundId(from), new Timestamp(from)));
     }
 
     /**
      * Find by Order by Customer ID and Order ID
+     * Falls back to the Order Archive for the Archived (Closed) Orders.
      *
      * @param customerId
      * @param orderId
@@ -105,15 +221,12 @@ public class OrderServiceImpl implements OrderService {
      */
     @Override
     public Optional<OrderEntity> findById(String customerId, String orderId) {
-        Optional<OrderEntity> o = orderPagingRepository.findByCustomerIdAndOrderId(customerId, Utils.getUUID(orderId));
-        if(o.isPresent()) {
-            return o;
-        }
-        throw new DataNotFoundException("Order Not Found for OrderId "+orderId);
+        return findById(customerId, Utils.getUUID(orderId));
     }
 
     /**
      * Find By Order by Customer ID and Order ID
+     * Falls back to the Order Archive for the Archived (Closed) Orders.
      *
      * @param customerId
      * @param orderId
@@ -122,6 +235,11 @@ public class OrderServiceImpl implements OrderService {
     @Override
     public Optional<OrderEntity> findById(String customerId, UUID orderId) {
         Optional<OrderEntity> o = orderPagingRepository.findByCustomerIdAndOrderId(customerId, orderId);
+        if(o.isPresent()) {
+            o.get().replayHistory();
+            return o;
+        }
+        o = orderArchive.findArchived(customerId, orderId);
         if(o.isPresent()) {
             return o;
         }
@@ -129,6 +247,9 @@ public class OrderServiceImpl implements OrderService {
 
     /**
      * Save Order
+     * The OrderSaved and OrderSummaryChanged Events are written to the Outbox in the same Transaction,
+     * the Order Summary (Read Model) is updated after the Commit. The Order Event Log is Append Only and written by the
+     * State Transitions, an Order carrying the History is rejected.
      *
      * @param order
      * @return
@@ -139,27 +260,46 @@ public class OrderServiceImpl implements OrderService {
         if(order == null) {
             throw new InputDataException("Invalid Order Data");
         }
+        if(order.isArchived()) {
+            throw new BusinessServiceException("Archived Order "+order.getOrderId()+" is Read Only!");
+        }
+        if(order.getOrderHistory() != null && !order.getOrderHistory().isEmpty()) {
+            throw new InputDataException("Order History is Read Only, it's written by the Order Events!");
+        }
         order.calculateTotalOrderValue();
         // Log Order Status
         meterRegistry.counter("orders.processed", "status", order.getOrderState().name()).increment();
-        return orderRepository.save(order);
+        OrderEntity savedOrder = orderRepository.save(order);
+        OrderChangedEvent changed = summaryChanged(savedOrder, System.currentTimeMillis());
+        outboxWriter.appendAll(List.of(
+                new OutboxWriter.Entry(OutboxWriter.ORDER, savedOrder.getOrderId(), OutboxWriter.ORDER_SAVED, savedOrder),
+                new OutboxWriter.Entry(OutboxWriter.ORDER, savedOrder.getOrderId(), OutboxWriter.ORDER_SUMMARY_CHANGED, changed)));
+        return savedOrder;
     }
 
     /**
      * Reset the Order State to Initialized
      * THIS METHOD IS ONLY FOR TESTING THE STATE MACHINE BY RESETTING THE ORDER BACK TO ITS INIT STATE.
+     * The Reset is appended to the Order Event Log (and the Outbox) as a Compensating Event.
      * @param customerId
      * @param orderId
      * @return
      */
+    @RetryOnConflict
     @Transactional
     public OrderEntity resetOrder(String customerId, String orderId) {
-        Optional<OrderEntity> orderOpt = findById( customerId,  orderId);
+        // Only the Live Orders (Archived Orders are Read Only)
+        Optional<OrderEntity> orderOpt = orderPagingRepository.findByCustomerIdAndOrderIdForUpdate(
+                customerId, Utils.getUUID(orderId));
         log.info("Reset Order ID = {} ", orderId);
         if(orderOpt.isPresent()) {
             OrderEntity order = orderOpt.get();
+            rebuild(order);
+            OrderState source = order.getOrderState();
             order.resetOrderState();
-            orderRepository.save(order);
+            log.info("Order ID = {} Event {} : {} -> {} ", order.getOrderId(), OrderEvent.ORDER_RESET_EVENT,
+                    source, order.getOrderState());
+            appendEvents(List.of(order));
             return order;
         }
         throw new DataNotFoundException("Order Not Found for "+orderId);
@@ -179,7 +319,6 @@ public class OrderServiceImpl implements OrderService {
     }
 
     /**
-     * For Testing Purpose Only
      * Handle Event - Generic Method
      *
      * @param customerId
@@ -187,28 +326,366 @@ public class OrderServiceImpl implements OrderService {
      * @param event
      * @return
      */
+    @RetryOnConflict
+    @Transactional
     public OrderEntity handleEvent(String customerId, String orderId, String event) {
-        OrderEvent orderEvent = OrderEvent.fromString(event);
+        OrderEvent orderEvent;
+        try {
+            orderEvent = OrderEvent.fromString(event);
+        } catch (IllegalArgumentException e) {
+            throw new InputDataException("Invalid Order Event "+event);
+        }
         return handleEvent(customerId, orderId, orderEvent);
     }
 
     /**
-     * For Testing Purpose Only
      * Handle Event - Generic Method
+     * The Order is Locked, the Current State is rebuilt from the Snapshot + Events after the Snapshot (Tail)
+     * and the Event is fired on the Order State Machine. The Transition is appended to the Order Event Log
+     * (Order State History) and the OrderStateChanged Event is written to the Outbox in the same Transaction.
+     * The Order row is updated only when the Snapshot is due or the Order is Closed.
+     * When the Order enters the PACKING_FORK the Stages (Branches) are recorded and started after the Commit.
      *
      * @param customerId
      * @param orderId
      * @param orderEvent
      * @return
      */
+    @RetryOnConflict
+    @Transactional
     public OrderEntity handleEvent(String customerId, String orderId, OrderEvent orderEvent) {
         if(orderEvent == null) {
             throw new BusinessServiceException("Invalid Event for OrderProcessing!");
         }
-        Optional<OrderEntity> orderOpt = findById( customerId,  orderId);
-        log.info("Handle Event {} For Order ID = {} ", orderEvent, orderId);
-        log.info("(1) INCOMING EVENT == (OrderServiceImpl) === [ {} ] ======= >> OrderID = {} ", orderEvent.name(),orderId);
-        return orderOpt.get();
+        // Only the Live Orders (Archived Orders are Closed)
+        Optional<OrderEntity> orderOpt = orderPagingRepository.findByCustomerIdAndOrderIdForUpdate(
+                customerId, Utils.getUUID(orderId));
+        if(orderOpt.isEmpty()) {
+            throw new DataNotFoundException("Order Not Found for OrderId="+orderId);
+        }
+        OrderEntity order = orderOpt.get();
+        rebuild(order);
+        checkForkJoin(order, orderEvent);
+        OrderState source = order.getOrderState();
+        applyEvent(order, orderEvent);
+        startFork(order, source);
+        return order;
+    }
+
+    /**
+     * Handle the Order Events in Bulk (Chunk of the Bulk Order Events Request)
+     * The Orders are loaded and locked (Id Order) with IN Queries, the Tails of the Orders are loaded with a
+     * Single Query. The Events are applied in the Request Order and the Event Log, Outbox and Order Updates
+     * are written in JDBC Batches. A Rejected Event doesn't affect the other Events of the Chunk.
+     *
+     * @param requests
+     * @param firstLine Line No. of the First Request
+     * @return Results in the Request Order
+     */
+    @Transactional
+    public List<OrderEventResult> handleEvents(List<OrderEventRequest> requests, int firstLine) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(bulkConfig.getJdbcBatchSize());
+        // Parse the Requests
+        UUID[] orderIds = new UUID[requests.size()];
+        OrderEvent[] events = new OrderEvent[requests.size()];
+        Set<UUID> ids = new TreeSet<>();
+        for(int i = 0; i < requests.size(); i++) {
+            OrderEventRequest request = requests.get(i);
+            try {
+                orderIds[i] = Utils.getUUID(request.orderId());
+                events[i] = OrderEvent.fromString(request.event());
+                ids.add(orderIds[i]);
+            } catch (RuntimeException e) {
+                orderIds[i] = null;
+            }
+        }
+        // Load & Lock the Orders, Rebuild the Current State
+        Map<UUID, OrderEntity> orders = new HashMap<>(ids.size() * 2);
+        List<UUID> idList = new ArrayList<>(ids);
+        int chunk = Math.max(1, bulkConfig.getChunkSize());
+        for(int from = 0; from < idList.size(); from += chunk) {
+            List<UUID> inIds = idList.subList(from, Math.min(idList.size(), from + chunk));
+            for(OrderEntity order : orderPagingRepository.findByOrderIdsForUpdate(inIds)) {
+                orders.put(order.getUuid(), order);
+            }
+            Map<UUID, List<OrderStateHistoryEntity>> tails = new HashMap<>();
+            for(OrderStateHistoryEntity event : historyRepository.findTails(inIds)) {
+                tails.computeIfAbsent(event.getOrderId(), k -> new ArrayList<>()).add(event);
+            }
+            for(UUID id : inIds) {
+                OrderEntity order = orders.get(id);
+                if(order != null) {
+                    List<OrderStateHistoryEntity> tail = tails.getOrDefault(id, Collections.emptyList());
+                    order.replay(tail);
+                    replayEvents.record(tail.size());
+                }
+            }
+        }
+        // Apply the Events
+        List<OrderEventResult> results = new ArrayList<>(requests.size());
+        Map<UUID, OrderEntity> changed = new LinkedHashMap<>();
+        for(int i = 0; i < requests.size(); i++) {
+            OrderEventRequest request = requests.get(i);
+            int line = firstLine + i;
+            if(orderIds[i] == null || request.customerId() == null) {
+                results.add(new OrderEventResult(line, request.orderId(), request.event(), OrderEventResult.REJECTED,
+                        null, "Invalid Request (customerId, orderId, event)"));
+                continue;
+            }
+            OrderEntity order = orders.get(orderIds[i]);
+            if(order == null || !order.getCustomerId().equals(request.customerId())) {
+                results.add(new OrderEventResult(line, request.orderId(), request.event(), OrderEventResult.NOT_FOUND,
+                        null, "Order Not Found"));
+                continue;
+            }
+            OrderState source = order.getOrderState();
+            try {
+                checkForkJoin(order, events[i]);
+                fireEvent(order, events[i]);
+            } catch (BusinessServiceException e) {
+                results.add(new OrderEventResult(line, request.orderId(), request.event(), OrderEventResult.REJECTED,
+                        source, e.getMessage()));
+                continue;
+            }
+            changed.put(order.getUuid(), order);
+            startFork(order, source);
+            results.add(new OrderEventResult(line, request.orderId(), request.event(), OrderEventResult.ACCEPTED,
+                    order.getOrderState(), null));
+        }
+        appendEvents(changed.values());
+        log.info("Bulk Order Events Lines {} - {} : Orders = {} Changed = {}",
+                firstLine, firstLine + requests.size() - 1, orders.size(), changed.size());
+        return results;
+    }
+
+    /**
+     * Join the Order Fork
+     * The Order moves from PACKING_FORK to READY_TO_SHIP_JOIN when all the Stages are Done and to ERROR
+     * when a Stage Failed (or the Fork failed). The Stages are removed once the Order is Joined or has left
+     * the PACKING_FORK (Cancelled). Returns Empty if the Stages are still Running.
+     *
+     * @param customerId
+     * @param orderId
+     * @param failure Reason if the Fork failed (Branch Failure / Timeout) else null
+     * @return
+     */
+    @RetryOnConflict
+    @Transactional
+    public Optional<OrderEntity> joinFork(String customerId, UUID orderId, String failure) {
+        Optional<OrderEntity> orderOpt = orderPagingRepository.findByCustomerIdAndOrderIdForUpdate(customerId, orderId);
+        if(orderOpt.isEmpty()) {
+            stageRepository.deleteByOrderId(orderId);
+            return Optional.empty();
+        }
+        OrderEntity order = orderOpt.get();
+        rebuild(order);
+        if(order.getOrderState() == OrderState.PACKING_FORK) {
+            List<OrderStageEntity> stages = stageRepository.findByOrderId(orderId);
+            if(failure != null || stages.stream().anyMatch(stage -> stage.getStatus() == OrderStageStatus.FAILED)) {
+                log.warn("Order ID = {} Fork failed! {}", orderId, failure);
+                applyEvent(order, OrderEvent.FAILURE_EVENT);
+            } else if(stages.stream().allMatch(OrderStageEntity::isDone)) {
+                applyEvent(order, OrderEvent.ORDER_READY_TO_SHIP_EVENT);
+            } else {
+                return Optional.empty();
+            }
+        } else {
+            log.info("Order ID = {} left the Fork ({}) before the Join", orderId, order.getOrderState());
+        }
+        stageRepository.deleteByOrderId(orderId);
+        return Optional.of(order);
+    }
+
+    /**
+     * Handle the Timeout of the Order (No Callback before the Deadline of the State)
+     * The Timeout Event of the State is fired only if the Order is still in the State and the Deadline
+     * (Re-Read under the Order Lock) has expired. A Callback which arrived in between wins.
+     *
+     * @param customerId
+     * @param orderId
+     * @param state State of the Deadline
+     * @return Empty if the Deadline is no longer valid
+     */
+    @RetryOnConflict
+    @Transactional
+    public Optional<OrderEntity> handleTimeout(String customerId, UUID orderId, OrderState state) {
+        Optional<OrderEntity> orderOpt = orderPagingRepository.findByCustomerIdAndOrderIdForUpdate(customerId, orderId);
+        if(orderOpt.isEmpty()) {
+            deadlineRepository.deleteByOrderId(orderId);
+            return Optional.empty();
+        }
+        OrderEntity order = orderOpt.get();
+        rebuild(order);
+        Optional<OrderDeadlineEntity> deadlineOpt = deadlineRepository.findById(orderId);
+        if(deadlineOpt.isEmpty() || deadlineOpt.get().getState() != state
+                || deadlineOpt.get().getDeadline() > System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        if(order.getOrderState() != state) {
+            // The Order left the State without an Event (Reset)
+            deadlineRepository.deleteByOrderId(orderId);
+            return Optional.empty();
+        }
+        OrderEvent timeoutEvent = deadlineOpt.get().getEvent();
+        log.warn("Order ID = {} Deadline expired in {}! Firing {}", orderId, state, timeoutEvent);
+        try {
+            applyEvent(order, timeoutEvent);
+        } catch (BusinessServiceException e) {
+            log.error("Order ID = {} Timeout Event {} rejected in {}! {}", orderId, timeoutEvent, state, e.getMessage());
+            deadlineRepository.deleteByOrderId(orderId);
+            return Optional.empty();
+        }
+        return Optional.of(order);
+    }
+
+    /**
+     * Rebuild the Current State of the Locked Order from the Snapshot + Events after the Snapshot (Tail)
+     * @param order
+     */
+    private void rebuild(OrderEntity order) {
+        List<OrderStateHistoryEntity> tail = historyRepository.findTail(order.getUuid(), order.getSnapshotVersion());
+        order.replay(tail);
+        replayEvents.record(tail.size());
+    }
+
+    /**
+     * Fire the Event on the Order State Machine, append the Transition to the Order Event Log and the Outbox
+     * and take the Snapshot when it's due.
+     * @param order
+     * @param orderEvent
+     */
+    private void applyEvent(OrderEntity order, OrderEvent orderEvent) {
+        OrderState source = order.getOrderState();
+        fireEvent(order, orderEvent);
+        log.info("Order ID = {} Event {} : {} -> {} ", order.getOrderId(), orderEvent, source, order.getOrderState());
+        appendEvents(List.of(order));
+    }
+
+    /**
+     * Fire the Event on the Order State Machine
+     * @param order
+     * @param orderEvent
+     */
+    private void fireEvent(OrderEntity order, OrderEvent orderEvent) {
+        try {
+            orderStateMachine.fire(order, orderEvent, null);
+        } catch (BusinessServiceException e) {
+            meterRegistry.counter("orders.transitions", "event", orderEvent.name(), "status", "rejected").increment();
+            throw e;
+        }
+        meterRegistry.counter("orders.transitions", "event", orderEvent.name(), "status", "accepted").increment();
+    }
+
+    /**
+     * Append the Pending Events of the Orders to the Order Event Log and the Outbox, update the Deadlines
+     * and the Order Summaries (Read Model) and take the Snapshots which are due. All the Event Log Inserts
+     * are issued before the Outbox Inserts (one Outbox Append for all the Orders), so that each Table is
+     * written in continuous JDBC Batches. One Outbox Event (OrderStateChanged) per Transition, the Read
+     * Models of the other Instances apply the Transition to their Summary (see KafkaOrderSummaryConsumer).
+     * @param orders
+     */
+    private void appendEvents(Collection<OrderEntity> orders) {
+        List<OrderStateHistoryEntity> events = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for(OrderEntity order : orders) {
+            List<OrderStateHistoryEntity> pending = order.getPendingEvents();
+            if(!pending.isEmpty()) {
+                updateDeadline(order, pending.get(0).getSourceState());
+                summaryChanged(order, now);
+            }
+            events.addAll(pending);
+        }
+        historyRepository.saveAll(events);
+        List<OutboxWriter.Entry> entries = new ArrayList<>(events.size());
+        for(OrderStateHistoryEntity event : events) {
+            entries.add(new OutboxWriter.Entry(OutboxWriter.ORDER, event.getOrderId().toString(),
+                    OutboxWriter.ORDER_STATE_CHANGED, event));
+        }
+        outboxWriter.appendAll(entries);
+        for(OrderEntity order : orders) {
+            order.clearPendingEvents();
+            if(order.isSnapshotDue(eventStoreConfig.getSnapshotInterval())
+                    || OrderArchiveService.CLOSED_STATES.contains(order.getOrderState())) {
+                order.snapshot();
+                snapshotCounter.increment();
+            }
+        }
+    }
+
+    /**
+     * Publish the Summary of the Order to the Read Model of this Instance (after the Commit)
+     * @param order
+     * @param time Time of the last State Change
+     * @return
+     */
+    private OrderChangedEvent summaryChanged(OrderEntity order, long time) {
+        OrderChangedEvent changed = new OrderChangedEvent(OrderSummary.of(order, time));
+        eventPublisher.publishEvent(changed);
+        return changed;
+    }
+
+    /**
+     * Set the Deadline when the Order entered a State waiting for a Callback and remove the Deadline
+     * when the Order left the State. The Timing Wheel is updated after the Commit.
+     * @param order
+     * @param source State before the Events
+     */
+    private void updateDeadline(OrderEntity order, OrderState source) {
+        OrderState target = order.getOrderState();
+        if(source == target) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long timeout = timeoutConfig.getDeadline(target);
+        if(timeout > 0) {
+            long deadline = now + timeout;
+            deadlineRepository.save(new OrderDeadlineEntity(order.getUuid(), order.getCustomerId(), target,
+                    timeoutConfig.getTimeoutEvent(target), deadline));
+            eventPublisher.publishEvent(new OrderDeadlineEvent(order.getCustomerId(), order.getUuid(), target, deadline, now));
+        } else if(timeoutConfig.getDeadline(source) > 0) {
+            deadlineRepository.deleteByOrderId(order.getUuid());
+            eventPublisher.publishEvent(new OrderDeadlineEvent(order.getCustomerId(), order.getUuid(), source, 0, now));
+        }
+    }
+
+    /**
+     * The Order in the PACKING_FORK is Joined only by the Fork (after the Packaging and Billing Stages)
+     * @param order
+     * @param orderEvent
+     */
+    private void checkForkJoin(OrderEntity order, OrderEvent orderEvent) {
+        if(forkConfig.isForkEnabled() && orderEvent == OrderEvent.ORDER_READY_TO_SHIP_EVENT
+                && order.getOrderState() == OrderState.PACKING_FORK) {
+            throw new BusinessServiceException("Order "+order.getOrderId()
+                    +" is Joined after the Packaging and Billing Stages are Done!");
+        }
+    }
+
+    /**
+     * Record the Stages (Branches) when the Order entered the PACKING_FORK, the Fork is started after the Commit.
+     * @param order
+     * @param source State before the Event
+     */
+    private void startFork(OrderEntity order, OrderState source) {
+        if(forkConfig.isForkEnabled() && source != OrderState.PACKING_FORK
+                && order.getOrderState() == OrderState.PACKING_FORK) {
+            for(OrderStage stage : OrderStage.values()) {
+                stageRepository.save(new OrderStageEntity(order.getUuid(), order.getCustomerId(), stage));
+            }
+            eventPublisher.publishEvent(new OrderForkedEvent(order.getCustomerId(), order.getUuid()));
+        }
+    }
+
+    /**
+     * Rebuild the Current State of the Orders
+     * @param orders
+     * @return
+     */
+    private List<OrderEntity> replay(List<OrderEntity> orders) {
+        for(OrderEntity order : orders) {
+            order.replayHistory();
+        }
+        return orders;
     }
 
     /**
@@ -0,0 +1,521 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderPagingRepository;
+import io.fusion.air.microservice.adapters.repository.OrderStateHistoryRepository;
+import io.fusion.air.microservice.domain.entities.order.OrderStateHistoryEntity;
+import io.fusion.air.microservice.domain.events.OrderArchivedEvent;
+import io.fusion.air.microservice.domain.events.OrderChangedEvent;
+import io.fusion.air.microservice.domain.models.order.OrderSummary;
+import io.fusion.air.microservice.domain.statemachine.order.OrderResult;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.server.config.OrderReadModelConfig;
+// Spring
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+// Other
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+// Java
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Summary Read Model (CQRS)
+ *
+ * The Summaries (Id, State, Result, Total Order Value, Currency, Last Transition) of all the Orders are
+ * kept in Memory in Columnar Arrays, one Array per Field indexed by the Row of the Order. Customer Ids and
+ * Currencies are stored once (Dictionary), the Total Order Value as Unscaled Long + Scale. The Rows of a
+ * Customer are indexed, so the Summaries of a Customer are served without touching JPA.
+ *
+ * The Read Model is updated after the Commit of the Order Saves and Transitions of this Instance and from
+ * the Outbox Topic (OrderSummaryChanged and OrderStateChanged Events of all the Instances, see
+ * KafkaOrderSummaryConsumer). The
+ * Order Version wins, so late and duplicate Updates are ignored. An Order Reset appends a compensating
+ * Event, so the Version keeps growing. The Read Model is rebuilt from the Order Snapshots + Event Tails at
+ * Startup. Archived Orders are evicted (OrderArchived Event), only the Orders in the Hot Tables are kept
+ * in Memory. The Read Model is Eventually Consistent with the Orders.
+ *
+ * Metrics
+ * orders.read.model.size
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class OrderSummaryReadModel {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final OrderState[] STATES = OrderState.values();
+    private static final OrderResult[] RESULTS = OrderResult.values();
+    // Scale of the Values which don't fit in a Long (Value is in the Overflow Map)
+    private static final byte OVERFLOW = Byte.MIN_VALUE;
+    private static final byte NO_VALUE = Byte.MAX_VALUE;
+
+    // Autowired using the Constructor
+    private final OrderReadModelConfig readModelConfig;
+    private final OrderPagingRepository orderPagingRepository;
+    private final OrderStateHistoryRepository historyRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Columns (Row = Order)
+    private UUID[] orderIds;
+    private int[] customers;
+    private byte[] states;
+    private byte[] results;
+    private long[] values;
+    private byte[] scales;
+    private short[] currencies;
+    private long[] times;
+    private int[] versions;
+    private int size;
+
+    // Indexes & Dictionaries
+    private final Map<UUID, Integer> rows = new HashMap<>();
+    private final Map<String, Integer> customerIndex = new HashMap<>();
+    private final List<String> customerIds = new ArrayList<>();
+    private int[][] customerRows = new int[16][];
+    private int[] customerRowCount = new int[16];
+    private final Map<String, Short> currencyIndex = new HashMap<>();
+    private final List<String> currencyCodes = new ArrayList<>();
+    private final Map<Integer, BigDecimal> overflowValues = new HashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Autowired using the Constructor
+     * @param readModelConfig
+     * @param orderPagingRepo
+     * @param historyRepo
+     * @param meterReg
+     */
+    public OrderSummaryReadModel(OrderReadModelConfig readModelConfig, OrderPagingRepository orderPagingRepo,
+                                 OrderStateHistoryRepository historyRepo, MeterRegistry meterReg) {
+        this.readModelConfig = readModelConfig;
+        this.orderPagingRepository = orderPagingRepo;
+        this.historyRepository = historyRepo;
+        allocate(Math.max(16, readModelConfig.getCapacity()));
+        Gauge.builder("orders.read.model.size", this, OrderSummaryReadModel::size)
+                .register(meterReg);
+    }
+
+    /**
+     * Returns True if the Read Model is rebuilt and serves the Summaries
+     * @return
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of Orders in the Read Model
+     * @return
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the Order Summaries of the Customer (Latest Order first)
+     * @param customerId
+     * @return
+     */
+    public List<OrderSummary> findByCustomerId(String customerId) {
+        lock.readLock().lock();
+        try {
+            Integer customer = customerIndex.get(customerId);
+            if(customer == null) {
+                return Collections.emptyList();
+            }
+            int count = customerRowCount[customer];
+            int[] customerRow = customerRows[customer];
+            List<OrderSummary> summaries = new ArrayList<>(count);
+            for(int i = count - 1; i >= 0; i--) {
+                summaries.add(summary(customerRow[i]));
+            }
+            return summaries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the Order Summary
+     * @param orderId
+     * @return
+     */
+    public Optional<OrderSummary> findById(UUID orderId) {
+        lock.readLock().lock();
+        try {
+            Integer row = rows.get(orderId);
+            return (row == null) ? Optional.empty() : Optional.of(summary(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Update the Read Model after the Commit of the Order Save / Transition
+     * @param event
+     */
+    @TransactionalEventListener
+    public void onOrderChanged(OrderChangedEvent event) {
+        if(readModelConfig.isReadModelEnabled()) {
+            apply(event.summary());
+        }
+    }
+
+    /**
+     * Evict the Archived Order after the Commit
+     * @param event
+     */
+    @TransactionalEventListener
+    public void onOrderArchived(OrderArchivedEvent event) {
+        if(readModelConfig.isReadModelEnabled()) {
+            evict(event.orderId());
+        }
+    }
+
+    /**
+     * Rebuild the Read Model from the Database (Order Snapshots + Event Tails)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if(!readModelConfig.isReadModelEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        PageRequest page = PageRequest.of(0, Math.max(1, readModelConfig.getRebuildPageSize()));
+        int orders = 0;
+        List<OrderSummary> summaries = orderPagingRepository.findSummariesAfter(MIN_ID, page);
+        while (!summaries.isEmpty()) {
+            applyTails(summaries);
+            orders += summaries.size();
+            summaries = orderPagingRepository.findSummariesAfter(summaries.get(summaries.size() - 1).orderId(), page);
+        }
+        ready = true;
+        log.info("Order Read Model rebuilt. Orders = {} in {} ms", orders, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Apply the Events after the Snapshots (Tails) to the Summaries and update the Read Model
+     * @param summaries Summaries of the Snapshots
+     */
+    private void applyTails(List<OrderSummary> summaries) {
+        Map<UUID, OrderSummary> current = new LinkedHashMap<>(summaries.size() * 2);
+        for(OrderSummary summary : summaries) {
+            current.put(summary.orderId(), summary);
+        }
+        for(OrderStateHistoryEntity event : historyRepository.findTails(current.keySet())) {
+            OrderSummary summary = current.get(event.getOrderId());
+            if(summary != null && event.getOrderVersion() > summary.orderVersion()) {
+                long time = (event.getAuditLog() != null && event.getAuditLog().getCreatedTime() != null)
+                        ? event.getAuditLog().getCreatedTime().getTime() : summary.lastTransition();
+                current.put(event.getOrderId(), summary.withState(event.getTargetState(), event.getResult(),
+                        time, event.getOrderVersion()));
+            }
+        }
+        current.values().forEach(this::apply);
+    }
+
+    /**
+     * Insert / Update the Summary of the Order (Ignored if the Read Model has a later Order Version)
+     * @param summary
+     */
+    public void apply(OrderSummary summary) {
+        if(summary == null || summary.orderId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer existing = rows.get(summary.orderId());
+            int row;
+            if(existing == null) {
+                row = addRow(summary.orderId(), summary.customerId());
+            } else {
+                row = existing;
+                if(versions[row] > summary.orderVersion()) {
+                    return;
+                }
+            }
+            states[row] = (byte) ((summary.orderState() != null) ? summary.orderState().ordinal() : -1);
+            results[row] = (byte) ((summary.result() != null) ? summary.result().ordinal() : -1);
+            setValue(row, summary.totalOrderValue());
+            currencies[row] = currency(summary.currency());
+            times[row] = summary.lastTransition();
+            versions[row] = summary.orderVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply the State Transition to the Summary of the Order (OrderStateChanged Event of an Instance).
+     * Ignored if the Order is not in the Read Model (Summary arrives with the OrderSummaryChanged Event)
+     * or the Read Model has the same or a later Order Version.
+     * @param orderId
+     * @param state
+     * @param stateResult Result after the Transition (null = unchanged)
+     * @param time
+     * @param version
+     * @return True if the Summary was updated
+     */
+    public boolean applyTransition(UUID orderId, OrderState state, OrderResult stateResult, long time, int version) {
+        if(orderId == null || state == null) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer row = rows.get(orderId);
+            if(row == null || versions[row] >= version) {
+                return false;
+            }
+            states[row] = (byte) state.ordinal();
+            if(stateResult != null) {
+                results[row] = (byte) stateResult.ordinal();
+            }
+            times[row] = time;
+            versions[row] = version;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the Order (Archived). The Last Row is moved into the Row of the Order.
+     * @param orderId
+     */
+    public void evict(UUID orderId) {
+        if(orderId == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer removed = rows.remove(orderId);
+            if(removed == null) {
+                return;
+            }
+            int row = removed;
+            // Remove the Row from the Customer Index (keeps the Order of the Customer Rows)
+            int customer = customers[row];
+            int[] customerRow = customerRows[customer];
+            int count = customerRowCount[customer];
+            for(int i = 0; i < count; i++) {
+                if(customerRow[i] == row) {
+                    System.arraycopy(customerRow, i + 1, customerRow, i, count - i - 1);
+                    customerRowCount[customer] = count - 1;
+                    break;
+                }
+            }
+            overflowValues.remove(row);
+            int last = --size;
+            if(row != last) {
+                moveRow(last, row);
+            }
+            orderIds[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move the Row (Write Lock)
+     * @param from
+     * @param to
+     */
+    private void moveRow(int from, int to) {
+        orderIds[to] = orderIds[from];
+        customers[to] = customers[from];
+        states[to] = states[from];
+        results[to] = results[from];
+        values[to] = values[from];
+        scales[to] = scales[from];
+        currencies[to] = currencies[from];
+        times[to] = times[from];
+        versions[to] = versions[from];
+        rows.put(orderIds[to], to);
+        BigDecimal overflow = overflowValues.remove(from);
+        if(overflow != null) {
+            overflowValues.put(to, overflow);
+        }
+        int[] customerRow = customerRows[customers[to]];
+        for(int i = 0; i < customerRowCount[customers[to]]; i++) {
+            if(customerRow[i] == from) {
+                customerRow[i] = to;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Read the Summary of the Row (Read Lock)
+     * @param row
+     * @return
+     */
+    private OrderSummary summary(int row) {
+        return new OrderSummary(orderIds[row], customerIds.get(customers[row]),
+                (states[row] >= 0) ? STATES[states[row]] : null,
+                (results[row] >= 0) ? RESULTS[results[row]] : null,
+                getValue(row),
+                (currencies[row] >= 0) ? currencyCodes.get(currencies[row]) : null,
+                times[row], versions[row]);
+    }
+
+    /**
+     * Add the Row of the Order (Write Lock)
+     * @param orderId
+     * @param customerId
+     * @return
+     */
+    private int addRow(UUID orderId, String customerId) {
+        if(size == orderIds.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        orderIds[row] = orderId;
+        rows.put(orderId, row);
+        String customerKey = (customerId != null) ? customerId : "";
+        Integer customer = customerIndex.get(customerKey);
+        if(customer == null) {
+            customer = customerIds.size();
+            customerIds.add(customerKey);
+            customerIndex.put(customerKey, customer);
+            if(customer == customerRows.length) {
+                customerRows = Arrays.copyOf(customerRows, customer * 2);
+                customerRowCount = Arrays.copyOf(customerRowCount, customer * 2);
+            }
+            customerRows[customer] = new int[4];
+        }
+        customers[row] = customer;
+        int count = customerRowCount[customer];
+        if(count == customerRows[customer].length) {
+            customerRows[customer] = Arrays.copyOf(customerRows[customer], count * 2);
+        }
+        customerRows[customer][count] = row;
+        customerRowCount[customer] = count + 1;
+        return row;
+    }
+
+    /**
+     * Store the Total Order Value as Unscaled Long + Scale
+     * @param row
+     * @param value
+     */
+    private void setValue(int row, BigDecimal value) {
+        overflowValues.remove(row);
+        if(value == null) {
+            scales[row] = NO_VALUE;
+            return;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        if(unscaled.bitLength() < 64 && value.scale() > OVERFLOW && value.scale() < NO_VALUE) {
+            values[row] = unscaled.longValue();
+            scales[row] = (byte) value.scale();
+        } else {
+            scales[row] = OVERFLOW;
+            overflowValues.put(row, value);
+        }
+    }
+
+    /**
+     * Returns the Total Order Value of the Row
+     * @param row
+     * @return
+     */
+    private BigDecimal getValue(int row) {
+        byte scale = scales[row];
+        if(scale == NO_VALUE) {
+            return null;
+        }
+        return (scale == OVERFLOW) ? overflowValues.get(row) : BigDecimal.valueOf(values[row], scale);
+    }
+
+    /**
+     * Returns the Dictionary Index of the Currency (-1 = None)
+     * @param currency
+     * @return
+     */
+    private short currency(String currency) {
+        if(currency == null) {
+            return -1;
+        }
+        Short index = currencyIndex.get(currency);
+        if(index == null) {
+            if(currencyCodes.size() >= Short.MAX_VALUE) {
+                throw new IllegalStateException("Order Read Model: Too many Currencies!");
+            }
+            index = (short) currencyCodes.size();
+            currencyCodes.add(currency);
+            currencyIndex.put(currency, index);
+        }
+        return index;
+    }
+
+    /**
+     * Allocate the Columns
+     * @param capacity
+     */
+    private void allocate(int capacity) {
+        orderIds = new UUID[capacity];
+        customers = new int[capacity];
+        states = new byte[capacity];
+        results = new byte[capacity];
+        values = new long[capacity];
+        scales = new byte[capacity];
+        currencies = new short[capacity];
+        times = new long[capacity];
+        versions = new int[capacity];
+    }
+
+    /**
+     * Grow the Columns
+     * @param capacity
+     */
+    private void grow(int capacity) {
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        customers = Arrays.copyOf(customers, capacity);
+        states = Arrays.copyOf(states, capacity);
+        results = Arrays.copyOf(results, capacity);
+        values = Arrays.copyOf(values, capacity);
+        scales = Arrays.copyOf(scales, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        times = Arrays.copyOf(times, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+}
@@ -0,0 +1,174 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OutboxAggregateRepository;
+import io.fusion.air.microservice.adapters.repository.OutboxRepository;
+import io.fusion.air.microservice.domain.entities.outbox.OutboxAggregateEntity;
+import io.fusion.air.microservice.domain.entities.outbox.OutboxEventEntity;
+import io.fusion.air.microservice.domain.events.OutboxAppendedEvent;
+import io.fusion.air.microservice.domain.exceptions.DatabaseException;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+import io.fusion.air.microservice.utils.Utils;
+// Spring
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+// Other
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+// Java
+import java.util.*;
+
+/**
+ * Transactional Outbox Writer
+ *
+ * The Event is written in the Transaction of the Aggregate (Propagation MANDATORY), so the Event
+ * is stored if and only if the Aggregate change is committed. The Outbox Relay publishes the Events.
+ *
+ * The Aggregate Version of the Event is assigned under the Row Lock of the Outbox Aggregate, the Lock
+ * is held till the Commit, so the Events of an Aggregate are committed in the Version Order.
+ *
+ * appendAll() locks every Aggregate of the Batch once (Key Order, so two Writers don't deadlock), assigns
+ * the Versions in Memory and saves the Events together, so the Inserts go out in JDBC Batches
+ * (hibernate.jdbc.batch_size) instead of a Lock Query (and the Auto Flush before it) per Event.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Service
+public class OutboxWriter {
+
+    public static final String ORDER = "Order";
+    public static final String CART = "Cart";
+
+    public static final String ORDER_SAVED = "OrderSaved";
+    public static final String ORDER_STATE_CHANGED = "OrderStateChanged";
+    public static final String ORDER_SUMMARY_CHANGED = "OrderSummaryChanged";
+    public static final String ORDER_ARCHIVED = "OrderArchived";
+    public static final String CART_ITEM_ADDED = "CartItemAdded";
+
+    // Autowired using the Constructor
+    private final OutboxRepository outboxRepository;
+    private final OutboxAggregateRepository aggregateRepository;
+    private final OutboxConfig outboxConfig;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Autowired using the Constructor
+     * @param outboxRepo
+     * @param aggregateRepo
+     * @param outboxConfig
+     * @param mapper
+     * @param meterReg
+     * @param eventPublisher
+     */
+    public OutboxWriter(OutboxRepository outboxRepo, OutboxAggregateRepository aggregateRepo, OutboxConfig outboxConfig,
+                        ObjectMapper mapper, MeterRegistry meterReg, ApplicationEventPublisher eventPublisher) {
+        this.outboxRepository = outboxRepo;
+        this.aggregateRepository = aggregateRepo;
+        this.outboxConfig = outboxConfig;
+        this.objectMapper = mapper;
+        this.meterRegistry = meterReg;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Append the Event to the Outbox in the current Transaction
+     *
+     * @param aggregateType
+     * @param aggregateId
+     * @param eventType
+     * @param payload
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateType, String aggregateId, String eventType, Object payload) {
+        appendAll(List.of(new Entry(aggregateType, aggregateId, eventType, payload)));
+    }
+
+    /**
+     * Append the Events to the Outbox in the current Transaction (Entry Order = Version Order of an Aggregate)
+     *
+     * @param entries
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<Entry> entries) {
+        if(!outboxConfig.isOutboxEnabled() || entries.isEmpty()) {
+            return;
+        }
+        String[] payloads = new String[entries.size()];
+        Map<String, Entry> keys = new TreeMap<>();
+        for(int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            try {
+                payloads[i] = objectMapper.writeValueAsString(entry.payload());
+            } catch (JsonProcessingException e) {
+                throw new DatabaseException("Unable to serialize the Outbox Event "+entry.eventType()+": "+e.getMessage(), e);
+            }
+            keys.putIfAbsent(OutboxAggregateEntity.key(entry.aggregateType(), entry.aggregateId()), entry);
+        }
+        // Lock every Aggregate once (Key Order)
+        Map<String, OutboxAggregateEntity> aggregates = new HashMap<>(keys.size() * 2);
+        for(Map.Entry<String, Entry> key : keys.entrySet()) {
+            aggregates.put(key.getKey(), lock(key.getKey(), key.getValue()));
+        }
+        List<OutboxEventEntity> events = new ArrayList<>(entries.size());
+        Set<OutboxAppendedEvent> appended = new LinkedHashSet<>();
+        for(int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            long version = aggregates.get(OutboxAggregateEntity.key(entry.aggregateType(), entry.aggregateId())).nextVersion();
+            events.add(new OutboxEventEntity(entry.aggregateType(), entry.aggregateId(), version, entry.eventType(),
+                    Utils.generateType7UUID().toString(), payloads[i]));
+            meterRegistry.counter("outbox.appended", "aggregate", entry.aggregateType(), "event", entry.eventType()).increment();
+            appended.add(new OutboxAppendedEvent(entry.aggregateType(), entry.eventType()));
+        }
+        outboxRepository.saveAll(events);
+        // Delivered to the Outbox Relay after the Commit
+        appended.forEach(eventPublisher::publishEvent);
+    }
+
+    /**
+     * Lock the Outbox Aggregate. The First Event of a new Aggregate inserts the Row if it's absent
+     * (a concurrent Writer may insert it first, its Insert is ignored and waits for its Commit) and then
+     * locks it. A Primary Key Violation would roll back the Business Transaction.
+     * @param key
+     * @param entry
+     * @return
+     */
+    private OutboxAggregateEntity lock(String key, Entry entry) {
+        Optional<OutboxAggregateEntity> aggregate = aggregateRepository.findByIdForUpdate(key);
+        if(aggregate.isPresent()) {
+            return aggregate.get();
+        }
+        aggregateRepository.insertIfAbsent(key, entry.aggregateType(), entry.aggregateId());
+        return aggregateRepository.findByIdForUpdate(key)
+                .orElseThrow(() -> new DatabaseException("Outbox Aggregate "+key+" not found after the Insert!"));
+    }
+
+    /**
+     * Outbox Event to Append
+     * @param aggregateType
+     * @param aggregateId
+     * @param eventType
+     * @param payload
+     */
+    public record Entry(String aggregateType, String aggregateId, String eventType, Object payload) {}
+}
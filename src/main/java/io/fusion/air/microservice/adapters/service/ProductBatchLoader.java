@@ -0,0 +1,293 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+import io.fusion.air.microservice.domain.exceptions.DatabaseException;
+import io.fusion.air.microservice.server.config.ProductLoaderConfig;
+// Spring
+import org.springframework.stereotype.Component;
+// Hibernate
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+// Java
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Product Batch Loader (DataLoader Pattern)
+ *
+ * Lookups by Product Id made within the Batch Window (product.loader.window) are gathered and
+ * resolved with a single Multi Load (Session.byMultipleIds). The Multi Load resolves the Keys from the
+ * Second Level Cache first and queries only the Cache Misses with a single IN Query. Concurrent Lookups
+ * for the same Product Id share the in-flight Future, so a burst of requests for a few hot Products
+ * results in a few Queries.
+ *
+ * A Key is dispatched immediately (no Batch Window) when it is in the Second Level Cache or when it is
+ * the only Key pending and no Batch is loading. A Batch is dispatched immediately when it reaches
+ * product.loader.batch.size Keys.
+ *
+ * Products are loaded outside the caller's Transaction (Detached Entities), use it only for Reads.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class ProductBatchLoader {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final ProductLoaderConfig loaderConfig;
+    private final SessionFactory sessionFactory;
+
+    private final ConcurrentHashMap<UUID, CompletableFuture<Optional<ProductEntity>>> inFlight = new ConcurrentHashMap<>();
+    private final Object pendingMonitor = new Object();
+    private List<UUID> pendingKeys = new ArrayList<>();
+    private boolean dispatchScheduled;
+    private int loading;
+
+    private final Counter coalescedCounter;
+    private final Counter loadedCounter;
+    private final DistributionSummary batchSize;
+    private final Timer batchTimer;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Autowired using the Constructor
+     * @param loaderConfig
+     * @param emf
+     * @param meterReg
+     */
+    public ProductBatchLoader(ProductLoaderConfig loaderConfig, EntityManagerFactory emf, MeterRegistry meterReg) {
+        this.loaderConfig = loaderConfig;
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        this.coalescedCounter = meterReg.counter("product.loader.coalesced");
+        this.loadedCounter = meterReg.counter("product.loader.loaded");
+        this.batchSize = meterReg.summary("product.loader.batch.size");
+        this.batchTimer = meterReg.timer("product.loader.batch");
+    }
+
+    /**
+     * Start the Dispatch Threads
+     */
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newScheduledThreadPool(Math.max(1, loaderConfig.getThreads()), r -> {
+            Thread t = new Thread(r, "product-loader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Stop the Dispatch Threads
+     */
+    @PreDestroy
+    public void stop() {
+        if(scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * Returns True if the Batch Loader is Enabled
+     * @return
+     */
+    public boolean isEnabled() {
+        return loaderConfig.isLoaderEnabled();
+    }
+
+    /**
+     * Load the Product (Async)
+     * @param productId
+     * @return
+     */
+    public CompletableFuture<Optional<ProductEntity>> load(UUID productId) {
+        CompletableFuture<Optional<ProductEntity>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<ProductEntity>> existing = inFlight.putIfAbsent(productId, future);
+        if(existing != null) {
+            coalescedCounter.increment();
+            return existing;
+        }
+        boolean cached = isCached(productId);
+        List<UUID> fullBatch = null;
+        synchronized (pendingMonitor) {
+            if(cached || (pendingKeys.isEmpty() && loading == 0)) {
+                // Nothing to wait for (Second Level Cache Hit or an Idle Loader)
+                fullBatch = List.of(productId);
+            } else {
+                pendingKeys.add(productId);
+                if(pendingKeys.size() >= loaderConfig.getBatchSize()) {
+                    fullBatch = pendingKeys;
+                    pendingKeys = new ArrayList<>();
+                } else if(!dispatchScheduled) {
+                    dispatchScheduled = true;
+                    scheduler.schedule(this::dispatchPending, loaderConfig.getBatchWindow(), TimeUnit.MILLISECONDS);
+                }
+            }
+            if(fullBatch != null) {
+                loading++;
+            }
+        }
+        if(fullBatch != null) {
+            List<UUID> keys = fullBatch;
+            scheduler.execute(() -> dispatch(keys));
+        }
+        return future;
+    }
+
+    /**
+     * Load the Product and Wait (product.loader.timeout)
+     * @param productId
+     * @return
+     */
+    public Optional<ProductEntity> get(UUID productId) {
+        return await(load(productId), productId);
+    }
+
+    /**
+     * Load the Products and Wait (product.loader.timeout)
+     * Returns the Products found in the Order of the Ids (Duplicates are removed).
+     *
+     * @param productIds
+     * @return
+     */
+    public List<ProductEntity> getAll(Collection<UUID> productIds) {
+        Map<UUID, CompletableFuture<Optional<ProductEntity>>> futures = new LinkedHashMap<>();
+        for(UUID productId : productIds) {
+            futures.computeIfAbsent(productId, this::load);
+        }
+        List<ProductEntity> products = new ArrayList<>(futures.size());
+        for(Map.Entry<UUID, CompletableFuture<Optional<ProductEntity>>> entry : futures.entrySet()) {
+            await(entry.getValue(), entry.getKey()).ifPresent(products::add);
+        }
+        return products;
+    }
+
+    /**
+     * Wait for the Lookup
+     * @param future
+     * @param productId
+     * @return
+     */
+    private Optional<ProductEntity> await(CompletableFuture<Optional<ProductEntity>> future, UUID productId) {
+        try {
+            return future.get(loaderConfig.getTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Product Lookup interrupted for "+productId, e);
+        } catch (ExecutionException e) {
+            throw new DatabaseException("Product Lookup failed for "+productId+": "+e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new DatabaseException("Product Lookup timed out for "+productId, e);
+        }
+    }
+
+    /**
+     * Dispatch the Keys gathered in the Batch Window
+     */
+    private void dispatchPending() {
+        List<UUID> keys;
+        synchronized (pendingMonitor) {
+            keys = pendingKeys;
+            pendingKeys = new ArrayList<>();
+            dispatchScheduled = false;
+            if(keys.isEmpty()) {
+                return;
+            }
+            loading++;
+        }
+        dispatch(keys);
+    }
+
+    /**
+     * Resolve the Keys (Second Level Cache, then a Single Query for the Misses) and Complete the Futures
+     * The Caller counts the Dispatch as loading.
+     * @param keys
+     */
+    private void dispatch(List<UUID> keys) {
+        long start = System.nanoTime();
+        try {
+            Map<UUID, ProductEntity> products = new HashMap<>(keys.size() * 2);
+            for(ProductEntity product : multiLoad(keys)) {
+                products.put(product.getUuid(), product);
+            }
+            for(UUID key : keys) {
+                // Removed before the Completion, Lookups after this will trigger a new Query
+                CompletableFuture<Optional<ProductEntity>> future = inFlight.remove(key);
+                if(future != null) {
+                    future.complete(Optional.ofNullable(products.get(key)));
+                }
+            }
+            loadedCounter.increment(products.size());
+        } catch (Exception e) {
+            log.error("Product Batch Load failed for {} Keys! {}", keys.size(), e.getMessage());
+            for(UUID key : keys) {
+                CompletableFuture<Optional<ProductEntity>> future = inFlight.remove(key);
+                if(future != null) {
+                    future.completeExceptionally(e);
+                }
+            }
+        } finally {
+            synchronized (pendingMonitor) {
+                loading--;
+            }
+            batchSize.record(keys.size());
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Load the Products (Read Only) from the Second Level Cache and the Database (Cache Misses)
+     * @param keys
+     * @return Products found (Unordered)
+     */
+    private List<ProductEntity> multiLoad(List<UUID> keys) {
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(true);
+            return session.byMultipleIds(ProductEntity.class)
+                    .enableSessionCheck(true)
+                    .enableOrderedReturn(false)
+                    .withBatchSize(keys.size())
+                    .multiLoad(keys);
+        }
+    }
+
+    /**
+     * Returns True if the Product is in the Second Level Cache
+     * @param productId
+     * @return
+     */
+    private boolean isCached(UUID productId) {
+        return sessionFactory.getCache().containsEntity(ProductEntity.class, productId);
+    }
+}
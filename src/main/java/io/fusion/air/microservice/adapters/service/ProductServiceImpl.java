@@ -16,18 +16,26 @@
 package io.fusion.air.microservice.adapters.service;
 
 // Custom
+import io.fusion.air.microservice.adapters.aop.RetryOnConflict;
 import io.fusion.air.microservice.adapters.repository.ProductRepository;
 import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+import io.fusion.air.microservice.domain.events.ResourceChangedEvent;
 import io.fusion.air.microservice.domain.exceptions.DataNotFoundException;
+import io.fusion.air.microservice.domain.exceptions.InputDataException;
+import io.fusion.air.microservice.domain.exceptions.LimitExceededException;
 import io.fusion.air.microservice.domain.models.order.Product;
 import io.fusion.air.microservice.domain.ports.services.ProductService;
+import io.fusion.air.microservice.server.config.ProductLoaderConfig;
 // Spring
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 // Java
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -57,16 +65,31 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     // @Autowired not required - Constructor based Autowiring
     private final Timer queryTimer;
+    // @Autowired not required - Constructor based Autowiring
+    private final ProductBatchLoader productLoader;
+    // @Autowired not required - Constructor based Autowiring
+    private final ProductLoaderConfig loaderConfig;
+    // @Autowired not required - Constructor based Autowiring
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructor for Autowiring
      * @param productRepo
      * @param meterRegistry
+     * @param productLoader
+     * @param loaderConfig
+     * @param eventPublisher
      */
     public ProductServiceImpl(ProductRepository productRepo,
-                              MeterRegistry meterRegistry) {
+                              MeterRegistry meterRegistry,
+                              ProductBatchLoader productLoader,
+                              ProductLoaderConfig loaderConfig,
+                              ApplicationEventPublisher eventPublisher) {
         productRepository = productRepo;
         queryTimer = meterRegistry.timer("fusion.air.product.query");
+        this.productLoader = productLoader;
+        this.loaderConfig = loaderConfig;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -127,11 +150,56 @@ public class ProductServiceImpl implements ProductService {
 
     /**
      * Get Product By Product ID
+     * Concurrent Lookups are batched (ProductBatchLoader), the Request doesn't hold a Transaction
+     * (Connection) while it waits for the Batch.
+     *
      * @param productId
      * @return
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductEntity getProductById(UUID productId) {
+        Optional<ProductEntity> productDb = productLoader.isEnabled()
+                ? productLoader.get(productId)
+                : productRepository.findById(productId);
+        if(productDb.isPresent()) {
+            return productDb.get();
+        }
+        log.debug("Data Not Found for Product ID {} ",productId);
+        throw new DataNotFoundException("Data not found with id : " + productId);
+    }
+
+    /**
+     * Get the Products By Product IDs (Multi-Get)
+     * Returns the Products found in the Order of the IDs.
+     *
+     * @param productIds
+     * @return
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ProductEntity> getProductsById(Collection<UUID> productIds) {
+        if(productIds == null || productIds.isEmpty()) {
+            throw new InputDataException("No Product IDs in the Request");
+        }
+        if(productIds.size() > loaderConfig.getMaxKeys()) {
+            throw new LimitExceededException("Max Product IDs allowed = "+loaderConfig.getMaxKeys());
+        }
+        if(productIds.contains(null)) {
+            throw new InputDataException("Invalid Product ID in the Request");
+        }
+        if(productLoader.isEnabled()) {
+            return productLoader.getAll(productIds);
+        }
+        return productRepository.findAllById(productIds);
+    }
+
+    /**
+     * Get the Managed Product for the Updates (Current Transaction)
+     * @param productId
+     * @return
+     */
+    private ProductEntity findProduct(UUID productId) {
         Optional<ProductEntity> productDb = productRepository.findById(productId);
         if(productDb.isPresent()) {
             return productDb.get();
@@ -147,6 +215,7 @@ public class ProductServiceImpl implements ProductService {
      */
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity createProduct(Product product) {
+        productChanged();
         return productRepository.save(new ProductEntity(product));
     }
 
@@ -159,6 +228,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity createProduct(ProductEntity product) {
+        productChanged();
         return productRepository.save(product);
     }
 
@@ -173,6 +243,7 @@ public class ProductServiceImpl implements ProductService {
         for(Product p : products) {
             productList.add(new ProductEntity(p));
         }
+        productChanged();
         return productRepository.saveAll(productList);
     }
 
@@ -183,6 +254,7 @@ public class ProductServiceImpl implements ProductService {
      */
     @Transactional(rollbackFor = { SQLException.class })
     public List<ProductEntity> createProductsEntity(List<ProductEntity> products) {
+        productChanged();
         return productRepository.saveAll(products);
     }
 
@@ -196,6 +268,7 @@ public class ProductServiceImpl implements ProductService {
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity updateProduct(ProductEntity product) {
         productRepository.saveAndFlush(product);
+        productChanged();
         return product;
     }
 
@@ -204,11 +277,13 @@ public class ProductServiceImpl implements ProductService {
      * @param product
      * @return
      */
+    @RetryOnConflict
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity updatePrice(ProductEntity product) {
-        ProductEntity productUpdate = getProductById(product.getUuid()) ;
+        ProductEntity productUpdate = findProduct(product.getUuid());
         productUpdate.setProductPrice(product.getProductPrice());
         productRepository.saveAndFlush(productUpdate);
+        productChanged();
         return productUpdate;
     }
 
@@ -219,12 +294,14 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @RetryOnConflict
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity updateProductDetails(ProductEntity product) {
-        ProductEntity productUpdate = getProductById(product.getUuid()) ;
+        ProductEntity productUpdate = findProduct(product.getUuid());
         productUpdate.setProductName(product.getProductName());
         productUpdate.setProductDetails(product.getProductDetails());
         productRepository.saveAndFlush(productUpdate);
+        productChanged();
         return productUpdate;
     }
 
@@ -235,11 +312,13 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @RetryOnConflict
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity deActivateProduct(UUID productId) {
-        ProductEntity product = getProductById(productId);
+        ProductEntity product = findProduct(productId);
         product.deActivateProduct();
         productRepository.saveAndFlush(product);
+        productChanged();
         return product;
     }
 
@@ -250,11 +329,13 @@ public class ProductServiceImpl implements ProductService {
      * @return
      */
     @Override
+    @RetryOnConflict
     @Transactional(rollbackFor = { SQLException.class })
     public ProductEntity activateProduct(UUID productUUID) {
-        ProductEntity product = getProductById(productUUID);
+        ProductEntity product = findProduct(productUUID);
         product.activateProduct();
         productRepository.saveAndFlush(product);
+        productChanged();
         return product;
     }
 
@@ -265,7 +346,15 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(rollbackFor = { SQLException.class })
     public void deleteProduct(UUID productUUID) {
-        ProductEntity product = getProductById(productUUID);
+        ProductEntity product = findProduct(productUUID);
         productRepository.delete(product);
+        productChanged();
+    }
+
+    /**
+     * The Product Versions (ETags) move forward after the Commit
+     */
+    private void productChanged() {
+        eventPublisher.publishEvent(new ResourceChangedEvent(ResourceVersions.PRODUCT, null));
     }
 }
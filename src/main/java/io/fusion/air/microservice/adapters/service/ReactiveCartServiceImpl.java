@@ -0,0 +1,75 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.CartEntity;
+import io.fusion.air.microservice.domain.ports.services.CartService;
+import io.fusion.air.microservice.domain.ports.services.ReactiveCartService;
+// Spring
+import org.springframework.stereotype.Service;
+// Reactor
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive Cart Service
+ *
+ * The Cart Service (Database + Write Behind Store) is called on the Bounded Elastic Scheduler, so the
+ * Cart Items not yet written to the Database are part of the Stream.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Service
+public class ReactiveCartServiceImpl implements ReactiveCartService {
+
+    // Autowired using the Constructor
+    private final CartService cartService;
+
+    /**
+     * Autowired using the Constructor
+     * @param cartSvc
+     */
+    public ReactiveCartServiceImpl(CartService cartSvc) {
+        cartService = cartSvc;
+    }
+
+    /**
+     * Stream the Cart Items of the Customer
+     * @param customerId
+     * @return
+     */
+    @Override
+    public Flux<CartEntity> findByCustomerId(String customerId) {
+        return Mono.fromCallable(() -> cartService.findByCustomerId(customerId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(items -> items);
+    }
+
+    /**
+     * Stream the Active Cart Items of the Customer
+     * @param customerId
+     * @return
+     */
+    @Override
+    public Flux<CartEntity> fetchActiveItems(String customerId) {
+        return Mono.fromCallable(() -> cartService.fetchActiveItems(customerId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(items -> items);
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.ProductRepository;
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+import io.fusion.air.microservice.domain.ports.services.ProductService;
+import io.fusion.air.microservice.domain.ports.services.ReactiveProductService;
+// Spring
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+// Reactor
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+// Java
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reactive Product Service
+ *
+ * The Products are read with JPA (Shared Entities, Second Level Cache) on the Bounded Elastic Scheduler,
+ * so the Blocking JDBC Calls never run on the Threads which write the Stream. Streams are read Page by
+ * Page (Keyset on the Id) when the Subscriber asks for more, a slow Client holds one Page in Memory.
+ *
+ * There is no R2DBC Adapter: the Entities, the UUID Id Generator and the Second Level Cache are JPA only.
+ * An R2DBC Adapter would implement the same Port with its own Row Mapping.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Service
+public class ReactiveProductServiceImpl implements ReactiveProductService {
+
+    // Smallest Id in the Database Order
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final int PAGE_SIZE = 500;
+
+    // @Autowired not required - Constructor based Autowiring
+    private final ProductRepository productRepository;
+    // @Autowired not required - Constructor based Autowiring
+    private final ProductService productService;
+
+    /**
+     * Constructor for Autowiring
+     * @param productRepo
+     * @param productSvc
+     */
+    public ReactiveProductServiceImpl(ProductRepository productRepo, ProductService productSvc) {
+        productRepository = productRepo;
+        productService = productSvc;
+    }
+
+    /**
+     * Stream the Products (Id Order), Page by Page on Demand
+     * @param activeOnly
+     * @return
+     */
+    @Override
+    public Flux<ProductEntity> streamProducts(boolean activeOnly) {
+        return page(FIRST_ID, activeOnly)
+                .expand(products -> (products.size() < PAGE_SIZE)
+                        ? Mono.empty()
+                        : page(products.get(products.size() - 1).getUuid(), activeOnly))
+                .concatMapIterable(products -> products);
+    }
+
+    /**
+     * Get the Product By Product UUID
+     * @param productId
+     * @return
+     */
+    @Override
+    public Mono<ProductEntity> getProductById(UUID productId) {
+        return Mono.fromCallable(() -> productService.getProductById(productId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Stream the Products By the Product Names Like 'name'
+     * @param name
+     * @return
+     */
+    @Override
+    public Flux<ProductEntity> fetchProductsByName(String name) {
+        return Mono.fromCallable(() -> productService.fetchProductsByName(name))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(products -> products);
+    }
+
+    /**
+     * Read the Page after the Id
+     * @param afterId
+     * @param activeOnly
+     * @return
+     */
+    private Mono<List<ProductEntity>> page(UUID afterId, boolean activeOnly) {
+        return Mono.fromCallable(() -> productRepository.fetchProductsAfter(afterId, activeOnly,
+                        PageRequest.of(0, PAGE_SIZE)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(products -> !products.isEmpty());
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.events.ResourceChangedEvent;
+import io.fusion.air.microservice.server.config.HttpCacheConfig;
+// Spring
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+// Java
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Resource Versions (ETag / Last-Modified)
+ *
+ * Every Resource has a Change Counter for the whole Resource and Counters per Key Stripe (Ex. Cart of
+ * the Customer), moved forward after the Commit of a Change (ResourceChangedEvent). The ETag is built from
+ * the Counter, not from the Response Body, so a Conditional GET (If-None-Match / If-Modified-Since) of an
+ * unchanged Resource is answered with 304 before the Database or Jackson are touched.
+ *
+ * ETag = W/"<Instance Epoch>-<Counter>-<Staleness Window>"
+ *
+ * The Epoch makes the ETags of other Instances (and before a Restart) invalid. The Counters only see the
+ * Changes of this Instance, the Staleness Window (http.etag.max.staleness) bounds how long the Changes
+ * made by the other Instances are hidden. The Version is read before the Data, so a Change during the
+ * Request gives the Client an old ETag with new Data (The next Request gets 200), never the reverse.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class ResourceVersions {
+
+    public static final String PRODUCT = "product";
+    public static final String COUNTRY = "country";
+    public static final String CART = "cart";
+
+    // Autowired using the Constructor
+    private final HttpCacheConfig cacheConfig;
+
+    private final String epoch;
+    private final long startTime;
+    private final Map<String, Versions> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Autowired using the Constructor
+     * @param cacheConfig
+     */
+    public ResourceVersions(HttpCacheConfig cacheConfig) {
+        this.cacheConfig = cacheConfig;
+        this.startTime = System.currentTimeMillis();
+        this.epoch = Long.toString(startTime, 36);
+    }
+
+    /**
+     * Move the Version of the Resource forward after the Commit
+     * @param event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        changed(event.resource(), event.key());
+    }
+
+    /**
+     * Move the Version of the Resource (and the Stripe of the Key) forward
+     * @param resource
+     * @param key
+     */
+    public void changed(String resource, String key) {
+        versions(resource).changed(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the current Version of the Resource (key = null) or of the Key within the Resource
+     * @param resource
+     * @param key
+     * @return
+     */
+    public Version current(String resource, String key) {
+        Versions versions = versions(resource);
+        int index = versions.index(key);
+        long counter = versions.counters.get(index);
+        long lastModified = Math.max(startTime, versions.times.get(index));
+        long staleness = cacheConfig.getEtagMaxStaleness();
+        StringBuilder etag = new StringBuilder(32).append("W/\"").append(epoch).append('-')
+                .append(Long.toString(counter, 36));
+        if(staleness > 0) {
+            long window = System.currentTimeMillis() / staleness;
+            etag.append('-').append(Long.toString(window, 36));
+            lastModified = Math.max(lastModified, window * staleness);
+        }
+        return new Version(etag.append('"').toString(), lastModified);
+    }
+
+    /**
+     * Check the Conditional Request (If-None-Match / If-Modified-Since) against the current Version.
+     * Sets the ETag and Last-Modified Headers, on True the Status is 304 and the Handler returns null.
+     *
+     * @param request
+     * @param resource
+     * @param key
+     * @return True if the Client has the current Version
+     */
+    public boolean checkNotModified(WebRequest request, String resource, String key) {
+        if(!cacheConfig.isEtagEnabled()) {
+            return false;
+        }
+        Version version = current(resource, key);
+        return request.checkNotModified(version.etag(), version.lastModified());
+    }
+
+    /**
+     * Returns the Versions of the Resource
+     * @param resource
+     * @return
+     */
+    private Versions versions(String resource) {
+        return resources.computeIfAbsent(resource, r -> new Versions(Math.max(1, cacheConfig.getEtagStripes())));
+    }
+
+    /**
+     * Version of the Resource
+     * @param etag Weak ETag
+     * @param lastModified Milli Seconds
+     */
+    public record Version(String etag, long lastModified) {}
+
+    /**
+     * Change Counters of a Resource. Index 0 is the whole Resource, 1..N the Key Stripes.
+     */
+    private static final class Versions {
+        private final AtomicLongArray counters;
+        private final AtomicLongArray times;
+        private final int stripes;
+
+        private Versions(int stripes) {
+            this.stripes = stripes;
+            this.counters = new AtomicLongArray(stripes + 1);
+            this.times = new AtomicLongArray(stripes + 1);
+        }
+
+        private int index(String key) {
+            if(key == null) {
+                return 0;
+            }
+            int h = key.hashCode();
+            return 1 + Math.floorMod(h ^ (h >>> 16), stripes);
+        }
+
+        private void changed(String key, long now) {
+            // A Change of a Key is also a Change of the whole Resource
+            counters.incrementAndGet(0);
+            times.accumulateAndGet(0, now, Math::max);
+            if(key != null) {
+                int index = index(key);
+                counters.incrementAndGet(index);
+                times.accumulateAndGet(index, now, Math::max);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.events.ResourceChangedEvent;
+import io.fusion.air.microservice.domain.exceptions.BusinessServiceException;
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.server.config.HttpCacheConfig;
+// Spring
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+// Other
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+// Java
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response Bytes Cache for the Public Read Endpoints
+ *
+ * The StandardResponse of a Route (URI + Query String) is serialized once and kept as JSON Bytes (and
+ * Gzipped Bytes if the Response is bigger than http.response.cache.gzip.min.size) with the Version of
+ * the Resource (ResourceVersions). A Hit writes the Bytes straight to the Servlet Output Stream, the
+ * Query and Jackson only run on a Miss. The Entries are dropped after the Commit of a Change of the
+ * Resource (ResourceChangedEvent) and an Entry with an old Version is never served.
+ *
+ * The Request Time in the cached Response is the Time the Entry was built.
+ *
+ * Metrics
+ * http.response.cache{result}   - hit / miss
+ * http.response.cache.entries
+ * http.response.cache.bytes
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class ResponseBytesCache {
+
+    private static final String GZIP = "gzip";
+
+    // Autowired using the Constructor
+    private final HttpCacheConfig cacheConfig;
+    private final ResourceVersions resourceVersions;
+    private final ObjectMapper objectMapper;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private final Map<String, Map<String, Entry>> resources = new ConcurrentHashMap<>();
+
+    /**
+     * Autowired using the Constructor
+     * @param cacheConfig
+     * @param versions
+     * @param mapper
+     * @param meterReg
+     */
+    public ResponseBytesCache(HttpCacheConfig cacheConfig, ResourceVersions versions,
+                              ObjectMapper mapper, MeterRegistry meterReg) {
+        this.cacheConfig = cacheConfig;
+        this.resourceVersions = versions;
+        this.objectMapper = mapper;
+        this.hitCounter = meterReg.counter("http.response.cache", "result", "hit");
+        this.missCounter = meterReg.counter("http.response.cache", "result", "miss");
+        Gauge.builder("http.response.cache.entries", this, ResponseBytesCache::entries)
+                .register(meterReg);
+        Gauge.builder("http.response.cache.bytes", this, ResponseBytesCache::bytes)
+                .register(meterReg);
+    }
+
+    /**
+     * Drop the cached Responses of the Resource after the Commit of a Change
+     * @param event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResourceChanged(ResourceChangedEvent event) {
+        Map<String, Entry> routes = resources.get(event.resource());
+        if(routes != null) {
+            routes.clear();
+        }
+    }
+
+    /**
+     * Write the cached Response of the Route to the Output Stream. On a Miss (or an old Version) the
+     * Response is created, serialized and cached. The Handler returns null after this call.
+     *
+     * @param resource Resource Name (ResourceVersions)
+     * @param request
+     * @param response
+     * @param source creates the Response on a Miss
+     */
+    public void write(String resource, HttpServletRequest request, HttpServletResponse response,
+                      Supplier<StandardResponse> source) {
+        Entry entry = entry(resource, route(request), source);
+        boolean gzip = entry.gzipped() != null && acceptsGzip(request);
+        byte[] body = gzip ? entry.gzipped() : entry.json();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentLength(body.length);
+        try {
+            response.getOutputStream().write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the cached Entry of the Route (Built if Missing or Old)
+     * @param resource
+     * @param route
+     * @param source
+     * @return
+     */
+    private Entry entry(String resource, String route, Supplier<StandardResponse> source) {
+        // Version is read before the Data (a Change during the Build leaves an Old Entry, never the reverse)
+        String version = resourceVersions.current(resource, null).etag();
+        Map<String, Entry> routes = resources.computeIfAbsent(resource, r -> new ConcurrentHashMap<>());
+        Entry entry = routes.get(route);
+        if(entry != null && entry.version().equals(version)) {
+            hitCounter.increment();
+            return entry;
+        }
+        missCounter.increment();
+        entry = build(version, source.get());
+        if(cacheConfig.isResponseCacheEnabled()
+                && (routes.containsKey(route) || entries() < cacheConfig.getResponseCacheMaxEntries())) {
+            routes.put(route, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Serialize the Response (and Gzip if it's big enough)
+     * @param version
+     * @param stdResponse
+     * @return
+     */
+    private Entry build(String version, StandardResponse stdResponse) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(stdResponse);
+            byte[] gzipped = null;
+            if(json.length >= cacheConfig.getResponseCacheGzipMinSize()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+                try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                    gzip.write(json);
+                }
+                gzipped = out.toByteArray();
+            }
+            return new Entry(version, json, gzipped);
+        } catch (JsonProcessingException e) {
+            throw new BusinessServiceException("Unable to Serialize the Response! "+e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Route = URI + Query String
+     * @param request
+     * @return
+     */
+    private String route(HttpServletRequest request) {
+        String query = request.getQueryString();
+        return (query == null) ? request.getRequestURI() : request.getRequestURI() + "?" + query;
+    }
+
+    /**
+     * Returns True if the Client accepts Gzip
+     * @param request
+     * @return
+     */
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String encoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return encoding != null && encoding.toLowerCase().contains(GZIP);
+    }
+
+    /**
+     * Returns the Number of cached Responses
+     * @return
+     */
+    private int entries() {
+        int entries = 0;
+        for(Map<String, Entry> routes : resources.values()) {
+            entries += routes.size();
+        }
+        return entries;
+    }
+
+    /**
+     * Returns the Size (Bytes) of the cached Responses
+     * @return
+     */
+    private long bytes() {
+        long bytes = 0;
+        for(Map<String, Entry> routes : resources.values()) {
+            for(Entry entry : routes.values()) {
+                bytes += entry.json().length + (entry.gzipped() != null ? entry.gzipped().length : 0);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Serialized Response
+     * @param version ETag of the Resource when the Response was built
+     * @param json
+     * @param gzipped null if the Response is smaller than the Gzip Min Size
+     */
+    private record Entry(String version, byte[] json, byte[] gzipped) {}
+}
@@ -29,7 +29,8 @@ import java.util.UUID;
 public class AbstractBaseEntityWithUUID extends AbstractBaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    // UUID Version 4 (Random) or 7 (Time Ordered) based on the Property db.uuid.version
+    @TimeOrderedId
     @Column(name = "uuid", unique = true)
     // @Size(min = 36, max = 36, message = "The length of Product ID Name must be 36 characters.")
     // @Pattern(regexp = "^[0-9a-fA-F]{8}\\b-[0-9a-fA-F]{4}\\b-[0-9a-fA-F]{4}\\b-[0-9a-fA-F]{4}\\b-[0-9a-fA-F]{12}$", message = "Invalid UUID")
@@ -43,6 +44,14 @@ public class AbstractBaseEntityWithUUID extends AbstractBaseEntity {
         return uuid;
     }
 
+    /**
+     * Assign the UUID before the Insert (Ex. Write-Behind Items referenced before they are Flushed)
+     * @param uuid
+     */
+    protected void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
     /**
      * Returns UUID as a String
      * @return
@@ -0,0 +1,64 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.core;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Hibernate Second Level Cache Regions
+ *
+ * Entity Regions hold the Master Data Entities (by Id) and the Query Regions hold the Ids returned by
+ * the Cached Queries. Query Results are invalidated (by Hibernate) using the Update Timestamps Region
+ * whenever the underlying table is modified.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class CacheRegions {
+
+    // Entity Regions
+    public static final String COUNTRY              = "country";
+    public static final String COUNTRY_GEO          = "country-geo";
+    public static final String PRODUCT              = "product";
+
+    // Query Regions
+    public static final String COUNTRY_QUERY        = "country-query";
+    public static final String COUNTRY_GEO_QUERY    = "country-geo-query";
+    public static final String PRODUCT_QUERY        = "product-query";
+
+    // Hibernate Default Regions
+    public static final String DEFAULT_QUERY        = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS    = "default-update-timestamps-region";
+
+    public static final List<String> ENTITY_REGIONS = List.of(COUNTRY, COUNTRY_GEO, PRODUCT);
+
+    public static final List<String> QUERY_REGIONS  = List.of(COUNTRY_QUERY, COUNTRY_GEO_QUERY, PRODUCT_QUERY, DEFAULT_QUERY);
+
+    public static final List<String> MASTER_DATA    = List.of(COUNTRY, COUNTRY_GEO, COUNTRY_QUERY, COUNTRY_GEO_QUERY);
+
+    private CacheRegions() {
+    }
+
+    /**
+     * Returns all the Regions (Entity + Query)
+     * @return
+     */
+    public static List<String> allRegions() {
+        return Stream.concat(ENTITY_REGIONS.stream(), QUERY_REGIONS.stream()).toList();
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.idempotency;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Idempotency Key
+ *
+ * A Row per Idempotency Key (Hash of the Method, Path, User and the Idempotency-Key Header). The Row is
+ * inserted (PENDING) before the Request is executed, so only one Request per Key is executed across the
+ * Instances, and updated with the Response (COMPLETED) which is replayed for the Retries until the Expiry.
+ * The Lease of a PENDING Key is renewed while the Request is in Flight. A Key whose Response could not be
+ * stored is UNKNOWN (the Request was executed), it's not executed again until the Expiry.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Entity
+@Table(name = "idempotency_key_tx", indexes = {
+        @Index(name = "idx_idempotency_expiry", columnList = "expiryTime")
+})
+public class IdempotencyKeyEntity implements Persistable<String> {
+
+    public static final String PENDING = "PENDING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "httpStatus")
+    private int httpStatus;
+
+    @Column(name = "contentType", length = 128)
+    private String contentType;
+
+    @Column(name = "body", length = 1048576)
+    private byte[] body;
+
+    @Column(name = "createdTime", nullable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "expiryTime", nullable = false)
+    private Timestamp expiryTime;
+
+    @Column(name = "leaseTime", nullable = false)
+    private Timestamp leaseTime;
+
+    @Transient
+    private boolean isNew;
+
+    public IdempotencyKeyEntity() {
+        // Nothing to instantiate
+    }
+
+    /**
+     * Create the Idempotency Key (PENDING)
+     * @param id Hash of the Key
+     * @param fingerprint Hash of the Request Body
+     * @param ttl Milli Seconds
+     */
+    public IdempotencyKeyEntity(String id, String fingerprint, long ttl) {
+        long now = System.currentTimeMillis();
+        this.id = id;
+        this.fingerprint = fingerprint;
+        this.status = PENDING;
+        this.createdTime = new Timestamp(now);
+        this.expiryTime = new Timestamp(now + ttl);
+        this.leaseTime = this.createdTime;
+        this.isNew = true;
+    }
+
+    /**
+     * Returns the Id (Hash of the Key)
+     * @return
+     */
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Always Inserted (Never Merged) when created with the Key, a Duplicate Key fails.
+     * @return
+     */
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    /**
+     * Returns the Hash of the Request Body
+     * @return
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns True if the Response is stored
+     * @return
+     */
+    public boolean isCompleted() {
+        return COMPLETED.equals(status);
+    }
+
+    /**
+     * Returns True if the Request was executed but the Response could not be stored
+     * @return
+     */
+    public boolean isUnknown() {
+        return UNKNOWN.equals(status);
+    }
+
+    /**
+     * Returns True if the Key is Expired
+     * @return
+     */
+    public boolean isExpired() {
+        return expiryTime.getTime() < System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the HTTP Status of the Response
+     * @return
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * Returns the Content Type of the Response
+     * @return
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the Response Body
+     * @return
+     */
+    public byte[] getBody() {
+        return body;
+    }
+}
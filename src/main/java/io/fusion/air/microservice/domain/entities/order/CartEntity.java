@@ -25,6 +25,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * CartItem Entity with Abstract UUID with Spring Data
@@ -77,6 +78,11 @@ public class CartEntity extends AbstractBaseEntityWithUUID {
         this.quantity = cartItem.quantity();
     }
 
+    public CartEntity(UUID itemId, CartItem cartItem) {
+        this(cartItem);
+        setUuid(itemId);
+    }
+
     /**
      * Get Customer ID
      * @return
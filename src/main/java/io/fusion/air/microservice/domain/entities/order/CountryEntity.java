@@ -15,10 +15,14 @@
  */
 package io.fusion.air.microservice.domain.entities.order;
 
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
 import java.io.Serializable;
 import java.util.Objects;
 import java.util.UUID;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import jakarta.validation.constraints.NotNull;
 
 /**
@@ -28,6 +32,10 @@ import jakarta.validation.constraints.NotNull;
  */
 @Entity
 @Table(name = "country_m")
+// Master Data is loaded outside of Hibernate (Evict the Cache after a Reload)
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.COUNTRY)
 public class CountryEntity implements Serializable {
 
     @Id
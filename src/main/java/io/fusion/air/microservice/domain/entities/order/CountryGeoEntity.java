@@ -15,7 +15,11 @@
  */
 package io.fusion.air.microservice.domain.entities.order;
 
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 import jakarta.validation.constraints.NotNull;
 import java.io.Serializable;
 import java.util.Objects;
@@ -27,6 +31,10 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "country_geolite_m")
+// Master Data is loaded outside of Hibernate (Evict the Cache after a Reload)
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.COUNTRY_GEO)
 public class CountryGeoEntity implements Serializable {
 
     @Id
@@ -0,0 +1,164 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.order;
+// Custom
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Archived (Cold) Order
+ *
+ * The complete Order Aggregate (Items, Payment, State History) is stored as GZip compressed JSON.
+ * The Summary Columns are kept uncompressed for the Lookups.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Entity
+@Table(name = "order_archive_tx", indexes = {
+        @Index(name = "idx_order_archive_customer", columnList = "customer_id, orderId")
+})
+public class OrderArchiveEntity {
+
+    public static final String FORMAT_JSON_GZIP = "json+gzip";
+
+    @Id
+    @Column(name = "orderId")
+    private UUID orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "orderStatus")
+    @Enumerated(EnumType.STRING)
+    private OrderState orderState;
+
+    @Column(name = "currency")
+    private String currency;
+
+    @Column(name = "totalOrderValue")
+    private BigDecimal totalOrderValue;
+
+    @Column(name = "createdTime")
+    private Timestamp createdTime;
+
+    @Column(name = "archivedTime", nullable = false)
+    private Timestamp archivedTime;
+
+    @Column(name = "format", nullable = false, length = 16)
+    private String format;
+
+    @Column(name = "payload", nullable = false, length = 1048576)
+    private byte[] payload;
+
+    public OrderArchiveEntity() {
+        // Nothing to instantiate
+    }
+
+    /**
+     * Create the Archived Order
+     * @param order
+     * @param payload GZip compressed JSON
+     */
+    public OrderArchiveEntity(OrderEntity order, byte[] payload) {
+        this.orderId = order.getUuid();
+        this.customerId = order.getCustomerId();
+        this.orderState = order.getOrderState();
+        this.currency = order.getCurrency();
+        this.totalOrderValue = order.getTotalOrderValue();
+        this.createdTime = order.getAuditLog().getCreatedTime();
+        this.archivedTime = new Timestamp(System.currentTimeMillis());
+        this.format = FORMAT_JSON_GZIP;
+        this.payload = payload;
+    }
+
+    /**
+     * Returns the Order ID
+     * @return
+     */
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Returns the Customer ID
+     * @return
+     */
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Returns the Order State at the time of Archival
+     * @return
+     */
+    public OrderState getOrderState() {
+        return orderState;
+    }
+
+    /**
+     * Returns the Currency
+     * @return
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Returns the Total Order Value
+     * @return
+     */
+    public BigDecimal getTotalOrderValue() {
+        return totalOrderValue;
+    }
+
+    /**
+     * Returns the Order Created Time
+     * @return
+     */
+    public Timestamp getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * Returns the Archived Time
+     * @return
+     */
+    public Timestamp getArchivedTime() {
+        return archivedTime;
+    }
+
+    /**
+     * Returns the Payload Format
+     * @return
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the Compressed Payload
+     * @return
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+}
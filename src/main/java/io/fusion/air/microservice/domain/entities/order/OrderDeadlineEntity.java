@@ -0,0 +1,143 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.order;
+// Custom
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Order Deadline (Saga Timeout)
+ *
+ * A Row per Order waiting for a Callback (Credit Check, Payment, Delivery). The Row is written with the
+ * Transition into the State and removed with the Transition out of the State. The Rows are loaded into
+ * the Timing Wheel after a Restart. The Deadline is stored in Epoch Milli Seconds.
+ *
+ * An expired Deadline is Claimed (Owner + Lease) by the Instance which fires it. The other Instances
+ * holding the same Timer (after a Restart) wait for the Lease and take over only if the Owner failed.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Entity
+@Table(name = "order_deadline_tx", indexes = {
+        @Index(name = "idx_order_deadline", columnList = "deadline")
+})
+public class OrderDeadlineEntity {
+
+    @Id
+    @Column(name = "order_id")
+    private UUID orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "state", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private OrderState state;
+
+    @Column(name = "event", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private OrderEvent event;
+
+    @Column(name = "deadline", nullable = false)
+    private long deadline;
+
+    @Column(name = "claim_owner", length = 64)
+    private String claimOwner;
+
+    @Column(name = "claim_until", nullable = false)
+    private long claimUntil;
+
+    public OrderDeadlineEntity() {
+        // Nothing to instantiate
+    }
+
+    /**
+     * Create the Order Deadline
+     * @param orderId
+     * @param customerId
+     * @param state State waiting for the Callback
+     * @param event Event fired when the Deadline expires
+     * @param deadline Epoch Milli Seconds
+     */
+    public OrderDeadlineEntity(UUID orderId, String customerId, OrderState state, OrderEvent event, long deadline) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.state = state;
+        this.event = event;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Returns the Order ID
+     * @return
+     */
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Returns the Customer ID
+     * @return
+     */
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Returns the State waiting for the Callback
+     * @return
+     */
+    public OrderState getState() {
+        return state;
+    }
+
+    /**
+     * Returns the Event fired when the Deadline expires
+     * @return
+     */
+    public OrderEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the Deadline (Epoch Milli Seconds)
+     * @return
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Returns the Instance which Claimed the expired Deadline
+     * @return
+     */
+    public String getClaimOwner() {
+        return claimOwner;
+    }
+
+    /**
+     * Returns the End of the Claim (Epoch Milli Seconds)
+     * @return
+     */
+    public long getClaimUntil() {
+        return claimUntil;
+    }
+}
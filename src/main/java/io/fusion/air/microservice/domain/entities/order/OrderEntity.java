@@ -16,10 +16,14 @@
 package io.fusion.air.microservice.domain.entities.order;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 // Custom
 import io.fusion.air.microservice.domain.entities.core.AbstractBaseEntityWithUUID;
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderNotes;
 import io.fusion.air.microservice.domain.statemachine.order.OrderResult;
 import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.utils.Utils;
 // Java
 import jakarta.persistence.*;
 import java.math.BigDecimal;
@@ -30,12 +34,20 @@ import java.util.List;
 /**
  * Order Entity
  *
+ * Order State is Event Sourced. The Order State History is the Append Only Event Log and the Order State
+ * and Result columns are the Snapshot taken at the Event (snapshotVersion). The current State is rebuilt
+ * by replaying the Events after the Snapshot (Tail) on top of the Snapshot. New Events are kept as Pending
+ * Events till they are appended to the Log, the Order row is updated only when a new Snapshot is taken.
+ *
  * @author: Araf Karsh Hamid
  * @version:
  * @date:
  */
 @Entity
-@Table(name = "order_tx")
+@Table(name = "order_tx", indexes = {
+        // Customer Orders in the Time (UUID v7) Order - Partition Local Index
+        @Index(name = "idx_order_customer", columnList = "customer_id, uuid")
+})
 public class OrderEntity extends AbstractBaseEntityWithUUID {
 
     @Column(name = "customer_id")
@@ -47,8 +59,9 @@ public class OrderEntity extends AbstractBaseEntityWithUUID {
     @Column(name = "totalOrderValue")
     private BigDecimal totalOrderValue;
 
+    // Not Null: the order_id is written with the Insert (Partition Key of order_item_tx)
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", nullable = false)
     private List<OrderItemEntity> orderItems = new ArrayList<>();
 
     @Embedded
@@ -66,10 +79,36 @@ public class OrderEntity extends AbstractBaseEntityWithUUID {
     @Enumerated(EnumType.STRING)
     private OrderResult result;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "order_id")
+    // The Events are written with the order_id (Append Only) through the OrderStateHistoryRepository,
+    // read only from the Order: No Cascade (a merged Order never writes or orphan deletes the Events)
+    // and never taken from the Client (JSON Read Only)
+    @OneToMany
+    @JoinColumn(name = "order_id", insertable = false, updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @OrderBy("orderVersion ASC")
     private List<OrderStateHistoryEntity> orderHistory = new ArrayList<>();
 
+    // Order Version (Event Sequence No.) of the Snapshot (Order State & Result)
+    @Column(name = "snapshotVersion", columnDefinition = "int default 0")
+    private Integer snapshotVersion = 0;
+
+    // Current State (Snapshot + Tail Events), Valid after the Replay
+    @Transient
+    private OrderState currentState;
+
+    @Transient
+    private OrderResult currentResult;
+
+    @Transient
+    private int eventVersion = -1;
+
+    @Transient
+    private List<OrderStateHistoryEntity> pendingEvents = new ArrayList<>();
+
+    // Restored from the Order Archive (Read Only)
+    @Transient
+    private boolean archived;
+
     private OrderEntity() {
     }
 
@@ -95,19 +134,27 @@ public class OrderEntity extends AbstractBaseEntityWithUUID {
     }
 
     /**
-     * Sets the Order State
+     * Sets the Order State (Current State after the Replay, else the Snapshot)
      * @param state
      */
     public void setState(OrderState state) {
-        orderState = state;
+        if(isReplayed()) {
+            currentState = state;
+        } else {
+            orderState = state;
+        }
     }
 
     /**
-     * Set the Order Result
+     * Set the Order Result (Current Result after the Replay, else the Snapshot)
      * @param result
      */
     public void setOrderResult(OrderResult result) {
-        this.result = result;
+        if(isReplayed()) {
+            currentResult = result;
+        } else {
+            this.result = result;
+        }
     }
 
     /**
@@ -171,7 +218,7 @@ public class OrderEntity extends AbstractBaseEntityWithUUID {
      * @return
      */
     public OrderState getOrderState() {
-        return orderState;
+        return isReplayed() ? currentState : orderState;
     }
 
     /**
@@ -179,32 +226,174 @@ public class OrderEntity extends AbstractBaseEntityWithUUID {
      * @return
      */
     public OrderResult getResult() {
-        return result;
+        return isReplayed() ? currentResult : result;
     }
 
     /**
-     * Returns the Order State Transition History
+     * Returns the Order State Transition History (Stored Order)
      * @return
      */
     public List<OrderStateHistoryEntity> getOrderHistory() {
-         Collections.sort(orderHistory);
         return orderHistory;
     }
 
     /**
-     * Add Order History
+     * Returns the Order Version (Event Sequence No.) of the Snapshot
+     * @return
+     */
+    @JsonIgnore
+    public int getSnapshotVersion() {
+        return (snapshotVersion != null) ? snapshotVersion : 0;
+    }
+
+    /**
+     * Returns the Order Version (Event Sequence No.) of the Last Event (-1 before the Replay)
+     * @return
+     */
+    @JsonIgnore
+    public int getEventVersion() {
+        return eventVersion;
+    }
+
+    /**
+     * Returns the Events not yet appended to the Event Log
+     * @return
+     */
+    @JsonIgnore
+    public List<OrderStateHistoryEntity> getPendingEvents() {
+        return Collections.unmodifiableList(pendingEvents);
+    }
+
+    /**
+     * Clears the Pending Events once they are appended to the Event Log
+     */
+    public void clearPendingEvents() {
+        pendingEvents.clear();
+    }
+
+    /**
+     * Returns True if the Order is restored from the Order Archive (Read Only)
+     * @return
+     */
+    @JsonIgnore
+    public boolean isArchived() {
+        return archived;
+    }
+
+    /**
+     * Mark the Order as Archived (Read Only)
+     */
+    public void markArchived() {
+        this.archived = true;
+    }
+
+    /**
+     * Returns True if the Current State is rebuilt (Replayed)
+     * @return
+     */
+    @JsonIgnore
+    public boolean isReplayed() {
+        return eventVersion >= 0;
+    }
+
+    /**
+     * Rebuild the Current State from the Snapshot and the Events after the Snapshot (Tail)
+     * @param events Events in the Order Version (Ascending)
+     */
+    public void replay(List<OrderStateHistoryEntity> events) {
+        OrderState state = orderState;
+        OrderResult stateResult = result;
+        int version = getSnapshotVersion();
+        for(OrderStateHistoryEntity event : events) {
+            if(event.getOrderVersion() > version) {
+                state = event.getTargetState();
+                if(event.getResult() != null) {
+                    stateResult = event.getResult();
+                }
+                version = event.getOrderVersion();
+            }
+        }
+        currentState = state;
+        currentResult = stateResult;
+        eventVersion = version;
+    }
+
+    /**
+     * Rebuild the Current State from the Snapshot and the Order State History (Loads the History)
+     */
+    public void replayHistory() {
+        replay(orderHistory);
+    }
+
+    /**
+     * Returns True if the Number of Events after the Snapshot reached the Interval
+     * @param interval
+     * @return
+     */
+    public boolean isSnapshotDue(int interval) {
+        return isReplayed() && eventVersion - getSnapshotVersion() >= Math.max(1, interval);
+    }
+
+    /**
+     * Take the Snapshot of the Current State (Updates the Order row)
+     */
+    public void snapshot() {
+        if(isReplayed()) {
+            orderState = currentState;
+            result = currentResult;
+            snapshotVersion = eventVersion;
+        }
+    }
+
+    /**
+     * Add Order History (In Memory only, the Events are appended with the OrderStateHistoryRepository)
      * @param history
      */
     public void addOrderStateHistory(OrderStateHistoryEntity history) {
         orderHistory.add(history);
     }
 
+    /**
+     * Move the Order to the Target State and create the Event (Pending till it's appended to the Log).
+     * The Order Version of the Event is the next Sequence No. after the Last Event.
+     * Replays the Order State History if the Current State is not rebuilt yet.
+     *
+     * @param target
+     * @param event
+     * @param notes
+     * @return
+     */
+    public OrderStateHistoryEntity transition(OrderState target, OrderEvent event, OrderNotes notes) {
+        if(!isReplayed()) {
+            replayHistory();
+        }
+        OrderStateHistoryEntity history = new OrderStateHistoryEntity(getUuid(), currentState, target, event,
+                eventVersion + 1, Utils.toJsonString(notes));
+        history.setResult(currentResult);
+        pendingEvents.add(history);
+        currentState = target;
+        eventVersion = history.getOrderVersion();
+        return history;
+    }
+
     /**
      * ONLY TO DEMO/TEST VARIOUS DOMAIN EVENTS
+     * The Order Event Log is Append Only, the Reset is a Compensating Event (-> ORDER_INITIALIZED) after
+     * the existing Events and the Snapshot is taken at the Reset. The Order Version keeps increasing.
+     *
+     * @return the Reset Event (Pending till it's appended to the Log)
      */
-    public void resetOrderState() {
-        initializeOrder();
-        orderHistory.clear();
+    public OrderStateHistoryEntity resetOrderState() {
+        if(!isReplayed()) {
+            replayHistory();
+        }
+        OrderNotes notes = new OrderNotes(currentState.name(), OrderState.ORDER_INITIALIZED.name(),
+                OrderEvent.ORDER_RESET_EVENT.name(), "Order Reset", null);
+        OrderStateHistoryEntity history = transition(OrderState.ORDER_INITIALIZED, OrderEvent.ORDER_RESET_EVENT, notes);
+        currentResult = OrderResult.IN_PROGRESS;
+        history.setResult(currentResult);
+        snapshot();
+        return history;
     }
 
     /**
@@ -27,7 +27,9 @@ import java.math.BigDecimal;
  */
 
 @Entity
-@Table(name = "order_item_tx")
+@Table(name = "order_item_tx", indexes = {
+        @Index(name = "idx_order_item_order", columnList = "order_id")
+})
 public class OrderItemEntity extends AbstractBaseEntityWithUUID {
 
     @Column(name = "productId")
@@ -0,0 +1,195 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.order;
+// Custom
+import io.fusion.air.microservice.domain.entities.core.AbstractBaseEntityWithUUID;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStage;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStageStatus;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Progress of a Stage (Branch) of the Order Fork
+ *
+ * A Row per Order and Stage is written with the PACKING_FORK Transition and updated by the Branch.
+ * After a Restart the Stages which are not Done are executed again and the Order is joined when
+ * all the Stages are Done. The Rows are removed after the Join.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Entity
+@Table(name = "order_stage_tx", indexes = {
+        @Index(name = "idx_order_stage_order", columnList = "order_id, stage", unique = true),
+        @Index(name = "idx_order_stage_status", columnList = "status")
+})
+public class OrderStageEntity extends AbstractBaseEntityWithUUID {
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private String customerId;
+
+    @Column(name = "stage", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private OrderStage stage;
+
+    @Column(name = "status", nullable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private OrderStageStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "startedTime")
+    private Timestamp startedTime;
+
+    @Column(name = "completedTime")
+    private Timestamp completedTime;
+
+    @Column(name = "error")
+    private String error;
+
+    public OrderStageEntity() {
+        // Nothing to instantiate
+    }
+
+    /**
+     * Create the Order Stage (Pending)
+     * @param orderId
+     * @param customerId
+     * @param stage
+     */
+    public OrderStageEntity(UUID orderId, String customerId, OrderStage stage) {
+        this.orderId = orderId;
+        this.customerId = customerId;
+        this.stage = stage;
+        this.status = OrderStageStatus.PENDING;
+    }
+
+    /**
+     * Stage Started
+     */
+    public void start() {
+        status = OrderStageStatus.RUNNING;
+        attempts++;
+        startedTime = new Timestamp(System.currentTimeMillis());
+        completedTime = null;
+        error = null;
+    }
+
+    /**
+     * Stage Done
+     */
+    public void done() {
+        status = OrderStageStatus.DONE;
+        completedTime = new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Stage Failed
+     * @param error
+     */
+    public void failed(String error) {
+        status = OrderStageStatus.FAILED;
+        completedTime = new Timestamp(System.currentTimeMillis());
+        this.error = (error != null && error.length() > 255) ? error.substring(0, 255) : error;
+    }
+
+    /**
+     * Returns the Idempotency Key of the Stage (Order Id + Stage), same for every Attempt
+     * @return
+     */
+    public String getIdempotencyKey() {
+        return orderId + ":" + stage.name();
+    }
+
+    /**
+     * Returns True if the Stage is Done
+     * @return
+     */
+    public boolean isDone() {
+        return status == OrderStageStatus.DONE;
+    }
+
+    /**
+     * Returns the Order ID
+     * @return
+     */
+    public UUID getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Returns the Customer ID
+     * @return
+     */
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    /**
+     * Returns the Stage
+     * @return
+     */
+    public OrderStage getStage() {
+        return stage;
+    }
+
+    /**
+     * Returns the Stage Status
+     * @return
+     */
+    public OrderStageStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the No. of Times the Stage was Started
+     * @return
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Returns the Start Time of the Last Attempt
+     * @return
+     */
+    public Timestamp getStartedTime() {
+        return startedTime;
+    }
+
+    /**
+     * Returns the Completed (Done / Failed) Time
+     * @return
+     */
+    public Timestamp getCompletedTime() {
+        return completedTime;
+    }
+
+    /**
+     * Returns the Error of the Failed Stage
+     * @return
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -20,21 +20,29 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.fusion.air.microservice.domain.entities.core.AbstractBaseEntityWithUUID;
 import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
 import io.fusion.air.microservice.domain.statemachine.order.OrderNotes;
+import io.fusion.air.microservice.domain.statemachine.order.OrderResult;
 import io.fusion.air.microservice.domain.statemachine.order.OrderState;
 import io.fusion.air.microservice.utils.Utils;
 
 import jakarta.persistence.*;
+import java.util.UUID;
 
 /**
  * To Keep Track of Order States and its Transitions based on Order Event
  *
+ * Append Only Event Log of the Order. The Order Version is the Sequence No. of the Event within the
+ * Order, the Index (order_id, orderVersion) returns the Events in the stored Order and the Tail
+ * (Events after the Snapshot) with a Range Scan.
+ *
  * @author: Araf Karsh Hamid
  * @version:
  * @date:
  */
 
 @Entity
-@Table(name = "order_state_history_tx")
+@Table(name = "order_state_history_tx", indexes = {
+        @Index(name = "idx_order_history_order", columnList = "order_id, orderVersion")
+})
 public class OrderStateHistoryEntity extends AbstractBaseEntityWithUUID implements Comparable<OrderStateHistoryEntity> {
 
     @Column(name = "sourceState")
@@ -52,9 +60,16 @@ public class OrderStateHistoryEntity extends AbstractBaseEntityWithUUID implemen
     @Column(name= "orderVersion", columnDefinition = "int default 0")
     private Integer orderVersion;
 
+    @Column(name = "result")
+    @Enumerated(EnumType.STRING)
+    private OrderResult result;
+
     @Column(name = "notes")
     private String notes;
 
+    @Column(name = "order_id")
+    private UUID orderId;
+
     public OrderStateHistoryEntity() {
         // Nothing to instantiate
     }
@@ -76,6 +91,21 @@ public class OrderStateHistoryEntity extends AbstractBaseEntityWithUUID implemen
         this.notes = notes;
     }
 
+    /**
+     * Create Order State History (Event) for the Order
+     * @param orderId
+     * @param source
+     * @param target
+     * @param event
+     * @param version
+     * @param notes
+     */
+    public OrderStateHistoryEntity(UUID orderId, OrderState source, OrderState target, OrderEvent event,
+                                   int version, String notes) {
+        this(source, target, event, version, notes);
+        this.orderId = orderId;
+    }
+
     /**
      * Returns Source State
      * @return
@@ -100,6 +130,31 @@ public class OrderStateHistoryEntity extends AbstractBaseEntityWithUUID implemen
         return transitionEvent;
     }
 
+    /**
+     * Returns the Order Result after the Transition
+     * @return
+     */
+    public OrderResult getResult() {
+        return result;
+    }
+
+    /**
+     * Set the Order Result after the Transition
+     * @param result
+     */
+    public void setResult(OrderResult result) {
+        this.result = result;
+    }
+
+    /**
+     * Returns the Order ID
+     * @return
+     */
+    @JsonIgnore
+    public UUID getOrderId() {
+        return orderId;
+    }
+
     /**
      * Get the Order Version
      * @return
@@ -122,7 +177,7 @@ public class OrderStateHistoryEntity extends AbstractBaseEntityWithUUID implemen
      * @return
      */
     public OrderNotes getNotes() {
-        if(notes != null && notes.isEmpty()) {
+        if(notes != null && !notes.isEmpty()) {
             try {
                 return Utils.fromJsonToObject(notes, OrderNotes.class);
             } catch (Exception e) {
@@ -17,9 +17,12 @@ package io.fusion.air.microservice.domain.entities.order;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.fusion.air.microservice.domain.entities.core.AbstractBaseEntityWithUUID;
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
 import io.fusion.air.microservice.domain.models.order.Product;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -36,6 +39,8 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "products_m")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PRODUCT)
 public class ProductEntity extends AbstractBaseEntityWithUUID {
 
     @NotBlank(message = "The Product Name is required.")
@@ -0,0 +1,147 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.outbox;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Transactional Outbox Aggregate
+ *
+ * One Row per Aggregate Key (Type:Id). The Outbox Writer locks the Row to assign the next Aggregate
+ * Version to the Event, so the Versions of an Aggregate are committed in the Version Order. The
+ * Outbox Relay claims the Row with a Lease (SKIP LOCKED), only one Relay Instance publishes the
+ * Events of an Aggregate at any time.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Entity
+@Table(name = "outbox_aggregate_tx")
+public class OutboxAggregateEntity {
+
+    @Id
+    @Column(name = "id", length = 130)
+    private String id;
+
+    @Column(name = "aggregateType", nullable = false, length = 64)
+    private String aggregateType;
+
+    @Column(name = "aggregateId", nullable = false, length = 64)
+    private String aggregateId;
+
+    // Last Version assigned to an Event of the Aggregate
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    @Column(name = "leaseOwner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "leaseUntil")
+    private Timestamp leaseUntil;
+
+    public OutboxAggregateEntity() {
+        // Nothing to instantiate
+    }
+
+    /**
+     * Create the Outbox Aggregate
+     * @param aggregateType
+     * @param aggregateId
+     */
+    public OutboxAggregateEntity(String aggregateType, String aggregateId) {
+        this.id = key(aggregateType, aggregateId);
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+    }
+
+    /**
+     * Returns the Aggregate Key (Type:Id)
+     * @param aggregateType
+     * @param aggregateId
+     * @return
+     */
+    public static String key(String aggregateType, String aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+
+    /**
+     * Assign the Next Version (Caller holds the Row Lock)
+     * @return
+     */
+    public long nextVersion() {
+        return ++version;
+    }
+
+    /**
+     * Lease the Aggregate to the Relay Instance
+     * @param owner
+     * @param until
+     */
+    public void lease(String owner, Timestamp until) {
+        this.leaseOwner = owner;
+        this.leaseUntil = until;
+    }
+
+    /**
+     * Returns the Aggregate Key (Type:Id)
+     * @return
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the Aggregate Type (Order, Cart)
+     * @return
+     */
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    /**
+     * Returns the Aggregate Id
+     * @return
+     */
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    /**
+     * Returns the Last Version assigned to an Event
+     * @return
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the Relay Instance holding the Lease
+     * @return
+     */
+    public String getLeaseOwner() {
+        return leaseOwner;
+    }
+
+    /**
+     * Returns the Lease Expiry Time
+     * @return
+     */
+    public Timestamp getLeaseUntil() {
+        return leaseUntil;
+    }
+}
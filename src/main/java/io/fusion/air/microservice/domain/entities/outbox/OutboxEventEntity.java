@@ -0,0 +1,202 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.outbox;
+// Custom
+import io.fusion.air.microservice.domain.models.core.OutboxMessage;
+
+import jakarta.persistence.*;
+import java.sql.Timestamp;
+
+/**
+ * Transactional Outbox Event
+ *
+ * Written in the same Transaction as the Aggregate. The Aggregate Version (assigned under the Lock of
+ * the Outbox Aggregate Row) defines the Relay Order of the Events of an Aggregate. The Sequence Id is
+ * pooled (allocationSize) and is NOT the Commit Order. The Idempotency Key is sent with the Message
+ * for the Consumers to de-duplicate the Re-Deliveries.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Entity
+@Table(name = "outbox_tx", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "published, aggregateId, aggregateVersion"),
+        @Index(name = "idx_outbox_idempotency_key", columnList = "idempotencyKey", unique = true)
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_outbox_aggregate_version",
+                columnNames = {"aggregateType", "aggregateId", "aggregateVersion"})
+})
+public class OutboxEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    // Allocation Size allows the JDBC Batch Inserts without a Sequence call per Event
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "outbox_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "aggregateType", nullable = false, length = 64)
+    private String aggregateType;
+
+    @Column(name = "aggregateId", nullable = false, length = 64)
+    private String aggregateId;
+
+    @Column(name = "aggregateVersion", nullable = false)
+    private long aggregateVersion;
+
+    @Column(name = "eventType", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "idempotencyKey", nullable = false, length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "payload", length = 65535)
+    private String payload;
+
+    @Column(name = "createdTime", nullable = false)
+    private Timestamp createdTime;
+
+    @Column(name = "published", nullable = false)
+    private boolean published;
+
+    @Column(name = "publishedTime")
+    private Timestamp publishedTime;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    public OutboxEventEntity() {
+        // Nothing to instantiate
+    }
+
+    /**
+     * Create Outbox Event
+     * @param aggregateType
+     * @param aggregateId
+     * @param aggregateVersion
+     * @param eventType
+     * @param idempotencyKey
+     * @param payload
+     */
+    public OutboxEventEntity(String aggregateType, String aggregateId, long aggregateVersion, String eventType,
+                             String idempotencyKey, String payload) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.aggregateVersion = aggregateVersion;
+        this.eventType = eventType;
+        this.idempotencyKey = idempotencyKey;
+        this.payload = payload;
+        this.createdTime = new Timestamp(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the Outbox Message for the Sink
+     * @return
+     */
+    public OutboxMessage toMessage() {
+        return new OutboxMessage(id, aggregateType, aggregateId, aggregateVersion, eventType, idempotencyKey,
+                payload, createdTime.getTime());
+    }
+
+    /**
+     * Returns the Sequence Id
+     * @return
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the Aggregate Type (Order, Cart)
+     * @return
+     */
+    public String getAggregateType() {
+        return aggregateType;
+    }
+
+    /**
+     * Returns the Aggregate Id (Message Key)
+     * @return
+     */
+    public String getAggregateId() {
+        return aggregateId;
+    }
+
+    /**
+     * Returns the Version of the Event in the Aggregate (1, 2, 3 ...)
+     * @return
+     */
+    public long getAggregateVersion() {
+        return aggregateVersion;
+    }
+
+    /**
+     * Returns the Event Type
+     * @return
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the Idempotency Key
+     * @return
+     */
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Returns the Event Payload (JSON)
+     * @return
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Returns the Created Time
+     * @return
+     */
+    public Timestamp getCreatedTime() {
+        return createdTime;
+    }
+
+    /**
+     * Returns True if the Event is Published
+     * @return
+     */
+    public boolean isPublished() {
+        return published;
+    }
+
+    /**
+     * Returns the Published Time
+     * @return
+     */
+    public Timestamp getPublishedTime() {
+        return publishedTime;
+    }
+
+    /**
+     * Returns the Number of Failed Publish Attempts
+     * @return
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
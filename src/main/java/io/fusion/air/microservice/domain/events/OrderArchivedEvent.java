@@ -0,0 +1,28 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.events;
+
+import java.util.UUID;
+
+/**
+ * Published when the Order is moved to the Archive. The Order is evicted from the Order Summary
+ * Read Model after the Commit (and from the Read Models of the other Instances via the Outbox).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OrderArchivedEvent(UUID orderId, String customerId) {}
@@ -0,0 +1,47 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.events;
+
+import io.fusion.air.microservice.domain.models.order.OrderSummary;
+
+/**
+ * Published when the Order is Saved or its State changed. The Order Summary Read Model is updated
+ * after the Commit. The Event is also written to the Outbox (OrderSummaryChanged), so the Read Models
+ * of the other Instances are updated from the Outbox Topic. The Order Version is carried separately
+ * as the Summary doesn't serialize it.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OrderChangedEvent(OrderSummary summary, int orderVersion) {
+
+    /**
+     * Order Changed Event for the Summary
+     * @param summary
+     */
+    public OrderChangedEvent(OrderSummary summary) {
+        this(summary, summary.orderVersion());
+    }
+
+    /**
+     * Returns the Summary with the Order Version (Event read from the Outbox Topic)
+     * @return
+     */
+    public OrderSummary toSummary() {
+        return summary.withState(summary.orderState(), summary.result(), summary.lastTransition(), orderVersion);
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.events;
+
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+
+import java.util.UUID;
+
+/**
+ * Published when the Deadline of the Order is set (deadline > 0) or removed (deadline = 0) in the
+ * Transaction of the Transition. The Timing Wheel is updated after the Commit, the Transition Time
+ * orders the Updates of the same Order (Epoch Milli Seconds).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OrderDeadlineEvent(String customerId, UUID orderId, OrderState state, long deadline, long time) {}
@@ -0,0 +1,26 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.events;
+
+/**
+ * Published when an Event is written to the Outbox. The Outbox Relay listens to it after the
+ * Commit of the Transaction to publish the Event without waiting for the next Relay Interval.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OutboxAppendedEvent(String aggregateType, String eventType) {}
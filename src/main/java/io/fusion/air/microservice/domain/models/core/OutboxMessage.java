@@ -0,0 +1,35 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.models.core;
+
+/**
+ * Outbox Message published by the Relay to the Outbox Sink
+ * The Aggregate Id is the Message Key (Events of an Aggregate are delivered in the Aggregate Version Order).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OutboxMessage(
+                Long id,
+                String aggregateType,
+                String aggregateId,
+                long aggregateVersion,
+                String eventType,
+                String idempotencyKey,
+                String payload,
+                long createdTime
+        ) {}
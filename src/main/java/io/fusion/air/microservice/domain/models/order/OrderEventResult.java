@@ -0,0 +1,40 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.models.order;
+
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+
+/**
+ * Result of an Order Event in the Bulk Order Events Request
+ * The Line is the Line No. of the Event in the Request (Starts with 1).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OrderEventResult(
+                int line,
+                String orderId,
+                String event,
+                String status,
+                OrderState orderState,
+                String message
+        ) {
+
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+}
@@ -0,0 +1,103 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.models.order;
+
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.statemachine.order.OrderResult;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * Order Summary (Read Model)
+ * Last Transition is the Time (Epoch Milli Seconds) of the last State Change, the Order Version is the
+ * Event Sequence No. of the Order State.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record OrderSummary(
+                UUID orderId,
+                String customerId,
+                OrderState orderState,
+                OrderResult result,
+                BigDecimal totalOrderValue,
+                String currency,
+                long lastTransition,
+                @JsonIgnore int orderVersion
+        ) {
+
+    /**
+     * Order Summary from the Order Snapshot (JPQL Projection)
+     * @param orderId
+     * @param customerId
+     * @param orderState
+     * @param result
+     * @param totalOrderValue
+     * @param currency
+     * @param updatedTime
+     * @param snapshotVersion
+     */
+    public OrderSummary(UUID orderId, String customerId, OrderState orderState, OrderResult result,
+                        BigDecimal totalOrderValue, String currency, Timestamp updatedTime, Integer snapshotVersion) {
+        this(orderId, customerId, orderState, result, totalOrderValue, currency,
+                (updatedTime != null) ? updatedTime.getTime() : 0,
+                (snapshotVersion != null) ? snapshotVersion : 0);
+    }
+
+    /**
+     * Order Summary of the Current State of the Order (Last Transition = Last Update of the Order Row)
+     * @param order
+     * @return
+     */
+    public static OrderSummary of(OrderEntity order) {
+        Timestamp time = null;
+        if(order.getAuditLog() != null) {
+            time = (order.getAuditLog().getUpdatedTime() != null)
+                    ? order.getAuditLog().getUpdatedTime() : order.getAuditLog().getCreatedTime();
+        }
+        return of(order, (time != null) ? time.getTime() : 0);
+    }
+
+    /**
+     * Order Summary of the Current State of the Order
+     * @param order
+     * @param time Time of the last State Change
+     * @return
+     */
+    public static OrderSummary of(OrderEntity order, long time) {
+        return new OrderSummary(order.getUuid(), order.getCustomerId(), order.getOrderState(), order.getResult(),
+                order.getTotalOrderValue(), order.getCurrency(), time,
+                Math.max(order.getEventVersion(), order.getSnapshotVersion()));
+    }
+
+    /**
+     * Order Summary after the State Change
+     * @param state
+     * @param stateResult
+     * @param time
+     * @param version
+     * @return
+     */
+    public OrderSummary withState(OrderState state, OrderResult stateResult, long time, int version) {
+        return new OrderSummary(orderId, customerId, state, (stateResult != null) ? stateResult : result,
+                totalOrderValue, currency, time, version);
+    }
+}
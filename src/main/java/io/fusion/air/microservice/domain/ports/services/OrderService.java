@@ -16,6 +16,9 @@
 package io.fusion.air.microservice.domain.ports.services;
 // Custom
 import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.models.order.OrderEventRequest;
+import io.fusion.air.microservice.domain.models.order.OrderEventResult;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
 
 import java.util.List;
 import java.util.Optional;
@@ -43,6 +46,14 @@ public interface OrderService {
      */
     public List<OrderEntity> findByCustomerId(String customerId);
 
+    /**
+     * Find the Orders of the Customer created in the last N Months (Hot Working Set)
+     * @param customerId
+     * @param months
+     * @return
+     */
+    public List<OrderEntity> findByCustomerId(String customerId, int months);
+
     /**
      * Find by Order by Customer ID and Order ID
      * @param customerId
@@ -95,12 +106,37 @@ public interface OrderService {
     public OrderEntity processPaymentRequest(String customerId, String orderId);
 
     /**
-     * For Testing Purpose Only
-     * Handle Event - Generic Method
+     * Handle Event - Generic Method (Order State Machine)
      * @param customerId
      * @param orderId
      * @param event
      * @return
      */
     public OrderEntity handleEvent(String customerId, String orderId, String event);
+
+    /**
+     * Join the Order Fork (Packaging || Billing) when all the Stages are Done
+     * @param customerId
+     * @param orderId
+     * @param failure Reason if the Fork failed (Branch Failure / Timeout) else null
+     * @return Empty if the Stages are still Running or the Order is not found
+     */
+    public Optional<OrderEntity> joinFork(String customerId, UUID orderId, String failure);
+
+    /**
+     * Handle the Order Events in Bulk (Chunk of the Bulk Order Events Request)
+     * @param requests
+     * @param firstLine Line No. of the First Request
+     * @return Results in the Request Order
+     */
+    public List<OrderEventResult> handleEvents(List<OrderEventRequest> requests, int firstLine);
+
+    /**
+     * Handle the Timeout of the Order (No Callback before the Deadline of the State)
+     * @param customerId
+     * @param orderId
+     * @param state State of the Deadline
+     * @return Empty if the Deadline is no longer valid (Callback arrived / Order not found)
+     */
+    public Optional<OrderEntity> handleTimeout(String customerId, UUID orderId, OrderState state);
 }
@@ -0,0 +1,49 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.ports.services;
+
+import io.fusion.air.microservice.domain.statemachine.order.OrderStage;
+
+import java.util.UUID;
+
+/**
+ * Order Stage Handler - Executes a Branch of the Order Fork (Packaging, Billing)
+ *
+ * A Stage which was Running during a Crash is executed again after the Branch Timeout. Every Attempt
+ * gets the same Idempotency Key (Order Id + Stage), the Handlers pass it to the External System which
+ * applies the Action only once per Key.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public interface OrderStageHandler {
+
+    /**
+     * Returns the Stage handled
+     * @return
+     */
+    public OrderStage getStage();
+
+    /**
+     * Execute the Stage for the Order. Throws an Exception if the Stage failed.
+     * @param customerId
+     * @param orderId
+     * @param idempotencyKey Order Id + Stage
+     * @throws InterruptedException when the Branch is Cancelled
+     */
+    public void execute(String customerId, UUID orderId, String idempotencyKey) throws InterruptedException;
+}
@@ -0,0 +1,46 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.ports.services;
+
+import io.fusion.air.microservice.domain.models.core.OutboxMessage;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outbox Sink - Destination of the Outbox Relay (Kafka, In-Memory)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public interface OutboxSink {
+
+    /**
+     * Returns the Sink Name
+     * @return
+     */
+    public String name();
+
+    /**
+     * Publish the Batch (Ordered by the Outbox Sequence) and returns the Ids of the Messages
+     * acknowledged by the Sink. Messages not acknowledged are re-delivered in the next Relay.
+     *
+     * @param batch
+     * @return
+     */
+    public Set<Long> publish(List<OutboxMessage> batch);
+}
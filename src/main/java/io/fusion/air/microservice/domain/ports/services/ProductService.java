@@ -19,6 +19,7 @@ import io.fusion.air.microservice.domain.entities.order.ProductEntity;
 import io.fusion.air.microservice.domain.models.order.Product;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -43,6 +44,13 @@ public interface ProductService {
      */
     public ProductEntity getProductById(UUID productId);
 
+    /**
+     * Get the Products By Product IDs (Multi-Get)
+     * @param productIds
+     * @return
+     */
+    public List<ProductEntity> getProductsById(Collection<UUID> productIds);
+
     /**
      * Search for the Product By the Product Names Like 'name'
      * @param name
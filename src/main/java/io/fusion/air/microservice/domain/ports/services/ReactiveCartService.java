@@ -0,0 +1,44 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.ports.services;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.CartEntity;
+// Reactor
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive Cart Service (Streaming Reads)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public interface ReactiveCartService {
+
+    /**
+     * Stream the Cart Items of the Customer
+     * @param customerId
+     * @return
+     */
+    public Flux<CartEntity> findByCustomerId(String customerId);
+
+    /**
+     * Stream the Active Cart Items of the Customer
+     * @param customerId
+     * @return
+     */
+    public Flux<CartEntity> fetchActiveItems(String customerId);
+}
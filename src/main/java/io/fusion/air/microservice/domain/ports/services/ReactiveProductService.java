@@ -0,0 +1,54 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.ports.services;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+// Reactor
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Reactive Product Service (Streaming Reads)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public interface ReactiveProductService {
+
+    /**
+     * Stream the Products (Id Order), Page by Page on Demand
+     * @param activeOnly
+     * @return
+     */
+    public Flux<ProductEntity> streamProducts(boolean activeOnly);
+
+    /**
+     * Get the Product By Product UUID
+     * @param productId
+     * @return
+     */
+    public Mono<ProductEntity> getProductById(UUID productId);
+
+    /**
+     * Stream the Products By the Product Names Like 'name'
+     * @param name
+     * @return
+     */
+    public Flux<ProductEntity> fetchProductsByName(String name);
+}
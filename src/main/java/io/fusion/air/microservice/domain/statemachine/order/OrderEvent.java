@@ -57,6 +57,10 @@ public enum OrderEvent {
 
     ORDER_RETURNED_EVENT,
 
+    ORDER_COMPLETED_EVENT,
+
+    ORDER_RESET_EVENT, // Compensating Event (Not in the State Machine)
+
     FAILURE_EVENT
     ;
 
@@ -0,0 +1,55 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.statemachine.order;
+
+/**
+ * Concurrent Stages (Branches) of the PACKING_FORK. Both the Stages must be Done for the Order
+ * to join into READY_TO_SHIP_JOIN.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public enum OrderStage {
+
+    PACKAGING(OrderState.ORDER_PACKAGING_START, OrderState.ORDER_PACKAGING_DONE),
+
+    BILLING(OrderState.SEND_BILL_START, OrderState.SEND_BILL_DONE);
+
+    private final OrderState startState;
+    private final OrderState doneState;
+
+    OrderStage(OrderState startState, OrderState doneState) {
+        this.startState = startState;
+        this.doneState = doneState;
+    }
+
+    /**
+     * Returns the Order State when the Stage is Started
+     * @return
+     */
+    public OrderState getStartState() {
+        return startState;
+    }
+
+    /**
+     * Returns the Order State when the Stage is Done
+     * @return
+     */
+    public OrderState getDoneState() {
+        return doneState;
+    }
+}
@@ -0,0 +1,235 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.statemachine.order;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.entities.order.OrderStateHistoryEntity;
+import io.fusion.air.microservice.domain.exceptions.BusinessServiceException;
+// Java
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Order State Machine
+ *
+ * The Transitions are compiled into a dense Table (Array) indexed by (State.ordinal * Events + Event.ordinal)
+ * when the State Machine is built. Dispatch is a single Array lookup, no Maps, no Iterations and no
+ * Allocations for finding the Transition. The State Machine is immutable and thread safe, the Order State
+ * is kept in the OrderEntity.
+ *
+ * Every (non Internal) Transition adds an OrderStateHistoryEntity (Event) to the Pending Events of the Order.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class OrderStateMachine {
+
+    private static final OrderState[] STATES = OrderState.values();
+    private static final OrderEvent[] EVENTS = OrderEvent.values();
+
+    // Transition Table [State.ordinal * EVENTS.length + Event.ordinal]
+    private final OrderTransition[] table;
+    private final int transitionCount;
+
+    /**
+     * Create the State Machine from the Compiled Table
+     * @param table
+     * @param transitionCount
+     */
+    private OrderStateMachine(OrderTransition[] table, int transitionCount) {
+        this.table = table;
+        this.transitionCount = transitionCount;
+    }
+
+    /**
+     * Returns the Transition for the State and Event (null if the Event is not allowed in the State)
+     * @param state
+     * @param event
+     * @return
+     */
+    public OrderTransition getTransition(OrderState state, OrderEvent event) {
+        return table[state.ordinal() * EVENTS.length + event.ordinal()];
+    }
+
+    /**
+     * Returns True if the Event is allowed in the State (Guards are not evaluated)
+     * @param state
+     * @param event
+     * @return
+     */
+    public boolean isAllowed(OrderState state, OrderEvent event) {
+        return getTransition(state, event) != null;
+    }
+
+    /**
+     * Returns the Events allowed in the State
+     * @param state
+     * @return
+     */
+    public Set<OrderEvent> getAllowedEvents(OrderState state) {
+        EnumSet<OrderEvent> events = EnumSet.noneOf(OrderEvent.class);
+        for(OrderEvent event : EVENTS) {
+            if(isAllowed(state, event)) {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Returns the Number of Transitions in the Table
+     * @return
+     */
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * Fire the Event on the Order
+     * Moves the Order to the Target State, appends the Order State History and executes the Action.
+     *
+     * @param order
+     * @param event
+     * @param message
+     * @return the Transition applied
+     */
+    public OrderTransition fire(OrderEntity order, OrderEvent event, String message) {
+        OrderState state = order.getOrderState();
+        OrderTransition transition = getTransition(state, event);
+        if(transition == null) {
+            throw new BusinessServiceException("Event "+event+" is not allowed in the Order State "+state);
+        }
+        if(!transition.isAllowed(order)) {
+            throw new BusinessServiceException("Event "+event+" rejected in the Order State "+state
+                    +" by the Guard ("+transition.getGuardName()+")");
+        }
+        if(transition.isInternal()) {
+            transition.execute(order);
+            return transition;
+        }
+        OrderNotes notes = new OrderNotes(state.name(), transition.getTarget().name(), event.name(), message, null);
+        OrderStateHistoryEntity history = order.transition(transition.getTarget(), event, notes);
+        transition.execute(order);
+        // Result after the Action
+        history.setResult(order.getResult());
+        return transition;
+    }
+
+    /**
+     * Returns the State Machine Builder
+     * @return
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Order State Machine Builder
+     */
+    public static class Builder {
+
+        private final OrderTransition[] table = new OrderTransition[STATES.length * EVENTS.length];
+        private int transitionCount;
+
+        private Builder() {
+        }
+
+        /**
+         * Add the Transition
+         * @param source
+         * @param event
+         * @param target
+         * @return
+         */
+        public Builder transition(OrderState source, OrderEvent event, OrderState target) {
+            return transition(source, event, target, null, null, null);
+        }
+
+        /**
+         * Add the Transition with an Action
+         * @param source
+         * @param event
+         * @param target
+         * @param action
+         * @return
+         */
+        public Builder transition(OrderState source, OrderEvent event, OrderState target,
+                                  Consumer<OrderEntity> action) {
+            return transition(source, event, target, null, null, action);
+        }
+
+        /**
+         * Add the Transition with a Guard and an Action
+         * @param source
+         * @param event
+         * @param target
+         * @param guardName
+         * @param guard
+         * @param action
+         * @return
+         */
+        public Builder transition(OrderState source, OrderEvent event, OrderState target,
+                                  String guardName, Predicate<OrderEntity> guard, Consumer<OrderEntity> action) {
+            Objects.requireNonNull(source, "Source State is required");
+            Objects.requireNonNull(event, "Event is required");
+            Objects.requireNonNull(target, "Target State is required");
+            int index = source.ordinal() * EVENTS.length + event.ordinal();
+            if(table[index] != null) {
+                throw new IllegalStateException("Duplicate Transition "+table[index]+" / "+source+" -- "+event);
+            }
+            table[index] = new OrderTransition(source, event, target, guardName, guard, action);
+            transitionCount++;
+            return this;
+        }
+
+        /**
+         * Add the Transition from all the Source States
+         * @param sources
+         * @param event
+         * @param target
+         * @param action
+         * @return
+         */
+        public Builder transitions(Set<OrderState> sources, OrderEvent event, OrderState target,
+                                   Consumer<OrderEntity> action) {
+            for(OrderState source : sources) {
+                transition(source, event, target, null, null, action);
+            }
+            return this;
+        }
+
+        /**
+         * Add an Internal Transition (Action without a State change)
+         * @param source
+         * @param event
+         * @param action
+         * @return
+         */
+        public Builder internal(OrderState source, OrderEvent event, Consumer<OrderEntity> action) {
+            return transition(source, event, source, null, null, action);
+        }
+
+        /**
+         * Build the State Machine (Compiled Table)
+         * @return
+         */
+        public OrderStateMachine build() {
+            return new OrderStateMachine(table.clone(), transitionCount);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.statemachine.order;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+// Java
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Order State Transition (Source State + Event -> Target State)
+ *
+ * The Guard is evaluated before the Transition and the Action is executed after the Order moved to the
+ * Target State. An Internal Transition runs the Action without changing the State (No History).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class OrderTransition {
+
+    private final OrderState source;
+    private final OrderEvent event;
+    private final OrderState target;
+    private final Predicate<OrderEntity> guard;
+    private final Consumer<OrderEntity> action;
+    private final String guardName;
+
+    /**
+     * Create Order Transition
+     * @param source
+     * @param event
+     * @param target
+     * @param guardName
+     * @param guard
+     * @param action
+     */
+    OrderTransition(OrderState source, OrderEvent event, OrderState target,
+                    String guardName, Predicate<OrderEntity> guard, Consumer<OrderEntity> action) {
+        this.source = source;
+        this.event = event;
+        this.target = target;
+        this.guardName = guardName;
+        this.guard = guard;
+        this.action = action;
+    }
+
+    /**
+     * Returns the Source State
+     * @return
+     */
+    public OrderState getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the Event
+     * @return
+     */
+    public OrderEvent getEvent() {
+        return event;
+    }
+
+    /**
+     * Returns the Target State
+     * @return
+     */
+    public OrderState getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the Guard Name (for the Error Messages)
+     * @return
+     */
+    public String getGuardName() {
+        return guardName;
+    }
+
+    /**
+     * Returns True if the State doesn't change
+     * @return
+     */
+    public boolean isInternal() {
+        return source == target;
+    }
+
+    /**
+     * Evaluate the Guard
+     * @param order
+     * @return
+     */
+    public boolean isAllowed(OrderEntity order) {
+        return guard == null || guard.test(order);
+    }
+
+    /**
+     * Execute the Action
+     * @param order
+     */
+    public void execute(OrderEntity order) {
+        if(action != null) {
+            action.accept(order);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return source + " -- " + event + " --> " + target;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+// Custom
+import io.fusion.air.microservice.utils.JsonMappers;
+// Spring
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+// Java
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Binary Content Negotiation (CBOR / Smile) for the Service to Service Calls
+ *
+ * The Request and Response Bodies are read / written as application/cbor or application/x-jackson-smile
+ * when the Caller asks for it (Content-Type / Accept). The Internal Clients created with
+ * RestClientService(true) ask for Smile / CBOR first, the Default Client (External Services) uses JSON. The Binary Converters are placed after the JSON Converter, so Browsers and the
+ * other Clients (Accept: * / *, application/json) get JSON.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "binaryContentConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class BinaryContentConfig implements WebMvcConfigurer, Serializable {
+
+	@Value("${service.binary.content.enabled:true}")
+	private boolean binaryContentEnabled;
+
+	/**
+	 * Replace the Default CBOR / Smile Converters with the Converters using the Shared Mappers
+	 * and place them after the JSON Converter.
+	 * @param converters
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(c -> c instanceof MappingJackson2CborHttpMessageConverter
+				|| c instanceof MappingJackson2SmileHttpMessageConverter);
+		if(!binaryContentEnabled) {
+			return;
+		}
+		int json = converters.size();
+		for(int i = 0; i < converters.size(); i++) {
+			if(converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+				json = i + 1;
+			}
+		}
+		converters.add(json, new MappingJackson2CborHttpMessageConverter(JsonMappers.cbor()));
+		converters.add(json, new MappingJackson2SmileHttpMessageConverter(JsonMappers.smile()));
+	}
+
+	/**
+	 * Returns True if the Binary Formats (CBOR / Smile) are supported
+	 * @return
+	 */
+	public boolean isBinaryContentEnabled() {
+		return binaryContentEnabled;
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Cart Store Configuration
+ *
+ * Write-Behind mode buffers the Cart mutations (Add, Activate, De-Activate, Delete) per customer
+ * and flushes them to the Database in batches on a timer or when the buffer size crosses the
+ * threshold. Every mutation is appended to a local journal before it is acknowledged.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "cartStoreConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class CartStoreConfig implements Serializable {
+
+	@Value("${cart.write.behind.enabled:false}")
+	private boolean writeBehindEnabled;
+
+	@Value("${cart.write.behind.flush.interval:2000}")
+	private long flushInterval;
+
+	@Value("${cart.write.behind.flush.size:500}")
+	private int flushSize;
+
+	@Value("${cart.write.behind.journal.path:/tmp/ms-cache/cart-journal}")
+	private String journalPath;
+
+	@Value("${cart.write.behind.journal.sync:true}")
+	private boolean journalSync;
+
+	/**
+	 * Returns True if the Write-Behind Mode is Enabled
+	 * @return
+	 */
+	public boolean isWriteBehindEnabled() {
+		return writeBehindEnabled;
+	}
+
+	/**
+	 * Flush Interval in Milli Seconds
+	 * @return
+	 */
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	/**
+	 * Number of Pending Operations that triggers a Flush
+	 * @return
+	 */
+	public int getFlushSize() {
+		return flushSize;
+	}
+
+	/**
+	 * Journal Directory
+	 * @return
+	 */
+	public String getJournalPath() {
+		return journalPath;
+	}
+
+	/**
+	 * Returns True if every Journal Append is forced to the Disk
+	 * @return
+	 */
+	public boolean isJournalSync() {
+		return journalSync;
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Concurrency Limit Configuration
+ *
+ * The Requests in Flight are limited by an Adaptive Limit (Gradient of the Latency). The Routes are
+ * prioritised, the Critical Paths (Health) are never shed, the High Priority Paths (Payments) can use
+ * a bigger share of the Limit than the other (Browse) Requests.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "concurrencyLimitConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class ConcurrencyLimitConfig implements Serializable {
+
+	@Value("${concurrency.limit.enabled:true}")
+	private boolean limitEnabled;
+
+	@Value("${concurrency.limit.initial:20}")
+	private int initialLimit;
+
+	@Value("${concurrency.limit.min:4}")
+	private int minLimit;
+
+	@Value("${concurrency.limit.max:200}")
+	private int maxLimit;
+
+	@Value("${concurrency.limit.smoothing:0.2}")
+	private double smoothing;
+
+	@Value("${concurrency.limit.tolerance:1.5}")
+	private double tolerance;
+
+	@Value("${concurrency.limit.window:100}")
+	private long window;
+
+	@Value("${concurrency.limit.critical.paths:/actuator}")
+	private String[] criticalPaths;
+
+	@Value("${concurrency.limit.high.paths:/processPayments,/payment}")
+	private String[] highPaths;
+
+	@Value("${concurrency.limit.high.share:0.9}")
+	private double highShare;
+
+	@Value("${concurrency.limit.browse.share:0.7}")
+	private double browseShare;
+
+	@Value("${concurrency.limit.retry.after:1}")
+	private int retryAfter;
+
+	/**
+	 * Returns True if the Requests in Flight are limited
+	 * @return
+	 */
+	public boolean isLimitEnabled() {
+		return limitEnabled;
+	}
+
+	/**
+	 * Limit at Startup
+	 * @return
+	 */
+	public int getInitialLimit() {
+		return initialLimit;
+	}
+
+	/**
+	 * Lowest Limit
+	 * @return
+	 */
+	public int getMinLimit() {
+		return minLimit;
+	}
+
+	/**
+	 * Highest Limit
+	 * @return
+	 */
+	public int getMaxLimit() {
+		return maxLimit;
+	}
+
+	/**
+	 * Weight (0..1) of a new Limit Estimate
+	 * @return
+	 */
+	public double getSmoothing() {
+		return smoothing;
+	}
+
+	/**
+	 * Latency Increase (Short / Long Term) tolerated before the Limit is reduced
+	 * @return
+	 */
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	/**
+	 * Sample Window (Milli Seconds) of the Limit Updates
+	 * @return
+	 */
+	public long getWindow() {
+		return window;
+	}
+
+	/**
+	 * Paths (Part of the Request URI) never shed
+	 * @return
+	 */
+	public String[] getCriticalPaths() {
+		return criticalPaths;
+	}
+
+	/**
+	 * Paths (Part of the Request URI) with the High Priority
+	 * @return
+	 */
+	public String[] getHighPaths() {
+		return highPaths;
+	}
+
+	/**
+	 * Share (0..1) of the Limit for the High Priority Requests
+	 * @return
+	 */
+	public double getHighShare() {
+		return highShare;
+	}
+
+	/**
+	 * Share (0..1) of the Limit for the other (Browse) Requests
+	 * @return
+	 */
+	public double getBrowseShare() {
+		return browseShare;
+	}
+
+	/**
+	 * Retry-After (Seconds) of the Shed Requests
+	 * @return
+	 */
+	public int getRetryAfter() {
+		return retryAfter;
+	}
+}
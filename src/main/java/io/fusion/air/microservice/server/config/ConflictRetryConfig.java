@@ -0,0 +1,134 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Optimistic Lock Conflict Retry Configuration
+ *
+ * Methods annotated with @RetryOnConflict are re-executed in a new Transaction after a Jittered
+ * Backoff when the Version Check fails. Retries are limited by the Max Attempts per call and by a
+ * Retry Budget shared across all the calls.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "conflictRetryConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class ConflictRetryConfig implements Serializable {
+
+	@Value("${db.conflict.retry.enabled:true}")
+	private boolean retryEnabled;
+
+	@Value("${db.conflict.retry.max.attempts:5}")
+	private int maxAttempts;
+
+	@Value("${db.conflict.retry.backoff.base:5}")
+	private long backoffBase;
+
+	@Value("${db.conflict.retry.backoff.max:200}")
+	private long backoffMax;
+
+	@Value("${db.conflict.retry.budget.ratio:0.2}")
+	private double budgetRatio;
+
+	@Value("${db.conflict.retry.budget.min:10}")
+	private int budgetMin;
+
+	@Value("${db.conflict.hot.rows.top:10}")
+	private int hotRowsTop;
+
+	@Value("${db.conflict.hot.rows.interval:30}")
+	private long hotRowsInterval;
+
+	/**
+	 * Returns True if the Retry on Conflict is Enabled
+	 * @return
+	 */
+	public boolean isRetryEnabled() {
+		return retryEnabled;
+	}
+
+	/**
+	 * Max Attempts (including the first call) unless overridden in the Annotation
+	 * @return
+	 */
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	/**
+	 * Base Backoff in Milli Seconds (Doubled for every Attempt)
+	 * @return
+	 */
+	public long getBackoffBase() {
+		return backoffBase;
+	}
+
+	/**
+	 * Max Backoff in Milli Seconds
+	 * @return
+	 */
+	public long getBackoffMax() {
+		return backoffMax;
+	}
+
+	/**
+	 * Retries allowed as a Ratio of the Calls
+	 * @return
+	 */
+	public double getBudgetRatio() {
+		return budgetRatio;
+	}
+
+	/**
+	 * Retries allowed per Second irrespective of the Ratio
+	 * @return
+	 */
+	public int getBudgetMin() {
+		return budgetMin;
+	}
+
+	/**
+	 * Number of Hot Rows (Top N by Conflicts) exported as Gauges
+	 * @return
+	 */
+	public int getHotRowsTop() {
+		return hotRowsTop;
+	}
+
+	/**
+	 * Hot Rows Refresh Interval in Seconds
+	 * @return
+	 */
+	public long getHotRowsInterval() {
+		return hotRowsInterval;
+	}
+}
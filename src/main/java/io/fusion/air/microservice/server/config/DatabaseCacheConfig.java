@@ -0,0 +1,113 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+import java.util.HashMap;
+
+/**
+ * Hibernate Second Level Cache Configuration
+ *
+ * Region Size (Max Entries) and TTL (Seconds) can be set per Region, Regions not
+ * configured uses the default Size and TTL.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "databaseCacheConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class DatabaseCacheConfig implements Serializable {
+
+	@Value("${db.cache.enabled:true}")
+	private boolean cacheEnabled;
+
+	@Value("${db.cache.statistics:true}")
+	private boolean statisticsEnabled;
+
+	@Value("${db.cache.default.size:1000}")
+	private long defaultSize;
+
+	@Value("${db.cache.default.ttl:3600}")
+	private long defaultTtl;
+
+	@Value("#{${db.cache.region.size:{:}}}")
+	private HashMap<String, String> regionSize;
+
+	@Value("#{${db.cache.region.ttl:{:}}}")
+	private HashMap<String, String> regionTtl;
+
+	/**
+	 * Returns True if the Second Level Cache is Enabled
+	 * @return
+	 */
+	public boolean isCacheEnabled() {
+		return cacheEnabled;
+	}
+
+	/**
+	 * Returns True if the Hibernate Statistics is Enabled
+	 * @return
+	 */
+	public boolean isStatisticsEnabled() {
+		return statisticsEnabled;
+	}
+
+	/**
+	 * Returns the Max Entries for the Region
+	 * @param region
+	 * @return
+	 */
+	public long getRegionSize(String region) {
+		return getLong(regionSize, region, defaultSize);
+	}
+
+	/**
+	 * Returns the TTL (in Seconds) for the Region
+	 * @param region
+	 * @return
+	 */
+	public long getRegionTtl(String region) {
+		return getLong(regionTtl, region, defaultTtl);
+	}
+
+	/**
+	 * Returns the Value from the Map or the Default Value
+	 * @param map
+	 * @param key
+	 * @param defaultValue
+	 * @return
+	 */
+	private long getLong(HashMap<String, String> map, String key, long defaultValue) {
+		String value = (map != null) ? map.get(key) : null;
+		if(value == null || value.isBlank()) {
+			return defaultValue;
+		}
+		return Long.parseLong(value.trim());
+	}
+}
@@ -20,6 +20,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
 
 import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 
 /**
  * Database Configuration
@@ -88,6 +90,27 @@ public class DatabaseConfig implements Serializable {
 	@Value("${spring.jpa.database-platform:org.hibernate.dialect.H2Dialect}")
 	private String dataSourceDialect;
 
+	// UUID Version for the Ids (4 = Random, 7 = Time Ordered)
+	@Value("${db.uuid.version:4}")
+	private int uuidVersion;
+
+	// Date (yyyy-MM-dd, UTC) since when all the Ids are UUID v7, older Rows may have UUID v4 Ids
+	@Value("${db.uuid.v7.since:}")
+	private String uuidV7Since;
+
+	// SQL Statistics (Latency per Statement Shape & Slow Queries)
+	@Value("${db.sql.stats.enabled:true}")
+	private boolean sqlStatsEnabled;
+
+	@Value("${db.sql.stats.max.shapes:200}")
+	private int sqlStatsMaxShapes;
+
+	@Value("${db.sql.slow.size:50}")
+	private int sqlSlowSize;
+
+	@Value("${db.sql.slow.threshold:20}")
+	private long sqlSlowThreshold;
+
 	/**
 	 * Returns Database URL
 	 * @return
@@ -128,6 +151,58 @@ public class DatabaseConfig implements Serializable {
 		return dataSourceDialect;
 	}
 
+	/**
+	 * Returns the UUID Version used for the Ids (4 = Random, 7 = Time Ordered)
+	 * @return
+	 */
+	public int getUuidVersion() {
+		return uuidVersion;
+	}
+
+	/**
+	 * Returns the Time (Epoch Millis) since when all the Ids are Time Ordered (UUID v7).
+	 * Long.MAX_VALUE if the Ids are UUID v4 or the Date is not set (the Ids may be mixed).
+	 * @return
+	 */
+	public long getUuidV7Since() {
+		if(uuidVersion != 7 || uuidV7Since == null || uuidV7Since.isBlank()) {
+			return Long.MAX_VALUE;
+		}
+		return LocalDate.parse(uuidV7Since.trim()).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Returns True if the SQL Statistics is Enabled
+	 * @return
+	 */
+	public boolean isSqlStatsEnabled() {
+		return sqlStatsEnabled;
+	}
+
+	/**
+	 * Max Statement Shapes (Metric Tag Cardinality)
+	 * @return
+	 */
+	public int getSqlStatsMaxShapes() {
+		return sqlStatsMaxShapes;
+	}
+
+	/**
+	 * Number of Slow Queries to Keep
+	 * @return
+	 */
+	public int getSqlSlowSize() {
+		return sqlSlowSize;
+	}
+
+	/**
+	 * Slow Query Threshold in Milli Seconds
+	 * @return
+	 */
+	public long getSqlSlowThreshold() {
+		return sqlSlowThreshold;
+	}
+
 	/**
 	 * DataSource Server
 	 * @return
@@ -0,0 +1,116 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * HTTP Cache Configuration (Conditional Requests)
+ *
+ * The Read Endpoints return an ETag / Last-Modified from the Version of the Resource (Change Counter
+ * per Resource and Key Stripe). A Request with the current ETag (If-None-Match) gets 304 Not Modified
+ * without a Database Query or JSON Serialization.
+ *
+ * The Public Read Endpoints also keep the Serialized (and Gzipped) Response per Route and Parameters,
+ * written as is to the Output Stream till the Version of the Resource changes.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "httpCacheConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class HttpCacheConfig implements Serializable {
+
+	@Value("${http.etag.enabled:true}")
+	private boolean etagEnabled;
+
+	@Value("${http.etag.stripes:1024}")
+	private int etagStripes;
+
+	@Value("${http.etag.max.staleness:60}")
+	private long etagMaxStaleness;
+
+	@Value("${http.response.cache.enabled:true}")
+	private boolean responseCacheEnabled;
+
+	@Value("${http.response.cache.max.entries:256}")
+	private int responseCacheMaxEntries;
+
+	@Value("${http.response.cache.gzip.min.size:1024}")
+	private int responseCacheGzipMinSize;
+
+	/**
+	 * Returns True if the Read Endpoints support Conditional Requests
+	 * @return
+	 */
+	public boolean isEtagEnabled() {
+		return etagEnabled;
+	}
+
+	/**
+	 * Change Counters per Resource (The Keys are hashed to the Stripes)
+	 * @return
+	 */
+	public int getEtagStripes() {
+		return etagStripes;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) an ETag stays valid (0 = until the Resource changes). The Versions are
+	 * kept per Instance, this bounds the Staleness of the Changes made by the other Instances.
+	 * @return
+	 */
+	public long getEtagMaxStaleness() {
+		return etagMaxStaleness * 1000;
+	}
+
+	/**
+	 * Returns True if the Serialized Responses of the Public Read Endpoints are cached
+	 * @return
+	 */
+	public boolean isResponseCacheEnabled() {
+		return responseCacheEnabled;
+	}
+
+	/**
+	 * Max Cached Responses (Route + Parameters). Responses beyond the Limit are not cached.
+	 * @return
+	 */
+	public int getResponseCacheMaxEntries() {
+		return responseCacheMaxEntries;
+	}
+
+	/**
+	 * Min Size (Bytes) of the Response to keep a Gzipped Copy
+	 * @return
+	 */
+	public int getResponseCacheGzipMinSize() {
+		return responseCacheGzipMinSize;
+	}
+}
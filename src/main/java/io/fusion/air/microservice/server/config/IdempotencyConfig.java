@@ -0,0 +1,144 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Idempotency Key Configuration
+ *
+ * The POST Requests of the configured Paths with the Idempotency-Key Header are executed once, the
+ * Response is stored (Memory + Database) and replayed for the Retries with the same Key until the TTL.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "idempotencyConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class IdempotencyConfig implements Serializable {
+
+	@Value("${idempotency.enabled:true}")
+	private boolean idempotencyEnabled;
+
+	@Value("${idempotency.header:Idempotency-Key}")
+	private String header;
+
+	@Value("${idempotency.paths:/order/save,/order/processPayments}")
+	private String[] paths;
+
+	@Value("${idempotency.ttl:86400}")
+	private long ttl;
+
+	@Value("${idempotency.cache.size:10000}")
+	private long cacheSize;
+
+	@Value("${idempotency.wait.timeout:10000}")
+	private long waitTimeout;
+
+	@Value("${idempotency.lease:60000}")
+	private long lease;
+
+	@Value("${idempotency.max.body:1048576}")
+	private int maxBody;
+
+	@Value("${idempotency.cleanup.interval:600}")
+	private long cleanupInterval;
+
+	/**
+	 * Returns True if the Idempotency Keys are processed
+	 * @return
+	 */
+	public boolean isIdempotencyEnabled() {
+		return idempotencyEnabled;
+	}
+
+	/**
+	 * Name of the Idempotency Key Header
+	 * @return
+	 */
+	public String getHeader() {
+		return header;
+	}
+
+	/**
+	 * Paths (Suffix of the Request URI) of the Idempotent POST Requests
+	 * @return
+	 */
+	public String[] getPaths() {
+		return paths;
+	}
+
+	/**
+	 * Time (Milli Seconds) the Response is replayed for the Key
+	 * @return
+	 */
+	public long getTtl() {
+		return ttl * 1000;
+	}
+
+	/**
+	 * Max Responses in the Memory Tier
+	 * @return
+	 */
+	public long getCacheSize() {
+		return cacheSize;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) a Duplicate waits for the Request in Flight
+	 * @return
+	 */
+	public long getWaitTimeout() {
+		return waitTimeout;
+	}
+
+	/**
+	 * Time (Milli Seconds) after which a PENDING Key not renewed (Instance failed) can be taken over
+	 * @return
+	 */
+	public long getLease() {
+		return lease;
+	}
+
+	/**
+	 * Max Size (Bytes) of the Request / Response Body
+	 * @return
+	 */
+	public int getMaxBody() {
+		return maxBody;
+	}
+
+	/**
+	 * Interval (Seconds) to remove the Expired Keys from the Database
+	 * @return
+	 */
+	public long getCleanupInterval() {
+		return cleanupInterval;
+	}
+}
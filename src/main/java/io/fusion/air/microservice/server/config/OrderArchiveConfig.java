@@ -0,0 +1,100 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Order Partitioning & Archival Configuration
+ *
+ * Orders are Range Partitioned (Monthly) on the Time Ordered (UUID v7) Id. Closed Orders older than
+ * the Archive Age are moved (Compressed) to the Archive Table by the Archival Job.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderArchiveConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderArchiveConfig implements Serializable {
+
+	@Value("${order.partition.months.ahead:2}")
+	private int partitionMonthsAhead;
+
+	@Value("${order.archive.enabled:true}")
+	private boolean archiveEnabled;
+
+	@Value("${order.archive.after.months:6}")
+	private int archiveAfterMonths;
+
+	@Value("${order.archive.batch.size:200}")
+	private int archiveBatchSize;
+
+	@Value("${order.archive.interval:60}")
+	private long archiveInterval;
+
+	/**
+	 * Number of Monthly Partitions created ahead of the Current Month
+	 * @return
+	 */
+	public int getPartitionMonthsAhead() {
+		return partitionMonthsAhead;
+	}
+
+	/**
+	 * Returns True if the Archival Job is Enabled
+	 * @return
+	 */
+	public boolean isArchiveEnabled() {
+		return archiveEnabled;
+	}
+
+	/**
+	 * Closed Orders older than the Months are Archived
+	 * @return
+	 */
+	public int getArchiveAfterMonths() {
+		return archiveAfterMonths;
+	}
+
+	/**
+	 * Orders Archived in a Transaction
+	 * @return
+	 */
+	public int getArchiveBatchSize() {
+		return archiveBatchSize;
+	}
+
+	/**
+	 * Archival Job Interval in Minutes
+	 * @return
+	 */
+	public long getArchiveInterval() {
+		return archiveInterval;
+	}
+}
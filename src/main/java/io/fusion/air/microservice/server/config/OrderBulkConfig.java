@@ -0,0 +1,90 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Order Bulk Events Configuration
+ *
+ * The Bulk Order Events (NDJSON) are processed in Chunks, the next Chunk is parsed while the previous
+ * Chunk is applied. The Orders of a Chunk are loaded with IN Queries and the Events are written in
+ * JDBC Batches.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderBulkConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderBulkConfig implements Serializable {
+
+	@Value("${order.bulk.max.events:10000}")
+	private int maxEvents;
+
+	@Value("${order.bulk.chunk.size:500}")
+	private int chunkSize;
+
+	@Value("${order.bulk.jdbc.batch.size:100}")
+	private int jdbcBatchSize;
+
+	@Value("${order.bulk.threads:4}")
+	private int threads;
+
+	/**
+	 * Max Events in a Bulk Request
+	 * @return
+	 */
+	public int getMaxEvents() {
+		return maxEvents;
+	}
+
+	/**
+	 * Events per Chunk (Transaction) and Max Order Ids in an IN Query
+	 * @return
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * JDBC Batch Size for the Inserts / Updates of a Chunk
+	 * @return
+	 */
+	public int getJdbcBatchSize() {
+		return jdbcBatchSize;
+	}
+
+	/**
+	 * Threads applying the Chunks (No Virtual Threads)
+	 * @return
+	 */
+	public int getThreads() {
+		return threads;
+	}
+}
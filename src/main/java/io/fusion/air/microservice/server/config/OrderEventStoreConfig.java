@@ -0,0 +1,56 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Order Event Store Configuration
+ *
+ * Order State Transitions are appended to the Order State History (Event Log). The Order row (Snapshot)
+ * is updated every N Events and when the Order is Closed.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderEventStoreConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderEventStoreConfig implements Serializable {
+
+	@Value("${order.snapshot.interval:10}")
+	private int snapshotInterval;
+
+	/**
+	 * Number of Events after which the Order Snapshot is taken
+	 * @return
+	 */
+	public int getSnapshotInterval() {
+		return snapshotInterval;
+	}
+}
@@ -0,0 +1,133 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Order Fork / Join Configuration
+ *
+ * The Branches of the PACKING_FORK (Packaging, Billing) run concurrently on Virtual Threads
+ * (Java 21+ Runtime) or on a Bounded Thread Pool, and join into READY_TO_SHIP_JOIN.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderForkConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderForkConfig implements Serializable {
+
+	@Value("${order.fork.enabled:true}")
+	private boolean forkEnabled;
+
+	@Value("${order.fork.parallel:true}")
+	private boolean parallel;
+
+	@Value("${order.fork.virtual.threads:true}")
+	private boolean virtualThreads;
+
+	@Value("${order.fork.threads:16}")
+	private int threads;
+
+	@Value("${order.fork.branch.timeout:30000}")
+	private long branchTimeout;
+
+	@Value("${order.fork.sweep.interval:30000}")
+	private long sweepInterval;
+
+	@Value("${order.stage.packaging.latency:200}")
+	private long packagingLatency;
+
+	@Value("${order.stage.billing.latency:150}")
+	private long billingLatency;
+
+	/**
+	 * Returns True if the Fork / Join Stages are executed by the Service
+	 * @return
+	 */
+	public boolean isForkEnabled() {
+		return forkEnabled;
+	}
+
+	/**
+	 * Returns True if the Branches run concurrently (False = One after the other)
+	 * @return
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Returns True if the Virtual Threads are used (when supported by the Runtime)
+	 * @return
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+
+	/**
+	 * Max Threads of the Bounded Pool (No Virtual Threads)
+	 * @return
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) for a Branch to complete
+	 * @return
+	 */
+	public long getBranchTimeout() {
+		return branchTimeout;
+	}
+
+	/**
+	 * Interval (Milli Seconds) of the Recovery Sweep (Forks Rejected or not Joined)
+	 * @return
+	 */
+	public long getSweepInterval() {
+		return sweepInterval;
+	}
+
+	/**
+	 * Latency (Milli Seconds) of the Packaging Stage
+	 * @return
+	 */
+	public long getPackagingLatency() {
+		return packagingLatency;
+	}
+
+	/**
+	 * Latency (Milli Seconds) of the Billing Stage
+	 * @return
+	 */
+	public long getBillingLatency() {
+		return billingLatency;
+	}
+}
@@ -0,0 +1,111 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Order Mailbox Configuration
+ *
+ * Order Events are routed to a Mailbox (Stripe) by the Hash of the Order Id. Each Mailbox processes
+ * its Events one after the other, different Mailboxes run in parallel.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderMailboxConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderMailboxConfig implements Serializable {
+
+	@Value("${order.mailbox.enabled:true}")
+	private boolean mailboxEnabled;
+
+	@Value("${order.mailbox.stripes:64}")
+	private int stripes;
+
+	@Value("${order.mailbox.capacity:256}")
+	private int capacity;
+
+	@Value("${order.mailbox.offer.timeout:100}")
+	private long offerTimeout;
+
+	@Value("${order.mailbox.timeout:30000}")
+	private long timeout;
+
+	@Value("${order.mailbox.virtual.threads:true}")
+	private boolean virtualThreads;
+
+	/**
+	 * Returns True if the Order Events are processed through the Mailboxes
+	 * @return
+	 */
+	public boolean isMailboxEnabled() {
+		return mailboxEnabled;
+	}
+
+	/**
+	 * Number of Mailboxes (Stripes)
+	 * @return
+	 */
+	public int getStripes() {
+		return stripes;
+	}
+
+	/**
+	 * Max Events waiting in a Mailbox
+	 * @return
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) to wait for a Slot in a Full Mailbox before the Event is Rejected
+	 * @return
+	 */
+	public long getOfferTimeout() {
+		return offerTimeout;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) the Caller waits for the Event to be Processed
+	 * @return
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Returns True if the Virtual Threads are used (when supported by the Runtime)
+	 * @return
+	 */
+	public boolean isVirtualThreads() {
+		return virtualThreads;
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Order Read Model Configuration
+ *
+ * The Order Summaries of the Customers are kept in Memory (Columnar Arrays), updated from the Order
+ * Saves and Transitions (this Instance and the Outbox Topic) and rebuilt from the Database at Startup.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderReadModelConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderReadModelConfig implements Serializable {
+
+	@Value("${order.read.model.enabled:true}")
+	private boolean readModelEnabled;
+
+	@Value("${order.read.model.capacity:1024}")
+	private int capacity;
+
+	@Value("${order.read.model.rebuild.page.size:1000}")
+	private int rebuildPageSize;
+
+	@Value("${order.read.model.kafka.group:ms-vanilla-order-read-model}")
+	private String kafkaGroup;
+
+	/**
+	 * Returns True if the Order Summaries are served from Memory
+	 * @return
+	 */
+	public boolean isReadModelEnabled() {
+		return readModelEnabled;
+	}
+
+	/**
+	 * Initial Capacity (Orders) of the Read Model
+	 * @return
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Orders loaded per Query while rebuilding the Read Model
+	 * @return
+	 */
+	public int getRebuildPageSize() {
+		return rebuildPageSize;
+	}
+
+	/**
+	 * Consumer Group Prefix (Outbox Topic), every Instance consumes all the Events (Prefix + Instance Id)
+	 * @return
+	 */
+	public String getKafkaGroup() {
+		return kafkaGroup;
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Order Timeout (Saga Deadline) Configuration
+ *
+ * A Deadline (Seconds) can be set per Order State waiting for a Callback. When no Callback arrives
+ * before the Deadline the Timeout Event of the State is fired (Default FAILURE_EVENT).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "orderTimeoutConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OrderTimeoutConfig implements Serializable {
+
+	@Value("${order.timeout.enabled:true}")
+	private boolean timeoutEnabled;
+
+	@Value("${order.timeout.tick:100}")
+	private long tick;
+
+	@Value("${order.timeout.wheel.size:512}")
+	private int wheelSize;
+
+	@Value("${order.timeout.retry.delay:1000}")
+	private long retryDelay;
+
+	@Value("${order.timeout.recovery.page.size:1000}")
+	private int recoveryPageSize;
+
+	@Value("${order.timeout.claim.lease:30000}")
+	private long claimLease;
+
+	@Value("${order.timeout.scan.interval:60000}")
+	private long scanInterval;
+
+	@Value("#{${order.timeout.deadlines:{:}}}")
+	private HashMap<String, String> deadlines;
+
+	@Value("#{${order.timeout.events:{:}}}")
+	private HashMap<String, String> events;
+
+	private transient Map<OrderState, Long> stateDeadlines;
+	private transient Map<OrderState, OrderEvent> stateEvents;
+
+	/**
+	 * Returns True if the Order Deadlines are enforced
+	 * @return
+	 */
+	public boolean isTimeoutEnabled() {
+		return timeoutEnabled;
+	}
+
+	/**
+	 * Milli Seconds per Slot of the Timing Wheel (Timer Resolution)
+	 * @return
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * Slots per Level of the Timing Wheel
+	 * @return
+	 */
+	public int getWheelSize() {
+		return wheelSize;
+	}
+
+	/**
+	 * Delay (Milli Seconds) before an expired Deadline is retried (Order Mailbox Full)
+	 * @return
+	 */
+	public long getRetryDelay() {
+		return retryDelay;
+	}
+
+	/**
+	 * Deadlines loaded per Query after a Restart
+	 * @return
+	 */
+	public int getRecoveryPageSize() {
+		return recoveryPageSize;
+	}
+
+	/**
+	 * Time (Milli Seconds) an expired Deadline stays Claimed by the Instance firing it
+	 * @return
+	 */
+	public long getClaimLease() {
+		return claimLease;
+	}
+
+	/**
+	 * Interval (Milli Seconds) of the Scan for the expired Deadlines without a Timer (0 = No Scan)
+	 * @return
+	 */
+	public long getScanInterval() {
+		return scanInterval;
+	}
+
+	/**
+	 * Returns the Time (Milli Seconds) the Order can stay in the State (0 = No Deadline)
+	 * @param state
+	 * @return
+	 */
+	public long getDeadline(OrderState state) {
+		if(!timeoutEnabled || state == null) {
+			return 0;
+		}
+		return getStateDeadlines().getOrDefault(state, 0L);
+	}
+
+	/**
+	 * Returns the Event fired when the Deadline of the State expires
+	 * @param state
+	 * @return
+	 */
+	public OrderEvent getTimeoutEvent(OrderState state) {
+		return getStateEvents().getOrDefault(state, OrderEvent.FAILURE_EVENT);
+	}
+
+	/**
+	 * Deadlines (Milli Seconds) per State
+	 * @return
+	 */
+	private Map<OrderState, Long> getStateDeadlines() {
+		if(stateDeadlines == null) {
+			Map<OrderState, Long> map = new EnumMap<>(OrderState.class);
+			if(deadlines != null) {
+				deadlines.forEach((state, seconds) -> {
+					long deadline = Long.parseLong(seconds.trim()) * 1000;
+					if(deadline > 0) {
+						map.put(OrderState.valueOf(state.trim()), deadline);
+					}
+				});
+			}
+			stateDeadlines = map;
+		}
+		return stateDeadlines;
+	}
+
+	/**
+	 * Timeout Events per State
+	 * @return
+	 */
+	private Map<OrderState, OrderEvent> getStateEvents() {
+		if(stateEvents == null) {
+			Map<OrderState, OrderEvent> map = new EnumMap<>(OrderState.class);
+			if(events != null) {
+				events.forEach((state, event) -> map.put(OrderState.valueOf(state.trim()), OrderEvent.valueOf(event.trim())));
+			}
+			stateEvents = map;
+		}
+		return stateEvents;
+	}
+}
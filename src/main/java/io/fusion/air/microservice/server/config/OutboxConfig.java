@@ -0,0 +1,180 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Transactional Outbox Configuration
+ *
+ * Domain Events are written to the Outbox Table in the same Transaction as the Aggregate and the
+ * Relay publishes them in Batches to the Sink (kafka or memory) with At-Least-Once delivery.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "outboxConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class OutboxConfig implements Serializable {
+
+	public static final String SINK_KAFKA = "kafka";
+	public static final String SINK_MEMORY = "memory";
+
+	@Value("${outbox.enabled:true}")
+	private boolean outboxEnabled;
+
+	@Value("${outbox.sink:memory}")
+	private String sink;
+
+	@Value("${outbox.relay.interval:5000}")
+	private long relayInterval;
+
+	@Value("${outbox.relay.batch.size:500}")
+	private int batchSize;
+
+	@Value("${outbox.relay.lease:30000}")
+	private long relayLease;
+
+	@Value("${outbox.retention:3600}")
+	private long retention;
+
+	@Value("${outbox.memory.capacity:10000}")
+	private int memoryCapacity;
+
+	@Value("${outbox.kafka.topic:ms-vanilla-events}")
+	private String kafkaTopic;
+
+	@Value("${outbox.kafka.bootstrap.servers:localhost:9092}")
+	private String kafkaBootstrapServers;
+
+	@Value("${outbox.kafka.compression:lz4}")
+	private String kafkaCompression;
+
+	@Value("${outbox.kafka.linger:20}")
+	private int kafkaLinger;
+
+	@Value("${outbox.kafka.send.timeout:10000}")
+	private long kafkaSendTimeout;
+
+	/**
+	 * Returns True if the Outbox is Enabled
+	 * @return
+	 */
+	public boolean isOutboxEnabled() {
+		return outboxEnabled;
+	}
+
+	/**
+	 * Outbox Sink (kafka or memory)
+	 * @return
+	 */
+	public String getSink() {
+		return sink;
+	}
+
+	/**
+	 * Relay Interval in Milli Seconds
+	 * @return
+	 */
+	public long getRelayInterval() {
+		return relayInterval;
+	}
+
+	/**
+	 * Max Events Published in a Batch
+	 * @return
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Lease (Milli Seconds) of the Aggregates claimed by a Relay Instance
+	 * @return
+	 */
+	public long getRelayLease() {
+		return relayLease;
+	}
+
+	/**
+	 * Published Events are purged after the Retention (Seconds)
+	 * @return
+	 */
+	public long getRetention() {
+		return retention;
+	}
+
+	/**
+	 * Max Events kept by the In-Memory Sink
+	 * @return
+	 */
+	public int getMemoryCapacity() {
+		return memoryCapacity;
+	}
+
+	/**
+	 * Kafka Topic for the Domain Events
+	 * @return
+	 */
+	public String getKafkaTopic() {
+		return kafkaTopic;
+	}
+
+	/**
+	 * Kafka Bootstrap Servers
+	 * @return
+	 */
+	public String getKafkaBootstrapServers() {
+		return kafkaBootstrapServers;
+	}
+
+	/**
+	 * Kafka Producer Compression (none, gzip, snappy, lz4, zstd)
+	 * @return
+	 */
+	public String getKafkaCompression() {
+		return kafkaCompression;
+	}
+
+	/**
+	 * Kafka Producer Linger in Milli Seconds
+	 * @return
+	 */
+	public int getKafkaLinger() {
+		return kafkaLinger;
+	}
+
+	/**
+	 * Max Wait (Milli Seconds) for the Broker Acknowledgements of a Batch
+	 * @return
+	 */
+	public long getKafkaSendTimeout() {
+		return kafkaSendTimeout;
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+
+/**
+ * Product Batch Loader Configuration
+ *
+ * Product lookups by Id within the Batch Window are coalesced into a single findAllById Query.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "productLoaderConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class ProductLoaderConfig implements Serializable {
+
+	@Value("${product.loader.enabled:true}")
+	private boolean loaderEnabled;
+
+	@Value("${product.loader.window:2}")
+	private long batchWindow;
+
+	@Value("${product.loader.batch.size:100}")
+	private int batchSize;
+
+	@Value("${product.loader.threads:4}")
+	private int threads;
+
+	@Value("${product.loader.timeout:5000}")
+	private long timeout;
+
+	@Value("${product.loader.max.keys:200}")
+	private int maxKeys;
+
+	/**
+	 * Returns True if the Batch Loader is Enabled
+	 * @return
+	 */
+	public boolean isLoaderEnabled() {
+		return loaderEnabled;
+	}
+
+	/**
+	 * Batch Window in Milli Seconds
+	 * @return
+	 */
+	public long getBatchWindow() {
+		return batchWindow;
+	}
+
+	/**
+	 * Max Keys in a Single Query
+	 * @return
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Number of Threads running the Batch Queries
+	 * @return
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Max Wait (Milli Seconds) for a Lookup
+	 * @return
+	 */
+	public long getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * Max Product Ids in a Multi-Get Request
+	 * @return
+	 */
+	public int getMaxKeys() {
+		return maxKeys;
+	}
+}
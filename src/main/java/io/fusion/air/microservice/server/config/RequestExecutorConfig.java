@@ -0,0 +1,171 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+
+import io.fusion.air.microservice.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Request Executor Configuration (Tomcat)
+ *
+ * Java 17: Bounded Thread Pool (server.executor.threads, 0 = CPUs x threads.per.cpu) with a Bounded Queue.
+ * Java 21+: Virtual Thread per Request with an optional Cap (server.executor.virtual.max.concurrency)
+ * and optional Permits per Downstream Resource (Ex. db = Connection Pool Size).
+ *
+ * Saturation Policy (Queue is Full)
+ * ABORT - Reject the Request (Tomcat closes the Connection). Default.
+ * WAIT  - Wait up to server.executor.wait.timeout for a Slot, then Reject. The Executor is called by the
+ *         Tomcat Poller Thread, so the Poller (all the Connections) is parked while waiting. Opt-in only,
+ *         with a short Timeout. Waiting / Shedding belongs in the ConcurrencyLimitFilter (503 + Retry-After).
+ * A Request never runs on the Poller Thread (No Caller Runs).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@PropertySource(
+		name = "requestExecutorConfig",
+		// Expects file in the directory the jar is executed
+		value = {
+				"file:/config/application.properties",
+				"file:./config/application.properties"
+		},
+		ignoreResourceNotFound = true
+)
+public class RequestExecutorConfig implements Serializable {
+
+	/**
+	 * Saturation Policy of the Request Executor
+	 */
+	public enum Saturation { ABORT, WAIT }
+
+	@Value("${server.executor.virtual.threads:true}")
+	private boolean virtualThreads;
+
+	@Value("${server.executor.threads:0}")
+	private int threads;
+
+	@Value("${server.executor.threads.per.cpu:8}")
+	private int threadsPerCpu;
+
+	@Value("${server.executor.queue.capacity:100}")
+	private int queueCapacity;
+
+	@Value("${server.executor.keep.alive:60}")
+	private long keepAlive;
+
+	@Value("${server.executor.saturation:ABORT}")
+	private Saturation saturation;
+
+	@Value("${server.executor.wait.timeout:500}")
+	private long waitTimeout;
+
+	@Value("${server.executor.virtual.max.concurrency:0}")
+	private int virtualMaxConcurrency;
+
+	@Value("#{${server.executor.resource.permits:{:}}}")
+	private HashMap<String, String> resourcePermits;
+
+	@Value("${server.executor.resource.timeout:5000}")
+	private long resourceTimeout;
+
+	/**
+	 * Returns True if the Requests run on Virtual Threads (Enabled and Java 21+)
+	 * @return
+	 */
+	public boolean useVirtualThreads() {
+		return virtualThreads && Utils.isJava21OrHigher();
+	}
+
+	/**
+	 * Threads of the Request Pool (Java 17). 0 = CPUs x Threads per CPU
+	 * @return
+	 */
+	public int getThreads() {
+		if(threads > 0) {
+			return threads;
+		}
+		return Math.max(8, Runtime.getRuntime().availableProcessors() * Math.max(1, threadsPerCpu));
+	}
+
+	/**
+	 * Requests waiting for a Thread (Pool) or a Permit (Virtual Threads)
+	 * @return
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Idle Time (Seconds) before a Pool Thread is stopped
+	 * @return
+	 */
+	public long getKeepAlive() {
+		return keepAlive;
+	}
+
+	/**
+	 * Policy when the Queue is Full
+	 * @return
+	 */
+	public Saturation getSaturation() {
+		return saturation;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) the Poller waits for a Slot (Saturation Policy WAIT)
+	 * @return
+	 */
+	public long getWaitTimeout() {
+		return waitTimeout;
+	}
+
+	/**
+	 * Max Requests running on Virtual Threads (0 = No Cap)
+	 * @return
+	 */
+	public int getVirtualMaxConcurrency() {
+		return virtualMaxConcurrency;
+	}
+
+	/**
+	 * Permits per Downstream Resource (Ex. db = 10)
+	 * @return
+	 */
+	public Map<String, Integer> getResourcePermits() {
+		Map<String, Integer> permits = new LinkedHashMap<>();
+		if(resourcePermits != null) {
+			resourcePermits.forEach((resource, value) -> permits.put(resource.trim(), Integer.parseInt(value.trim())));
+		}
+		return permits;
+	}
+
+	/**
+	 * Max Time (Milli Seconds) to wait for a Resource Permit
+	 * @return
+	 */
+	public long getResourceTimeout() {
+		return resourceTimeout;
+	}
+}
@@ -213,6 +213,10 @@ public class ServiceConfig implements Serializable {
 	@Value("${server.host.k8s.enabled:false}")
 	private boolean k8sEnabled;
 
+	// System Stats (CPU, Memory, File Descriptors) Sampling Interval in Milli Secs
+	@Value("${service.stats.interval:5000}")
+	private long statsInterval;
+
 	@Value("${spring.codec.max-in-memory-size:3MB}")
 	private String springCodecMaxMemory;
 
@@ -545,4 +549,12 @@ public class ServiceConfig implements Serializable {
 	public boolean isK8sEnabled() {
 		return k8sEnabled;
 	}
+
+	/**
+	 * System Stats Sampling Interval in Milli Secs
+	 * @return
+	 */
+	public long getStatsInterval() {
+		return statsInterval;
+	}
 }
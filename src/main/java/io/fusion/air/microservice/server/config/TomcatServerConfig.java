@@ -27,16 +27,18 @@
  */
 package io.fusion.air.microservice.server.config;
 
+import io.fusion.air.microservice.server.service.BoundedRequestExecutor;
+import io.fusion.air.microservice.server.service.VirtualRequestExecutor;
 import io.fusion.air.microservice.utils.Std;
-import io.fusion.air.microservice.utils.Utils;
+import io.fusion.air.microservice.utils.Threads;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import org.apache.coyote.ProtocolHandler;
 import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * ms-springboot-334-vanilla / TomcatServerConfig
@@ -64,6 +66,12 @@ import java.util.concurrent.Executors;
  * 	•	Your application is I/O-bound (e.g., many database or network calls).
  * 	•	You are running on Java 19+ with virtual threads enabled.
  *
+ * Request Executor (RequestExecutorConfig)
+ * 	•	Java 21+: Virtual Thread per Request, optionally capped (server.executor.virtual.max.concurrency)
+ * 	    with a bounded number of waiting Requests.
+ * 	•	Java 17: Bounded Thread Pool sized by the CPUs with a Bounded Queue.
+ * 	Both record the Queue Wait Time and apply the Saturation Policy when the Queue is Full.
+ *
  * @author: Araf Karsh Hamid
  * @version: 0.1
  * @date: 2024-10-08T07:22
@@ -71,38 +79,51 @@ import java.util.concurrent.Executors;
 @Configuration
 public class TomcatServerConfig {
 
+    // Not a Bean: an Executor Bean would replace the Spring Boot Application Task Executor
+    private ExecutorService requestExecutor;
+
     @Bean
-    public TomcatProtocolHandlerCustomizer<ProtocolHandler> protocolHandlerVirtualThreadExecutorCustomizer() {
-        return protocolHandler -> {
-            if (Utils.isJava21OrHigher()) {
-                try {
-                    // Use Virtual Threads if Java 21+
-                    ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
-                    protocolHandler.setExecutor(virtualThreadExecutor);
-                } catch (Exception e) {
-                    Std.println("Error creating virtual thread executor: " + e.getMessage());
-                }
-            } else {
-                // Fallback to a fixed thread pool for Java 17
-                ExecutorService fixedThreadPool = Executors.newFixedThreadPool(10);
-                protocolHandler.setExecutor(fixedThreadPool);
-            }
-        };
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> protocolHandlerVirtualThreadExecutorCustomizer(
+            RequestExecutorConfig executorConfig, MeterRegistry meterRegistry) {
+        return protocolHandler -> protocolHandler.setExecutor(createRequestExecutor(executorConfig, meterRegistry));
     }
 
     /**
-     * Extract the Virtual Thread Pool Executor Class
-     * @return
-     * @throws ClassNotFoundException
-     * @throws NoSuchMethodException
-     * @throws InvocationTargetException
-     * @throws IllegalAccessException
+     * Stop the Request Executor
      */
-    private ExecutorService createVirtualThreadExecutor()
-            throws ClassNotFoundException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        // Use reflection to create a virtual thread executor to maintain compatibility
-        Class<?> executorClass = Class.forName("java.util.concurrent.Executors");
-        return (ExecutorService) executorClass.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    @PreDestroy
+    public void shutdown() {
+        if (requestExecutor != null) {
+            requestExecutor.shutdown();
+        }
     }
 
+    /**
+     * Request Executor (Virtual Threads on Java 21+, else the Bounded Thread Pool)
+     * @param executorConfig
+     * @param meterRegistry
+     * @return
+     */
+    private synchronized ExecutorService createRequestExecutor(RequestExecutorConfig executorConfig,
+                                                               MeterRegistry meterRegistry) {
+        if (requestExecutor != null) {
+            return requestExecutor;
+        }
+        if (executorConfig.useVirtualThreads()) {
+            // Use Virtual Threads if Java 21+
+            ExecutorService virtualThreadExecutor = Threads.virtualThreadExecutor();
+            if (virtualThreadExecutor != null) {
+                Std.println("Request Executor: Virtual Threads. Max Concurrency = "
+                        + executorConfig.getVirtualMaxConcurrency());
+                requestExecutor = new VirtualRequestExecutor(virtualThreadExecutor, executorConfig, meterRegistry);
+                return requestExecutor;
+            }
+            Std.println("Error creating virtual thread executor! Using the Bounded Thread Pool.");
+        }
+        // Fallback to a bounded thread pool for Java 17
+        Std.println("Request Executor: Thread Pool. Threads = " + executorConfig.getThreads()
+                + " Queue = " + executorConfig.getQueueCapacity());
+        requestExecutor = new BoundedRequestExecutor(executorConfig, meterRegistry);
+        return requestExecutor;
+    }
 }
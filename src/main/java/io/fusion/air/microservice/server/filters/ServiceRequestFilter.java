@@ -15,7 +15,6 @@
  */
 package io.fusion.air.microservice.server.filters;
 // Java
-import java.util.UUID;
 import jakarta.servlet.ServletRequestEvent;
 import jakarta.servlet.ServletRequestListener;
 import jakarta.servlet.annotation.WebListener;
@@ -23,6 +22,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.MDC;
 //  Custom
 import io.fusion.air.microservice.server.config.ServiceConfig;
+import io.fusion.air.microservice.utils.RequestIds;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -73,7 +73,8 @@ public class ServiceRequestFilter implements ServletRequestListener {
 	@Override
 	public void requestInitialized(ServletRequestEvent sre) {
 		HttpServletRequest httpRequest = (HttpServletRequest) sre.getServletRequest();
-		String reqId =UUID.randomUUID().toString();
+		// Time Ordered, Thread Local Seed (No Shared SecureRandom)
+		String reqId = RequestIds.requestId().toString();
 		MDC.put("ReqId", reqId);
 		MDC.put("IP", httpRequest.getRemoteHost());
 		MDC.put("Port", String.valueOf(httpRequest.getRemotePort()));
@@ -0,0 +1,118 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.server.config.RequestExecutorConfig;
+import io.fusion.air.microservice.server.config.RequestExecutorConfig.Saturation;
+import io.fusion.air.microservice.utils.Threads;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+// Java
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded Request Executor (Java 17)
+ *
+ * Fixed Thread Pool (CPU based Size) with a Bounded Queue. The Time a Request waits in the Queue is
+ * recorded, a Full Queue is handled by the Saturation Policy (ABORT / WAIT).
+ * The Request is never run on the Caller (Tomcat Poller) Thread.
+ *
+ * Metrics
+ * server.executor.queue.wait{type=platform}   - Time in the Queue (Histogram)
+ * server.executor.rejected{type=platform}
+ * executor.*{name=tomcat.requests}            - Pool Size, Active, Queued, Completed (Micrometer)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public class BoundedRequestExecutor extends ThreadPoolExecutor {
+
+    private final Timer queueWait;
+
+    /**
+     * Create the Request Thread Pool
+     * @param executorConfig
+     * @param meterReg
+     */
+    public BoundedRequestExecutor(RequestExecutorConfig executorConfig, MeterRegistry meterReg) {
+        super(executorConfig.getThreads(), executorConfig.getThreads(), executorConfig.getKeepAlive(), TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, executorConfig.getQueueCapacity())),
+                Threads.daemon("http-request"),
+                saturation(executorConfig, meterReg.counter("server.executor.rejected", "type", "platform")));
+        allowCoreThreadTimeOut(true);
+        this.queueWait = Timer.builder("server.executor.queue.wait")
+                .tag("type", "platform")
+                .publishPercentileHistogram()
+                .register(meterReg);
+        new ExecutorServiceMetrics(this, "tomcat.requests", Tags.empty()).bindTo(meterReg);
+    }
+
+    /**
+     * Queue the Request (Records the Time in the Queue)
+     * @param task
+     */
+    @Override
+    public void execute(Runnable task) {
+        long queued = System.nanoTime();
+        super.execute(() -> {
+            queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+            task.run();
+        });
+    }
+
+    /**
+     * Saturation Policy
+     * @param executorConfig
+     * @param rejected
+     * @return
+     */
+    private static RejectedExecutionHandler saturation(RequestExecutorConfig executorConfig, Counter rejected) {
+        Saturation policy = executorConfig.getSaturation();
+        return (task, executor) -> {
+            if(!executor.isShutdown() && policy == Saturation.WAIT
+                    && offer(executor, task, executorConfig.getWaitTimeout())) {
+                return;
+            }
+            rejected.increment();
+            throw new RejectedExecutionException("Request Executor is saturated! Queue = "+executor.getQueue().size());
+        };
+    }
+
+    /**
+     * Wait for a Slot in the Queue
+     * @param executor
+     * @param task
+     * @param timeout
+     * @return
+     */
+    private static boolean offer(ThreadPoolExecutor executor, Runnable task, long timeout) {
+        try {
+            return executor.getQueue().offer(task, timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
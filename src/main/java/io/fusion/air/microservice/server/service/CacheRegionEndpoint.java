@@ -0,0 +1,104 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
+// Spring
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+// Java
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator Endpoint for the Hibernate Second Level Cache Regions
+ *
+ * GET    /actuator/cacheregions              Hit Ratio and Counters of all the Regions
+ * GET    /actuator/cacheregions/{region}     Hit Ratio and Counters of the Region
+ * DELETE /actuator/cacheregions/{region}     Evict the Region (master-data = Country Regions, all = All Regions)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionEndpoint {
+
+    public static final String MASTER_DATA = "master-data";
+    public static final String ALL = "all";
+
+    // Autowired using the Constructor
+    private final CacheRegionService cacheRegionService;
+
+    /**
+     * Autowired using the Constructor
+     * @param cacheRegionService
+     */
+    public CacheRegionEndpoint(CacheRegionService cacheRegionService) {
+        this.cacheRegionService = cacheRegionService;
+    }
+
+    /**
+     * Returns the Statistics of all the Regions
+     * @return
+     */
+    @ReadOperation
+    public Map<String, Map<String, Object>> regions() {
+        return cacheRegionService.getRegionStats();
+    }
+
+    /**
+     * Returns the Statistics of the Region
+     * @param region
+     * @return
+     */
+    @ReadOperation
+    public Map<String, Object> region(@Selector String region) {
+        if(!CacheRegions.allRegions().contains(region)) {
+            return null;
+        }
+        return cacheRegionService.getRegionStats(region);
+    }
+
+    /**
+     * Evict the Region
+     * @param region
+     * @return
+     */
+    @DeleteOperation
+    public Map<String, Object> evict(@Selector String region) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        switch (region) {
+            case ALL -> cacheRegionService.evictAll();
+            case MASTER_DATA -> cacheRegionService.evictMasterData();
+            default -> {
+                if(!CacheRegions.allRegions().contains(region)) {
+                    result.put("evicted", false);
+                    result.put("error", "Invalid Cache Region: "+region);
+                    return result;
+                }
+                cacheRegionService.evictRegion(region);
+            }
+        }
+        result.put("evicted", true);
+        result.put("region", region);
+        return result;
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
+import io.fusion.air.microservice.domain.exceptions.InputDataException;
+// Hibernate
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+// Spring
+import org.springframework.stereotype.Service;
+// Other
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+// Java
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Hibernate Second Level Cache - Region Statistics & Eviction
+ *
+ * Master Data (Country, Country Geo) is loaded outside of Hibernate, evict the regions after
+ * a Master Data reload so that the next read goes to the Database.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Service
+public class CacheRegionService {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final SessionFactory sessionFactory;
+
+    /**
+     * Autowired using the Constructor
+     * @param emf
+     * @param meterReg
+     */
+    public CacheRegionService(EntityManagerFactory emf, MeterRegistry meterReg) {
+        this.sessionFactory = emf.unwrap(SessionFactory.class);
+        for(String region : CacheRegions.allRegions()) {
+            Gauge.builder("db.cache.region.hit.ratio", this, s -> s.getHitRatio(region))
+                    .tag("region", region)
+                    .register(meterReg);
+        }
+    }
+
+    /**
+     * Returns the Statistics of all the Regions
+     * @return
+     */
+    public Map<String, Map<String, Object>> getRegionStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        for(String region : CacheRegions.allRegions()) {
+            stats.put(region, getRegionStats(region));
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the Statistics of the Region
+     * @param region
+     * @return
+     */
+    public Map<String, Object> getRegionStats(String region) {
+        validate(region);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        CacheRegionStatistics rs = getStatistics(region);
+        stats.put("type", CacheRegions.ENTITY_REGIONS.contains(region) ? "entity" : "query");
+        if(rs == null) {
+            stats.put("statistics", "disabled");
+            return stats;
+        }
+        stats.put("hits", rs.getHitCount());
+        stats.put("misses", rs.getMissCount());
+        stats.put("puts", rs.getPutCount());
+        stats.put("hitRatio", getHitRatio(region));
+        if(rs.getElementCountInMemory() != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+            stats.put("elementsInMemory", rs.getElementCountInMemory());
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the Hit Ratio (0.0 to 1.0) of the Region
+     * @param region
+     * @return
+     */
+    public double getHitRatio(String region) {
+        CacheRegionStatistics rs = getStatistics(region);
+        if(rs == null) {
+            return 0.0;
+        }
+        long total = rs.getHitCount() + rs.getMissCount();
+        return total == 0 ? 0.0 : (double) rs.getHitCount() / total;
+    }
+
+    /**
+     * Evict the Region
+     * @param region
+     */
+    public void evictRegion(String region) {
+        validate(region);
+        if(CacheRegions.ENTITY_REGIONS.contains(region)) {
+            sessionFactory.getCache().evictRegion(region);
+        } else {
+            sessionFactory.getCache().evictQueryRegion(region);
+        }
+        log.info("DB-Cache Region Evicted: {} ", region);
+    }
+
+    /**
+     * Evict the Master Data Regions (Country, Country Geo and their Queries)
+     */
+    public void evictMasterData() {
+        for(String region : CacheRegions.MASTER_DATA) {
+            evictRegion(region);
+        }
+    }
+
+    /**
+     * Evict all the Regions
+     */
+    public void evictAll() {
+        sessionFactory.getCache().evictAll();
+        log.info("DB-Cache All Regions Evicted!");
+    }
+
+    /**
+     * Returns the Region Statistics (Null if the Statistics is disabled)
+     * @param region
+     * @return
+     */
+    private CacheRegionStatistics getStatistics(String region) {
+        Statistics statistics = sessionFactory.getStatistics();
+        if(!statistics.isStatisticsEnabled()) {
+            return null;
+        }
+        try {
+            return statistics.getCacheRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            // Region Not Found (Second Level Cache Disabled)
+            return null;
+        }
+    }
+
+    /**
+     * Validate the Region Name
+     * @param region
+     */
+    private void validate(String region) {
+        if(!CacheRegions.allRegions().contains(region)) {
+            throw new InputDataException("Invalid Cache Region: "+region);
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderStageRepository;
+import io.fusion.air.microservice.adapters.service.OrderMailboxDispatcher;
+import io.fusion.air.microservice.domain.entities.order.OrderStageEntity;
+import io.fusion.air.microservice.domain.events.OrderForkedEvent;
+import io.fusion.air.microservice.domain.ports.services.OrderService;
+import io.fusion.air.microservice.domain.ports.services.OrderStageHandler;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStage;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStageStatus;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+import io.fusion.air.microservice.utils.Threads;
+// Spring
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+// Other
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Fork / Join Orchestrator
+ *
+ * Runs the Branches (Stages) of the PACKING_FORK (Packaging || Billing) after the Commit of the
+ * Transition and joins the Order into READY_TO_SHIP_JOIN when all the Branches are Done.
+ *
+ * The Fork is a Structured Scope: the Branches are started together and every Branch must complete
+ * within order.fork.branch.timeout. The first Failure (or the Timeout) cancels the other Branches
+ * and the Order moves to ERROR. Virtual Threads are used when the Runtime supports them (Java 21+),
+ * on Java 17 the Fork runs on a Bounded Pool (order.fork.threads) and the Branches on a Pool sized
+ * for all the Branches of those Forks, so a Fork never waits for a Branch Thread. A Fork is never run
+ * on the Caller (HTTP) Thread: when the Pool is full the Fork is rejected and left to the Recovery Sweep.
+ *
+ * The Progress of every Branch is stored (order_stage_tx). The Recovery Sweep (order.fork.sweep.interval)
+ * and the Startup resume the Forks not yet joined, the Branches already Done are not executed again.
+ * The Branches are claimed (Stage Version) before they run, a Branch Running on another Instance is
+ * not claimed till it exceeds the Branch Timeout. A re-executed Branch gets the same Idempotency Key
+ * (Order Id + Stage), the Stage Handlers apply the Action once per Key.
+ *
+ * Metrics
+ * orders.fork.latency{mode}     - Fork to Join Latency (parallel / sequential)
+ * orders.fork.stage.latency{stage}
+ * orders.fork.stages{stage,status}  - done, failed, resumed (re-executed after a Crash)
+ * orders.fork.active
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class OrderForkOrchestrator {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final OrderForkConfig forkConfig;
+    private final OrderStageRepository stageRepository;
+    private final OrderService orderService;
+    private final OrderMailboxDispatcher orderMailbox;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate txTemplate;
+
+    // Forks running on this Instance
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<OrderStage, OrderStageHandler> handlers = new EnumMap<>(OrderStage.class);
+    private final Map<OrderStage, Timer> stageTimers = new EnumMap<>(OrderStage.class);
+    private final AtomicInteger activeForks = new AtomicInteger();
+    private final Timer forkTimer;
+
+    private ExecutorService forkExecutor;
+    private ExecutorService branchExecutor;
+    private ScheduledExecutorService sweeper;
+    private volatile boolean running;
+
+    /**
+     * Autowired using the Constructor
+     * @param forkConfig
+     * @param stageRepo
+     * @param orderService
+     * @param orderMailbox
+     * @param stageHandlers
+     * @param txManager
+     * @param meterReg
+     */
+    public OrderForkOrchestrator(OrderForkConfig forkConfig, OrderStageRepository stageRepo, OrderService orderService,
+                                 OrderMailboxDispatcher orderMailbox, List<OrderStageHandler> stageHandlers,
+                                 PlatformTransactionManager txManager, MeterRegistry meterReg) {
+        this.forkConfig = forkConfig;
+        this.stageRepository = stageRepo;
+        this.orderService = orderService;
+        this.orderMailbox = orderMailbox;
+        this.meterRegistry = meterReg;
+        this.txTemplate = new TransactionTemplate(txManager);
+        for(OrderStageHandler handler : stageHandlers) {
+            handlers.put(handler.getStage(), handler);
+        }
+        for(OrderStage stage : OrderStage.values()) {
+            stageTimers.put(stage, meterReg.timer("orders.fork.stage.latency", "stage", stage.name()));
+        }
+        this.forkTimer = Timer.builder("orders.fork.latency")
+                .tag("mode", forkConfig.isParallel() ? "parallel" : "sequential")
+                .publishPercentileHistogram()
+                .register(meterReg);
+        meterReg.gauge("orders.fork.active", activeForks);
+    }
+
+    /**
+     * Start the Fork Executors
+     */
+    @PostConstruct
+    public void start() {
+        if(!forkConfig.isForkEnabled()) {
+            return;
+        }
+        ExecutorService virtual = forkConfig.isVirtualThreads() ? Threads.virtualThreadExecutor() : null;
+        if(virtual != null) {
+            forkExecutor = virtual;
+            branchExecutor = virtual;
+        } else {
+            int threads = Math.max(1, forkConfig.getThreads());
+            // Back Pressure: the Fork is Rejected when the Queue is full (Resumed by the Recovery Sweep)
+            forkExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(threads * 64), Threads.daemon("order-fork"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            int branches = threads * OrderStage.values().length;
+            branchExecutor = new ThreadPoolExecutor(branches, branches, 60, TimeUnit.SECONDS,
+                    new SynchronousQueue<>(), Threads.daemon("order-stage"),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        running = true;
+        long sweep = Math.max(1000L, forkConfig.getSweepInterval());
+        sweeper = Executors.newSingleThreadScheduledExecutor(Threads.daemon("order-fork-sweep"));
+        sweeper.scheduleWithFixedDelay(this::resume, sweep, sweep, TimeUnit.MILLISECONDS);
+        log.info("Order Fork started. Parallel = {} Virtual Threads = {} Handlers = {}",
+                forkConfig.isParallel(), virtual != null, handlers.keySet());
+    }
+
+    /**
+     * Stop the Fork Executors
+     * The Branches interrupted by the Shutdown are not marked as Failed, they are resumed after the Restart.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if(forkExecutor == null) {
+            return;
+        }
+        sweeper.shutdownNow();
+        forkExecutor.shutdownNow();
+        branchExecutor.shutdownNow();
+    }
+
+    /**
+     * Start the Fork after the Commit of the PACKING_FORK Transition
+     * @param event
+     */
+    @TransactionalEventListener
+    public void onOrderForked(OrderForkedEvent event) {
+        dispatch(event.customerId(), event.orderId());
+    }
+
+    /**
+     * Resume the Forks which were not Joined (Restart, Rejected Forks, Crashed Instances)
+     * Runs at the Startup and on the Recovery Sweep.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        if(!running) {
+            return;
+        }
+        try {
+            int resumed = 0;
+            for(UUID orderId : stageRepository.findForkedOrderIds()) {
+                if(inFlight.contains(orderId)) {
+                    continue;
+                }
+                List<OrderStageEntity> stages = stageRepository.findByOrderId(orderId);
+                if(!stages.isEmpty() && dispatch(stages.get(0).getCustomerId(), orderId)) {
+                    resumed++;
+                }
+            }
+            if(resumed > 0) {
+                log.info("Order Fork resumed {} Orders", resumed);
+            }
+        } catch (Exception e) {
+            log.error("Order Fork Recovery Sweep failed! {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Run the Fork for the Order (Never on the Caller Thread)
+     * @param customerId
+     * @param orderId
+     * @return False if the Fork is already running or Rejected (Resumed by the Recovery Sweep)
+     */
+    public boolean dispatch(String customerId, UUID orderId) {
+        if(!running || !inFlight.add(orderId)) {
+            return false;
+        }
+        try {
+            forkExecutor.execute(() -> fork(customerId, orderId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(orderId);
+            meterRegistry.counter("orders.fork.rejected").increment();
+            log.warn("Order ID = {} Fork rejected, deferred to the Recovery Sweep.", orderId);
+            return false;
+        }
+    }
+
+    /**
+     * Run the Pending Branches and Join the Order
+     * @param customerId
+     * @param orderId
+     */
+    private void fork(String customerId, UUID orderId) {
+        long start = System.nanoTime();
+        activeForks.incrementAndGet();
+        try {
+            List<OrderStageEntity> pending = claim(orderId);
+            if(pending == null) {
+                // Branches Running on another Instance
+                return;
+            }
+            String failure = forkConfig.isParallel() ? runParallel(pending) : runSequential(pending);
+            if(!running) {
+                return;
+            }
+            // Joined in the Mailbox of the Order (Serialized with the other Events of the Order)
+            orderMailbox.execute(orderId, () -> orderService.joinFork(customerId, orderId, failure));
+            forkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } catch (Exception e) {
+            log.error("Order ID = {} Fork failed! {}", orderId, e.getMessage());
+        } finally {
+            activeForks.decrementAndGet();
+            inFlight.remove(orderId);
+        }
+    }
+
+    /**
+     * Claim the Branches of the Fork which are not Done (Optimistic Lock on the Stage Version).
+     * A Branch Running for longer than the Branch Timeout was abandoned (Crash) and is claimed again.
+     * @param orderId
+     * @return Claimed Branches or null if a Branch is Running on another Instance
+     */
+    private List<OrderStageEntity> claim(UUID orderId) {
+        long abandonedBefore = System.currentTimeMillis() - forkConfig.getBranchTimeout();
+        try {
+            return txTemplate.execute(status -> {
+                List<OrderStageEntity> stages = stageRepository.findByOrderId(orderId);
+                // Checked before any Stage is claimed, the Stages are left untouched if the Fork is not claimed
+                for(OrderStageEntity stage : stages) {
+                    if(!stage.isDone() && stage.getStatus() == OrderStageStatus.RUNNING
+                            && stage.getStartedTime() != null && stage.getStartedTime().getTime() > abandonedBefore) {
+                        return null;
+                    }
+                }
+                List<OrderStageEntity> pending = new ArrayList<>();
+                for(OrderStageEntity stage : stages) {
+                    if(stage.isDone()) {
+                        continue;
+                    }
+                    if(stage.getStatus() == OrderStageStatus.RUNNING) {
+                        meterRegistry.counter("orders.fork.stages", "stage", stage.getStage().name(), "status", "resumed").increment();
+                        log.warn("Order ID = {} Stage {} abandoned after Attempt {}, re-executed with the Idempotency Key {}",
+                                orderId, stage.getStage(), stage.getAttempts(), stage.getIdempotencyKey());
+                    }
+                    stage.start();
+                    pending.add(stage);
+                }
+                return stageRepository.saveAllAndFlush(pending);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Order ID = {} Fork claimed by another Instance", orderId);
+            return null;
+        }
+    }
+
+    /**
+     * Run the Branches concurrently. The first Failure or the Timeout cancels the other Branches.
+     * @param stages
+     * @return Failure or null if all the Branches are Done
+     */
+    private String runParallel(List<OrderStageEntity> stages) throws InterruptedException {
+        CompletionService<OrderStageEntity> scope = new ExecutorCompletionService<>(branchExecutor);
+        List<Future<OrderStageEntity>> branches = new ArrayList<>(stages.size());
+        for(OrderStageEntity stage : stages) {
+            branches.add(scope.submit(() -> runBranch(stage)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(forkConfig.getBranchTimeout());
+        String failure = null;
+        try {
+            for(int i = 0; i < branches.size() && failure == null; i++) {
+                Future<OrderStageEntity> done = scope.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if(done == null) {
+                    failure = "Branch Timeout after "+forkConfig.getBranchTimeout()+" ms";
+                } else {
+                    done.get();
+                }
+            }
+        } catch (ExecutionException e) {
+            failure = e.getCause().getMessage();
+        } finally {
+            // Shutdown on Failure (or Interrupt): Cancel the Branches still Running
+            for(Future<OrderStageEntity> branch : branches) {
+                branch.cancel(true);
+            }
+        }
+        return failure;
+    }
+
+    /**
+     * Run the Branches one after the other (Baseline for the Fork Latency)
+     * @param stages
+     * @return Failure or null if all the Branches are Done
+     */
+    private String runSequential(List<OrderStageEntity> stages) throws InterruptedException {
+        for(OrderStageEntity stage : stages) {
+            Future<OrderStageEntity> branch = branchExecutor.submit(() -> runBranch(stage));
+            try {
+                branch.get(forkConfig.getBranchTimeout(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                return e.getCause().getMessage();
+            } catch (TimeoutException e) {
+                return "Branch "+stage.getStage()+" Timeout after "+forkConfig.getBranchTimeout()+" ms";
+            } finally {
+                branch.cancel(true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Run the Claimed Branch and store the Progress
+     * @param stage
+     * @return
+     * @throws Exception
+     */
+    private OrderStageEntity runBranch(OrderStageEntity stage) throws Exception {
+        OrderStageHandler handler = handlers.get(stage.getStage());
+        // Claimed (Running) by the Fork
+        OrderStageEntity current = stage;
+        long start = System.nanoTime();
+        try {
+            if(handler == null) {
+                throw new IllegalStateException("No Handler for the Stage "+stage.getStage());
+            }
+            handler.execute(current.getCustomerId(), current.getOrderId(), current.getIdempotencyKey());
+            current.done();
+            current = stageRepository.save(current);
+            meterRegistry.counter("orders.fork.stages", "stage", stage.getStage().name(), "status", "done").increment();
+            return current;
+        } catch (Exception e) {
+            if(e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if(running) {
+                meterRegistry.counter("orders.fork.stages", "stage", stage.getStage().name(), "status", "failed").increment();
+                failed(current, e);
+            }
+            throw e;
+        } finally {
+            stageTimers.get(stage.getStage()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Store the Failure of the Branch (The Order may already be Joined by the Cancellation)
+     * @param stage
+     * @param e
+     */
+    private void failed(OrderStageEntity stage, Exception e) {
+        stage.failed(e instanceof InterruptedException ? "Cancelled" : e.getMessage());
+        try {
+            stageRepository.save(stage);
+        } catch (Exception ex) {
+            log.debug("Order ID = {} Stage {} Failure not stored! {}", stage.getOrderId(), stage.getStage(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.server.config.DatabaseConfig;
+import io.fusion.air.microservice.server.config.OrderArchiveConfig;
+import io.fusion.air.microservice.utils.UUIDv7;
+// Spring
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+// Other
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+// Java
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Partition Manager
+ *
+ * PostgreSQL: Creates the Monthly Range Partitions (UUID v7 Id Ranges, UTC Months) of the Order Tables
+ * (order_tx by the Id, order_item_tx and order_state_history_tx by the order_id, same Bounds)
+ * for the previous, current and the next order.partition.months.ahead Months. Runs at the startup and
+ * every 24 Hours. The Tables must be created as Partitioned Tables (db/postgresql/order-partitions.sql),
+ * otherwise the Manager does nothing.
+ *
+ * H2: Partitions are emulated with the Primary Key (UUID v7) Range Scans, nothing to manage.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class OrderPartitionManager {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    public static final List<String> PARTITIONED_TABLES = List.of("order_tx", "order_item_tx", "order_state_history_tx");
+
+    // Autowired using the Constructor
+    private final DatabaseConfig dbConfig;
+    private final OrderArchiveConfig archiveConfig;
+    private final EntityManager entityManager;
+    private final TransactionTemplate txTemplate;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Autowired using the Constructor
+     * @param dbConfig
+     * @param archiveConfig
+     * @param entityManager
+     * @param txManager
+     */
+    public OrderPartitionManager(DatabaseConfig dbConfig, OrderArchiveConfig archiveConfig,
+                                 EntityManager entityManager, PlatformTransactionManager txManager) {
+        this.dbConfig = dbConfig;
+        this.archiveConfig = archiveConfig;
+        this.entityManager = entityManager;
+        this.txTemplate = new TransactionTemplate(txManager);
+    }
+
+    /**
+     * Create the Partitions and Start the Daily Maintenance
+     */
+    @PostConstruct
+    public void start() {
+        if(!DatabaseConfig.DB_POSTGRESQL.equalsIgnoreCase(dbConfig.getDataSourceVendor())) {
+            log.info("Order Partitions are emulated with the Id Range Scans on {}", dbConfig.getDataSourceVendor());
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-partitions");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::createPartitions, 0, 24, TimeUnit.HOURS);
+    }
+
+    /**
+     * Stop the Maintenance
+     */
+    @PreDestroy
+    public void stop() {
+        if(scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Create the Missing Monthly Partitions of the Partitioned Order Tables
+     */
+    public void createPartitions() {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for(String table : PARTITIONED_TABLES) {
+            try {
+                if(!isPartitioned(table)) {
+                    log.info("Order Table {} is not Partitioned. See db/postgresql/order-partitions.sql", table);
+                    continue;
+                }
+                for(int m = -1; m <= archiveConfig.getPartitionMonthsAhead(); m++) {
+                    createPartition(table, current.plusMonths(m));
+                }
+            } catch (Exception e) {
+                log.error("Unable to create the Partitions for {}! {}", table, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns True if the Table is a Partitioned Table
+     * @param table
+     * @return
+     */
+    private boolean isPartitioned(String table) {
+        Number count = txTemplate.execute(status -> (Number) entityManager.createNativeQuery(
+                "SELECT count(*) FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid WHERE c.relname = ?1")
+                .setParameter(1, table)
+                .getSingleResult());
+        return count != null && count.intValue() > 0;
+    }
+
+    /**
+     * Create the Partition of the Month (Ex. order_tx_p202610)
+     * @param table
+     * @param month
+     */
+    private void createPartition(String table, YearMonth month) {
+        long from = month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        long to = month.plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+        String partition = String.format("%s_p%04d%02d", table, month.getYear(), month.getMonthValue());
+        // Identifiers and Bounds are generated, no User Input
+        String ddl = "CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + UUIDv7.lowerBound(from) + "') TO ('" + UUIDv7.lowerBound(to) + "')";
+        txTemplate.executeWithoutResult(status -> entityManager.createNativeQuery(ddl).executeUpdate());
+        log.debug("Order Partition {} is ready", partition);
+    }
+}
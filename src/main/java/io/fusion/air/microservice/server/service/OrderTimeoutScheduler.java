@@ -0,0 +1,389 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderDeadlineRepository;
+import io.fusion.air.microservice.adapters.service.OrderMailboxDispatcher;
+import io.fusion.air.microservice.domain.entities.order.OrderDeadlineEntity;
+import io.fusion.air.microservice.domain.events.OrderDeadlineEvent;
+import io.fusion.air.microservice.domain.exceptions.LimitExceededException;
+import io.fusion.air.microservice.domain.ports.services.OrderService;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.server.config.OrderTimeoutConfig;
+import io.fusion.air.microservice.utils.Threads;
+import io.fusion.air.microservice.utils.algos.HierarchicalTimingWheel;
+// Spring
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+// Other
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Order Timeout Scheduler (Saga Deadlines)
+ *
+ * The Orders waiting for a Callback (order.timeout.deadlines - Credit Check, Payment, Delivery) are
+ * tracked in a Hierarchical Timing Wheel (O(1) Schedule and Cancel, a Timer per Order). The Wheel is
+ * updated after the Commit of the Transition and advanced by a single Ticker Thread (order.timeout.tick).
+ * The Ticker never blocks: an expired Deadline is handed to the Dispatcher Thread, which Claims the Deadline
+ * and queues it in the Mailbox of the Order without waiting (a Full Mailbox is retried after
+ * order.timeout.retry.delay). The Order Service fires the Timeout Event of the State (order.timeout.events)
+ * if the Order is still in the State.
+ *
+ * The Deadlines are stored (order_deadline_tx) and loaded into the Wheel after a Restart. Deadlines which
+ * expired during the Downtime fire on the first Tick. Every Instance loads all the Deadlines, so an expired
+ * Deadline is Claimed (order.timeout.claim.lease) by the Instance firing it. The other Instances re-check
+ * after the Claim and take over only if the Owner failed. The Deadline is checked again under the Order Lock,
+ * so a Timer firing after a Take Over changes the Order only once.
+ *
+ * A Deadline set on another Instance after the Restart has no Timer here. If that Instance fails the
+ * Deadline is found by the Catch Up Scan (order.timeout.scan.interval) of the expired Deadlines which
+ * are not Claimed, and fires on the next Tick.
+ *
+ * Metrics
+ * orders.timeout.pending                - Timers in the Wheel
+ * orders.timeout.lag                    - Time between the Deadline and the Timer firing
+ * orders.timeout.expired{state,status}  - fired / superseded / retry / claimed (by another Instance)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class OrderTimeoutScheduler {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final OrderTimeoutConfig timeoutConfig;
+    private final OrderDeadlineRepository deadlineRepository;
+    private final OrderService orderService;
+    private final OrderMailboxDispatcher orderMailbox;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<UUID, HierarchicalTimingWheel.Timer<Expiry>> timers = new ConcurrentHashMap<>();
+    private final Timer lagTimer;
+    private final String instanceId = UUID.randomUUID().toString();
+    // Lowest Order Id (Start of the Key Set Paging)
+    private static final UUID MIN_ORDER_ID = new UUID(0L, 0L);
+
+    private HierarchicalTimingWheel<Expiry> wheel;
+    private ScheduledExecutorService ticker;
+    private ExecutorService dispatcher;
+
+    /**
+     * Autowired using the Constructor
+     * @param timeoutConfig
+     * @param deadlineRepo
+     * @param orderService
+     * @param orderMailbox
+     * @param meterReg
+     */
+    public OrderTimeoutScheduler(OrderTimeoutConfig timeoutConfig, OrderDeadlineRepository deadlineRepo,
+                                 OrderService orderService, OrderMailboxDispatcher orderMailbox,
+                                 MeterRegistry meterReg) {
+        this.timeoutConfig = timeoutConfig;
+        this.deadlineRepository = deadlineRepo;
+        this.orderService = orderService;
+        this.orderMailbox = orderMailbox;
+        this.meterRegistry = meterReg;
+        this.lagTimer = Timer.builder("orders.timeout.lag")
+                .publishPercentileHistogram()
+                .register(meterReg);
+    }
+
+    /**
+     * Start the Ticker Thread
+     */
+    @PostConstruct
+    public void start() {
+        if(!timeoutConfig.isTimeoutEnabled()) {
+            return;
+        }
+        long tick = Math.max(1, timeoutConfig.getTick());
+        wheel = new HierarchicalTimingWheel<>(tick, timeoutConfig.getWheelSize(), System.currentTimeMillis());
+        Gauge.builder("orders.timeout.pending", wheel, HierarchicalTimingWheel::size)
+                .register(meterRegistry);
+        dispatcher = Executors.newSingleThreadExecutor(Threads.daemon("order-timeout-dispatch"));
+        ticker = Executors.newSingleThreadScheduledExecutor(Threads.daemon("order-timeout"));
+        ticker.scheduleAtFixedRate(this::advance, tick, tick, TimeUnit.MILLISECONDS);
+        long scan = timeoutConfig.getScanInterval();
+        if(scan > 0) {
+            ticker.scheduleWithFixedDelay(this::scan, scan, scan, TimeUnit.MILLISECONDS);
+        }
+        log.info("Order Timeout Scheduler started. Tick = {} ms Slots = {}", tick, timeoutConfig.getWheelSize());
+    }
+
+    /**
+     * Stop the Ticker Thread
+     */
+    @PreDestroy
+    public void stop() {
+        if(ticker != null) {
+            ticker.shutdownNow();
+            dispatcher.shutdownNow();
+        }
+    }
+
+    /**
+     * Update the Timer of the Order after the Commit of the Transition
+     * @param event
+     */
+    @TransactionalEventListener
+    public void onOrderDeadline(OrderDeadlineEvent event) {
+        if(wheel == null) {
+            return;
+        }
+        if(event.deadline() > 0) {
+            schedule(new Expiry(event.customerId(), event.orderId(), event.state(), event.deadline(), event.time()));
+        } else {
+            // Only the Timers set before the Transition (Updates of the Order can arrive out of Order)
+            timers.computeIfPresent(event.orderId(), (orderId, timer) -> {
+                if(timer.getPayload().time() > event.time()) {
+                    return timer;
+                }
+                timer.cancel();
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Load the Deadlines stored before the Restart
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if(wheel == null) {
+            return;
+        }
+        PageRequest page = PageRequest.of(0, Math.max(1, timeoutConfig.getRecoveryPageSize()));
+        List<OrderDeadlineEntity> deadlines = deadlineRepository.findAllByOrderByOrderIdAsc(page);
+        int count = 0;
+        while (!deadlines.isEmpty()) {
+            for(OrderDeadlineEntity d : deadlines) {
+                // Time 0 : any Transition after the Restart wins
+                schedule(new Expiry(d.getCustomerId(), d.getOrderId(), d.getState(), d.getDeadline(), 0));
+            }
+            count += deadlines.size();
+            UUID last = deadlines.get(deadlines.size() - 1).getOrderId();
+            deadlines = deadlineRepository.findByOrderIdGreaterThanOrderByOrderIdAsc(last, page);
+        }
+        if(count > 0) {
+            log.info("Order Timeout Scheduler recovered {} Deadlines", count);
+        }
+    }
+
+    /**
+     * Catch Up Scan (Dispatcher Thread) - Schedule the expired Deadlines which are not Claimed
+     * and have no Timer in the Wheel (Set on another Instance, or the Timer was lost).
+     * @return Number of Deadlines scheduled
+     */
+    public int catchUp() {
+        if(wheel == null) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        PageRequest page = PageRequest.of(0, Math.max(1, timeoutConfig.getRecoveryPageSize()));
+        UUID last = MIN_ORDER_ID;
+        int count = 0;
+        List<OrderDeadlineEntity> deadlines;
+        do {
+            deadlines = deadlineRepository.findExpired(now, last, page);
+            for(OrderDeadlineEntity d : deadlines) {
+                if(!timers.containsKey(d.getOrderId())) {
+                    // Time 0 : any Transition in between wins
+                    schedule(new Expiry(d.getCustomerId(), d.getOrderId(), d.getState(), d.getDeadline(), 0));
+                    count++;
+                }
+            }
+            if(!deadlines.isEmpty()) {
+                last = deadlines.get(deadlines.size() - 1).getOrderId();
+            }
+        } while (deadlines.size() == page.getPageSize());
+        if(count > 0) {
+            log.info("Order Timeout Scheduler caught up {} expired Deadlines", count);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the Number of Pending Timers
+     * @return
+     */
+    public int getPending() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    /**
+     * Schedule (or Replace) the Timer of the Order
+     * @param expiry
+     */
+    private void schedule(Expiry expiry) {
+        timers.compute(expiry.orderId(), (orderId, timer) -> {
+            if(timer != null) {
+                if(timer.getPayload().time() > expiry.time()) {
+                    return timer;
+                }
+                timer.cancel();
+            }
+            return wheel.schedule(expiry.deadline(), expiry);
+        });
+    }
+
+    /**
+     * Advance the Wheel to the Current Time (Ticker Thread)
+     */
+    private void advance() {
+        try {
+            wheel.advance(System.currentTimeMillis(), this::expired);
+        } catch (Exception e) {
+            log.error("Order Timeout Scheduler Tick failed! {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Hand the Catch Up Scan to the Dispatcher Thread (Ticker Thread, never blocks)
+     */
+    private void scan() {
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    catchUp();
+                } catch (Exception e) {
+                    log.error("Order Timeout Scheduler Scan failed! {}", e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Order Timeout Scheduler Scan dropped, the Scheduler is stopped");
+        }
+    }
+
+    /**
+     * Hand the expired Deadline to the Dispatcher Thread (Ticker Thread, never blocks)
+     * @param expiry
+     */
+    private void expired(Expiry expiry) {
+        timers.computeIfPresent(expiry.orderId(), (orderId, timer) -> timer.getPayload() == expiry ? null : timer);
+        lagTimer.record(Math.max(0, System.currentTimeMillis() - expiry.deadline()), TimeUnit.MILLISECONDS);
+        try {
+            dispatcher.execute(() -> dispatch(expiry));
+        } catch (RejectedExecutionException e) {
+            log.debug("Order ID = {} Timeout dropped, the Scheduler is stopped", expiry.orderId());
+        }
+    }
+
+    /**
+     * Claim the expired Deadline and queue it in the Mailbox of the Order (Dispatcher Thread)
+     * @param expiry
+     */
+    private void dispatch(Expiry expiry) {
+        try {
+            long now = System.currentTimeMillis();
+            if(deadlineRepository.claim(expiry.orderId(), instanceId, now, now + timeoutConfig.getClaimLease()) == 0) {
+                claimFailed(expiry, now);
+                return;
+            }
+            orderMailbox.trySubmit(expiry.orderId(),
+                    () -> orderService.handleTimeout(expiry.customerId(), expiry.orderId(), expiry.state()))
+                .whenComplete((order, error) -> {
+                    if(error != null) {
+                        log.error("Order ID = {} Timeout failed in {}! {}", expiry.orderId(), expiry.state(), error.getMessage());
+                        retry(expiry);
+                    } else {
+                        count(expiry, order.isPresent() ? "fired" : "superseded");
+                    }
+                });
+        } catch (LimitExceededException e) {
+            retry(expiry);
+        } catch (Exception e) {
+            log.error("Order ID = {} Timeout dispatch failed in {}! {}", expiry.orderId(), expiry.state(), e.getMessage());
+            retry(expiry);
+        }
+    }
+
+    /**
+     * The Deadline was not Claimed: removed (the Order left the State), moved (new Deadline) or
+     * Claimed by another Instance (re-checked after the Claim, the Owner may fail).
+     * @param expiry
+     * @param now
+     */
+    private void claimFailed(Expiry expiry, long now) {
+        Optional<OrderDeadlineEntity> deadlineOpt = deadlineRepository.findById(expiry.orderId());
+        if(deadlineOpt.isEmpty()) {
+            count(expiry, "superseded");
+            return;
+        }
+        OrderDeadlineEntity d = deadlineOpt.get();
+        long next = (d.getDeadline() > now) ? d.getDeadline() : d.getClaimUntil() + 1;
+        if(d.getDeadline() <= now) {
+            count(expiry, "claimed");
+        }
+        schedule(new Expiry(d.getCustomerId(), d.getOrderId(), d.getState(), next, expiry.time()));
+    }
+
+    /**
+     * Schedule the expired Deadline again after order.timeout.retry.delay
+     * @param expiry
+     */
+    private void retry(Expiry expiry) {
+        count(expiry, "retry");
+        long deadline = System.currentTimeMillis() + timeoutConfig.getRetryDelay();
+        schedule(new Expiry(expiry.customerId(), expiry.orderId(), expiry.state(), deadline, expiry.time()));
+    }
+
+    /**
+     * Count the expired Deadline
+     * @param expiry
+     * @param status
+     */
+    private void count(Expiry expiry, String status) {
+        meterRegistry.counter("orders.timeout.expired", "state", expiry.state().name(), "status", status).increment();
+    }
+
+    /**
+     * Deadline of the Order in the Wheel
+     * @param customerId
+     * @param orderId
+     * @param state State waiting for the Callback
+     * @param deadline Epoch Milli Seconds
+     * @param time Transition Time (Epoch Milli Seconds)
+     */
+    private record Expiry(String customerId, UUID orderId, OrderState state, long deadline, long time) {}
+}
@@ -0,0 +1,101 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.messaging.InMemoryOutboxSink;
+import io.fusion.air.microservice.domain.ports.services.OutboxSink;
+// Spring
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+// Java
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator Endpoint for the Transactional Outbox
+ *
+ * GET    /actuator/outbox    Sink, Pending Events and Lag (+ Delivered Messages for the In-Memory Sink)
+ * POST   /actuator/outbox    Trigger the Relay
+ * DELETE /actuator/outbox    Clear the Messages of the In-Memory Sink
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Endpoint(id = "outbox")
+public class OutboxEndpoint {
+
+    // Autowired using the Constructor
+    private final OutboxRelay outboxRelay;
+    private final OutboxSink outboxSink;
+
+    /**
+     * Autowired using the Constructor
+     * @param outboxRelay
+     * @param outboxSink
+     */
+    public OutboxEndpoint(OutboxRelay outboxRelay, OutboxSink outboxSink) {
+        this.outboxRelay = outboxRelay;
+        this.outboxSink = outboxSink;
+    }
+
+    /**
+     * Returns the Outbox Status
+     * @return
+     */
+    @ReadOperation
+    public Map<String, Object> status() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("sink", outboxRelay.getSinkName());
+        result.put("pending", outboxRelay.getPending());
+        result.put("lagMs", (long) outboxRelay.getLagMillis());
+        if(outboxSink instanceof InMemoryOutboxSink memorySink) {
+            result.put("messages", memorySink.getMessages());
+        }
+        return result;
+    }
+
+    /**
+     * Relay the Pending Events
+     * @return
+     */
+    @WriteOperation
+    public Map<String, Object> relay() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("published", outboxRelay.relay());
+        result.put("pending", outboxRelay.getPending());
+        return result;
+    }
+
+    /**
+     * Clear the In-Memory Sink
+     * @return
+     */
+    @DeleteOperation
+    public Map<String, Object> clear() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean memory = outboxSink instanceof InMemoryOutboxSink;
+        if(memory) {
+            ((InMemoryOutboxSink) outboxSink).clear();
+        }
+        result.put("cleared", memory);
+        return result;
+    }
+}
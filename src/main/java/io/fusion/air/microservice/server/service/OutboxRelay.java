@@ -0,0 +1,362 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OutboxAggregateRepository;
+import io.fusion.air.microservice.adapters.repository.OutboxRepository;
+import io.fusion.air.microservice.domain.entities.outbox.OutboxAggregateEntity;
+import io.fusion.air.microservice.domain.entities.outbox.OutboxEventEntity;
+import io.fusion.air.microservice.domain.events.OutboxAppendedEvent;
+import io.fusion.air.microservice.domain.models.core.OutboxMessage;
+import io.fusion.air.microservice.domain.ports.services.OutboxSink;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+// Spring
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Transactional Outbox Relay
+ *
+ * The Relay is triggered after the Commit of a Transaction that wrote to the Outbox, and on a
+ * Timer (outbox.relay.interval) for the Events left behind (Sink failures, other Instances).
+ *
+ * Every Batch claims the Aggregates with Pending Events (SELECT ... FOR UPDATE SKIP LOCKED) and leases
+ * them to this Instance (outbox.relay.lease), so the Events of an Aggregate are published by one Relay
+ * at a time. The Events are published in the Aggregate Version Order, for every Aggregate Key only the
+ * acknowledged prefix of its Events is marked as Published, an Event after a failed one is re-delivered
+ * with it in the next Relay, which keeps the per Aggregate Order at the Consumers.
+ * Delivery is At-Least-Once, Consumers de-duplicate with the Idempotency Key.
+ *
+ * Lag Metrics
+ * outbox.pending  - Number of Events waiting to be Published
+ * outbox.lag      - Age of the Oldest Pending Event
+ * outbox.publish.latency - Time from the Commit of the Event to the Acknowledgement of the Sink
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class OutboxRelay {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final OutboxConfig outboxConfig;
+    private final OutboxRepository outboxRepository;
+    private final OutboxAggregateRepository aggregateRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate txTemplate;
+
+    // Lease Owner of the Claimed Aggregates
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ReentrantLock relayLock = new ReentrantLock();
+    private final AtomicBoolean relayRequested = new AtomicBoolean();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPending = new AtomicLong();
+
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer publishLatency;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Autowired using the Constructor
+     * @param outboxConfig
+     * @param outboxRepo
+     * @param aggregateRepo
+     * @param outboxSink
+     * @param txManager
+     * @param meterReg
+     */
+    public OutboxRelay(OutboxConfig outboxConfig, OutboxRepository outboxRepo, OutboxAggregateRepository aggregateRepo,
+                       OutboxSink outboxSink, PlatformTransactionManager txManager, MeterRegistry meterReg) {
+        this.outboxConfig = outboxConfig;
+        this.outboxRepository = outboxRepo;
+        this.aggregateRepository = aggregateRepo;
+        this.outboxSink = outboxSink;
+        this.txTemplate = new TransactionTemplate(txManager);
+        this.publishedCounter = meterReg.counter("outbox.published", "sink", outboxSink.name());
+        this.failedCounter = meterReg.counter("outbox.failed", "sink", outboxSink.name());
+        this.batchTimer = meterReg.timer("outbox.relay.batch", "sink", outboxSink.name());
+        this.publishLatency = Timer.builder("outbox.publish.latency")
+                .tag("sink", outboxSink.name())
+                .publishPercentileHistogram()
+                .register(meterReg);
+        meterReg.gauge("outbox.pending", pending);
+        TimeGauge.builder("outbox.lag", this, TimeUnit.MILLISECONDS, OutboxRelay::getLagMillis)
+                .register(meterReg);
+    }
+
+    /**
+     * Start the Relay Timer
+     */
+    @PostConstruct
+    public void start() {
+        if(!outboxConfig.isOutboxEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "outbox-relay");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = outboxConfig.getRelayInterval();
+        scheduler.scheduleWithFixedDelay(this::relay, interval, interval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purge, 60, 60, TimeUnit.SECONDS);
+        log.info("Outbox Relay started. Sink = {} Batch Size = {}", outboxSink.name(), outboxConfig.getBatchSize());
+    }
+
+    /**
+     * Stop the Relay Timer
+     */
+    @PreDestroy
+    public void stop() {
+        if(scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(outboxConfig.getRelayInterval(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Trigger the Relay after the Commit (Multiple Events are coalesced into a single Relay)
+     * @param event
+     */
+    @TransactionalEventListener
+    public void onOutboxAppended(OutboxAppendedEvent event) {
+        if(scheduler != null && relayRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::relay);
+        }
+    }
+
+    /**
+     * Relay the Pending Events until no Aggregate can be claimed or a Batch is not fully acknowledged
+     * @return Number of Events Published
+     */
+    public int relay() {
+        if(!relayLock.tryLock()) {
+            return 0;
+        }
+        int total = 0;
+        try {
+            relayRequested.set(false);
+            int published;
+            do {
+                published = relayBatch();
+                total += published;
+            } while (published > 0);
+            refreshLag();
+        } catch (Exception e) {
+            log.error("Outbox Relay failed! {}", e.getMessage());
+        } finally {
+            relayLock.unlock();
+        }
+        return total;
+    }
+
+    /**
+     * Number of Events waiting to be Published (as of the last Relay)
+     * @return
+     */
+    public long getPending() {
+        return pending.get();
+    }
+
+    /**
+     * Age of the Oldest Pending Event in Milli Seconds (as of the last Relay)
+     * @return
+     */
+    public double getLagMillis() {
+        long oldest = oldestPending.get();
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    /**
+     * Returns the Sink Name
+     * @return
+     */
+    public String getSinkName() {
+        return outboxSink.name();
+    }
+
+    /**
+     * Claim a Batch of Aggregates, publish their Pending Events and mark the acknowledged Events as Published
+     * @return Number of Events Published, 0 if nothing was claimed or an Event was not delivered
+     */
+    private int relayBatch() {
+        int batchSize = outboxConfig.getBatchSize();
+        long claimTime = System.currentTimeMillis();
+        Map<String, String> claimed = txTemplate.execute(status -> {
+            List<OutboxAggregateEntity> aggregates = aggregateRepository.claimPending(
+                    new Timestamp(claimTime), PageRequest.of(0, batchSize));
+            Timestamp leaseUntil = new Timestamp(claimTime + outboxConfig.getRelayLease());
+            Map<String, String> keys = new LinkedHashMap<>();
+            for(OutboxAggregateEntity aggregate : aggregates) {
+                aggregate.lease(instanceId, leaseUntil);
+                keys.put(aggregate.getId(), aggregate.getAggregateId());
+            }
+            return keys;
+        });
+        if(claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+        try {
+            return publish(claimed, batchSize);
+        } finally {
+            txTemplate.executeWithoutResult(status ->
+                    aggregateRepository.releaseLease(claimed.keySet(), instanceId));
+        }
+    }
+
+    /**
+     * Publish the Pending Events of the Claimed Aggregates (Aggregate Version Order)
+     * @param claimed Aggregate Key -> Aggregate Id
+     * @param batchSize
+     * @return
+     */
+    private int publish(Map<String, String> claimed, int batchSize) {
+        List<OutboxEventEntity> events = txTemplate.execute(status ->
+                outboxRepository.findPendingFor(new HashSet<>(claimed.values()), PageRequest.of(0, batchSize)));
+        if(events == null || events.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> batch = new ArrayList<>(events.size());
+        for(OutboxEventEntity event : events) {
+            // Same Aggregate Id with a different Aggregate Type is not claimed by this Batch
+            if(claimed.containsKey(OutboxAggregateEntity.key(event.getAggregateType(), event.getAggregateId()))) {
+                batch.add(event.toMessage());
+            }
+        }
+        if(batch.isEmpty()) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        Set<Long> acked;
+        try {
+            acked = outboxSink.publish(batch);
+        } catch (Exception e) {
+            log.error("Outbox Sink {} failed! {} Events will be retried. {}", outboxSink.name(), batch.size(), e.getMessage());
+            acked = Collections.emptySet();
+        }
+        batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        List<Long> delivered = new ArrayList<>(batch.size());
+        Set<Long> failed = new HashSet<>();
+        orderedPrefix(batch, acked, delivered, failed);
+        long now = System.currentTimeMillis();
+        txTemplate.executeWithoutResult(status -> {
+            if(!delivered.isEmpty()) {
+                outboxRepository.markPublished(delivered, new Timestamp(now));
+            }
+            if(!failed.isEmpty()) {
+                outboxRepository.incrementAttempts(failed);
+            }
+        });
+        for(OutboxMessage message : batch) {
+            if(!failed.contains(message.id())) {
+                publishLatency.record(Math.max(0, now - message.createdTime()), TimeUnit.MILLISECONDS);
+            }
+        }
+        publishedCounter.increment(delivered.size());
+        failedCounter.increment(failed.size());
+        if(!failed.isEmpty()) {
+            log.warn("Outbox Relay: {} of {} Events not delivered to {}", failed.size(), batch.size(), outboxSink.name());
+            return 0;
+        }
+        return delivered.size();
+    }
+
+    /**
+     * Refresh the Lag Metrics (Pending Events across all the Relay Instances)
+     */
+    private void refreshLag() {
+        txTemplate.executeWithoutResult(status -> {
+            pending.set(outboxRepository.countByPublishedFalse());
+            Timestamp oldest = outboxRepository.findOldestPendingTime();
+            oldestPending.set(oldest == null ? 0 : oldest.getTime());
+        });
+    }
+
+    /**
+     * Split the Batch into the Delivered Events (the acknowledged prefix of every Aggregate Key)
+     * and the Events to be Retried.
+     * @param batch
+     * @param acked
+     * @param delivered
+     * @param failed
+     */
+    private void orderedPrefix(List<OutboxMessage> batch, Set<Long> acked, List<Long> delivered, Set<Long> failed) {
+        Set<String> blockedKeys = new HashSet<>();
+        for(OutboxMessage message : batch) {
+            String key = message.aggregateType() + ":" + message.aggregateId();
+            if(!blockedKeys.contains(key) && acked.contains(message.id())) {
+                delivered.add(message.id());
+            } else {
+                blockedKeys.add(key);
+                failed.add(message.id());
+            }
+        }
+    }
+
+    /**
+     * Purge the Events Published before the Retention Period
+     */
+    private void purge() {
+        try {
+            Timestamp before = new Timestamp(System.currentTimeMillis()
+                    - TimeUnit.SECONDS.toMillis(outboxConfig.getRetention()));
+            Integer purged = txTemplate.execute(status -> outboxRepository.purgePublished(before));
+            if(purged != null && purged > 0) {
+                log.debug("Outbox Relay purged {} Published Events", purged);
+            }
+        } catch (Exception e) {
+            log.error("Outbox Purge failed! {}", e.getMessage());
+        }
+    }
+}
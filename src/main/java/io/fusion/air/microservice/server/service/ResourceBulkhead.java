@@ -0,0 +1,225 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.domain.exceptions.LimitExceededException;
+import io.fusion.air.microservice.server.config.RequestExecutorConfig;
+// Spring
+import org.springframework.stereotype.Component;
+// Other
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+// Java
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * Resource Bulkhead (Virtual Threads)
+ *
+ * Virtual Threads remove the Thread Pool which used to cap the Calls to a Downstream Resource. The
+ * Bulkhead gives every Resource (server.executor.resource.permits, Ex. db = Connection Pool Size) a
+ * Semaphore, so the extra Virtual Threads wait (Cheap) in front of the Resource instead of piling up
+ * inside it. The Bulkhead is active only when the Requests run on Virtual Threads, the Java 17 Thread
+ * Pool is already the Cap.
+ *
+ * The Database Permit is taken in DataSource.getConnection() and released by Connection.close().
+ *
+ * Metrics
+ * server.resource.available{resource}  - Free Permits
+ * server.resource.wait{resource}       - Time waiting for a Permit (Histogram)
+ * server.resource.rejected{resource}
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+public class ResourceBulkhead {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    public static final String DATABASE = "db";
+
+    // Autowired using the Constructor
+    private final RequestExecutorConfig executorConfig;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Semaphore> permits = new HashMap<>();
+    private final Map<String, Timer> waitTimers = new HashMap<>();
+
+    /**
+     * Autowired using the Constructor
+     * @param executorConfig
+     * @param meterReg
+     */
+    public ResourceBulkhead(RequestExecutorConfig executorConfig, MeterRegistry meterReg) {
+        this.executorConfig = executorConfig;
+        this.meterRegistry = meterReg;
+        if(!executorConfig.useVirtualThreads()) {
+            return;
+        }
+        executorConfig.getResourcePermits().forEach((resource, size) -> {
+            if(size > 0) {
+                Semaphore semaphore = new Semaphore(size, true);
+                permits.put(resource, semaphore);
+                waitTimers.put(resource, Timer.builder("server.resource.wait")
+                        .tag("resource", resource)
+                        .publishPercentileHistogram()
+                        .register(meterReg));
+                Gauge.builder("server.resource.available", semaphore, Semaphore::availablePermits)
+                        .tag("resource", resource)
+                        .register(meterReg);
+                log.info("Resource Bulkhead: {} Permits = {}", resource, size);
+            }
+        });
+    }
+
+    /**
+     * Returns True if the Resource has a Bulkhead
+     * @param resource
+     * @return
+     */
+    public boolean isLimited(String resource) {
+        return permits.containsKey(resource);
+    }
+
+    /**
+     * Call the Resource with a Permit
+     * @param resource
+     * @param call
+     * @return
+     */
+    public <T> T call(String resource, Supplier<T> call) {
+        Semaphore semaphore = permits.get(resource);
+        if(semaphore == null) {
+            return call.get();
+        }
+        if(!acquire(resource, semaphore)) {
+            throw new LimitExceededException("Resource "+resource+" is busy!");
+        }
+        try {
+            return call.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * Wrap the DataSource, a Connection holds a Permit of the Database until it is closed
+     * @param ds
+     * @return
+     */
+    public DataSource wrap(DataSource ds) {
+        Semaphore semaphore = permits.get(DATABASE);
+        if(semaphore == null) {
+            return ds;
+        }
+        return (DataSource) Proxy.newProxyInstance(ResourceBulkhead.class.getClassLoader(),
+                new Class<?>[] { DataSource.class }, (proxy, method, args) -> {
+            if(!method.getName().equals("getConnection")) {
+                return invoke(ds, method, args);
+            }
+            if(!acquire(DATABASE, semaphore)) {
+                throw new SQLTransientConnectionException("Database Bulkhead: No Permit within "
+                        +executorConfig.getResourceTimeout()+" ms");
+            }
+            try {
+                return release((Connection) invoke(ds, method, args), semaphore);
+            } catch (Throwable e) {
+                semaphore.release();
+                throw e;
+            }
+        });
+    }
+
+    /**
+     * Connection which releases the Permit on close()
+     * @param con
+     * @param semaphore
+     * @return
+     */
+    private static Connection release(Connection con, Semaphore semaphore) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ResourceBulkhead.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+            if(method.getName().equals("close") && released.compareAndSet(false, true)) {
+                try {
+                    return invoke(con, method, args);
+                } finally {
+                    semaphore.release();
+                }
+            }
+            if(method.getName().equals("equals") && args != null && args.length == 1) {
+                return proxy == args[0];
+            }
+            return invoke(con, method, args);
+        });
+    }
+
+    /**
+     * Wait for a Permit (server.executor.resource.timeout)
+     * @param resource
+     * @param semaphore
+     * @return
+     */
+    private boolean acquire(String resource, Semaphore semaphore) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(executorConfig.getResourceTimeout(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimers.get(resource).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if(!acquired) {
+            meterRegistry.counter("server.resource.rejected", "resource", resource).increment();
+        }
+        return acquired;
+    }
+
+    /**
+     * Invoke the Target (Unwraps the Exception)
+     * @param target
+     * @param method
+     * @param args
+     * @return
+     * @throws Throwable
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
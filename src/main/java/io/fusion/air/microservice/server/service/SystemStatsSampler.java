@@ -0,0 +1,157 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.server.config.ServiceConfig;
+import io.fusion.air.microservice.utils.SystemStats;
+import io.fusion.air.microservice.utils.Threads;
+// Spring
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+// Other
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+// Java
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+
+/**
+ * System Stats Sampler
+ *
+ * The System Stats (CPU Load, Memory, File Descriptors, Swap) are sampled by a single Daemon Thread
+ * every service.stats.interval and published as an Immutable Snapshot. The Request Logging and the
+ * Gauges read the latest Snapshot, so no Request pays for the MX Bean Calls.
+ *
+ * Metrics
+ * service.stats.cpus
+ * service.stats.cpu.process / service.stats.cpu.system  - Load 0..1
+ * service.stats.memory{area}                            - heap.free / heap.total / heap.max / physical.free / physical.total / swap.free / swap.total
+ * service.stats.fd.open / service.stats.fd.max
+ * service.stats.age                                     - Milli Secs since the last Sample
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Component
+@Lazy(false)
+public class SystemStatsSampler {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    // Autowired using the Constructor
+    private final ServiceConfig serviceConfig;
+    private final MeterRegistry meterRegistry;
+
+    private volatile SystemStats latest;
+    private ScheduledExecutorService sampler;
+
+    /**
+     * Autowired using the Constructor
+     * @param serviceConfig
+     * @param meterReg
+     */
+    public SystemStatsSampler(ServiceConfig serviceConfig, MeterRegistry meterReg) {
+        this.serviceConfig = serviceConfig;
+        this.meterRegistry = meterReg;
+        this.latest = SystemStats.sample();
+    }
+
+    /**
+     * Register the Gauges and Start the Sampler Thread
+     */
+    @PostConstruct
+    public void start() {
+        gauge("service.stats.cpus", SystemStats::cpus);
+        gauge("service.stats.cpu.process", SystemStats::processCpuLoad);
+        gauge("service.stats.cpu.system", SystemStats::systemCpuLoad);
+        memory("heap.free", SystemStats::freeMemory);
+        memory("heap.total", SystemStats::totalMemory);
+        memory("heap.max", SystemStats::maxMemory);
+        memory("physical.free", SystemStats::freePhysicalMemory);
+        memory("physical.total", SystemStats::totalPhysicalMemory);
+        memory("swap.free", SystemStats::freeSwap);
+        memory("swap.total", SystemStats::totalSwap);
+        gauge("service.stats.fd.open", SystemStats::openFileDescriptors);
+        gauge("service.stats.fd.max", SystemStats::maxFileDescriptors);
+        gauge("service.stats.age", stats -> System.currentTimeMillis() - stats.time());
+
+        long interval = Math.max(100, serviceConfig.getStatsInterval());
+        sampler = Executors.newSingleThreadScheduledExecutor(Threads.daemon("system-stats"));
+        sampler.scheduleAtFixedRate(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("System Stats Sampler started. Interval = {} ms", interval);
+    }
+
+    /**
+     * Stop the Sampler Thread
+     */
+    @PreDestroy
+    public void stop() {
+        if(sampler != null) {
+            sampler.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the latest Snapshot of the System Stats
+     * @return
+     */
+    public SystemStats latest() {
+        return latest;
+    }
+
+    /**
+     * Refresh the Snapshot (The previous Snapshot is kept if the Sample fails)
+     */
+    private void sample() {
+        try {
+            latest = SystemStats.sample();
+        } catch (Exception e) {
+            log.warn("System Stats Sample failed! {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Register a Gauge on the latest Snapshot
+     * @param name
+     * @param value
+     */
+    private void gauge(String name, ToDoubleFunction<SystemStats> value) {
+        Gauge.builder(name, this, statsSampler -> value.applyAsDouble(statsSampler.latest))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Register a Memory Gauge (Bytes) on the latest Snapshot
+     * @param area
+     * @param value
+     */
+    private void memory(String area, ToDoubleFunction<SystemStats> value) {
+        Gauge.builder("service.stats.memory", this, statsSampler -> value.applyAsDouble(statsSampler.latest))
+                .tag("area", area)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.server.config.RequestExecutorConfig;
+import io.fusion.air.microservice.server.config.RequestExecutorConfig.Saturation;
+// Other
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+// Java
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Virtual Thread Request Executor (Java 21+)
+ *
+ * Every Request runs on a Virtual Thread. With a Cap (server.executor.virtual.max.concurrency) only
+ * max.concurrency Requests run, up to queue.capacity Virtual Threads wait for a Permit (Cheap, they
+ * don't hold a Carrier Thread), the others are handled by the Saturation Policy when they arrive.
+ * The Request is never run on the Caller (Tomcat Poller) Thread, WAIT parks the Poller (Opt-in).
+ *
+ * Metrics
+ * server.executor.queue.wait{type=virtual}   - Time waiting for a Permit (Histogram)
+ * server.executor.rejected{type=virtual}
+ * server.executor.active{type=virtual}       - Requests running
+ * server.executor.waiting{type=virtual}      - Requests waiting for a Permit
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public class VirtualRequestExecutor extends AbstractExecutorService {
+
+    private final ExecutorService virtualThreads;
+    private final Saturation saturation;
+    private final long waitTimeout;
+    // Requests running + waiting (null = No Cap)
+    private final Semaphore slots;
+    // Requests running (null = No Cap)
+    private final Semaphore permits;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    /**
+     * Create the Virtual Thread Executor
+     * @param virtualThreads Virtual Thread per Task Executor
+     * @param executorConfig
+     * @param meterReg
+     */
+    public VirtualRequestExecutor(ExecutorService virtualThreads, RequestExecutorConfig executorConfig,
+                                  MeterRegistry meterReg) {
+        this.virtualThreads = virtualThreads;
+        this.saturation = executorConfig.getSaturation();
+        this.waitTimeout = executorConfig.getWaitTimeout();
+        int maxConcurrency = executorConfig.getVirtualMaxConcurrency();
+        this.permits = (maxConcurrency > 0) ? new Semaphore(maxConcurrency) : null;
+        this.slots = (maxConcurrency > 0)
+                ? new Semaphore(maxConcurrency + Math.max(0, executorConfig.getQueueCapacity())) : null;
+        this.queueWait = Timer.builder("server.executor.queue.wait")
+                .tag("type", "virtual")
+                .publishPercentileHistogram()
+                .register(meterReg);
+        this.rejected = meterReg.counter("server.executor.rejected", "type", "virtual");
+        Gauge.builder("server.executor.active", active, AtomicInteger::get)
+                .tag("type", "virtual")
+                .register(meterReg);
+        Gauge.builder("server.executor.waiting", waiting, AtomicInteger::get)
+                .tag("type", "virtual")
+                .register(meterReg);
+    }
+
+    /**
+     * Run the Request on a Virtual Thread
+     * @param task
+     */
+    @Override
+    public void execute(Runnable task) {
+        if(slots == null) {
+            virtualThreads.execute(() -> run(task));
+            return;
+        }
+        if(!slots.tryAcquire()) {
+            if(saturation != Saturation.WAIT || !acquire(slots, waitTimeout)) {
+                rejected.increment();
+                throw new RejectedExecutionException("Request Executor is saturated! Waiting = "+waiting.get());
+            }
+        }
+        long queued = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            virtualThreads.execute(() -> {
+                try {
+                    permits.acquireUninterruptibly();
+                    waiting.decrementAndGet();
+                    queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+                    try {
+                        run(task);
+                    } finally {
+                        permits.release();
+                    }
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Run the Task (Counts the Active Requests)
+     * @param task
+     */
+    private void run(Runnable task) {
+        active.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wait for a Permit
+     * @param semaphore
+     * @param timeout
+     * @return
+     */
+    private static boolean acquire(Semaphore semaphore, long timeout) {
+        try {
+            return semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        virtualThreads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return virtualThreads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return virtualThreads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return virtualThreads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return virtualThreads.awaitTermination(timeout, unit);
+    }
+}
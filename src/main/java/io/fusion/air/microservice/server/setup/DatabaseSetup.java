@@ -15,8 +15,13 @@
  */
 package io.fusion.air.microservice.server.setup;
 // Spring
+import io.fusion.air.microservice.adapters.logging.sql.SqlStatsRecorder;
+import io.fusion.air.microservice.domain.entities.core.CacheRegions;
+import io.fusion.air.microservice.domain.entities.core.UUIDIdGenerator;
+import io.fusion.air.microservice.server.config.DatabaseCacheConfig;
 import io.fusion.air.microservice.server.config.DatabaseConfig;
 import io.fusion.air.microservice.server.service.ProfileService;
+import io.fusion.air.microservice.server.service.ResourceBulkhead;
 import org.slf4j.Logger;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.Bean;
@@ -30,9 +35,21 @@ import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+// Hibernate Second Level Cache (JCache / Caffeine)
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
 // DB
 import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SharedCacheMode;
 import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 
@@ -58,13 +75,30 @@ public class DatabaseSetup {
 
     private ProfileService profileService;
 
+    // Autowired using the Constructor
+    private DatabaseCacheConfig cacheConfig;
+
+    // Autowired using the Constructor
+    private SqlStatsRecorder sqlStatsRecorder;
+
+    // Autowired using the Constructor
+    private ResourceBulkhead resourceBulkhead;
+
     /**
      * Autowired using the Constructor
      * @param dbCfg
+     * @param profileService
+     * @param cacheCfg
+     * @param sqlStatsRecorder
+     * @param resourceBulkhead
      */
-    public DatabaseSetup(DatabaseConfig dbCfg, ProfileService profileService) {
+    public DatabaseSetup(DatabaseConfig dbCfg, ProfileService profileService, DatabaseCacheConfig cacheCfg,
+                         SqlStatsRecorder sqlStatsRecorder, ResourceBulkhead resourceBulkhead) {
         this.dbConfig = dbCfg;
         this.profileService = profileService;
+        this.cacheConfig = cacheCfg;
+        this.sqlStatsRecorder = sqlStatsRecorder;
+        this.resourceBulkhead = resourceBulkhead;
     }
 
     /**
@@ -139,14 +173,73 @@ public class DatabaseSetup {
         factory.setJpaVendorAdapter(vendorAdapter);
         String[] pkgs = {"io.fusion.air.microservice.domain.*"};
         factory.setPackagesToScan(pkgs);
-        // Set Database Source
-        factory.setDataSource(dataSource());
+        factory.setJpaPropertyMap(jpaProperties());
+        // Set Database Source (Instrumented for the SQL Statistics, Database Permits for Virtual Threads)
+        factory.setDataSource(sqlStatsRecorder.instrument(resourceBulkhead.wrap(dataSource())));
         factory.afterPropertiesSet();
         EntityManagerFactory emf = factory.getObject();
         log.info("Created EMF: MetaModel = {} 4-of-5", emf.getMetamodel());
         return emf;
     }
 
+    /**
+     * Hibernate Properties
+     * @return
+     */
+    private Map<String, Object> jpaProperties() {
+        Map<String, Object> props = new HashMap<>();
+        // UUID Version for the Ids (4 = Random, 7 = Time Ordered)
+        props.put(UUIDIdGenerator.UUID_VERSION, dbConfig.getUuidVersion());
+        log.info("DB-UUID Version: {} ", dbConfig.getUuidVersion());
+        // Second Level Cache & Query Cache (Only the Entities marked as @Cacheable)
+        if(cacheConfig.isCacheEnabled()) {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            props.put(AvailableSettings.USE_QUERY_CACHE, true);
+            props.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            props.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager());
+            props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            props.put(AvailableSettings.JAKARTA_SHARED_CACHE_MODE, SharedCacheMode.ENABLE_SELECTIVE);
+        } else {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+        }
+        props.put(AvailableSettings.GENERATE_STATISTICS, cacheConfig.isStatisticsEnabled());
+        return props;
+    }
+
+    /**
+     * Create the JCache (Caffeine) Cache Manager with the Size and TTL for each Region
+     * @return
+     */
+    private CacheManager secondLevelCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for(String region : CacheRegions.allRegions()) {
+            long size = cacheConfig.getRegionSize(region);
+            long ttl = cacheConfig.getRegionTtl(region);
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            config.setMaximumSize(OptionalLong.of(size));
+            config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttl)));
+            config.setStatisticsEnabled(cacheConfig.isStatisticsEnabled());
+            createCache(cacheManager, region, config);
+            log.info("DB-Cache Region: {} Size = {} TTL = {}s ", region, size, ttl);
+        }
+        // Update Timestamps MUST NOT expire before the Query Results
+        createCache(cacheManager, CacheRegions.UPDATE_TIMESTAMPS, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    /**
+     * Create the Cache Region (if it doesn't exist)
+     * @param cacheManager
+     * @param region
+     * @param config
+     */
+    private void createCache(CacheManager cacheManager, String region, CaffeineConfiguration<Object, Object> config) {
+        if(cacheManager.getCache(region) == null) {
+            cacheManager.createCache(region, config);
+        }
+    }
+
     /**
      * Create PlatformTransactionManager
      * @return
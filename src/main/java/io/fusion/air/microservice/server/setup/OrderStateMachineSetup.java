@@ -0,0 +1,143 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.setup;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.statemachine.order.OrderResult;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStateMachine;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+// Spring
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+// Java
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static io.fusion.air.microservice.domain.statemachine.order.OrderEvent.*;
+import static io.fusion.air.microservice.domain.statemachine.order.OrderState.*;
+
+/**
+ * Order State Machine Setup
+ *
+ * ORDER_INITIALIZED -> CREDIT_CHECKING -> CREDIT_APPROVED | CREDIT_DENIED
+ * CREDIT_APPROVED -> PAYMENT_PROCESSING -> PAYMENT_CONFIRMED | PAYMENT_DECLINED (-> PAYMENT_PROCESSING)
+ * PAYMENT_CONFIRMED -> PACKING_FORK
+ * Fork Enabled:  PACKING_FORK -> READY_TO_SHIP_JOIN (Join of the Packaging || Billing Branches run by the
+ *                OrderForkOrchestrator), the Sequential Stages are not allowed while the Fork is open.
+ * Fork Disabled: PACKING_FORK -> ORDER_PACKAGING_START -> ORDER_PACKAGING_DONE
+ *                -> SEND_BILL_START -> SEND_BILL_DONE -> READY_TO_SHIP_JOIN
+ * READY_TO_SHIP_JOIN -> SHIPPED -> IN_TRANSIT -> REACHED_DESTINATION -> DELIVERED -> RETURNED
+ * DELIVERED | RETURNED -> ORDER_COMPLETED (Closed)
+ *
+ * Orders can be Cancelled till they are Shipped. FAILURE_EVENT moves an Order in Progress to ERROR.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+public class OrderStateMachineSetup {
+
+    // Order States before Shipping
+    private static final Set<OrderState> CANCELLABLE = EnumSet.of(
+            ORDER_INITIALIZED, CREDIT_CHECKING, CREDIT_APPROVED,
+            PAYMENT_PROCESSING, PAYMENT_CONFIRMED, PAYMENT_DECLINED,
+            PACKING_FORK, ORDER_PACKAGING_START, ORDER_PACKAGING_DONE,
+            SEND_BILL_START, SEND_BILL_DONE, READY_TO_SHIP_JOIN, ERROR);
+
+    // Order States in Progress
+    private static final Set<OrderState> IN_PROGRESS_STATES = EnumSet.of(
+            ORDER_INITIALIZED, CREDIT_CHECKING, CREDIT_APPROVED,
+            PAYMENT_PROCESSING, PAYMENT_CONFIRMED, PAYMENT_DECLINED,
+            PACKING_FORK, ORDER_PACKAGING_START, ORDER_PACKAGING_DONE,
+            SEND_BILL_START, SEND_BILL_DONE, READY_TO_SHIP_JOIN,
+            SHIPPED, IN_TRANSIT, REACHED_DESTINATION);
+
+    /**
+     * Order State Machine (Compiled Transition Table)
+     * @param forkConfig
+     * @return
+     */
+    @Bean
+    public OrderStateMachine orderStateMachine(OrderForkConfig forkConfig) {
+        return OrderStateMachine.builder()
+                // Credit Check
+                .transition(ORDER_INITIALIZED,      CREDIT_CHECKING_EVENT,      CREDIT_CHECKING)
+                .transition(CREDIT_CHECKING,        CREDIT_APPROVED_EVENT,      CREDIT_APPROVED,
+                        result(OrderResult.CREDIT_APPROVED))
+                .transition(CREDIT_CHECKING,        CREDIT_DECLINED_EVENT,      CREDIT_DENIED,
+                        result(OrderResult.CREDIT_DENIED))
+                // Payment
+                .transition(CREDIT_APPROVED,        PAYMENT_INIT_EVENT,         PAYMENT_PROCESSING,
+                        "Order Value > 0", OrderStateMachineSetup::hasOrderValue, result(OrderResult.IN_PROGRESS))
+                .transition(PAYMENT_PROCESSING,     PAYMENT_APPROVED_EVENT,     PAYMENT_CONFIRMED,
+                        result(OrderResult.PAYMENT_CONFIRMED))
+                .transition(PAYMENT_PROCESSING,     PAYMENT_DECLINED_EVENT,     PAYMENT_DECLINED,
+                        result(OrderResult.PAYMENT_DECLINED))
+                .transition(PAYMENT_DECLINED,       PAYMENT_INIT_EVENT,         PAYMENT_PROCESSING,
+                        "Order Value > 0", OrderStateMachineSetup::hasOrderValue, result(OrderResult.IN_PROGRESS))
+                // Packaging & Billing
+                .transition(PAYMENT_CONFIRMED,      PACKAGE_FORK_EVENT,         PACKING_FORK,
+                        result(OrderResult.IN_PROGRESS))
+                .transition(PACKING_FORK,           PACKAGE_INIT_EVENT,         ORDER_PACKAGING_START,
+                        "Fork Disabled", order -> !forkConfig.isForkEnabled(), null)
+                .internal(ORDER_PACKAGING_START,    PACKAGE_EVENT,              null)
+                .transition(ORDER_PACKAGING_START,  AUTO_TRANSITION_EVENT,      ORDER_PACKAGING_DONE)
+                .transition(ORDER_PACKAGING_DONE,   ORDER_SEND_BILL_EVENT,      SEND_BILL_START)
+                .transition(SEND_BILL_START,        AUTO_TRANSITION_EVENT,      SEND_BILL_DONE)
+                .transition(SEND_BILL_DONE,         ORDER_READY_TO_SHIP_EVENT,  READY_TO_SHIP_JOIN)
+                .transition(PACKING_FORK,           ORDER_READY_TO_SHIP_EVENT,  READY_TO_SHIP_JOIN,
+                        "Fork Enabled", order -> forkConfig.isForkEnabled(), null)
+                // Shipping & Delivery
+                .transition(READY_TO_SHIP_JOIN,     ORDER_SHIPPED_EVENT,        SHIPPED,
+                        "Shipping Address", order -> order.getShippingAddress() != null, null)
+                .transition(SHIPPED,                ORDER_IN_TRANSIT_EVENT,     IN_TRANSIT)
+                .transition(IN_TRANSIT,             SEND_FOR_DELIVERY_EVENT,    REACHED_DESTINATION)
+                .transition(REACHED_DESTINATION,    ORDER_DELIVERED_EVENT,      DELIVERED,
+                        result(OrderResult.DELIVERED))
+                .transition(DELIVERED,              ORDER_RETURNED_EVENT,       RETURNED,
+                        result(OrderResult.RETURNED))
+                .transition(DELIVERED,              ORDER_COMPLETED_EVENT,      ORDER_COMPLETED)
+                .transition(RETURNED,               ORDER_COMPLETED_EVENT,      ORDER_COMPLETED)
+                // Cancellation & Failures
+                .transitions(CANCELLABLE,           ORDER_CANCELLED_EVENT,      CANCELLED,
+                        result(OrderResult.CANCELLED))
+                .transitions(IN_PROGRESS_STATES,    FAILURE_EVENT,              ERROR,
+                        result(OrderResult.SUSPENDED))
+                .build();
+    }
+
+    /**
+     * Guard: Order has a Value to Pay
+     * @param order
+     * @return
+     */
+    private static boolean hasOrderValue(OrderEntity order) {
+        return order.getTotalOrderValue() != null && order.getTotalOrderValue().compareTo(BigDecimal.ZERO) > 0;
+    }
+
+    /**
+     * Action: Set the Order Result
+     * @param result
+     * @return
+     */
+    private static Consumer<OrderEntity> result(OrderResult result) {
+        return order -> order.setOrderResult(result);
+    }
+}
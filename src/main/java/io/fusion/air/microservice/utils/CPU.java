@@ -283,30 +283,7 @@ public class CPU {
 	 * @return
 	 */
 	public static String printCpuStats() {
-		StringBuilder sb = new StringBuilder();
-
-		sb.append("|cpus=").append(availableProcessors());
-
-		String val = "";
-		try  {	val = String.format("%.02f", CPU.getProcessCpuLoad()); } catch (Exception ignored) { val = ""; }
-		sb.append("|PCPU=").append(val);
-		try  {	val = String.format("%.02f", CPU.getSystemCpuLoad()); } catch (Exception ignored) { val = ""; }
-		sb.append("|SCPU=").append(val);
-
-		sb.append("|FM=").append(toMBString(freeMemory()));
-		sb.append("|TM=").append(toMBString(totalMemory()));
-
-		try  {	val = String.format("%.02f", CPU.getFreePhysicalMemorySize()); } catch (Exception ignored) { val = ""; }
-		sb.append("|FSMem=").append(val);
-		sb.append("|TSMem=").append(toMBString(CPU.getTotalPhysicalMemorySize()));
-
-		sb.append("|OFD=").append(CPU.getOpenFileDescriptorCount()).append("/");
-		sb.append(CPU.getMaxFileDescriptorCount());
-
-		sb.append("|FSwap=").append(toMBString(CPU.getFreeSwapSpaceSize()));
-		sb.append("|TSwap=").append(toMBString(CPU.getTotalSwapSpaceSize()));
-
-		return sb.toString();
+		return SystemStats.sample().summary();
 	}
 
 	/**
@@ -0,0 +1,140 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+
+import org.springframework.http.HttpHeaders;
+// Java
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Secure Cookie Header Template
+ *
+ * The Set-Cookie Header of a Cookie (Name, Max Age) is built once, only the Value, the Path and the
+ * Expires Date are spliced in per Request. The Header is the same as Utils.createSecureCookie()
+ * (ResponseCookie - HttpOnly, Secure, SameSite=Strict). The Expires Date is formatted once per Second.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class CookieTemplate {
+
+	private final String prefix;
+	private final String maxAge;
+	private final long ageMillis;
+	private final String suffix;
+
+	// HTTP Date (IMF-fixdate), Two Digit Day as in ResponseCookie (RFC_1123_DATE_TIME drops the leading Zero)
+	private static final DateTimeFormatter HTTP_DATE =
+			DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US).withZone(ZoneOffset.UTC);
+
+	// Expires Date of the last Second
+	private volatile Expires expires = new Expires(-1, "");
+
+	/**
+	 * Create the Template
+	 * @param key Cookie Name
+	 * @param age Max Age in Seconds
+	 */
+	public CookieTemplate(String key, int age) {
+		if(key == null || key.isEmpty()) {
+			throw new IllegalArgumentException("Invalid Name for the Cookie: "+key);
+		}
+		this.prefix = key + "=";
+		this.maxAge = "; Max-Age=" + age + "; Expires=";
+		this.ageMillis = age * 1000L;
+		this.suffix = "; Secure; HttpOnly; SameSite=Strict";
+	}
+
+	/**
+	 * Returns the Set-Cookie Header Value
+	 * @param path Cookie Path (/ if null)
+	 * @param value Cookie Value
+	 * @return
+	 */
+	public String header(String path, String value) {
+		if(value == null || value.isEmpty()) {
+			throw new IllegalArgumentException("Invalid Value for the Cookie: "+value);
+		}
+		String cookiePath = (path == null) ? "/" : path;
+		validate(value, "Value", true);
+		validate(cookiePath, "Path", false);
+		return new StringBuilder(prefix.length() + value.length() + cookiePath.length() + 96)
+				.append(prefix).append(value)
+				.append("; Path=").append(cookiePath)
+				.append(maxAge).append(expires())
+				.append(suffix)
+				.toString();
+	}
+
+	/**
+	 * Returns HttpHeaders with the Secure Cookie
+	 * @param path
+	 * @param value
+	 * @return
+	 */
+	public HttpHeaders headers(String path, String value) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.add(HttpHeaders.SET_COOKIE, header(path, value));
+		return headers;
+	}
+
+	/**
+	 * Expires Date (Now + Max Age), Formatted once per Second
+	 * @return
+	 */
+	private String expires() {
+		long now = System.currentTimeMillis();
+		long second = now / 1000;
+		Expires last = expires;
+		if(last.second != second) {
+			last = new Expires(second, format((ageMillis > 0) ? second * 1000 + ageMillis : 0));
+			expires = last;
+		}
+		return last.date;
+	}
+
+	/**
+	 * HTTP Date (GMT) - Same Format as ResponseCookie
+	 * @param epochMillis
+	 * @return
+	 */
+	private static String format(long epochMillis) {
+		return HTTP_DATE.format(Instant.ofEpochMilli(epochMillis));
+	}
+
+	/**
+	 * Reject the Characters which break the Header (Control Characters, Non ASCII and ;)
+	 * The Value allows the Cookie Octets only (No Space, Double Quote, Comma or Back Slash)
+	 * @param text
+	 * @param field
+	 * @param octets
+	 */
+	private static void validate(String text, String field, boolean octets) {
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(c < 0x20 || c > 0x7E || c == ';'
+					|| (octets && (c == ' ' || c == '"' || c == ',' || c == '\\'))) {
+				throw new IllegalArgumentException("Invalid characters For the Cookie "+field+": "+text);
+			}
+		}
+	}
+
+	private record Expires(long second, String date) {}
+}
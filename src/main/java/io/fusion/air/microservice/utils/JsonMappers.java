@@ -0,0 +1,142 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+import java.util.UUID;
+
+/**
+ * Shared JSON Mapper
+ *
+ * A single configured ObjectMapper for the Service (Spring Bean, Rest Client, Filters and Utils). The
+ * Modules are looked up (ServiceLoader) at the Start, the ObjectWriter / ObjectReader per Type are created once
+ * with the Root Serializer / Deserializer already resolved.
+ *
+ * The Blackbird Module (Lambda Meta Factory instead of Reflection for the Getters / Setters) is registered
+ * unless the System Property json.blackbird=false.
+ *
+ * The Binary Mappers (CBOR, Smile) have the same Configuration and Modules, used for the Service to
+ * Service Calls (Content Negotiation with application/cbor and application/x-jackson-smile). They write the
+ * UUIDs as Strings (not as 16 Byte Binary), so an untyped Payload (StandardResponse) reads the same as JSON.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class JsonMappers {
+
+	private static final ObjectMapper MAPPER = configure(new ObjectMapper());
+	private static final ObjectMapper CBOR = configureBinary(configure(new CBORMapper()));
+	private static final ObjectMapper SMILE = configureBinary(configure(new SmileMapper()));
+
+	private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+		@Override
+		protected ObjectWriter computeValue(Class<?> type) {
+			return MAPPER.writerFor(type);
+		}
+	};
+
+	private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+		@Override
+		protected ObjectReader computeValue(Class<?> type) {
+			return MAPPER.readerFor(type);
+		}
+	};
+
+	private JsonMappers() {
+	}
+
+	/**
+	 * Returns the Shared Object Mapper (Do NOT change the Configuration after the Start)
+	 * @return
+	 */
+	public static ObjectMapper mapper() {
+		return MAPPER;
+	}
+
+	/**
+	 * Returns the Shared CBOR Mapper (application/cbor)
+	 * @return
+	 */
+	public static ObjectMapper cbor() {
+		return CBOR;
+	}
+
+	/**
+	 * Returns the Shared Smile Mapper (application/x-jackson-smile)
+	 * @return
+	 */
+	public static ObjectMapper smile() {
+		return SMILE;
+	}
+
+	/**
+	 * Returns the Cached Writer for the Type
+	 * @param type
+	 * @return
+	 */
+	public static ObjectWriter writer(Class<?> type) {
+		return WRITERS.get(type);
+	}
+
+	/**
+	 * Returns the Cached Reader for the Type
+	 * @param type
+	 * @return
+	 */
+	public static ObjectReader reader(Class<?> type) {
+		return READERS.get(type);
+	}
+
+	/**
+	 * Configure the Object Mapper
+	 * @param mapper
+	 * @return
+	 */
+	private static ObjectMapper configure(ObjectMapper mapper) {
+		boolean blackbird = Boolean.parseBoolean(System.getProperty("json.blackbird", "true"));
+		mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+		for(Module module : ObjectMapper.findModules()) {
+			if(blackbird || !(module instanceof BlackbirdModule)) {
+				mapper.registerModule(module);
+			}
+		}
+		if(blackbird) {
+			// Duplicate Registration (via the ServiceLoader) is ignored
+			mapper.registerModule(new BlackbirdModule());
+		}
+		return mapper;
+	}
+
+	/**
+	 * Configure the Binary (CBOR / Smile) Mapper
+	 * @param mapper
+	 * @return
+	 */
+	private static ObjectMapper configureBinary(ObjectMapper mapper) {
+		mapper.configOverride(UUID.class).setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING));
+		return mapper;
+	}
+}
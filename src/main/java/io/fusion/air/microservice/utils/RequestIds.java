@@ -0,0 +1,83 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request Ids (Contention Free)
+ *
+ * UUID.randomUUID() draws from a single shared SecureRandom, which becomes a Contention Point when every
+ * Request asks for an Id.
+ *
+ * requestId() - Time Ordered (UUID v7 Layout). 48 Bit Unix Epoch Milli Seconds and 74 Random Bits from the
+ * ThreadLocalRandom (no Lock, no Seeding per Thread, cheap for the Virtual Threads). Unique across the
+ * Threads and the Nodes with the Probability of a random UUID within the same Milli Second.
+ * Not a Secret (ThreadLocalRandom is predictable).
+ *
+ * sessionId() - Random (UUID v4) from a shared SecureRandom. Used when the Id must not be guessable.
+ * Session Ids are created once per Session, so the shared Generator is not on the Hot Path.
+ *
+ * See RequestIdsBenchmark (src/test) for the Comparison with UUID.randomUUID().
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class RequestIds {
+
+	private static final long VERSION_7 = 0x7000L;
+	private static final long VERSION_4 = 0x4000L;
+	private static final long VERSION_MASK = 0xFFFFFFFFFFFF0FFFL;
+	private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+	private static final long VARIANT_IETF = 0x8000000000000000L;
+
+	private static final SecureRandom sessionRandom = new SecureRandom();
+
+	private RequestIds() {
+	}
+
+	/**
+	 * Time Ordered Request Id (UUID v7 Layout)
+	 * @return
+	 */
+	public static UUID requestId() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long most64SigBits = (System.currentTimeMillis() << 16) | VERSION_7 | (random.nextLong() & 0x0FFFL);
+		long least64SigBits = (random.nextLong() & VARIANT_MASK) | VARIANT_IETF;
+		return new UUID(most64SigBits, least64SigBits);
+	}
+
+	/**
+	 * Random Session Id (UUID v4) from the shared SecureRandom
+	 * @return
+	 */
+	public static UUID sessionId() {
+		byte[] bytes = new byte[16];
+		sessionRandom.nextBytes(bytes);
+		long most64SigBits = 0;
+		long least64SigBits = 0;
+		for(int i = 0; i < 8; i++) {
+			most64SigBits = (most64SigBits << 8) | (bytes[i] & 0xFF);
+			least64SigBits = (least64SigBits << 8) | (bytes[i + 8] & 0xFF);
+		}
+		most64SigBits = (most64SigBits & VERSION_MASK) | VERSION_4;
+		least64SigBits = (least64SigBits & VARIANT_MASK) | VARIANT_IETF;
+		return new UUID(most64SigBits, least64SigBits);
+	}
+}
@@ -0,0 +1,114 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * System Stats (Immutable Snapshot)
+ *
+ * Sampled with the typed com.sun.management OS MX Bean (No Reflection). The Summary Line is built once
+ * per Sample. CPU Load is 0..1 (-1 if not available), Memory in Bytes, File Descriptors -1 if not
+ * available (Non Unix OS).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public record SystemStats(
+                long time,
+                int cpus,
+                double processCpuLoad,
+                double systemCpuLoad,
+                long freeMemory,
+                long totalMemory,
+                long maxMemory,
+                long freePhysicalMemory,
+                long totalPhysicalMemory,
+                long openFileDescriptors,
+                long maxFileDescriptors,
+                long freeSwap,
+                long totalSwap,
+                String summary
+        ) {
+
+    private static final java.lang.management.OperatingSystemMXBean osMXBean = ManagementFactory.getOperatingSystemMXBean();
+
+    /**
+     * Sample the System Stats
+     * @return
+     */
+    public static SystemStats sample() {
+        Runtime runtime = Runtime.getRuntime();
+        int cpus = runtime.availableProcessors();
+        long freeMemory = runtime.freeMemory();
+        long totalMemory = runtime.totalMemory();
+        long maxMemory = runtime.maxMemory();
+        double processCpu = -1;
+        double systemCpu = -1;
+        long freePhysical = 0;
+        long totalPhysical = 0;
+        long freeSwap = 0;
+        long totalSwap = 0;
+        long openFds = -1;
+        long maxFds = -1;
+        if(osMXBean instanceof OperatingSystemMXBean os) {
+            processCpu = os.getProcessCpuLoad();
+            systemCpu = os.getCpuLoad();
+            freePhysical = os.getFreeMemorySize();
+            totalPhysical = os.getTotalMemorySize();
+            freeSwap = os.getFreeSwapSpaceSize();
+            totalSwap = os.getTotalSwapSpaceSize();
+        }
+        if(osMXBean instanceof UnixOperatingSystemMXBean unix) {
+            openFds = unix.getOpenFileDescriptorCount();
+            maxFds = unix.getMaxFileDescriptorCount();
+        }
+        String summary = "|cpus=" + cpus
+                + "|PCPU=" + load(processCpu)
+                + "|SCPU=" + load(systemCpu)
+                + "|FM=" + CPU.toMBString(freeMemory)
+                + "|TM=" + CPU.toMBString(totalMemory)
+                + "|FSMem=" + CPU.toMBString(freePhysical)
+                + "|TSMem=" + CPU.toMBString(totalPhysical)
+                + "|OFD=" + openFds + "/" + maxFds
+                + "|FSwap=" + CPU.toMBString(freeSwap)
+                + "|TSwap=" + CPU.toMBString(totalSwap);
+        return new SystemStats(System.currentTimeMillis(), cpus, processCpu, systemCpu, freeMemory, totalMemory,
+                maxMemory, freePhysical, totalPhysical, openFds, maxFds, freeSwap, totalSwap, summary);
+    }
+
+    /**
+     * CPU Load (0..1) with 2 Decimals, empty if not available
+     * @param load
+     * @return
+     */
+    private static String load(double load) {
+        if(load < 0) {
+            return "";
+        }
+        long hundredths = Math.round(load * 100);
+        return (hundredths / 100) + "." + ((hundredths % 100 < 10) ? "0" : "") + (hundredths % 100);
+    }
+
+    @Override
+    public String toString() {
+        return summary;
+    }
+}
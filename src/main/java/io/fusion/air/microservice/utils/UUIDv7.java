@@ -0,0 +1,92 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time Ordered UUID (Version 7) - RFC 9562
+ *
+ *  0                   1                   2                   3
+ *  0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 1
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                    48 Bit Unix Epoch Milli Seconds            |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |        Unix Epoch MS      |  ver  |    12 Bit Sequence        |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |var|                      62 Bit Random                        |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ * |                          62 Bit Random                        |
+ * +-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+-+
+ *
+ * The Timestamp and the Sequence are kept in a single AtomicLong and updated with a CAS, so the
+ * Ids are strictly increasing within the JVM (even if the clock goes back) without any locks.
+ * If the Sequence overflows within the same Milli Second the Timestamp is moved forward by 1 ms.
+ *
+ * Time Ordered Ids keep the B-Tree Inserts at the right most leaf page of the Index.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class UUIDv7 {
+
+	private static final int SEQUENCE_BITS = 12;
+	private static final long VERSION_7 = 0x7000L;
+	private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+	private static final long VARIANT_IETF = 0x8000000000000000L;
+
+	// Unix Epoch Milli Seconds << 12 | Sequence
+	private static final AtomicLong lastTimeAndSequence = new AtomicLong();
+
+	private UUIDv7() {
+	}
+
+	/**
+	 * Generate Type 7 UUID
+	 * @return
+	 */
+	public static UUID generate() {
+		long timeAndSequence = lastTimeAndSequence.updateAndGet(
+				last -> Math.max(System.currentTimeMillis() << SEQUENCE_BITS, last + 1));
+		long millis = timeAndSequence >>> SEQUENCE_BITS;
+		long sequence = timeAndSequence & ((1L << SEQUENCE_BITS) - 1);
+		long most64SigBits = (millis << 16) | VERSION_7 | sequence;
+		long least64SigBits = (ThreadLocalRandom.current().nextLong() & VARIANT_MASK) | VARIANT_IETF;
+		return new UUID(most64SigBits, least64SigBits);
+	}
+
+	/**
+	 * Returns the Smallest Type 7 UUID for the Unix Epoch Milli Seconds. Used as the Lower Bound of
+	 * the Id Ranges (Ex. uuid >= lowerBound(time)) and as the Bounds of the Range Partitions.
+	 * @param epochMillis
+	 * @return
+	 */
+	public static UUID lowerBound(long epochMillis) {
+		return new UUID(epochMillis << 16, 0L);
+	}
+
+	/**
+	 * Returns the Unix Epoch Milli Seconds from the Type 7 UUID
+	 * @param uuid
+	 * @return
+	 */
+	public static long getTimestamp(UUID uuid) {
+		return uuid.getMostSignificantBits() >>> 16;
+	}
+}
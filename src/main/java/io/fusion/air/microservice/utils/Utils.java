@@ -18,8 +18,6 @@ package io.fusion.air.microservice.utils;
 // Faster XML
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.fusion.air.microservice.domain.exceptions.InvalidInputException;
 import io.fusion.air.microservice.domain.exceptions.ResourceException;
 import io.fusion.air.microservice.domain.models.core.StandardResponse;
@@ -144,6 +142,17 @@ public final class Utils {
 		return type5UUIDFromBytes(result);
 	}
 
+	/**
+	 * Generate Type 7 UUID (Time Ordered)
+	 * A UUID represents a 128-bit value (36 Characters long)
+	 * UUID version 7 starts with the Unix Epoch Milli Seconds followed by a Sequence and
+	 * Random bits. The Ids are monotonic and Index friendly.
+	 * @return
+	 */
+	public static UUID generateType7UUID() {
+		return UUIDv7.generate();
+	}
+
 	/**
 	 * Reference: https://www.baeldung.com/java-uuid
 	 * @return
@@ -269,23 +278,13 @@ public final class Utils {
 			return "";
 		}
 		try {
-			return new ObjectMapper()
-					.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-					.findAndRegisterModules()
-					.writeValueAsString(object);
+			return JsonMappers.writer(object.getClass()).writeValueAsString(object);
 		} catch (JsonProcessingException e) {
 			Std.println("Error: "+e);
 		}
 		return "";
 	}
 
-	private static final ObjectMapper objectMapper = new ObjectMapper();
-
-	static {
-		// Configure objectMapper for your needs
-		objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-	}
-
 	/**
 	 * Convert JSON to Object
 	 * @param jsonString
@@ -295,7 +294,7 @@ public final class Utils {
 	 */
 	public static <T> T fromJsonToObject(String jsonString, Class<T> targetClass) {
 		try {
-			return objectMapper.readValue(jsonString, targetClass);
+			return JsonMappers.reader(targetClass).readValue(jsonString);
 		} catch (JsonProcessingException e) {
 			throw new InvalidInputException("Failed to convert JSON string to object: " + e.getMessage(), e);
 		}
@@ -0,0 +1,153 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils.algos;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gradient Concurrency Limit (Vegas Style)
+ *
+ * The Limit follows the Gradient of the Latency. The Long Term Latency (Exponential Average) is the
+ * Baseline without Queueing, the Short Term Latency is the Average of the last Window.
+ *
+ * gradient = max(0.5, min(1.0, tolerance x longRtt / shortRtt))
+ * newLimit = limit x gradient + sqrt(limit)      (sqrt(limit) - Queue allowed to probe for more)
+ * limit    = limit x (1 - smoothing) + newLimit x smoothing
+ *
+ * When the Latency goes up (Database slows down) the Gradient drops below 1 and the Limit shrinks,
+ * when the Latency is back to the Baseline the Limit grows again. The Limit is not increased if the
+ * Requests in Flight were less than half of the Limit (No Evidence the Limit is too small).
+ *
+ * The Samples are added to Adders (No Lock), the Limit is updated once per Window by the Thread
+ * which gets the Lock first (The others don't wait).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class GradientLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final long windowNanos;
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final LongAccumulator maxInFlight = new LongAccumulator(Math::max, 0);
+    private final AtomicLong windowEnd;
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile int limit;
+    // Guarded by the Update Lock
+    private double estimatedLimit;
+    private double longRtt;
+
+    /**
+     * Create the Gradient Limit
+     * @param initialLimit
+     * @param minLimit
+     * @param maxLimit
+     * @param smoothing Weight (0..1) of the new Estimate
+     * @param tolerance Latency Increase tolerated (Ex. 1.5 = 50% above the Baseline)
+     * @param windowMillis Sample Window
+     */
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double smoothing, double tolerance,
+                         long windowMillis) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.smoothing = Math.min(1.0, Math.max(0.01, smoothing));
+        this.tolerance = Math.max(1.0, tolerance);
+        this.windowNanos = Math.max(1, windowMillis) * 1_000_000L;
+        this.estimatedLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+        this.windowEnd = new AtomicLong(System.nanoTime() + windowNanos);
+    }
+
+    /**
+     * Returns the current Limit
+     * @return
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the Long Term Latency (Milli Seconds)
+     * @return
+     */
+    public double getLongRtt() {
+        return longRtt / 1_000_000.0;
+    }
+
+    /**
+     * Add the Latency of a Request
+     * @param rttNanos Latency
+     * @param inFlight Requests in Flight when the Request started
+     */
+    public void onSample(long rttNanos, int inFlight) {
+        rttSum.add(rttNanos);
+        samples.increment();
+        maxInFlight.accumulate(inFlight);
+        long now = System.nanoTime();
+        long end = windowEnd.get();
+        if(now - end >= 0 && updateLock.tryLock()) {
+            try {
+                if(windowEnd.compareAndSet(end, now + windowNanos)) {
+                    update();
+                }
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Update the Limit with the Samples of the Window
+     */
+    private void update() {
+        long count = samples.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        long peak = maxInFlight.getThenReset();
+        if(count == 0) {
+            return;
+        }
+        double shortRtt = Math.max(1, (double) sum / count);
+        if(longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        // Long Term Average (about 100 Windows)
+        longRtt = longRtt * 0.99 + shortRtt * 0.01;
+        // The Baseline drifted up during a long Overload, bring it back faster
+        if(longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        if(newLimit > estimatedLimit && peak < estimatedLimit / 2) {
+            // Application Limited, the Limit was not the Bottleneck
+            return;
+        }
+        newLimit = estimatedLimit * (1 - smoothing) + newLimit * smoothing;
+        estimatedLimit = Math.min(maxLimit, Math.max(minLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+}
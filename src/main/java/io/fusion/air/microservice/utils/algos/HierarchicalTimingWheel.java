@@ -0,0 +1,288 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils.algos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical Timing Wheel
+ *
+ * Level 0 has N Slots of 1 Tick, Level L has N Slots of Tick x N^L. A Timer is placed in the lowest Level
+ * which covers its Deadline (Insert is O(1)) and is kept in a Doubly Linked List of the Slot (Cancel is O(1)).
+ * When the Clock crosses the Slot Boundary of a higher Level, the Timers of that Slot move down (Cascade)
+ * to the lower Levels. Levels are added when a Deadline is beyond the top Level.
+ *
+ * Timers fire on the first Tick after the Deadline (Never early, late by less than 1 Tick).
+ * The Wheel is Thread Safe (a single Monitor), advance() is called by a single Ticker Thread.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class HierarchicalTimingWheel<T> {
+
+    private final long tick;
+    private final int slots;
+    private final List<Slot<T>[]> levels = new ArrayList<>();
+    private final List<Long> levelTicks = new ArrayList<>();
+    // Timers scheduled with a Deadline before the Current Time
+    private final Slot<T> overdue = new Slot<>();
+
+    // All the Timers with the Deadline before the Current Time are fired (Aligned to the Tick)
+    private long currentTime;
+    private int size;
+
+    /**
+     * Create the Timing Wheel
+     * @param tick Milli Seconds per Slot at Level 0
+     * @param slots Slots per Level
+     * @param startTime Milli Seconds
+     */
+    public HierarchicalTimingWheel(long tick, int slots, long startTime) {
+        if(tick < 1 || slots < 2) {
+            throw new IllegalArgumentException("Invalid Timing Wheel Tick = "+tick+" Slots = "+slots);
+        }
+        this.tick = tick;
+        this.slots = slots;
+        this.currentTime = startTime - (startTime % tick);
+        addLevel();
+    }
+
+    /**
+     * Schedule the Payload at the Deadline. A Deadline in the Past fires on the next advance().
+     * @param deadline Milli Seconds
+     * @param payload
+     * @return Timer (to Cancel)
+     */
+    public synchronized Timer<T> schedule(long deadline, T payload) {
+        Timer<T> timer = new Timer<>(this, deadline, payload);
+        place(timer);
+        size++;
+        return timer;
+    }
+
+    /**
+     * Advance the Clock to the Time and fire the Timers with the Deadline before the Time
+     * @param now Milli Seconds
+     * @param expired receives the Payloads of the Timers fired
+     * @return Number of Timers fired
+     */
+    public int advance(long now, Consumer<T> expired) {
+        List<Timer<T>> fired = new ArrayList<>();
+        synchronized (this) {
+            while (currentTime + tick <= now) {
+                // Level 0 Slot of the Current Time holds the Deadlines in [currentTime, currentTime + tick)
+                drain(levels.get(0)[slotIndex(currentTime, tick)], fired);
+                currentTime += tick;
+                // Cascade the Slots of the higher Levels starting at the Current Time
+                for(int level = 1; level < levels.size(); level++) {
+                    long levelTick = levelTicks.get(level);
+                    if(currentTime % levelTick != 0) {
+                        break;
+                    }
+                    List<Timer<T>> cascade = new ArrayList<>();
+                    drain(levels.get(level)[slotIndex(currentTime, levelTick)], cascade);
+                    for(Timer<T> timer : cascade) {
+                        place(timer);
+                    }
+                }
+            }
+            // Deadlines before the Current Time (Scheduled in the Past)
+            drain(overdue, fired);
+            size -= fired.size();
+        }
+        for(Timer<T> timer : fired) {
+            expired.accept(timer.payload);
+        }
+        return fired.size();
+    }
+
+    /**
+     * Number of Pending Timers
+     * @return
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the Time (Milli Seconds) up to which the Timers are fired
+     * @return
+     */
+    public synchronized long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Returns the Number of Levels
+     * @return
+     */
+    public synchronized int getLevels() {
+        return levels.size();
+    }
+
+    /**
+     * Place the Timer in the lowest Level covering the Deadline
+     * @param timer
+     */
+    private void place(Timer<T> timer) {
+        if(timer.deadline < currentTime) {
+            overdue.add(timer);
+            return;
+        }
+        for(int level = 0; ; level++) {
+            if(level == levels.size()) {
+                addLevel();
+            }
+            long levelTick = levelTicks.get(level);
+            if(timer.deadline / levelTick - currentTime / levelTick < slots) {
+                levels.get(level)[slotIndex(timer.deadline, levelTick)].add(timer);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove all the Timers of the Slot
+     * @param slot
+     * @param timers
+     */
+    private void drain(Slot<T> slot, List<Timer<T>> timers) {
+        Timer<T> timer = slot.head;
+        while (timer != null) {
+            Timer<T> next = timer.next;
+            timer.prev = null;
+            timer.next = null;
+            timer.slot = null;
+            timers.add(timer);
+            timer = next;
+        }
+        slot.head = null;
+    }
+
+    /**
+     * Add a Level on top of the Wheel
+     */
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        long levelTick = levels.isEmpty() ? tick : Math.multiplyExact(levelTicks.get(levels.size() - 1), (long) slots);
+        Slot<T>[] level = new Slot[slots];
+        for(int i = 0; i < slots; i++) {
+            level[i] = new Slot<>();
+        }
+        levels.add(level);
+        levelTicks.add(levelTick);
+    }
+
+    /**
+     * Slot of the Time in the Level
+     * @param time
+     * @param levelTick
+     * @return
+     */
+    private int slotIndex(long time, long levelTick) {
+        return (int) ((time / levelTick) % slots);
+    }
+
+    /**
+     * Cancel the Timer
+     * @param timer
+     * @return True if the Timer was Pending
+     */
+    private synchronized boolean cancel(Timer<T> timer) {
+        if(timer.slot == null) {
+            return false;
+        }
+        timer.slot.remove(timer);
+        size--;
+        return true;
+    }
+
+    /**
+     * Slot - Doubly Linked List of Timers
+     */
+    private static final class Slot<T> {
+        private Timer<T> head;
+
+        private void add(Timer<T> timer) {
+            timer.slot = this;
+            timer.prev = null;
+            timer.next = head;
+            if(head != null) {
+                head.prev = timer;
+            }
+            head = timer;
+        }
+
+        private void remove(Timer<T> timer) {
+            if(timer.prev != null) {
+                timer.prev.next = timer.next;
+            } else {
+                head = timer.next;
+            }
+            if(timer.next != null) {
+                timer.next.prev = timer.prev;
+            }
+            timer.prev = null;
+            timer.next = null;
+            timer.slot = null;
+        }
+    }
+
+    /**
+     * Timer in the Wheel
+     */
+    public static final class Timer<T> {
+        private final HierarchicalTimingWheel<T> wheel;
+        private final long deadline;
+        private final T payload;
+        private Timer<T> prev;
+        private Timer<T> next;
+        private Slot<T> slot;
+
+        private Timer(HierarchicalTimingWheel<T> wheel, long deadline, T payload) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.payload = payload;
+        }
+
+        /**
+         * Cancel the Timer - O(1)
+         * @return True if the Timer was Pending
+         */
+        public boolean cancel() {
+            return wheel.cancel(this);
+        }
+
+        /**
+         * Returns the Deadline (Milli Seconds)
+         * @return
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Returns the Payload
+         * @return
+         */
+        public T getPayload() {
+            return payload;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+-- ========================================================================
+-- Order Tables - Monthly Range Partitions (PostgreSQL 12+)
+--
+-- Run this script on an empty schema BEFORE the first start of the service
+-- (Hibernate creates the remaining tables). The Ids are Time Ordered UUIDs
+-- (db.uuid.version=7). order_tx is partitioned by its Id, the Child Tables
+-- (order_item_tx, order_state_history_tx) by the order_id, so the Items and
+-- the Events of an Order are in the Partition (Month) of the Order, even if
+-- they are written months later (Returns). Hence
+--  1. The Foreign Keys (order_id, payment_id) keep working.
+--  2. Lookups by the Order Id hits a single Partition of every Table.
+--  3. Id Range Predicates (uuid >= lowerBound(time)) prunes the Partitions.
+--  4. An Order and its Children are archived / dropped with the same Month.
+--
+-- The Monthly Partitions are created ahead by the OrderPartitionManager
+-- (order.partition.months.ahead). Rows with UUID v4 Ids (created before the
+-- switch to v7) land in the DEFAULT Partition.
+--
+-- A Unique Constraint on the Partitioned Table must include the Partition
+-- Key. The Payment is unique per Order with (payment_id, uuid) and the Payment
+-- Id is generated with the Order (Cascade), Hibernate logs a warning when it
+-- tries to create the Unique Constraint on payment_id alone.
+-- ========================================================================
+
+CREATE TABLE IF NOT EXISTS order_tx (
+    uuid uuid NOT NULL,
+    createdBy varchar(255) NOT NULL,
+    createdTime timestamp(6) NOT NULL,
+    updatedBy varchar(255) NOT NULL,
+    updatedTime timestamp(6) NOT NULL,
+    isActive boolean,
+    version integer,
+    currency varchar(255),
+    customer_id varchar(255),
+    orderStatus varchar(255),
+    result varchar(255),
+    snapshotVersion int DEFAULT 0,
+    city varchar(255),
+    country varchar(255),
+    landmark varchar(255),
+    phone varchar(255),
+    state varchar(255),
+    street varchar(255),
+    zip_code varchar(255),
+    totalOrderValue numeric(38,2),
+    payment_id uuid,
+    PRIMARY KEY (uuid),
+    CONSTRAINT uk_order_payment UNIQUE (payment_id, uuid)
+) PARTITION BY RANGE (uuid);
+
+CREATE TABLE IF NOT EXISTS order_item_tx (
+    uuid uuid NOT NULL,
+    createdBy varchar(255) NOT NULL,
+    createdTime timestamp(6) NOT NULL,
+    updatedBy varchar(255) NOT NULL,
+    updatedTime timestamp(6) NOT NULL,
+    isActive boolean,
+    version integer,
+    price numeric(38,2),
+    productId varchar(255),
+    productName varchar(255),
+    quantity numeric(38,2),
+    order_id uuid NOT NULL,
+    PRIMARY KEY (uuid, order_id)
+) PARTITION BY RANGE (order_id);
+
+CREATE TABLE IF NOT EXISTS order_state_history_tx (
+    uuid uuid NOT NULL,
+    createdBy varchar(255) NOT NULL,
+    createdTime timestamp(6) NOT NULL,
+    updatedBy varchar(255) NOT NULL,
+    updatedTime timestamp(6) NOT NULL,
+    isActive boolean,
+    version integer,
+    notes varchar(255),
+    result varchar(255),
+    orderVersion int DEFAULT 0,
+    sourceState varchar(255),
+    targetState varchar(255),
+    transitionEvent varchar(255),
+    order_id uuid NOT NULL,
+    PRIMARY KEY (uuid, order_id)
+) PARTITION BY RANGE (order_id);
+
+-- Partitioned Indexes (created on every Partition)
+CREATE INDEX IF NOT EXISTS idx_order_customer ON order_tx (customer_id, uuid);
+CREATE INDEX IF NOT EXISTS idx_order_item_order ON order_item_tx (order_id);
+CREATE INDEX IF NOT EXISTS idx_order_history_order ON order_state_history_tx (order_id, orderVersion);
+
+-- Order Event Store (Upgrade of the existing Tables)
+ALTER TABLE order_tx ADD COLUMN IF NOT EXISTS snapshotVersion int DEFAULT 0;
+ALTER TABLE order_tx DROP CONSTRAINT IF EXISTS uk_order_payment;
+ALTER TABLE order_tx ADD CONSTRAINT uk_order_payment UNIQUE (payment_id, uuid);
+ALTER TABLE order_state_history_tx ADD COLUMN IF NOT EXISTS result varchar(255);
+
+-- Default Partitions (UUID v4 Ids, Children of the UUID v4 Orders)
+CREATE TABLE IF NOT EXISTS order_tx_default PARTITION OF order_tx DEFAULT;
+CREATE TABLE IF NOT EXISTS order_item_tx_default PARTITION OF order_item_tx DEFAULT;
+CREATE TABLE IF NOT EXISTS order_state_history_tx_default PARTITION OF order_state_history_tx DEFAULT;
@@ -0,0 +1,207 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.aop;
+// Custom
+import io.fusion.air.microservice.adapters.logging.ConflictTracker;
+import io.fusion.air.microservice.domain.exceptions.DataVersionMismatchException;
+import io.fusion.air.microservice.server.config.ConflictRetryConfig;
+// Spring
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import static org.slf4j.LoggerFactory.getLogger;
+import static java.lang.invoke.MethodHandles.lookup;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retry On Conflict Aspect Test
+ *
+ * The Versioned Row emulates the Optimistic Lock (Read Version -> Work -> Compare And Set Version),
+ * the Contention Test runs the Parallel Writers on a single Row with and without the Retries.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class RetryOnConflictAspectTest {
+
+    // Set Logger -> Lookup will automatically determine the class name.
+    private static final Logger log = getLogger(lookup().lookupClass());
+
+    private static final int WRITERS = 16;
+    private static final int UPDATES = 20;
+
+    /**
+     * Row with a Version Column (Optimistic Lock)
+     */
+    public static class VersionedRow {
+
+        private final AtomicLong version = new AtomicLong();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        /**
+         * Update the Row (Read the Version, Work, Write if the Version is unchanged)
+         */
+        @RetryOnConflict(entity = "VersionedRow")
+        public void update() {
+            calls.incrementAndGet();
+            long read = version.get();
+            if(failuresLeft.getAndDecrement() > 0) {
+                throw new OptimisticLockingFailureException("Forced Version Conflict");
+            }
+            // Transaction Work between the Read and the Write
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            if(!version.compareAndSet(read, read + 1)) {
+                throw new OptimisticLockingFailureException("Version Conflict on "+read);
+            }
+        }
+    }
+
+    @Test
+    void conflictIsRetriedInANewAttempt() {
+        VersionedRow row = new VersionedRow();
+        row.failuresLeft.set(2);
+        proxy(row, config(true, 5)).update();
+        assertEquals(3, row.calls.get());
+        assertEquals(1, row.version.get());
+    }
+
+    @Test
+    void conflictIsReturnedAfterTheMaxAttempts() {
+        VersionedRow row = new VersionedRow();
+        row.failuresLeft.set(Integer.MAX_VALUE);
+        VersionedRow proxy = proxy(row, config(true, 3));
+        assertThrows(DataVersionMismatchException.class, proxy::update);
+        assertEquals(3, row.calls.get());
+    }
+
+    @Test
+    void conflictIsNotRetriedInTheCallersTransaction() {
+        VersionedRow row = new VersionedRow();
+        row.failuresLeft.set(1);
+        VersionedRow proxy = proxy(row, config(true, 5));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(OptimisticLockingFailureException.class, proxy::update);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        assertEquals(1, row.calls.get());
+    }
+
+    @Test
+    void retriesRecoverConflictsUnderContention() throws Exception {
+        int withoutRetry = contention(config(false, 5));
+        int withRetry = contention(config(true, 5));
+        log.info("Contention {} Writers x {} Updates on one Row: Successful Updates without Retry = {} with Retry = {}",
+                WRITERS, UPDATES, withoutRetry, withRetry);
+        assertTrue(withRetry > withoutRetry,
+                "Retries should recover Conflicts: "+withRetry+" <= "+withoutRetry);
+    }
+
+    /**
+     * Run the Parallel Writers on a single Row
+     * @param config
+     * @return Number of Successful Updates
+     */
+    private int contention(ConflictRetryConfig config) throws Exception {
+        VersionedRow row = new VersionedRow();
+        VersionedRow proxy = proxy(row, config);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        try {
+            for(int w = 0; w < WRITERS; w++) {
+                writers.execute(() -> {
+                    awaitQuietly(startGate);
+                    for(int u = 0; u < UPDATES; u++) {
+                        try {
+                            proxy.update();
+                            succeeded.incrementAndGet();
+                        } catch (OptimisticLockingFailureException | DataVersionMismatchException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            startGate.countDown();
+        } finally {
+            writers.shutdown();
+        }
+        assertTrue(writers.awaitTermination(60, TimeUnit.SECONDS));
+        assertEquals(WRITERS * UPDATES, succeeded.get() + rejected.get());
+        // Every Successful Update is a Version Increment (no Lost Updates)
+        assertEquals(succeeded.get(), row.version.get());
+        return succeeded.get();
+    }
+
+    /**
+     * Returns the Row Proxy with the Retry On Conflict Aspect
+     * @param row
+     * @param config
+     * @return
+     */
+    private VersionedRow proxy(VersionedRow row, ConflictRetryConfig config) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(row);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new RetryOnConflictAspect(config, new ConflictTracker(new SimpleMeterRegistry(), config)));
+        return factory.getProxy();
+    }
+
+    /**
+     * Returns the Retry Configuration (Defaults of db.conflict.retry.*)
+     * @param enabled
+     * @param maxAttempts
+     * @return
+     */
+    private ConflictRetryConfig config(boolean enabled, int maxAttempts) {
+        ConflictRetryConfig config = new ConflictRetryConfig();
+        ReflectionTestUtils.setField(config, "retryEnabled", enabled);
+        ReflectionTestUtils.setField(config, "maxAttempts", maxAttempts);
+        ReflectionTestUtils.setField(config, "backoffBase", 5L);
+        ReflectionTestUtils.setField(config, "backoffMax", 200L);
+        ReflectionTestUtils.setField(config, "budgetRatio", 0.2);
+        ReflectionTestUtils.setField(config, "budgetMin", 10);
+        ReflectionTestUtils.setField(config, "hotRowsTop", 10);
+        ReflectionTestUtils.setField(config, "hotRowsInterval", 30L);
+        return config;
+    }
+
+    /**
+     * Wait for the Start Gate
+     * @param gate
+     */
+    private static void awaitQuietly(CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
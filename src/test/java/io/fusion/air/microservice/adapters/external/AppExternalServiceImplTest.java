@@ -0,0 +1,109 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.external;
+// Custom
+import io.fusion.air.microservice.domain.models.order.PaymentDetails;
+import io.fusion.air.microservice.domain.models.order.PaymentStatus;
+import io.fusion.air.microservice.server.models.EchoData;
+import io.fusion.air.microservice.server.models.EchoResponseData;
+import io.fusion.air.microservice.utils.JsonMappers;
+// Spring
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+// Other
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+// Java
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+/**
+ * External Service Test (Binary Content for the Internal Services, JSON for the Payment Gateway)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class AppExternalServiceImplTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final String ECHO_URL = "http://localhost:9090/ms-cache/api/v1/service/echo";
+
+    private AppExternalServiceImpl externalService;
+
+    @BeforeEach
+    void setUp() {
+        externalService = new AppExternalServiceImpl("localhost", 9090);
+    }
+
+    @Test
+    void remoteEchoIsExchangedAsSmile() throws Exception {
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client("internalClient")).build();
+        server.expect(requestTo(ECHO_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, SMILE.toString()))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/cbor, application/json"))
+                .andExpect(request -> {
+                    byte[] body = ((MockClientHttpRequest) request).getBodyAsBytes();
+                    assertEquals("John Doe", JsonMappers.smile().readValue(body, EchoData.class).getWord());
+                })
+                .andRespond(withSuccess(JsonMappers.smile().writeValueAsBytes(new EchoResponseData("John Doe")), SMILE));
+
+        EchoResponseData response = externalService.remoteEcho(ECHO_URL, new EchoData("John Doe"));
+        assertEquals("John Doe", response.getWordData());
+        server.verify();
+    }
+
+    @Test
+    void remoteEchoGetAsksForSmileFirst() throws Exception {
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client("internalClient")).build();
+        server.expect(requestTo(ECHO_URL + "/Jane"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(request -> assertEquals(SMILE, request.getHeaders().getAccept().get(0)))
+                .andRespond(withSuccess(JsonMappers.smile().writeValueAsBytes(new EchoResponseData("Jane")), SMILE));
+
+        assertEquals("Jane", externalService.remoteEcho("Jane").getWordData());
+        server.verify();
+    }
+
+    @Test
+    void paymentGatewayStaysJson() throws Exception {
+        MockRestServiceServer server = MockRestServiceServer.bindTo(client("restClient")).build();
+        server.expect(requestTo("http://localhost:9090/ms-cache/api/v1/payments"))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE))
+                .andExpect(request -> request.getHeaders().getAccept().forEach(accept ->
+                        assertFalse(accept.getSubtype().contains("smile") || accept.getSubtype().contains("cbor"),
+                                accept.toString())))
+                .andExpect(jsonPath("$.transactionId").value("TX-1"))
+                .andRespond(withSuccess(JsonMappers.mapper().writeValueAsBytes(new PaymentStatus("TX-1",
+                        LocalDateTime.now(), "Accepted", "REF-1", LocalDateTime.now(), null)), MediaType.APPLICATION_JSON));
+
+        PaymentDetails payment = new PaymentDetails("TX-1", LocalDateTime.now(), 100.0, null);
+        assertEquals("TX-1", externalService.processPayments(payment).getTransactionId());
+        server.verify();
+    }
+
+    private RestClientService client(String name) {
+        return (RestClientService) ReflectionTestUtils.getField(externalService, name);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.filters;
+// Custom
+import io.fusion.air.microservice.server.config.ConcurrencyLimitConfig;
+// Spring
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency Limit Filter Test (Slot Release of the Sync and the Streaming Requests)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+        ReflectionTestUtils.setField(config, "limitEnabled", true);
+        ReflectionTestUtils.setField(config, "initialLimit", 2);
+        ReflectionTestUtils.setField(config, "minLimit", 2);
+        ReflectionTestUtils.setField(config, "maxLimit", 2);
+        ReflectionTestUtils.setField(config, "smoothing", 0.2);
+        ReflectionTestUtils.setField(config, "tolerance", 1.5);
+        ReflectionTestUtils.setField(config, "window", 100L);
+        ReflectionTestUtils.setField(config, "criticalPaths", new String[] {"/actuator"});
+        ReflectionTestUtils.setField(config, "highPaths", new String[] {"/processPayments"});
+        ReflectionTestUtils.setField(config, "highShare", 1.0);
+        // One Browse Request in Flight
+        ReflectionTestUtils.setField(config, "browseShare", 0.5);
+        ReflectionTestUtils.setField(config, "retryAfter", 1);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new ConcurrencyLimitFilter(config, null, meterRegistry);
+    }
+
+    @Test
+    void syncRequestReleasesTheSlotWhenTheHandlerReturns() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(handler(false)));
+        assertEquals(0, inFlight());
+        assertEquals(200, send(false).getStatus());
+    }
+
+    @Test
+    void streamingRequestHoldsTheSlotTillTheStreamCompletes() throws Exception {
+        MockHttpServletRequest stream = request();
+        filter.doFilter(stream, new MockHttpServletResponse(), new MockFilterChain(handler(true)));
+        assertTrue(stream.isAsyncStarted());
+        assertEquals(1, inFlight());
+
+        // The Browse Share (1 Request) is taken by the Stream
+        MockHttpServletResponse shed = send(false);
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+
+        ((MockAsyncContext) stream.getAsyncContext()).complete();
+        assertEquals(0, inFlight());
+        assertEquals(200, send(false).getStatus());
+    }
+
+    @Test
+    void slotIsReleasedOnceOnTimeoutAndComplete() throws Exception {
+        MockHttpServletRequest stream = request();
+        filter.doFilter(stream, new MockHttpServletResponse(), new MockFilterChain(handler(true)));
+        MockAsyncContext context = (MockAsyncContext) stream.getAsyncContext();
+        // Timeout is followed by the Complete, the Slot must not be released twice
+        context.getListeners().forEach(listener -> {
+            try {
+                listener.onTimeout(null);
+            } catch (Exception e) {
+                fail(e);
+            }
+        });
+        context.complete();
+        assertEquals(0, inFlight());
+    }
+
+    private MockHttpServletResponse send(boolean async) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, new MockFilterChain(handler(async)));
+        return response;
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/product/stream");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private static HttpServlet handler(boolean async) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                if(async) {
+                    req.startAsync();
+                }
+                resp.setStatus(200);
+            }
+        };
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("concurrency.in.flight").gauge().value();
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.filters;
+// Custom
+import io.fusion.air.microservice.adapters.security.jwt.ClaimsManager;
+import io.fusion.air.microservice.adapters.service.IdempotencyStore;
+import io.fusion.air.microservice.domain.models.core.IdempotentResponse;
+import io.fusion.air.microservice.server.config.IdempotencyConfig;
+// Spring
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+// Java
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Idempotency Filter Test (Which Responses are stored for the Key)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class IdempotencyFilterTest {
+
+    private IdempotencyStore idempotencyStore;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyConfig config = new IdempotencyConfig();
+        ReflectionTestUtils.setField(config, "idempotencyEnabled", true);
+        ReflectionTestUtils.setField(config, "header", "Idempotency-Key");
+        ReflectionTestUtils.setField(config, "paths", new String[] {"/order/save"});
+        ReflectionTestUtils.setField(config, "maxBody", 1024);
+        idempotencyStore = mock(IdempotencyStore.class);
+        when(idempotencyStore.claim(anyString(), anyString())).thenReturn(
+                new IdempotencyStore.Claim(IdempotencyStore.Decision.EXECUTE, null, new CompletableFuture<>()));
+        filter = new IdempotencyFilter(config, idempotencyStore, null, mock(ClaimsManager.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {200, 201, 204, 400, 403, 404, 422})
+    void deterministicResponsesAreStored(int status) throws Exception {
+        MockHttpServletResponse response = post(status);
+        assertEquals(status, response.getStatus());
+        verify(idempotencyStore).complete(anyString(), any(IdempotentResponse.class));
+        verify(idempotencyStore, never()).abandon(anyString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {302, 401, 408, 409, 425, 429, 500, 503})
+    void transientResponsesAbandonTheKey(int status) throws Exception {
+        MockHttpServletResponse response = post(status);
+        assertEquals(status, response.getStatus());
+        verify(idempotencyStore).abandon(anyString());
+        verify(idempotencyStore, never()).complete(anyString(), any());
+    }
+
+    private MockHttpServletResponse post(int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/order/save");
+        request.addHeader("Idempotency-Key", "key-1");
+        request.setContent("{}".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setStatus(status);
+                resp.getWriter().write("{\"status\":" + status + "}");
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.logging.sql;
+// Custom
+import io.fusion.air.microservice.adapters.repository.H2JpaTestConfig;
+import io.fusion.air.microservice.server.config.DatabaseConfig;
+// Spring
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+// Java
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Instrumented DataSource Test (Rows counted per Statement Shape)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class InstrumentedDataSourceTest {
+
+    private static final String SELECT = "SELECT id FROM item_tx WHERE id > ?";
+
+    private SqlStatsRecorder recorder;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DatabaseConfig dbConfig = new DatabaseConfig();
+        ReflectionTestUtils.setField(dbConfig, "sqlStatsEnabled", true);
+        ReflectionTestUtils.setField(dbConfig, "sqlStatsMaxShapes", 200);
+        ReflectionTestUtils.setField(dbConfig, "sqlSlowSize", 50);
+        ReflectionTestUtils.setField(dbConfig, "sqlSlowThreshold", 20L);
+        recorder = new SqlStatsRecorder(new SimpleMeterRegistry(), dbConfig);
+        dataSource = recorder.instrument(H2JpaTestConfig.dataSource());
+        try (Connection con = dataSource.getConnection(); Statement stmt = con.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE item_tx (id INT PRIMARY KEY)");
+            stmt.executeUpdate("INSERT INTO item_tx VALUES (1), (2), (3), (4), (5)");
+        }
+    }
+
+    @Test
+    void rowsOfExecuteQueryAreCounted() throws SQLException {
+        try (Connection con = dataSource.getConnection(); PreparedStatement ps = con.prepareStatement(SELECT)) {
+            ps.setInt(1, 2);
+            try (ResultSet rs = ps.executeQuery()) {
+                drain(rs);
+            }
+        }
+        assertEquals(3L, stats(SELECT).get("rows"));
+    }
+
+    @Test
+    void rowsOfExecuteAndGetResultSetAreCounted() throws SQLException {
+        try (Connection con = dataSource.getConnection(); PreparedStatement ps = con.prepareStatement(SELECT)) {
+            ps.setInt(1, 1);
+            assertTrue(ps.execute());
+            try (ResultSet rs = ps.getResultSet()) {
+                drain(rs);
+            }
+        }
+        Map<String, Object> stats = stats(SELECT);
+        assertEquals(1L, stats.get("count"));
+        assertEquals(4L, stats.get("rows"));
+    }
+
+    @Test
+    void rowsOfExecuteAndGetUpdateCountAreCountedOnce() throws SQLException {
+        String update = "UPDATE item_tx SET id = id + 10 WHERE id > ?";
+        try (Connection con = dataSource.getConnection(); PreparedStatement ps = con.prepareStatement(update)) {
+            ps.setInt(1, 3);
+            assertFalse(ps.execute());
+            assertEquals(2, ps.getUpdateCount());
+            assertEquals(2, ps.getUpdateCount());
+        }
+        assertEquals(2L, stats(update).get("rows"));
+        assertEquals(2L, stats(update).get("maxRows"));
+    }
+
+    @Test
+    void rowsOfExecuteUpdateAreCounted() throws SQLException {
+        String delete = "DELETE FROM item_tx WHERE id < ?";
+        try (Connection con = dataSource.getConnection(); PreparedStatement ps = con.prepareStatement(delete)) {
+            ps.setInt(1, 3);
+            assertEquals(2, ps.executeUpdate());
+        }
+        assertEquals(2L, stats(delete).get("rows"));
+    }
+
+    private Map<String, Object> stats(String sql) {
+        String shape = SqlNormalizer.normalize(sql);
+        return recorder.getShapeStats().stream()
+                .filter(s -> shape.equals(s.get("sql")))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No Stats for " + shape));
+    }
+
+    private static void drain(ResultSet rs) throws SQLException {
+        while (rs.next()) {
+            rs.getInt(1);
+        }
+    }
+}
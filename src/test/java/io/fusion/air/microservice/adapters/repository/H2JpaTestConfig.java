@@ -0,0 +1,86 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.repository;
+// Spring
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+// Other
+import jakarta.persistence.EntityManagerFactory;
+// Java
+import javax.sql.DataSource;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * H2 JPA Test Configuration
+ *
+ * In Memory H2 Database (one per Test Context) with Hibernate and the Spring Data Repositories of the Test,
+ * without the Spring Boot Auto Configuration. The Test Configuration enables the Repositories it needs
+ * (@EnableJpaRepositories) and builds the Beans with these Factory Methods.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class H2JpaTestConfig {
+
+    private H2JpaTestConfig() {
+    }
+
+    /**
+     * In Memory H2 Database
+     * @return
+     */
+    public static DataSource dataSource() {
+        DriverManagerDataSource ds = new DriverManagerDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl("jdbc:h2:mem:test-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        ds.setUsername("sa");
+        ds.setPassword("");
+        return ds;
+    }
+
+    /**
+     * Entity Manager Factory for the Entities of the Packages (Schema is created)
+     * @param ds
+     * @param packages
+     * @return
+     */
+    public static LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource ds, String... packages) {
+        LocalContainerEntityManagerFactoryBean emf = new LocalContainerEntityManagerFactoryBean();
+        emf.setDataSource(ds);
+        emf.setPackagesToScan(packages);
+        emf.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        Properties props = new Properties();
+        props.put("hibernate.hbm2ddl.auto", "create-drop");
+        props.put("hibernate.generate_statistics", "true");
+        props.put("hibernate.validator.apply_to_ddl", "false");
+        props.put("jakarta.persistence.validation.mode", "none");
+        emf.setJpaProperties(props);
+        return emf;
+    }
+
+    /**
+     * Transaction Manager
+     * @param emf
+     * @return
+     */
+    public static JpaTransactionManager transactionManager(EntityManagerFactory emf) {
+        return new JpaTransactionManager(emf);
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.CartRepository;
+import io.fusion.air.microservice.domain.entities.order.CartEntity;
+import io.fusion.air.microservice.domain.models.order.CartItem;
+import io.fusion.air.microservice.server.config.CartStoreConfig;
+import io.fusion.air.microservice.utils.JsonMappers;
+// Spring
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+// Java
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cart Write-Behind Store Test (Coalescing, Journal Replay and the Restart after a Commit)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class CartWriteBehindStoreTest {
+
+    private static final String CUSTOMER = "customer-1";
+
+    @TempDir
+    Path journalDir;
+
+    private CartRepository cartRepository;
+    private EntityManager entityManager;
+    private OutboxWriter outboxWriter;
+    private SimpleMeterRegistry meterRegistry;
+    private final List<CartWriteBehindStore> stores = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cartRepository = mock(CartRepository.class);
+        when(cartRepository.findExistingIds(anyCollection())).thenReturn(List.of());
+        entityManager = mock(EntityManager.class);
+        outboxWriter = mock(OutboxWriter.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(CartWriteBehindStore::stop);
+    }
+
+    @Test
+    void operationsWithinTheWindowAreCoalesced() {
+        CartWriteBehindStore store = start();
+        UUID removed = store.add(item("P-1")).getUuid();
+        store.delete(CUSTOMER, removed);
+        UUID added = store.add(item("P-2")).getUuid();
+        store.changeState(CUSTOMER, added, false);
+        store.changeState(CUSTOMER, added, true);
+        store.changeState(CUSTOMER, added, false);
+        UUID stored = UUID.randomUUID();
+        store.changeState(CUSTOMER, stored, false);
+        store.changeState(CUSTOMER, stored, true);
+
+        store.flush();
+
+        // Added and Removed within the Window: never written
+        List<CartEntity> persisted = persisted();
+        assertEquals(1, persisted.size());
+        assertEquals(added, persisted.get(0).getUuid());
+        assertFalse(persisted.get(0).isActive());
+        verify(outboxWriter, times(1)).append(eq(OutboxWriter.CART), eq(CUSTOMER),
+                eq(OutboxWriter.CART_ITEM_ADDED), any());
+        verify(cartRepository).findAllById(Set.of(stored));
+        verify(cartRepository, never()).deleteAllByIdInBatch(any());
+        assertEquals(4.0, meterRegistry.get("cart.write.behind.coalesced").counter().count());
+        // Insert of P-2, State of P-2 and State of the stored Item
+        assertEquals(3.0, meterRegistry.get("cart.write.behind.flushed").counter().count());
+    }
+
+    @Test
+    void journalIsReplayedAfterACrash() throws IOException {
+        CartWriteBehindStore crashed = start();
+        UUID first = crashed.add(item("P-1")).getUuid();
+        UUID second = crashed.add(item("P-2")).getUuid();
+        crashed.changeState(CUSTOMER, second, false);
+        crash(crashed);
+
+        CartWriteBehindStore store = start();
+        // Acknowledged Items are visible before the Flush with the Ids given on Add
+        List<CartEntity> cart = store.overlay(CUSTOMER, List.of(), c -> true);
+        assertEquals(List.of(first, second), cart.stream().map(CartEntity::getUuid).toList());
+        assertTrue(cart.get(0).isActive());
+        assertFalse(cart.get(1).isActive());
+
+        store.flush();
+        assertEquals(List.of(first, second), persisted().stream().map(CartEntity::getUuid).toList());
+        // Only the Active Segment is left
+        assertEquals(1, segments());
+    }
+
+    @Test
+    void itemsCommittedBeforeTheCrashAreSkipped() throws IOException {
+        CartWriteBehindStore crashed = start();
+        UUID committed = crashed.add(item("P-1")).getUuid();
+        UUID pending = crashed.add(item("P-2")).getUuid();
+        // Crash after the Commit, before the Segment was deleted
+        crash(crashed);
+        when(cartRepository.findExistingIds(anyCollection())).thenReturn(List.of(committed));
+
+        start().flush();
+
+        List<CartEntity> persisted = persisted();
+        assertEquals(1, persisted.size());
+        assertEquals(pending, persisted.get(0).getUuid());
+        verify(outboxWriter, times(1)).append(eq(OutboxWriter.CART), eq(CUSTOMER),
+                eq(OutboxWriter.CART_ITEM_ADDED), any());
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        CartWriteBehindStore store = start();
+        UUID itemId = store.add(item("P-1")).getUuid();
+        doThrow(new IllegalStateException("Database down")).doNothing().when(entityManager).persist(any());
+
+        store.flush();
+        assertEquals(1.0, meterRegistry.get("cart.write.behind.flush.failed").counter().count());
+        assertEquals(1, store.overlay(CUSTOMER, List.of(), c -> true).size());
+
+        store.flush();
+        List<CartEntity> persisted = persisted();
+        assertEquals(2, persisted.size());
+        assertEquals(itemId, persisted.get(1).getUuid());
+    }
+
+    private CartWriteBehindStore start() {
+        CartStoreConfig config = new CartStoreConfig();
+        ReflectionTestUtils.setField(config, "writeBehindEnabled", true);
+        // No Timer or Size Flush during the Test
+        ReflectionTestUtils.setField(config, "flushInterval", 600_000L);
+        ReflectionTestUtils.setField(config, "flushSize", 10_000);
+        ReflectionTestUtils.setField(config, "journalPath", journalDir.toString());
+        ReflectionTestUtils.setField(config, "journalSync", true);
+        PlatformTransactionManager txManager = mock(PlatformTransactionManager.class);
+        when(txManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CartWriteBehindStore store = new CartWriteBehindStore(config, cartRepository, txManager, entityManager,
+                JsonMappers.mapper(), meterRegistry, outboxWriter);
+        store.start();
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Stop the Store without the Flush (The Journal Segments are left as they are)
+     * @param store
+     * @throws IOException
+     */
+    private void crash(CartWriteBehindStore store) throws IOException {
+        ((ScheduledExecutorService) ReflectionTestUtils.getField(store, "scheduler")).shutdownNow();
+        ((FileChannel) ReflectionTestUtils.getField(store, "journal")).close();
+        stores.remove(store);
+    }
+
+    private List<CartEntity> persisted() {
+        ArgumentCaptor<CartEntity> captor = ArgumentCaptor.forClass(CartEntity.class);
+        verify(entityManager, atLeast(0)).persist(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private long segments() throws IOException {
+        try (Stream<Path> files = Files.list(journalDir)) {
+            return files.count();
+        }
+    }
+
+    private static CartItem item(String productId) {
+        return new CartItem(CUSTOMER, productId, "Product " + productId, new BigDecimal("10.00"), BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderArchiveRepository;
+import io.fusion.air.microservice.adapters.repository.OrderPagingRepository;
+import io.fusion.air.microservice.adapters.repository.OrderRepository;
+import io.fusion.air.microservice.adapters.repository.OrderStateHistoryRepository;
+import io.fusion.air.microservice.server.config.DatabaseConfig;
+import io.fusion.air.microservice.server.config.OrderArchiveConfig;
+import io.fusion.air.microservice.utils.UUIDv7;
+// Spring
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+// Other
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+// Java
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Archive Service Test (Id Bounds with Legacy UUID v4 Ids)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OrderArchiveServiceTest {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    private static final String V7_SINCE = "2025-01-01";
+    private static final long V7_SINCE_MILLIS = LocalDate.parse(V7_SINCE).atStartOfDay(ZoneOffset.UTC)
+            .toInstant().toEpochMilli();
+
+    private DatabaseConfig dbConfig;
+    private OrderPagingRepository orderPagingRepository;
+    private OrderArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        dbConfig = new DatabaseConfig();
+        ReflectionTestUtils.setField(dbConfig, "uuidVersion", 7);
+        OrderArchiveConfig archiveConfig = new OrderArchiveConfig();
+        ReflectionTestUtils.setField(archiveConfig, "archiveBatchSize", 100);
+        ReflectionTestUtils.setField(archiveConfig, "archiveAfterMonths", 6);
+        orderPagingRepository = mock(OrderPagingRepository.class);
+        when(orderPagingRepository.findByStatesBefore(anyCollection(), any(), any(), any())).thenReturn(List.of());
+
+        archiveService = new OrderArchiveService(archiveConfig, dbConfig, orderPagingRepository,
+                mock(OrderRepository.class), mock(OrderArchiveRepository.class), mock(OrderStateHistoryRepository.class),
+                mock(EntityManager.class), mock(PlatformTransactionManager.class), new ObjectMapper(),
+                mock(OutboxWriter.class), mock(ApplicationEventPublisher.class), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void idBoundsAreOpenUntilTheV7DateIsSet() {
+        long now = System.currentTimeMillis();
+        assertEquals(MIN_ID, archiveService.lowerBoundId(now));
+
+        ReflectionTestUtils.setField(dbConfig, "uuidV7Since", V7_SINCE);
+        assertEquals(UUIDv7.lowerBound(now), archiveService.lowerBoundId(now));
+        // Orders created before the v7 Date may have UUID v4 Ids
+        assertEquals(MIN_ID, archiveService.lowerBoundId(V7_SINCE_MILLIS - 1));
+
+        ReflectionTestUtils.setField(dbConfig, "uuidVersion", 4);
+        assertEquals(MIN_ID, archiveService.lowerBoundId(now));
+    }
+
+    @Test
+    void legacyOrdersAreArchivedByTheTimeOnly() {
+        archiveService.archive();
+        List<Object[]> calls = archiveQueries();
+        assertEquals(1, calls.size());
+        assertEquals(MAX_ID, calls.get(0)[0]);
+        assertEquals(cutoff(), ((Timestamp) calls.get(0)[1]).getTime());
+    }
+
+    @Test
+    void v7OrdersAreArchivedByTheIdBoundAfterTheLegacyOrders() {
+        ReflectionTestUtils.setField(dbConfig, "uuidV7Since", V7_SINCE);
+        archiveService.archive();
+        List<Object[]> calls = archiveQueries();
+        assertEquals(2, calls.size());
+        assertEquals(MAX_ID, calls.get(0)[0]);
+        assertEquals(V7_SINCE_MILLIS, ((Timestamp) calls.get(0)[1]).getTime());
+        assertEquals(UUIDv7.lowerBound(cutoff()), calls.get(1)[0]);
+        assertEquals(cutoff(), ((Timestamp) calls.get(1)[1]).getTime());
+    }
+
+    private List<Object[]> archiveQueries() {
+        ArgumentCaptor<UUID> ids = ArgumentCaptor.forClass(UUID.class);
+        ArgumentCaptor<Timestamp> times = ArgumentCaptor.forClass(Timestamp.class);
+        verify(orderPagingRepository, atLeastOnce()).findByStatesBefore(anyCollection(), ids.capture(), times.capture(),
+                any(Pageable.class));
+        return IntStream.range(0, ids.getAllValues().size())
+                .mapToObj(i -> new Object[] {ids.getAllValues().get(i), times.getAllValues().get(i)}).toList();
+    }
+
+    private static long cutoff() {
+        return LocalDate.now().minusMonths(6).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
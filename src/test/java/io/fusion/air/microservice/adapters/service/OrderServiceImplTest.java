@@ -0,0 +1,156 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.*;
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.entities.order.OrderStateHistoryEntity;
+import io.fusion.air.microservice.domain.models.order.OrderEventRequest;
+import io.fusion.air.microservice.domain.models.order.OrderEventResult;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStateMachine;
+import io.fusion.air.microservice.server.config.*;
+import io.fusion.air.microservice.server.setup.OrderStateMachineSetup;
+// Spring
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+// Java
+import java.util.List;
+import java.util.UUID;
+
+import static io.fusion.air.microservice.domain.models.order.OrderEventResult.*;
+import static io.fusion.air.microservice.domain.statemachine.order.OrderState.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Service Test (Bulk Order Events)
+ *
+ * The Repositories and the Outbox Writer are Mocks, the Order State Machine is the compiled Transition Table.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OrderServiceImplTest {
+
+    private static final String CUSTOMER = "C-100";
+    private static final int FIRST_LINE = 501;
+
+    private OrderPagingRepository orderPagingRepository;
+    private OrderStateHistoryRepository historyRepository;
+    private OutboxWriter outboxWriter;
+    private OrderServiceImpl orderService;
+    private OrderEntity order;
+
+    @BeforeEach
+    void setUp() {
+        orderPagingRepository = mock(OrderPagingRepository.class);
+        historyRepository = mock(OrderStateHistoryRepository.class);
+        outboxWriter = mock(OutboxWriter.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+
+        OrderForkConfig forkConfig = new OrderForkConfig();
+        ReflectionTestUtils.setField(forkConfig, "forkEnabled", false);
+        OrderStateMachine stateMachine = new OrderStateMachineSetup().orderStateMachine(forkConfig);
+        OrderEventStoreConfig eventStoreConfig = new OrderEventStoreConfig();
+        ReflectionTestUtils.setField(eventStoreConfig, "snapshotInterval", 10);
+        OrderBulkConfig bulkConfig = new OrderBulkConfig();
+        ReflectionTestUtils.setField(bulkConfig, "chunkSize", 500);
+        ReflectionTestUtils.setField(bulkConfig, "jdbcBatchSize", 100);
+
+        orderService = new OrderServiceImpl(orderPagingRepository, mock(OrderRepository.class), new SimpleMeterRegistry(),
+                outboxWriter, mock(OrderArchiveService.class), stateMachine, historyRepository, eventStoreConfig,
+                mock(OrderStageRepository.class), forkConfig, mock(ApplicationEventPublisher.class), bulkConfig,
+                entityManager, mock(OrderDeadlineRepository.class), mock(OrderTimeoutConfig.class));
+
+        order = OrderEntity.builder().addCustomerId(CUSTOMER).build();
+        ReflectionTestUtils.setField(order, "uuid", UUID.randomUUID());
+        when(orderPagingRepository.findByOrderIdsForUpdate(anyCollection())).thenReturn(List.of(order));
+        when(historyRepository.findTails(anyCollection())).thenReturn(List.of());
+    }
+
+    @Test
+    void everyLineGetsItsOwnResult() {
+        String orderId = order.getOrderId();
+        List<OrderEventRequest> requests = List.of(
+                new OrderEventRequest(CUSTOMER, orderId, "CREDIT_CHECKING_EVENT"),
+                new OrderEventRequest(CUSTOMER, "not-a-uuid", "CREDIT_APPROVED_EVENT"),
+                new OrderEventRequest(null, null, null),
+                new OrderEventRequest(CUSTOMER, UUID.randomUUID().toString(), "CREDIT_APPROVED_EVENT"),
+                new OrderEventRequest("C-999", orderId, "CREDIT_APPROVED_EVENT"),
+                new OrderEventRequest(CUSTOMER, orderId, "ORDER_SHIPPED_EVENT"),
+                new OrderEventRequest(CUSTOMER, orderId, "NO_SUCH_EVENT"),
+                new OrderEventRequest(CUSTOMER, orderId, "CREDIT_APPROVED_EVENT"));
+
+        List<OrderEventResult> results = orderService.handleEvents(requests, FIRST_LINE);
+
+        assertEquals(requests.size(), results.size());
+        for(int i = 0; i < results.size(); i++) {
+            assertEquals(FIRST_LINE + i, results.get(i).line());
+        }
+        assertResult(results.get(0), ACCEPTED, CREDIT_CHECKING);
+        assertResult(results.get(1), REJECTED, null);
+        assertResult(results.get(2), REJECTED, null);
+        assertResult(results.get(3), NOT_FOUND, null);
+        // Order of another Customer is not found
+        assertResult(results.get(4), NOT_FOUND, null);
+        // Rejected by the State Machine, the Order keeps its State
+        assertResult(results.get(5), REJECTED, CREDIT_CHECKING);
+        assertResult(results.get(6), REJECTED, null);
+        // The Rejected Lines don't affect the later Events of the Order
+        assertResult(results.get(7), ACCEPTED, CREDIT_APPROVED);
+        assertEquals(CREDIT_APPROVED, order.getOrderState());
+    }
+
+    @Test
+    void acceptedEventsAreAppendedOnceForTheChunk() {
+        String orderId = order.getOrderId();
+        orderService.handleEvents(List.of(
+                new OrderEventRequest(CUSTOMER, orderId, "CREDIT_CHECKING_EVENT"),
+                new OrderEventRequest(CUSTOMER, orderId, "ORDER_SHIPPED_EVENT"),
+                new OrderEventRequest(CUSTOMER, orderId, "CREDIT_APPROVED_EVENT")), 1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderStateHistoryEntity>> history = ArgumentCaptor.forClass(List.class);
+        verify(historyRepository).saveAll(history.capture());
+        assertEquals(List.of(1, 2), history.getValue().stream().map(OrderStateHistoryEntity::getOrderVersion).toList());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxWriter.Entry>> outbox = ArgumentCaptor.forClass(List.class);
+        verify(outboxWriter, times(1)).appendAll(outbox.capture());
+        assertEquals(2, outbox.getValue().size());
+        for(OutboxWriter.Entry entry : outbox.getValue()) {
+            assertEquals(OutboxWriter.ORDER_STATE_CHANGED, entry.eventType());
+            assertEquals(orderId, entry.aggregateId());
+        }
+        verify(outboxWriter, never()).append(any(), any(), any(), any());
+    }
+
+    private static void assertResult(OrderEventResult result, String status, Object state) {
+        assertEquals(status, result.status(), "Line "+result.line()+": "+result.message());
+        assertEquals(state, result.orderState(), "Line "+result.line());
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.H2JpaTestConfig;
+import io.fusion.air.microservice.adapters.repository.OutboxAggregateRepository;
+import io.fusion.air.microservice.adapters.repository.OutboxRepository;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+import io.fusion.air.microservice.utils.JsonMappers;
+// Spring
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+// Other
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+// Java
+import javax.sql.DataSource;
+
+/**
+ * Outbox Test Configuration (H2)
+ * Outbox Tables, Repositories and the Outbox Writer. The Relay is built by the Test (Sink of the Test).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(basePackageClasses = OutboxRepository.class, includeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = {OutboxRepository.class, OutboxAggregateRepository.class}))
+public class OutboxTestConfig {
+
+    public static final int RELAY_BATCH_SIZE = 100;
+
+    @Bean
+    DataSource dataSource() {
+        return H2JpaTestConfig.dataSource();
+    }
+
+    @Bean
+    LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource ds) {
+        return H2JpaTestConfig.entityManagerFactory(ds, "io.fusion.air.microservice.domain.entities.outbox");
+    }
+
+    @Bean
+    PlatformTransactionManager transactionManager(EntityManagerFactory emf) {
+        return H2JpaTestConfig.transactionManager(emf);
+    }
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    OutboxConfig outboxConfig() {
+        OutboxConfig config = new OutboxConfig();
+        ReflectionTestUtils.setField(config, "outboxEnabled", true);
+        ReflectionTestUtils.setField(config, "batchSize", RELAY_BATCH_SIZE);
+        ReflectionTestUtils.setField(config, "relayLease", 30_000L);
+        ReflectionTestUtils.setField(config, "memoryCapacity", 10_000);
+        return config;
+    }
+
+    @Bean
+    OutboxWriter outboxWriter(OutboxRepository outboxRepo, OutboxAggregateRepository aggregateRepo,
+                              OutboxConfig outboxConfig, MeterRegistry meterReg, ApplicationEventPublisher eventPublisher) {
+        return new OutboxWriter(outboxRepo, aggregateRepo, outboxConfig, JsonMappers.mapper(), meterReg, eventPublisher);
+    }
+}
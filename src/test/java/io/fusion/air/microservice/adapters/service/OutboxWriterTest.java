@@ -0,0 +1,163 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OutboxRepository;
+import io.fusion.air.microservice.domain.entities.outbox.OutboxEventEntity;
+// Spring
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+// Other
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox Writer Test (H2)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OutboxWriterTest {
+
+    private static final int AGGREGATES = 3;
+    private static final int EVENTS = 60;
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private AnnotationConfigApplicationContext context;
+    private OutboxWriter writer;
+    private OutboxRepository outboxRepository;
+    private TransactionTemplate txTemplate;
+    private EntityManager entityManager;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(OutboxTestConfig.class);
+        writer = context.getBean(OutboxWriter.class);
+        outboxRepository = context.getBean(OutboxRepository.class);
+        txTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void appendIsRejectedWithoutATransaction() {
+        assertThrows(RuntimeException.class, () -> writer.append("Order", "A", "OrderSaved", Map.of()));
+    }
+
+    @Test
+    void appendAllLocksEveryAggregateOnceAndBatchesTheInserts() {
+        List<OutboxWriter.Entry> entries = entries(0);
+        statistics.clear();
+        txTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(JDBC_BATCH_SIZE);
+            writer.appendAll(entries);
+        });
+        // One Lock Query per Aggregate, the Events in ceil(60 / 50) Batches (not a Lock + Insert per Event)
+        long prepared = statistics.getPrepareStatementCount();
+        assertTrue(prepared < 20, "Statements prepared for "+EVENTS+" Events: "+prepared);
+        assertVersions(EVENTS / AGGREGATES);
+
+        // The next Append continues the Versions of the Aggregates
+        txTemplate.executeWithoutResult(status -> writer.appendAll(entries(EVENTS)));
+        assertVersions(2 * EVENTS / AGGREGATES);
+    }
+
+    @Test
+    void concurrentFirstAppendsOfANewAggregateDontFail() throws Exception {
+        int writers = 8;
+        CountDownLatch startGate = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        List<Future<?>> appends = new ArrayList<>();
+        for(int w = 0; w < writers; w++) {
+            int seq = w;
+            appends.add(pool.submit(() -> {
+                startGate.await();
+                txTemplate.executeWithoutResult(status ->
+                        writer.append(OutboxWriter.CART, "new-cart", OutboxWriter.CART_ITEM_ADDED, Map.of("seq", seq)));
+                return null;
+            }));
+        }
+        startGate.countDown();
+        pool.shutdown();
+        // No Primary Key Violation on the Outbox Aggregate (the Business Transaction commits)
+        for(Future<?> append : appends) {
+            append.get(30, TimeUnit.SECONDS);
+        }
+        List<Long> versions = outboxRepository.findAll().stream()
+                .map(OutboxEventEntity::getAggregateVersion).sorted().toList();
+        assertEquals(java.util.stream.LongStream.rangeClosed(1, writers).boxed().toList(), versions);
+    }
+
+    /**
+     * Events interleaved over the Aggregates, the Payload is the Sequence No.
+     * @param offset
+     * @return
+     */
+    private List<OutboxWriter.Entry> entries(int offset) {
+        List<OutboxWriter.Entry> entries = new ArrayList<>(EVENTS);
+        for(int i = 0; i < EVENTS; i++) {
+            entries.add(new OutboxWriter.Entry(OutboxWriter.ORDER, "order-" + (i % AGGREGATES),
+                    OutboxWriter.ORDER_STATE_CHANGED, Map.of("seq", offset + i)));
+        }
+        return entries;
+    }
+
+    /**
+     * Every Aggregate has the Versions 1..N in the Append Order of its Events
+     * @param perAggregate
+     */
+    private void assertVersions(int perAggregate) {
+        List<OutboxEventEntity> events = outboxRepository.findAll();
+        assertEquals(perAggregate * AGGREGATES, events.size());
+        Map<String, List<OutboxEventEntity>> byAggregate = new TreeMap<>();
+        for(OutboxEventEntity event : events) {
+            byAggregate.computeIfAbsent(event.getAggregateId(), k -> new ArrayList<>()).add(event);
+        }
+        assertEquals(AGGREGATES, byAggregate.size());
+        for(List<OutboxEventEntity> aggregate : byAggregate.values()) {
+            aggregate.sort(Comparator.comparingLong(OutboxEventEntity::getAggregateVersion));
+            int lastSeq = -1;
+            for(int v = 0; v < aggregate.size(); v++) {
+                OutboxEventEntity event = aggregate.get(v);
+                assertEquals(v + 1, event.getAggregateVersion());
+                int seq = Integer.parseInt(event.getPayload().replaceAll("\\D", ""));
+                assertTrue(seq > lastSeq, "Version Order != Append Order at "+event.getAggregateVersion());
+                lastSeq = seq;
+            }
+        }
+    }
+}
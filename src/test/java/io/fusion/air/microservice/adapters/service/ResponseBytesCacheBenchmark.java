@@ -0,0 +1,170 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.server.config.HttpCacheConfig;
+import io.fusion.air.microservice.utils.JsonMappers;
+import io.fusion.air.microservice.utils.TestPayloads;
+// JMH
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Spring
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+// Other
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+// Java
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Public Product Listing Benchmark (JMH)
+ *
+ * Cost per Request of the Public Product List (/all/public) after the Query: the Response built, written
+ * by Jackson and Gzipped (Server Compression) on every Request, against the Bytes written from the
+ * Response Bytes Cache. Run with and without Accept-Encoding: gzip.
+ * Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.adapters.service.ResponseBytesCacheBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseBytesCacheBenchmark {
+
+    @Param({"10", "100"})
+    private int products;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private List<ProductEntity> productList;
+    private ObjectMapper objectMapper;
+    private ResponseBytesCache cache;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        productList = TestPayloads.products(products);
+        objectMapper = JsonMappers.mapper();
+        HttpCacheConfig cacheConfig = ResponseBytesCacheTest.cacheConfig(true, 256, 1024);
+        cache = new ResponseBytesCache(cacheConfig, new ResourceVersions(cacheConfig),
+                objectMapper, new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/ms-vanilla/api/v1/product/all/public");
+        if(gzip) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+    }
+
+    @Benchmark
+    public SinkResponse serializePerRequest() throws IOException {
+        SinkResponse response = new SinkResponse();
+        byte[] json = objectMapper.writeValueAsBytes(listing());
+        if(gzip && json.length >= 1024) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+                zip.write(json);
+            }
+            json = out.toByteArray();
+        }
+        response.getOutputStream().write(json);
+        return response;
+    }
+
+    @Benchmark
+    public SinkResponse responseBytesCache() {
+        SinkResponse response = new SinkResponse();
+        cache.write(ResourceVersions.PRODUCT, request, response, this::listing);
+        return response;
+    }
+
+    /**
+     * Response of the Public Product List
+     * @return
+     */
+    private StandardResponse listing() {
+        StandardResponse stdResponse = StandardResponse.OK();
+        stdResponse.setPayload(productList);
+        return stdResponse;
+    }
+
+    /**
+     * Response with an Output Stream counting the Bytes (The Mock Stream writes Byte by Byte)
+     */
+    public static class SinkResponse extends MockHttpServletResponse {
+        private long bytes;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    bytes++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    bytes += len;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    // Blocking Stream
+                }
+            };
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ResponseBytesCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.adapters.service;
+// Custom
+import io.fusion.air.microservice.domain.events.ResourceChangedEvent;
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.server.config.HttpCacheConfig;
+import io.fusion.air.microservice.utils.JsonMappers;
+import io.fusion.air.microservice.utils.TestPayloads;
+// Spring
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+// Java
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Response Bytes Cache Test (Invalidation on the ResourceChangedEvent, Gzip and Vary)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class ResponseBytesCacheTest {
+
+    private static final String URI = "/ms-vanilla/api/v1/product/all/public";
+
+    private HttpCacheConfig cacheConfig;
+    private ResourceVersions versions;
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseBytesCache cache;
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cacheConfig = cacheConfig(true, 256, 1024);
+        versions = new ResourceVersions(cacheConfig);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ResponseBytesCache(cacheConfig, versions, JsonMappers.mapper(), meterRegistry);
+        builds.set(0);
+    }
+
+    @Test
+    void hitServesTheCachedBytes() {
+        MockHttpServletResponse first = write(ResourceVersions.PRODUCT, request(null), products(20));
+        MockHttpServletResponse second = write(ResourceVersions.PRODUCT, request(null), products(20));
+        assertEquals(1, builds.get());
+        assertArrayEquals(first.getContentAsByteArray(), second.getContentAsByteArray());
+        assertEquals(1.0, meterRegistry.get("http.response.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("http.response.cache.entries").gauge().value());
+    }
+
+    @Test
+    void resourceChangedEventDropsTheEntries() {
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        write(ResourceVersions.COUNTRY, request(null), products(1));
+        change(ResourceVersions.PRODUCT);
+        assertEquals(1.0, meterRegistry.get("http.response.cache.entries").gauge().value());
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        write(ResourceVersions.COUNTRY, request(null), products(1));
+        // Product rebuilt, Country still cached
+        assertEquals(3, builds.get());
+    }
+
+    @Test
+    void entryWithAnOldVersionIsNeverServed() {
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        // Version moved without the Event reaching the Cache
+        versions.changed(ResourceVersions.PRODUCT, null);
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void gzipIsServedWhenAccepted() throws IOException {
+        MockHttpServletResponse plain = write(ResourceVersions.PRODUCT, request(null), products(20));
+        MockHttpServletResponse gzipped = write(ResourceVersions.PRODUCT, request("gzip, deflate, br"), products(20));
+        assertEquals(1, builds.get());
+
+        assertNull(plain.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, plain.getHeader(HttpHeaders.VARY));
+        assertEquals("gzip", gzipped.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, gzipped.getHeader(HttpHeaders.VARY));
+
+        byte[] zipped = gzipped.getContentAsByteArray();
+        assertEquals(zipped.length, gzipped.getContentLength());
+        assertTrue(zipped.length < plain.getContentAsByteArray().length);
+        assertArrayEquals(plain.getContentAsByteArray(), gunzip(zipped));
+    }
+
+    @Test
+    void smallResponseIsNotGzipped() {
+        MockHttpServletResponse response = write(ResourceVersions.COUNTRY, request("gzip"), products(0));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertTrue(response.getContentAsByteArray().length < 1024);
+    }
+
+    @Test
+    void routesAreCachedSeparately() {
+        MockHttpServletRequest page = request(null);
+        page.setQueryString("page=2");
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        write(ResourceVersions.PRODUCT, page, products(20));
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void disabledCacheBuildsEveryResponse() {
+        cache = new ResponseBytesCache(cacheConfig(false, 256, 1024), versions, JsonMappers.mapper(),
+                new SimpleMeterRegistry());
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        write(ResourceVersions.PRODUCT, request(null), products(20));
+        assertEquals(2, builds.get());
+    }
+
+    private MockHttpServletResponse write(String resource, MockHttpServletRequest request,
+                                          Supplier<StandardResponse> source) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        cache.write(resource, request, response, source);
+        assertEquals(200, response.getStatus());
+        return response;
+    }
+
+    private Supplier<StandardResponse> products(int count) {
+        return () -> {
+            builds.incrementAndGet();
+            StandardResponse stdResponse = StandardResponse.OK();
+            stdResponse.setPayload(TestPayloads.products(count));
+            return stdResponse;
+        };
+    }
+
+    private void change(String resource) {
+        ResourceChangedEvent event = new ResourceChangedEvent(resource, null);
+        versions.onResourceChanged(event);
+        cache.onResourceChanged(event);
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", URI);
+        if(acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+
+    static HttpCacheConfig cacheConfig(boolean enabled, int maxEntries, int gzipMinSize) {
+        HttpCacheConfig config = new HttpCacheConfig();
+        ReflectionTestUtils.setField(config, "etagEnabled", true);
+        ReflectionTestUtils.setField(config, "etagStripes", 64);
+        ReflectionTestUtils.setField(config, "etagMaxStaleness", 0L);
+        ReflectionTestUtils.setField(config, "responseCacheEnabled", enabled);
+        ReflectionTestUtils.setField(config, "responseCacheMaxEntries", maxEntries);
+        ReflectionTestUtils.setField(config, "responseCacheGzipMinSize", gzipMinSize);
+        return config;
+    }
+}
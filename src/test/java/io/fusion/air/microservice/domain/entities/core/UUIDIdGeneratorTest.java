@@ -0,0 +1,110 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.core;
+// Custom
+import io.fusion.air.microservice.adapters.repository.H2JpaTestConfig;
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+// Spring
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+// Other
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.junit.jupiter.api.Test;
+// Java
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * UUID Id Generator Test (Version from the Hibernate Setting, Assigned Ids are kept)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class UUIDIdGeneratorTest {
+
+    @Test
+    void version7IsTimeOrdered() {
+        UUIDIdGenerator generator = generator(7);
+        UUID first = (UUID) generator.generate(null, null, null, EventType.INSERT);
+        UUID second = (UUID) generator.generate(null, null, null, EventType.INSERT);
+        assertEquals(7, first.version());
+        assertEquals(2, first.variant());
+        assertTrue(first.compareTo(second) < 0);
+    }
+
+    @Test
+    void version4IsTheDefault() {
+        UUID id = (UUID) generator(UUIDIdGenerator.VERSION_RANDOM).generate(null, null, null, EventType.INSERT);
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    void assignedIdIsKept() {
+        UUID assigned = UUID.randomUUID();
+        assertSame(assigned, generator(7).generate(null, null, assigned, EventType.INSERT));
+        assertTrue(generator(7).allowAssignedIdentifiers());
+    }
+
+    @Test
+    void persistedEntitiesGetTheConfiguredVersion() {
+        for(int version : new int[] {UUIDIdGenerator.VERSION_RANDOM, UUIDIdGenerator.VERSION_TIME_ORDERED}) {
+            LocalContainerEntityManagerFactoryBean factory = H2JpaTestConfig.entityManagerFactory(
+                    H2JpaTestConfig.dataSource(), ProductEntity.class.getPackageName());
+            factory.getJpaPropertyMap().put(UUIDIdGenerator.UUID_VERSION, String.valueOf(version));
+            factory.afterPropertiesSet();
+            EntityManagerFactory emf = factory.getObject();
+            try {
+                EntityManager em = emf.createEntityManager();
+                em.getTransaction().begin();
+                ProductEntity product = new ProductEntity("iPhone", "iPhone 16", new BigDecimal("999.00"), "560001");
+                em.persist(product);
+                em.getTransaction().commit();
+                em.close();
+                assertEquals(version, product.getUuid().version());
+            } finally {
+                factory.destroy();
+            }
+        }
+    }
+
+    /**
+     * Generator created the way Hibernate does for @TimeOrderedId with the Setting fusion.air.uuid.version
+     * @param version
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    private static UUIDIdGenerator generator(int version) {
+        ConfigurationService cfgService = mock(ConfigurationService.class);
+        when(cfgService.getSetting(eq(UUIDIdGenerator.UUID_VERSION), any(ConfigurationService.Converter.class),
+                eq(UUIDIdGenerator.VERSION_RANDOM))).thenReturn(version);
+        ServiceRegistry registry = mock(ServiceRegistry.class);
+        when(registry.getService(ConfigurationService.class)).thenReturn(cfgService);
+        CustomIdGeneratorCreationContext context = mock(CustomIdGeneratorCreationContext.class);
+        when(context.getServiceRegistry()).thenReturn(registry);
+        return new UUIDIdGenerator(null, null, context);
+    }
+}
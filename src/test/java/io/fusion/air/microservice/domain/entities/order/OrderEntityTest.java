@@ -0,0 +1,141 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.domain.entities.order;
+// Custom
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderNotes;
+import io.fusion.air.microservice.domain.statemachine.order.OrderResult;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.utils.JsonMappers;
+// Other
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.fusion.air.microservice.domain.statemachine.order.OrderEvent.*;
+import static io.fusion.air.microservice.domain.statemachine.order.OrderState.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order Entity Test (Order Event Log, Snapshots and the Reset)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OrderEntityTest {
+
+    private static final int SNAPSHOT_INTERVAL = 3;
+
+    private static final OrderState[] FLOW = {
+            CREDIT_CHECKING, CREDIT_APPROVED, PAYMENT_PROCESSING, PAYMENT_CONFIRMED,
+            PACKING_FORK, READY_TO_SHIP_JOIN, SHIPPED, IN_TRANSIT
+    };
+
+    private static final OrderEvent[] EVENTS = {
+            CREDIT_CHECKING_EVENT, CREDIT_APPROVED_EVENT, PAYMENT_INIT_EVENT, PAYMENT_APPROVED_EVENT,
+            PACKAGE_FORK_EVENT, ORDER_READY_TO_SHIP_EVENT, ORDER_SHIPPED_EVENT, ORDER_IN_TRANSIT_EVENT
+    };
+
+    @Test
+    void snapshotIsTakenEveryIntervalAndTheLogRebuildsTheState() {
+        OrderEntity order = OrderEntity.builder().build();
+        order.replay(List.of());
+        List<OrderStateHistoryEntity> log = new ArrayList<>();
+        int snapshots = applyFlow(order, log);
+
+        // 8 Events -> Snapshots at the Order Version 3 and 6
+        assertEquals(FLOW.length, log.size());
+        assertEquals(2, snapshots);
+        assertEquals(6, order.getSnapshotVersion());
+
+        // Snapshot + Tail
+        order.replay(log);
+        assertEquals(IN_TRANSIT, order.getOrderState());
+        assertEquals(8, order.getEventVersion());
+
+        // Full Log without a Snapshot
+        OrderEntity rebuilt = OrderEntity.builder().build();
+        rebuilt.replay(log);
+        assertEquals(order.getOrderState(), rebuilt.getOrderState());
+        assertEquals(order.getResult(), rebuilt.getResult());
+        assertEquals(order.getEventVersion(), rebuilt.getEventVersion());
+    }
+
+    @Test
+    void resetIsAppendedAsACompensatingEvent() {
+        OrderEntity order = OrderEntity.builder().build();
+        order.replay(List.of());
+        List<OrderStateHistoryEntity> log = new ArrayList<>();
+        applyFlow(order, log);
+        for(OrderStateHistoryEntity event : log) {
+            order.addOrderStateHistory(event);
+        }
+
+        OrderStateHistoryEntity reset = order.resetOrderState();
+
+        // The Event Log is not cleared
+        assertEquals(FLOW.length, order.getOrderHistory().size());
+        assertEquals(List.of(reset), order.getPendingEvents());
+        assertEquals(ORDER_RESET_EVENT, reset.getTransitionEvent());
+        assertEquals(IN_TRANSIT, reset.getSourceState());
+        assertEquals(ORDER_INITIALIZED, reset.getTargetState());
+        assertEquals(OrderResult.IN_PROGRESS, reset.getResult());
+        // The Order Version keeps increasing
+        assertEquals(FLOW.length + 1, reset.getOrderVersion());
+        assertEquals(FLOW.length + 1, order.getSnapshotVersion());
+        assertEquals(ORDER_INITIALIZED, order.getOrderState());
+
+        // Full Log (incl. the Reset) without a Snapshot
+        log.add(reset);
+        OrderEntity rebuilt = OrderEntity.builder().build();
+        rebuilt.replay(log);
+        assertEquals(ORDER_INITIALIZED, rebuilt.getOrderState());
+        assertEquals(OrderResult.IN_PROGRESS, rebuilt.getResult());
+        assertEquals(FLOW.length + 1, rebuilt.getEventVersion());
+    }
+
+    @Test
+    void clientSuppliedHistoryIsIgnored() throws Exception {
+        String json = "{\"customerId\":\"C1\",\"orderHistory\":[{\"orderVersion\":1,"
+                + "\"targetState\":\"SHIPPED\"}]}";
+        OrderEntity order = JsonMappers.mapper().readValue(json, OrderEntity.class);
+        assertEquals("C1", order.getCustomerId());
+        assertTrue(order.getOrderHistory().isEmpty());
+    }
+
+    /**
+     * Apply the Order Flow, the Events are appended to the Log and the Snapshot is taken when it's due
+     * @param order
+     * @param log
+     * @return Number of Snapshots
+     */
+    private int applyFlow(OrderEntity order, List<OrderStateHistoryEntity> log) {
+        int snapshots = 0;
+        for(int i = 0; i < FLOW.length; i++) {
+            OrderState source = order.getOrderState();
+            OrderNotes notes = new OrderNotes(source.name(), FLOW[i].name(), EVENTS[i].name(), null, null);
+            log.add(order.transition(FLOW[i], EVENTS[i], notes));
+            order.clearPendingEvents();
+            if(order.isSnapshotDue(SNAPSHOT_INTERVAL)) {
+                order.snapshot();
+                snapshots++;
+            }
+        }
+        return snapshots;
+    }
+}
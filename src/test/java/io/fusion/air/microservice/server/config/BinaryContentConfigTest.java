@@ -0,0 +1,126 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.config;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+import io.fusion.air.microservice.utils.TestPayloads;
+// Spring
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Binary Content Config Test (Converter Order and the CBOR / Smile Round Trip)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class BinaryContentConfigTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    @Test
+    void binaryConvertersComeAfterJson() {
+        List<HttpMessageConverter<?>> converters = converters(true);
+        assertEquals(4, converters.size());
+        assertInstanceOf(StringHttpMessageConverter.class, converters.get(0));
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(1));
+        assertInstanceOf(MappingJackson2SmileHttpMessageConverter.class, converters.get(2));
+        assertInstanceOf(MappingJackson2CborHttpMessageConverter.class, converters.get(3));
+    }
+
+    @Test
+    void binaryConvertersAreRemovedWhenDisabled() {
+        List<HttpMessageConverter<?>> converters = converters(false);
+        assertEquals(2, converters.size());
+        assertTrue(converters.stream().noneMatch(c -> c instanceof MappingJackson2SmileHttpMessageConverter
+                || c instanceof MappingJackson2CborHttpMessageConverter));
+    }
+
+    @Test
+    void productListRoundTripsAsSmileAndCbor() throws Exception {
+        List<HttpMessageConverter<?>> converters = converters(true);
+        List<ProductEntity> products = TestPayloads.products(50);
+        StandardResponse response = (StandardResponse) StandardResponse.OK().setPayload(products);
+
+        byte[] json = write(converters.get(1), response, MediaType.APPLICATION_JSON);
+        for(MediaType type : List.of(SMILE, CBOR)) {
+            HttpMessageConverter<?> converter = converters.stream()
+                    .filter(c -> c.canWrite(StandardResponse.class, type)).findFirst().orElseThrow();
+            assertNotSame(converters.get(1), converter, type.toString());
+
+            byte[] body = write(converter, response, type);
+            assertTrue(body.length < json.length, type+" "+body.length+" >= JSON "+json.length);
+
+            StandardResponse read = read(converter, body, type);
+            assertTrue(read.getSuccess());
+            List<?> payload = (List<?>) read.getPayload();
+            assertEquals(products.size(), payload.size());
+            Map<?, ?> first = (Map<?, ?>) payload.get(0);
+            assertEquals(products.get(0).getProductName(), first.get("productName"));
+            assertEquals(products.get(0).getUuid().toString(), first.get("uuid"));
+        }
+    }
+
+    /**
+     * Default Converters of Spring MVC (Subset) extended by the Config
+     * @param enabled
+     * @return
+     */
+    private static List<HttpMessageConverter<?>> converters(boolean enabled) {
+        BinaryContentConfig config = new BinaryContentConfig();
+        ReflectionTestUtils.setField(config, "binaryContentEnabled", enabled);
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new StringHttpMessageConverter());
+        converters.add(new MappingJackson2HttpMessageConverter());
+        converters.add(new MappingJackson2CborHttpMessageConverter());
+        config.extendMessageConverters(converters);
+        return converters;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static byte[] write(HttpMessageConverter<?> converter, Object value, MediaType type) throws Exception {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        ((HttpMessageConverter<Object>) converter).write(value, type, out);
+        assertTrue(type.isCompatibleWith(out.getHeaders().getContentType()));
+        return out.getBodyAsBytes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static StandardResponse read(HttpMessageConverter<?> converter, byte[] body, MediaType type) throws Exception {
+        MockHttpInputMessage in = new MockHttpInputMessage(body);
+        in.getHeaders().setContentType(type);
+        assertTrue(converter.canRead(StandardResponse.class, type));
+        return ((HttpMessageConverter<StandardResponse>) converter).read(StandardResponse.class, in);
+    }
+}
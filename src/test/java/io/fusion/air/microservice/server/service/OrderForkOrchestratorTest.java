@@ -0,0 +1,231 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderStageRepository;
+import io.fusion.air.microservice.adapters.service.OrderMailboxDispatcher;
+import io.fusion.air.microservice.domain.entities.order.OrderStageEntity;
+import io.fusion.air.microservice.domain.ports.services.OrderService;
+import io.fusion.air.microservice.domain.ports.services.OrderStageHandler;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStage;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStageStatus;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+// Spring
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+// Java
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Fork Orchestrator Test (Stub Stage Handlers)
+ *
+ * The Stage Repository, the Order Service (Join) and the Mailbox are Mocks, the Branches run on the
+ * Thread Pools of the Orchestrator.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OrderForkOrchestratorTest {
+
+    private static final String CUSTOMER = "C-100";
+    private static final long BRANCH_TIMEOUT = 5_000;
+
+    private final UUID orderId = UUID.randomUUID();
+    private OrderStageRepository stageRepository;
+    private OrderService orderService;
+    private OrderForkOrchestrator orchestrator;
+
+    /**
+     * Stage Handler which records the Executions and the Concurrency of the Branches
+     */
+    static class StubHandler implements OrderStageHandler {
+        private final OrderStage stage;
+        private final Shared shared;
+        private final List<String> keys = new CopyOnWriteArrayList<>();
+        private volatile RuntimeException failure;
+
+        StubHandler(OrderStage stage, Shared shared) {
+            this.stage = stage;
+            this.shared = shared;
+        }
+
+        @Override
+        public OrderStage getStage() {
+            return stage;
+        }
+
+        @Override
+        public void execute(String customerId, UUID orderId, String idempotencyKey) throws InterruptedException {
+            keys.add(idempotencyKey);
+            shared.order.add(stage);
+            shared.max.accumulateAndGet(shared.running.incrementAndGet(), Math::max);
+            try {
+                if(failure != null) {
+                    throw failure;
+                }
+                // Give the other Branch the Time to start (if the Branches run in Parallel)
+                shared.started.countDown();
+                shared.started.await(300, TimeUnit.MILLISECONDS);
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                shared.cancelled.add(stage);
+                throw e;
+            } finally {
+                shared.running.decrementAndGet();
+            }
+        }
+    }
+
+    static class Shared {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(OrderStage.values().length);
+        private final List<OrderStage> order = new CopyOnWriteArrayList<>();
+        private final Set<OrderStage> cancelled = ConcurrentHashMap.newKeySet();
+    }
+
+    private final Shared shared = new Shared();
+    private final StubHandler packaging = new StubHandler(OrderStage.PACKAGING, shared);
+    private final StubHandler billing = new StubHandler(OrderStage.BILLING, shared);
+
+    @AfterEach
+    void tearDown() {
+        if(orchestrator != null) {
+            orchestrator.stop();
+        }
+    }
+
+    @Test
+    void parallelForkRunsTheBranchesTogetherAndJoins() {
+        List<OrderStageEntity> stages = stages();
+        start(true, stages);
+
+        assertTrue(orchestrator.dispatch(CUSTOMER, orderId));
+        verify(orderService, timeout(BRANCH_TIMEOUT)).joinFork(CUSTOMER, orderId, null);
+        assertEquals(2, shared.max.get());
+        assertTrue(stages.stream().allMatch(OrderStageEntity::isDone));
+        assertEquals(List.of(orderId + ":PACKAGING"), packaging.keys);
+        assertEquals(List.of(orderId + ":BILLING"), billing.keys);
+    }
+
+    @Test
+    void sequentialForkRunsOneBranchAfterTheOtherAndJoins() {
+        List<OrderStageEntity> stages = stages();
+        start(false, stages);
+
+        assertTrue(orchestrator.dispatch(CUSTOMER, orderId));
+        verify(orderService, timeout(BRANCH_TIMEOUT)).joinFork(CUSTOMER, orderId, null);
+        assertEquals(1, shared.max.get());
+        assertEquals(List.of(OrderStage.PACKAGING, OrderStage.BILLING), shared.order);
+        assertTrue(stages.stream().allMatch(OrderStageEntity::isDone));
+    }
+
+    @Test
+    void aFailedBranchCancelsTheOtherAndJoinsWithTheFailure() {
+        List<OrderStageEntity> stages = stages();
+        billing.failure = new IllegalStateException("Billing System down");
+        start(true, stages);
+
+        assertTrue(orchestrator.dispatch(CUSTOMER, orderId));
+        verify(orderService, timeout(BRANCH_TIMEOUT)).joinFork(CUSTOMER, orderId, "Billing System down");
+        OrderStageEntity billingStage = stages.get(1);
+        assertEquals(OrderStageStatus.FAILED, billingStage.getStatus());
+        assertEquals("Billing System down", billingStage.getError());
+    }
+
+    @Test
+    void resumeRunsOnlyTheBranchesNotDone() {
+        List<OrderStageEntity> stages = stages();
+        // Packaging was Done, Billing was claimed by an Instance which crashed (Running past the Timeout)
+        stages.get(0).start();
+        stages.get(0).done();
+        stages.get(1).start();
+        ReflectionTestUtils.setField(stages.get(1), "startedTime",
+                new Timestamp(System.currentTimeMillis() - BRANCH_TIMEOUT - 1_000));
+        start(true, stages);
+        when(stageRepository.findForkedOrderIds()).thenReturn(List.of(orderId));
+
+        orchestrator.resume();
+        verify(orderService, timeout(BRANCH_TIMEOUT)).joinFork(CUSTOMER, orderId, null);
+        assertTrue(packaging.keys.isEmpty());
+        // Re-executed with the same Idempotency Key
+        assertEquals(List.of(orderId + ":BILLING"), billing.keys);
+        assertEquals(2, stages.get(1).getAttempts());
+        assertTrue(stages.get(1).isDone());
+    }
+
+    @Test
+    void aBranchRunningOnAnotherInstanceIsNotClaimed() throws InterruptedException {
+        List<OrderStageEntity> stages = stages();
+        stages.get(1).start();
+        start(true, stages);
+        when(stageRepository.findForkedOrderIds()).thenReturn(List.of(orderId));
+
+        orchestrator.resume();
+        Thread.sleep(300);
+        verify(orderService, never()).joinFork(any(), any(), any());
+        assertTrue(packaging.keys.isEmpty() && billing.keys.isEmpty());
+        assertEquals(OrderStageStatus.PENDING, stages.get(0).getStatus());
+        assertEquals(1, stages.get(1).getAttempts());
+    }
+
+    private List<OrderStageEntity> stages() {
+        List<OrderStageEntity> stages = new ArrayList<>();
+        for(OrderStage stage : OrderStage.values()) {
+            stages.add(new OrderStageEntity(orderId, CUSTOMER, stage));
+        }
+        return stages;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void start(boolean parallel, List<OrderStageEntity> stages) {
+        OrderForkConfig forkConfig = new OrderForkConfig();
+        ReflectionTestUtils.setField(forkConfig, "forkEnabled", true);
+        ReflectionTestUtils.setField(forkConfig, "parallel", parallel);
+        ReflectionTestUtils.setField(forkConfig, "virtualThreads", false);
+        ReflectionTestUtils.setField(forkConfig, "threads", 2);
+        ReflectionTestUtils.setField(forkConfig, "branchTimeout", BRANCH_TIMEOUT);
+        // No Recovery Sweep during the Test
+        ReflectionTestUtils.setField(forkConfig, "sweepInterval", 600_000L);
+
+        stageRepository = mock(OrderStageRepository.class);
+        when(stageRepository.findByOrderId(orderId)).thenReturn(stages);
+        when(stageRepository.saveAllAndFlush(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        when(stageRepository.save(any(OrderStageEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        orderService = mock(OrderService.class);
+        when(orderService.joinFork(any(), any(), any())).thenReturn(Optional.empty());
+        OrderMailboxDispatcher mailbox = mock(OrderMailboxDispatcher.class);
+        when(mailbox.execute(any(UUID.class), any(Supplier.class)))
+                .thenAnswer(inv -> ((Supplier<Object>) inv.getArgument(1)).get());
+
+        orchestrator = new OrderForkOrchestrator(forkConfig, stageRepository, orderService, mailbox,
+                List.of(packaging, billing), mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+        orchestrator.start();
+    }
+}
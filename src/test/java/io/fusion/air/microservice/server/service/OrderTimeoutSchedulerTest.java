@@ -0,0 +1,132 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.repository.OrderDeadlineRepository;
+import io.fusion.air.microservice.adapters.service.OrderMailboxDispatcher;
+import io.fusion.air.microservice.domain.entities.order.OrderDeadlineEntity;
+import io.fusion.air.microservice.domain.events.OrderDeadlineEvent;
+import io.fusion.air.microservice.domain.ports.services.OrderService;
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.server.config.OrderTimeoutConfig;
+// Spring
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Timeout Scheduler Test (Catch Up Scan of the expired Deadlines)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OrderTimeoutSchedulerTest {
+
+    private OrderDeadlineRepository deadlineRepository;
+    private OrderTimeoutScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        OrderTimeoutConfig config = new OrderTimeoutConfig();
+        ReflectionTestUtils.setField(config, "timeoutEnabled", true);
+        // No Tick and no Scan during the Test
+        ReflectionTestUtils.setField(config, "tick", 600_000L);
+        ReflectionTestUtils.setField(config, "wheelSize", 64);
+        ReflectionTestUtils.setField(config, "recoveryPageSize", 2);
+        ReflectionTestUtils.setField(config, "scanInterval", 0L);
+        deadlineRepository = mock(OrderDeadlineRepository.class);
+        scheduler = new OrderTimeoutScheduler(config, deadlineRepository, mock(OrderService.class),
+                mock(OrderMailboxDispatcher.class), new SimpleMeterRegistry());
+        scheduler.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.stop();
+    }
+
+    @Test
+    void expiredDeadlinesAreScheduledAcrossPages() {
+        List<OrderDeadlineEntity> deadlines = deadlines(5);
+        stubPages(deadlines);
+        assertEquals(5, scheduler.catchUp());
+        assertEquals(5, scheduler.getPending());
+        // Key Set Paging: 3 Pages of 2
+        verify(deadlineRepository, times(3)).findExpired(anyLong(), any(UUID.class), any(Pageable.class));
+    }
+
+    @Test
+    void deadlinesWithATimerAreNotScheduledAgain() {
+        List<OrderDeadlineEntity> deadlines = deadlines(3);
+        OrderDeadlineEntity known = deadlines.get(1);
+        scheduler.onOrderDeadline(new OrderDeadlineEvent(known.getCustomerId(), known.getOrderId(),
+                known.getState(), known.getDeadline(), System.currentTimeMillis()));
+        stubPages(deadlines);
+        assertEquals(2, scheduler.catchUp());
+        assertEquals(3, scheduler.getPending());
+        // The next Scan finds all the Timers in the Wheel
+        stubPages(deadlines);
+        assertEquals(0, scheduler.catchUp());
+    }
+
+    @Test
+    void noScanWhenTheTimeoutsAreDisabled() {
+        OrderTimeoutConfig config = new OrderTimeoutConfig();
+        OrderTimeoutScheduler disabled = new OrderTimeoutScheduler(config, deadlineRepository,
+                mock(OrderService.class), mock(OrderMailboxDispatcher.class), new SimpleMeterRegistry());
+        disabled.start();
+        assertEquals(0, disabled.catchUp());
+        verifyNoInteractions(deadlineRepository);
+    }
+
+    private void stubPages(List<OrderDeadlineEntity> deadlines) {
+        when(deadlineRepository.findExpired(anyLong(), any(UUID.class), any(Pageable.class))).thenAnswer(call -> {
+            UUID after = call.getArgument(1);
+            int size = call.<Pageable>getArgument(2).getPageSize();
+            List<OrderDeadlineEntity> page = new ArrayList<>();
+            for(OrderDeadlineEntity d : deadlines) {
+                if(d.getOrderId().compareTo(after) > 0 && page.size() < size) {
+                    page.add(d);
+                }
+            }
+            return page;
+        });
+    }
+
+    private static List<OrderDeadlineEntity> deadlines(int count) {
+        long expired = System.currentTimeMillis() - 1_000;
+        List<OrderDeadlineEntity> deadlines = new ArrayList<>();
+        for(int i = 1; i <= count; i++) {
+            deadlines.add(new OrderDeadlineEntity(new UUID(0L, i), "customer-" + i,
+                    OrderState.PAYMENT_PROCESSING, OrderEvent.PAYMENT_DECLINED_EVENT, expired));
+        }
+        return deadlines;
+    }
+}
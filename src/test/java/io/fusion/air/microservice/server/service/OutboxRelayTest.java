@@ -0,0 +1,189 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.service;
+// Custom
+import io.fusion.air.microservice.adapters.messaging.InMemoryOutboxSink;
+import io.fusion.air.microservice.adapters.repository.OutboxAggregateRepository;
+import io.fusion.air.microservice.adapters.repository.OutboxRepository;
+import io.fusion.air.microservice.adapters.service.OutboxTestConfig;
+import io.fusion.air.microservice.adapters.service.OutboxWriter;
+import io.fusion.air.microservice.domain.entities.outbox.OutboxEventEntity;
+import io.fusion.air.microservice.domain.models.core.OutboxMessage;
+import io.fusion.air.microservice.server.config.OutboxConfig;
+// Spring
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+// Other
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Outbox Relay Test (H2 + In-Memory Sink)
+ *
+ * The In-Memory Sink is the Stand-in for Kafka, the Test Sink drops the Acknowledgements of selected
+ * Messages or fails the whole Batch.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OutboxRelayTest {
+
+    private static final String[] CARTS = {"cart-a", "cart-b", "cart-c"};
+    private static final int EVENTS_PER_CART = 4;
+
+    private AnnotationConfigApplicationContext context;
+    private OutboxWriter writer;
+    private OutboxRepository outboxRepository;
+    private TransactionTemplate txTemplate;
+    private TestSink sink;
+    private OutboxRelay relay;
+
+    /**
+     * In-Memory Sink which doesn't acknowledge the Messages matching the Predicate
+     */
+    static class TestSink extends InMemoryOutboxSink {
+        private Predicate<OutboxMessage> nack = message -> false;
+        private boolean failing;
+        private final List<List<OutboxMessage>> batches = new ArrayList<>();
+
+        TestSink(OutboxConfig config) {
+            super(config);
+        }
+
+        @Override
+        public Set<Long> publish(List<OutboxMessage> batch) {
+            batches.add(List.copyOf(batch));
+            if(failing) {
+                throw new IllegalStateException("Sink not available");
+            }
+            Set<Long> acked = new HashSet<>(super.publish(batch));
+            batch.stream().filter(nack).forEach(message -> acked.remove(message.id()));
+            return acked;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(OutboxTestConfig.class);
+        writer = context.getBean(OutboxWriter.class);
+        outboxRepository = context.getBean(OutboxRepository.class);
+        PlatformTransactionManager txManager = context.getBean(PlatformTransactionManager.class);
+        txTemplate = new TransactionTemplate(txManager);
+        OutboxConfig outboxConfig = context.getBean(OutboxConfig.class);
+        sink = new TestSink(outboxConfig);
+        relay = new OutboxRelay(outboxConfig, outboxRepository, context.getBean(OutboxAggregateRepository.class),
+                sink, txManager, context.getBean(MeterRegistry.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void eventsAreDeliveredInTheVersionOrderOfEachAggregate() {
+        appendInterleaved();
+        assertEquals(CARTS.length * EVENTS_PER_CART, relay.relay());
+
+        Map<String, List<Long>> delivered = new HashMap<>();
+        for(OutboxMessage message : sink.getMessages()) {
+            delivered.computeIfAbsent(message.aggregateId(), k -> new ArrayList<>()).add(message.aggregateVersion());
+        }
+        for(String cart : CARTS) {
+            assertEquals(List.of(1L, 2L, 3L, 4L), delivered.get(cart), cart);
+        }
+        assertEquals(0, pending().size());
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void onlyTheAcknowledgedPrefixOfAnAggregateIsMarkedPublished() {
+        appendInterleaved();
+        // Version 2 of cart-a is not acknowledged, Version 3 and 4 are (but must not overtake it)
+        sink.nack = message -> message.aggregateId().equals("cart-a") && message.aggregateVersion() == 2;
+        relay.relay();
+
+        Map<String, List<Long>> pending = pending();
+        assertEquals(Set.of("cart-a"), pending.keySet());
+        assertEquals(List.of(2L, 3L, 4L), pending.get("cart-a"));
+        for(OutboxEventEntity event : outboxRepository.findAll()) {
+            int expected = (event.getAggregateId().equals("cart-a") && event.getAggregateVersion() > 1) ? 1 : 0;
+            assertEquals(expected, event.getAttempts(), event.getAggregateId()+" v"+event.getAggregateVersion());
+        }
+
+        // Retry: cart-a is re-delivered from Version 2 in the Version Order
+        sink.nack = message -> false;
+        sink.batches.clear();
+        assertEquals(3, relay.relay());
+        assertEquals(List.of(2L, 3L, 4L), versions(sink.batches.get(0), "cart-a"));
+        assertTrue(pending().isEmpty());
+    }
+
+    @Test
+    void aFailedSinkIsRetriedByTheNextRelay() {
+        appendInterleaved();
+        sink.failing = true;
+        assertEquals(0, relay.relay());
+        assertEquals(CARTS.length * EVENTS_PER_CART, pending().values().stream().mapToInt(List::size).sum());
+        assertTrue(outboxRepository.findAll().stream().allMatch(event -> event.getAttempts() == 1));
+
+        sink.failing = false;
+        assertEquals(CARTS.length * EVENTS_PER_CART, relay.relay());
+        assertTrue(pending().isEmpty());
+        assertEquals(0, relay.getPending());
+    }
+
+    /**
+     * Append the Events of the Carts interleaved, one Transaction per Event
+     */
+    private void appendInterleaved() {
+        for(int i = 0; i < EVENTS_PER_CART; i++) {
+            for(String cart : CARTS) {
+                int seq = i;
+                txTemplate.executeWithoutResult(status ->
+                        writer.append(OutboxWriter.CART, cart, OutboxWriter.CART_ITEM_ADDED, Map.of("seq", seq)));
+            }
+        }
+    }
+
+    /**
+     * Pending (Unpublished) Versions per Aggregate
+     * @return
+     */
+    private Map<String, List<Long>> pending() {
+        Map<String, List<Long>> pending = new TreeMap<>();
+        outboxRepository.findAll().stream()
+                .filter(event -> !event.isPublished())
+                .sorted(Comparator.comparingLong(OutboxEventEntity::getAggregateVersion))
+                .forEach(event -> pending.computeIfAbsent(event.getAggregateId(), k -> new ArrayList<>())
+                        .add(event.getAggregateVersion()));
+        return pending;
+    }
+
+    private static List<Long> versions(List<OutboxMessage> batch, String aggregateId) {
+        return batch.stream().filter(message -> message.aggregateId().equals(aggregateId))
+                .map(OutboxMessage::aggregateVersion).toList();
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.setup;
+// Custom
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStateMachine;
+import io.fusion.air.microservice.domain.statemachine.order.OrderTransition;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+// Spring
+import org.springframework.test.util.ReflectionTestUtils;
+// JMH
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Java
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order State Machine Dispatch Benchmark (JMH)
+ *
+ * Finds the Transition of (State, Event) Pairs in the compiled Table against the Lookups it replaced:
+ * nested EnumMaps and a HashMap keyed by "State:Event" (allocates the Key per Lookup). The Pairs are a
+ * random Mix of the allowed and the rejected Events. Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.server.setup.OrderStateMachineBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderStateMachineBenchmark {
+
+    private static final int PAIRS = 1024;
+
+    private OrderStateMachine machine;
+    private Map<OrderState, Map<OrderEvent, OrderTransition>> enumMaps;
+    private Map<String, OrderTransition> stringKeys;
+    private OrderState[] states;
+    private OrderEvent[] events;
+
+    @Setup
+    public void setUp() {
+        OrderForkConfig forkConfig = new OrderForkConfig();
+        ReflectionTestUtils.setField(forkConfig, "forkEnabled", true);
+        machine = new OrderStateMachineSetup().orderStateMachine(forkConfig);
+
+        enumMaps = new EnumMap<>(OrderState.class);
+        stringKeys = new HashMap<>();
+        for(OrderState state : OrderState.values()) {
+            Map<OrderEvent, OrderTransition> byEvent = new EnumMap<>(OrderEvent.class);
+            for(OrderEvent event : OrderEvent.values()) {
+                OrderTransition transition = machine.getTransition(state, event);
+                if(transition != null) {
+                    byEvent.put(event, transition);
+                    stringKeys.put(state + ":" + event, transition);
+                }
+            }
+            enumMaps.put(state, byEvent);
+        }
+
+        Random random = new Random(42);
+        states = new OrderState[PAIRS];
+        events = new OrderEvent[PAIRS];
+        for(int i = 0; i < PAIRS; i++) {
+            states[i] = OrderState.values()[random.nextInt(OrderState.values().length)];
+            events[i] = OrderEvent.values()[random.nextInt(OrderEvent.values().length)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int compiledTable() {
+        int allowed = 0;
+        for(int i = 0; i < PAIRS; i++) {
+            if(machine.getTransition(states[i], events[i]) != null) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int nestedEnumMaps() {
+        int allowed = 0;
+        for(int i = 0; i < PAIRS; i++) {
+            if(enumMaps.get(states[i]).get(events[i]) != null) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int stringKeyedMap() {
+        int allowed = 0;
+        for(int i = 0; i < PAIRS; i++) {
+            if(stringKeys.get(states[i] + ":" + events[i]) != null) {
+                allowed++;
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OrderStateMachineBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
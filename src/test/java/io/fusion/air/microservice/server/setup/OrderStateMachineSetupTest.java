@@ -0,0 +1,192 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.server.setup;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.statemachine.order.OrderEvent;
+import io.fusion.air.microservice.domain.statemachine.order.OrderState;
+import io.fusion.air.microservice.domain.statemachine.order.OrderStateMachine;
+import io.fusion.air.microservice.domain.statemachine.order.OrderTransition;
+import io.fusion.air.microservice.server.config.OrderForkConfig;
+// Spring
+import org.springframework.test.util.ReflectionTestUtils;
+// Other
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.*;
+
+import static io.fusion.air.microservice.domain.statemachine.order.OrderEvent.*;
+import static io.fusion.air.microservice.domain.statemachine.order.OrderState.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Order State Machine Setup Test
+ *
+ * Checks every (State x Event) Cell of the Compiled Transition Table against the Expected Order Flow,
+ * the Fork Guards and the Reachability of the States from ORDER_INITIALIZED.
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class OrderStateMachineSetupTest {
+
+    // States kept for the Compatibility, not part of the Order Flow
+    private static final Set<OrderState> NOT_IN_FLOW = EnumSet.of(ORDER_RECEIVED, IN_PROGRESS, SUSPENDED, CREDIT_CHOICE,
+            JOIN_SHIPMENT);
+
+    private static final Set<OrderState> CANCELLABLE = EnumSet.of(
+            ORDER_INITIALIZED, CREDIT_CHECKING, CREDIT_APPROVED,
+            PAYMENT_PROCESSING, PAYMENT_CONFIRMED, PAYMENT_DECLINED,
+            PACKING_FORK, ORDER_PACKAGING_START, ORDER_PACKAGING_DONE,
+            SEND_BILL_START, SEND_BILL_DONE, READY_TO_SHIP_JOIN, ERROR);
+
+    private static final Set<OrderState> IN_PROGRESS_STATES = EnumSet.of(
+            ORDER_INITIALIZED, CREDIT_CHECKING, CREDIT_APPROVED,
+            PAYMENT_PROCESSING, PAYMENT_CONFIRMED, PAYMENT_DECLINED,
+            PACKING_FORK, ORDER_PACKAGING_START, ORDER_PACKAGING_DONE,
+            SEND_BILL_START, SEND_BILL_DONE, READY_TO_SHIP_JOIN,
+            SHIPPED, IN_TRANSIT, REACHED_DESTINATION);
+
+    @Test
+    void transitionTableMatchesTheOrderFlow() {
+        OrderStateMachine machine = stateMachine(true);
+        Map<String, OrderState> expected = expectedTransitions();
+        for(OrderState state : OrderState.values()) {
+            for(OrderEvent event : OrderEvent.values()) {
+                OrderTransition transition = machine.getTransition(state, event);
+                OrderState target = expected.get(cell(state, event));
+                assertEquals(target, transition == null ? null : transition.getTarget(),
+                        "Transition "+state+" -- "+event);
+            }
+        }
+        assertEquals(expected.size(), machine.getTransitionCount());
+    }
+
+    @Test
+    void sequentialStagesAreRejectedWhileTheForkIsOpen() {
+        OrderEntity order = OrderEntity.builder().build();
+        OrderStateMachine forkEnabled = stateMachine(true);
+        assertFalse(forkEnabled.getTransition(PACKING_FORK, PACKAGE_INIT_EVENT).isAllowed(order));
+        assertTrue(forkEnabled.getTransition(PACKING_FORK, ORDER_READY_TO_SHIP_EVENT).isAllowed(order));
+
+        OrderStateMachine forkDisabled = stateMachine(false);
+        assertTrue(forkDisabled.getTransition(PACKING_FORK, PACKAGE_INIT_EVENT).isAllowed(order));
+        assertFalse(forkDisabled.getTransition(PACKING_FORK, ORDER_READY_TO_SHIP_EVENT).isAllowed(order));
+    }
+
+    @Test
+    void paymentAndShippingAreGuarded() {
+        OrderEntity order = OrderEntity.builder().build();
+        OrderStateMachine machine = stateMachine(true);
+        // No Order Items (Value) and no Shipping Address
+        assertFalse(machine.getTransition(CREDIT_APPROVED, PAYMENT_INIT_EVENT).isAllowed(order));
+        assertFalse(machine.getTransition(PAYMENT_DECLINED, PAYMENT_INIT_EVENT).isAllowed(order));
+        assertFalse(machine.getTransition(READY_TO_SHIP_JOIN, ORDER_SHIPPED_EVENT).isAllowed(order));
+    }
+
+    @Test
+    void everyStateOfTheFlowIsReachable() {
+        for(boolean forkEnabled : new boolean[] {true, false}) {
+            OrderStateMachine machine = stateMachine(forkEnabled);
+            OrderEntity order = OrderEntity.builder().build();
+            Set<OrderState> reached = EnumSet.of(ORDER_INITIALIZED);
+            Deque<OrderState> queue = new ArrayDeque<>(reached);
+            while(!queue.isEmpty()) {
+                OrderState state = queue.poll();
+                for(OrderEvent event : OrderEvent.values()) {
+                    OrderTransition transition = machine.getTransition(state, event);
+                    if(isFollowed(transition, order) && reached.add(transition.getTarget())) {
+                        queue.add(transition.getTarget());
+                    }
+                }
+            }
+            Set<OrderState> flow = EnumSet.complementOf(EnumSet.copyOf(NOT_IN_FLOW));
+            if(forkEnabled) {
+                flow.removeAll(EnumSet.of(ORDER_PACKAGING_START, ORDER_PACKAGING_DONE, SEND_BILL_START, SEND_BILL_DONE));
+            }
+            assertEquals(flow, reached, "Fork Enabled = "+forkEnabled);
+        }
+    }
+
+    /**
+     * Returns True if the Transition can be followed. The Fork Guards are evaluated, the Order Value and
+     * the Shipping Address Guards depend on the Order Data and are assumed to pass.
+     * @param transition
+     * @param order
+     * @return
+     */
+    private boolean isFollowed(OrderTransition transition, OrderEntity order) {
+        if(transition == null) {
+            return false;
+        }
+        String guard = transition.getGuardName();
+        boolean forkGuard = "Fork Enabled".equals(guard) || "Fork Disabled".equals(guard);
+        return !forkGuard || transition.isAllowed(order);
+    }
+
+    /**
+     * Expected Transitions (State:Event -> Target)
+     * @return
+     */
+    private Map<String, OrderState> expectedTransitions() {
+        Map<String, OrderState> t = new HashMap<>();
+        t.put(cell(ORDER_INITIALIZED, CREDIT_CHECKING_EVENT), CREDIT_CHECKING);
+        t.put(cell(CREDIT_CHECKING, CREDIT_APPROVED_EVENT), CREDIT_APPROVED);
+        t.put(cell(CREDIT_CHECKING, CREDIT_DECLINED_EVENT), CREDIT_DENIED);
+        t.put(cell(CREDIT_APPROVED, PAYMENT_INIT_EVENT), PAYMENT_PROCESSING);
+        t.put(cell(PAYMENT_PROCESSING, PAYMENT_APPROVED_EVENT), PAYMENT_CONFIRMED);
+        t.put(cell(PAYMENT_PROCESSING, PAYMENT_DECLINED_EVENT), PAYMENT_DECLINED);
+        t.put(cell(PAYMENT_DECLINED, PAYMENT_INIT_EVENT), PAYMENT_PROCESSING);
+        t.put(cell(PAYMENT_CONFIRMED, PACKAGE_FORK_EVENT), PACKING_FORK);
+        t.put(cell(PACKING_FORK, PACKAGE_INIT_EVENT), ORDER_PACKAGING_START);
+        t.put(cell(ORDER_PACKAGING_START, PACKAGE_EVENT), ORDER_PACKAGING_START);
+        t.put(cell(ORDER_PACKAGING_START, AUTO_TRANSITION_EVENT), ORDER_PACKAGING_DONE);
+        t.put(cell(ORDER_PACKAGING_DONE, ORDER_SEND_BILL_EVENT), SEND_BILL_START);
+        t.put(cell(SEND_BILL_START, AUTO_TRANSITION_EVENT), SEND_BILL_DONE);
+        t.put(cell(SEND_BILL_DONE, ORDER_READY_TO_SHIP_EVENT), READY_TO_SHIP_JOIN);
+        t.put(cell(PACKING_FORK, ORDER_READY_TO_SHIP_EVENT), READY_TO_SHIP_JOIN);
+        t.put(cell(READY_TO_SHIP_JOIN, ORDER_SHIPPED_EVENT), SHIPPED);
+        t.put(cell(SHIPPED, ORDER_IN_TRANSIT_EVENT), IN_TRANSIT);
+        t.put(cell(IN_TRANSIT, SEND_FOR_DELIVERY_EVENT), REACHED_DESTINATION);
+        t.put(cell(REACHED_DESTINATION, ORDER_DELIVERED_EVENT), DELIVERED);
+        t.put(cell(DELIVERED, ORDER_RETURNED_EVENT), RETURNED);
+        t.put(cell(DELIVERED, ORDER_COMPLETED_EVENT), ORDER_COMPLETED);
+        t.put(cell(RETURNED, ORDER_COMPLETED_EVENT), ORDER_COMPLETED);
+        for(OrderState state : CANCELLABLE) {
+            t.put(cell(state, ORDER_CANCELLED_EVENT), CANCELLED);
+        }
+        for(OrderState state : IN_PROGRESS_STATES) {
+            t.put(cell(state, FAILURE_EVENT), ERROR);
+        }
+        return t;
+    }
+
+    /**
+     * Returns the State Machine with the Fork Enabled / Disabled
+     * @param forkEnabled
+     * @return
+     */
+    private OrderStateMachine stateMachine(boolean forkEnabled) {
+        OrderForkConfig forkConfig = new OrderForkConfig();
+        ReflectionTestUtils.setField(forkConfig, "forkEnabled", forkEnabled);
+        return new OrderStateMachineSetup().orderStateMachine(forkConfig);
+    }
+
+    private static String cell(OrderState state, OrderEvent event) {
+        return state + ":" + event;
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Custom
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+// JMH
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Other
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+// Java
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binary Formats Benchmark (JMH)
+ *
+ * Encode / Decode of the StandardResponse with a Product List (100 Products) and an Order List (20 Orders
+ * with 5 Items) as JSON, Smile and CBOR (the Shared Mappers of the Message Converters). The Payload Sizes
+ * are printed before the Run. Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.utils.BinaryFormatsBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryFormatsBenchmark {
+
+    private static final String[] FORMATS = {"json", "smile", "cbor"};
+    private static final String[] PAYLOADS = {"products", "orders"};
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"products", "orders"})
+    private String payload;
+
+    private StandardResponse value;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper mapper = mapper(format);
+        value = response(payload);
+        writer = mapper.writerFor(StandardResponse.class);
+        reader = mapper.readerFor(StandardResponse.class);
+        encoded = writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public byte[] encode() throws JsonProcessingException {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public StandardResponse decode() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        return switch (format) {
+            case "smile" -> JsonMappers.smile();
+            case "cbor" -> JsonMappers.cbor();
+            default -> JsonMappers.mapper();
+        };
+    }
+
+    private static StandardResponse response(String payload) {
+        return (StandardResponse) StandardResponse.OK().setPayload("orders".equals(payload)
+                ? TestPayloads.orders(20, 5) : TestPayloads.products(100));
+    }
+
+    /**
+     * Print the Payload Sizes (Bytes) per Format
+     * @throws JsonProcessingException
+     */
+    public static void printPayloadSizes() throws JsonProcessingException {
+        for(String payload : PAYLOADS) {
+            StandardResponse value = response(payload);
+            StringBuilder sizes = new StringBuilder(payload);
+            for(String format : FORMATS) {
+                sizes.append(" | ").append(format).append(" = ")
+                        .append(mapper(format).writeValueAsBytes(value).length).append(" Bytes");
+            }
+            Std.println(sizes.toString());
+        }
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        printPayloadSizes();
+        Options options = new OptionsBuilder()
+                .include(BinaryFormatsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
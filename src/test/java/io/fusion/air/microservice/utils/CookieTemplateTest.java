@@ -0,0 +1,57 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Other
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cookie Template Test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class CookieTemplateTest {
+
+    @Test
+    void headerMatchesResponseCookie() {
+        CookieTemplate template = new CookieTemplate("JSESSIONID", 3000);
+        String expected = Utils.createSecureCookie("/api/v1/", "JSESSIONID", "abc-123", 3000);
+        String actual = template.header("/api/v1/", "abc-123");
+        // Expires may roll over to the next Second between the two Calls
+        if(!expected.equals(actual)) {
+            expected = Utils.createSecureCookie("/api/v1/", "JSESSIONID", "abc-123", 3000);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void zeroAgeExpiresAtEpoch() {
+        CookieTemplate template = new CookieTemplate("CNT-RID", 0);
+        assertEquals(Utils.createSecureCookie("/", "CNT-RID", "x", 0), template.header(null, "x"));
+    }
+
+    @Test
+    void rejectsHeaderInjection() {
+        CookieTemplate template = new CookieTemplate("CNT-RID", 300);
+        assertThrows(IllegalArgumentException.class, () -> template.header("/", "a\r\nSet-Cookie: x=y"));
+        assertThrows(IllegalArgumentException.class, () -> template.header("/", "a;b"));
+        assertThrows(IllegalArgumentException.class, () -> template.header("/a;Domain=x", "a"));
+        assertThrows(IllegalArgumentException.class, () -> template.header("/", ""));
+    }
+}
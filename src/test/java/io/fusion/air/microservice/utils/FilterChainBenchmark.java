@@ -0,0 +1,115 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// JMH
+import org.openjdk.jmh.annotations.*;
+// Not the io.fusion.air.microservice.utils.Threads of the same Package
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Spring
+import org.springframework.http.HttpHeaders;
+// Other
+import org.slf4j.MDC;
+// Java
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter Chain Benchmark (JMH)
+ *
+ * The Per Request Work of ServiceRequestFilter (ReqId), SecurityFilter (JSESSIONID Cookie) and
+ * CountryFilter (CNT-RID Cookie) with 8 Threads, before and after the Request Ids and the Cookie Templates.
+ *
+ * oldChain - UUID.randomUUID() twice (shared SecureRandom) and Utils.createSecureCookieHeaders() twice.
+ * newChain - RequestIds.requestId(), RequestIds.sessionId() and the CookieTemplates.
+ *
+ * RequestIds.sessionId() still draws from one shared SecureRandom (JSESSIONID must not be guessable), so
+ * newChain keeps one of the two contended calls. requestIdOnly / sessionIdOnly split the Cost.
+ * Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.utils.FilterChainBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class FilterChainBenchmark {
+
+    private static final String PATH = "/ms-vanilla/api/v1/product/";
+    private static final CookieTemplate SESSION_COOKIE = new CookieTemplate("JSESSIONID", 3000);
+    private static final CookieTemplate REQUEST_COOKIE = new CookieTemplate("CNT-RID", 300);
+
+    /**
+     * MDC is Thread Local, set the URI once per Benchmark Thread (as the ServiceRequestFilter does)
+     */
+    @State(Scope.Thread)
+    public static class Request {
+        @Setup
+        public void setup() {
+            MDC.put("URI", PATH);
+        }
+    }
+
+    @Benchmark
+    public void oldChain(Request request, Blackhole blackhole) {
+        String reqId = UUID.randomUUID().toString();
+        HttpHeaders session = Utils.createSecureCookieHeaders("JSESSIONID", UUID.randomUUID().toString(), 3000);
+        HttpHeaders country = Utils.createSecureCookieHeaders("CNT-RID", reqId, 300);
+        blackhole.consume(session.getFirst(HttpHeaders.SET_COOKIE));
+        blackhole.consume(country.getFirst(HttpHeaders.SET_COOKIE));
+    }
+
+    @Benchmark
+    public void newChain(Request request, Blackhole blackhole) {
+        String reqId = RequestIds.requestId().toString();
+        blackhole.consume(SESSION_COOKIE.header(PATH, RequestIds.sessionId().toString()));
+        blackhole.consume(REQUEST_COOKIE.header(PATH, reqId));
+    }
+
+    @Benchmark
+    public void requestIdOnly(Request request, Blackhole blackhole) {
+        String reqId = RequestIds.requestId().toString();
+        blackhole.consume(REQUEST_COOKIE.header(PATH, reqId));
+    }
+
+    @Benchmark
+    public void sessionIdOnly(Request request, Blackhole blackhole) {
+        blackhole.consume(SESSION_COOKIE.header(PATH, RequestIds.sessionId().toString()));
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(FilterChainBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Custom
+import io.fusion.air.microservice.domain.models.core.StandardResponse;
+// JMH
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Other
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+// Java
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON Mapper Benchmark (JMH)
+ *
+ * Cost per Call of the JSON Write / Read with a new ObjectMapper per Call (findAndRegisterModules, the
+ * Code replaced) against the Cached Writers / Readers of the Shared Mapper (JsonMappers) for the
+ * StandardResponse (10 Products as the Payload), the ProductEntity and the OrderEntity (10 Items).
+ * Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.utils.JsonMappersBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonMappersBenchmark {
+
+    @Param({"StandardResponse", "ProductEntity", "OrderEntity"})
+    private String type;
+
+    private Object value;
+    private Class<?> valueType;
+    private String json;
+
+    @Setup
+    public void setUp() {
+        switch (type) {
+            case "StandardResponse" -> value = StandardResponse.OK().setPayload(TestPayloads.products(10));
+            case "ProductEntity" -> value = TestPayloads.products(1).get(0);
+            case "OrderEntity" -> value = TestPayloads.order(10);
+            default -> throw new IllegalArgumentException("Unknown Type "+type);
+        }
+        valueType = value.getClass();
+        json = Utils.toJsonString(value);
+        if(json.isEmpty()) {
+            throw new IllegalStateException("Unable to write the "+type);
+        }
+    }
+
+    @Benchmark
+    public String writePerCallMapper() throws Exception {
+        return perCallMapper().writeValueAsString(value);
+    }
+
+    @Benchmark
+    public String writeSharedWriter() throws Exception {
+        return JsonMappers.writer(valueType).writeValueAsString(value);
+    }
+
+    @Benchmark
+    public Object readPerCallMapper() throws Exception {
+        return perCallMapper().readValue(json, valueType);
+    }
+
+    @Benchmark
+    public Object readSharedReader() throws Exception {
+        return JsonMappers.reader(valueType).readValue(json);
+    }
+
+    /**
+     * The Mapper created per Call before the Shared Mapper (Utils.toJsonString, RestClientService)
+     * @return
+     */
+    private static ObjectMapper perCallMapper() {
+        return new ObjectMapper().findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JsonMappersBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
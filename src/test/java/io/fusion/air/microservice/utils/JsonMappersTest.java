@@ -0,0 +1,70 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+// Other
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+// Java
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shared JSON Mapper Test
+ *
+ * The Shared Mappers keep the Configuration of the per Call Mappers they replaced
+ * (new ObjectMapper().findAndRegisterModules() with FAIL_ON_UNKNOWN_PROPERTIES = false).
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class JsonMappersTest {
+
+    @Test
+    void javaTimeModuleIsRegistered() {
+        for(ObjectMapper mapper : List.of(JsonMappers.mapper(), JsonMappers.cbor(), JsonMappers.smile())) {
+            assertTrue(mapper.getRegisteredModuleIds().contains(new JavaTimeModule().getTypeId()),
+                    mapper.getClass().getSimpleName());
+        }
+    }
+
+    @Test
+    void toJsonStringWritesTheJavaTimeTypes() {
+        // Without the JavaTime Module the Write fails and toJsonString returns ""
+        LocalDate date = LocalDate.of(2025, 1, 2);
+        String json = Utils.toJsonString(Map.of("date", date));
+        assertEquals("{\"date\":[2025,1,2]}", json);
+        assertEquals(date, Utils.fromJsonToObject("[2025,1,2]", LocalDate.class));
+    }
+
+    @Test
+    void unknownPropertiesAreIgnored() {
+        for(ObjectMapper mapper : List.of(JsonMappers.mapper(), JsonMappers.cbor(), JsonMappers.smile())) {
+            assertFalse(mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES),
+                    mapper.getClass().getSimpleName());
+        }
+        ProductEntity product = Utils.fromJsonToObject(
+                "{\"productName\":\"iPhone\",\"addedByANewerVersion\":true}", ProductEntity.class);
+        assertEquals("iPhone", product.getProductName());
+    }
+}
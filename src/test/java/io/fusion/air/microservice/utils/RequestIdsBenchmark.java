@@ -0,0 +1,76 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// JMH
+import org.openjdk.jmh.annotations.*;
+// Not the io.fusion.air.microservice.utils.Threads of the same Package
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Java
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request Ids Benchmark (JMH)
+ *
+ * Throughput of the Request / Session Ids against UUID.randomUUID() with 8 Threads asking for Ids at
+ * the same time (Contention on the shared SecureRandom). Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.utils.RequestIdsBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class RequestIdsBenchmark {
+
+    @Benchmark
+    public UUID randomUUID() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID requestId() {
+        return RequestIds.requestId();
+    }
+
+    @Benchmark
+    public UUID sessionId() {
+        return RequestIds.sessionId();
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RequestIdsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
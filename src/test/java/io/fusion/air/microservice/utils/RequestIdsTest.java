@@ -0,0 +1,77 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Other
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Request Ids Test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class RequestIdsTest {
+
+    @Test
+    void requestIdIsVersion7AndTimeOrdered() {
+        long before = System.currentTimeMillis();
+        UUID id = RequestIds.requestId();
+        long after = System.currentTimeMillis();
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long time = id.getMostSignificantBits() >>> 16;
+        assertTrue(time >= before && time <= after);
+    }
+
+    @Test
+    void sessionIdIsVersion4() {
+        UUID id = RequestIds.sessionId();
+        assertEquals(4, id.version());
+        assertEquals(2, id.variant());
+        assertNotEquals(id, RequestIds.sessionId());
+    }
+
+    @Test
+    void requestIdsAreUniqueAcrossThreads() throws InterruptedException {
+        int threads = 8;
+        int ids = 20_000;
+        Set<UUID> all = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for(int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                Set<UUID> local = new HashSet<>();
+                for(int i = 0; i < ids; i++) {
+                    local.add(RequestIds.requestId());
+                }
+                all.addAll(local);
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertEquals(threads * ids, all.size());
+    }
+}
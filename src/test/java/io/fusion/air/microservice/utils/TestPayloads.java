@@ -0,0 +1,87 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Custom
+import io.fusion.air.microservice.domain.entities.order.OrderEntity;
+import io.fusion.air.microservice.domain.entities.order.OrderItemEntity;
+import io.fusion.air.microservice.domain.entities.order.ProductEntity;
+// Spring
+import org.springframework.test.util.ReflectionTestUtils;
+// Java
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Products and Orders for the Serialization Tests and Benchmarks
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+public final class TestPayloads {
+
+    private TestPayloads() {
+    }
+
+    /**
+     * Returns the Products (with Ids)
+     * @param count
+     * @return
+     */
+    public static List<ProductEntity> products(int count) {
+        List<ProductEntity> products = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            ProductEntity product = new ProductEntity("Product "+i, "Details of the Product "+i,
+                    new BigDecimal("99.95").add(BigDecimal.valueOf(i)), "560001");
+            // Assigned by the Id Generator on Persist
+            ReflectionTestUtils.setField(product, "uuid", UUID.randomUUID());
+            products.add(product);
+        }
+        return products;
+    }
+
+    /**
+     * Returns an Order (with Id) with the Items
+     * @param items
+     * @return
+     */
+    public static OrderEntity order(int items) {
+        OrderEntity.Builder builder = OrderEntity.builder().addCustomerId("C-100");
+        for(int i = 0; i < items; i++) {
+            builder.addOrderItem(new OrderItemEntity("P-"+i, "Product "+i, BigDecimal.ONE,
+                    new BigDecimal("99.95")));
+        }
+        OrderEntity order = builder.build();
+        ReflectionTestUtils.setField(order, "uuid", UUID.randomUUID());
+        return order;
+    }
+
+    /**
+     * Returns the Orders
+     * @param count
+     * @param items Items per Order
+     * @return
+     */
+    public static List<OrderEntity> orders(int count, int items) {
+        List<OrderEntity> orders = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            orders.add(order(items));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// JMH
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+// Java
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UUID v4 vs v7 Insert Benchmark (JMH, H2)
+ *
+ * Inserts Batches of Rows (JDBC Batch, one Transaction per Batch) into a Table with a UUID Primary Key
+ * which already holds the preloaded Rows. Random (v4) Ids are inserted all over the Primary Key B-Tree,
+ * Time Ordered (v7) Ids are appended at its right most Page. Not a Unit Test, run it from the IDE or with
+ * mvn test-compile exec:java -Dexec.mainClass=io.fusion.air.microservice.utils.UUIDInsertBenchmark
+ *     -Dexec.classpathScope=test
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UUIDInsertBenchmark {
+
+    private static final int BATCH = 1_000;
+    private static final String INSERT = "INSERT INTO order_bench (uuid, customer_id, total, created_time) VALUES (?, ?, ?, ?)";
+
+    @Param({"4", "7"})
+    private int version;
+
+    @Param({"200000"})
+    private int preload;
+
+    private Connection connection;
+    private PreparedStatement insert;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:uuid-" + UUID.randomUUID(), "sa", "");
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE order_bench (uuid UUID PRIMARY KEY, customer_id VARCHAR(64), "
+                    + "total DECIMAL(12,2), created_time TIMESTAMP)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(INSERT);
+        for(int i = 0; i < preload; i += BATCH) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws SQLException {
+        insert.close();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] insertBatch() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for(int i = 0; i < BATCH; i++) {
+            insert.setObject(1, version == 7 ? UUIDv7.generate() : UUID.randomUUID());
+            insert.setString(2, "C-" + (i & 1023));
+            insert.setBigDecimal(3, BigDecimal.valueOf(i, 2));
+            insert.setTimestamp(4, now);
+            insert.addBatch();
+        }
+        int[] rows = insert.executeBatch();
+        connection.commit();
+        return rows;
+    }
+
+    /**
+     * Run the Benchmark
+     * @param args
+     * @throws RunnerException
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UUIDInsertBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
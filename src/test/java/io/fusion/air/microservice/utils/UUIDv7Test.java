@@ -0,0 +1,132 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils;
+// Other
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UUID v7 Test (RFC 9562 Layout, Ordering and the Id Range Bounds)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class UUIDv7Test {
+
+    @Test
+    void versionAndVariantBitsAreSet() {
+        for(int i = 0; i < 1_000; i++) {
+            UUID id = UUIDv7.generate();
+            assertEquals(7, id.version());
+            // IETF Variant (10xx)
+            assertEquals(2, id.variant());
+        }
+    }
+
+    @Test
+    void timestampIsTheCurrentTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UUIDv7.generate();
+        long after = System.currentTimeMillis();
+        long time = UUIDv7.getTimestamp(id);
+        // The Time moves ahead of the Clock only if the Sequence overflowed
+        assertTrue(time >= before && time <= after + 1, before+" <= "+time+" <= "+after);
+    }
+
+    @Test
+    void idsAreStrictlyIncreasingWithinTheSameMilliSecond() {
+        // More Ids than the 12 Bit Sequence holds, the Time moves forward on the Overflow
+        int count = 3 * 4096;
+        List<UUID> ids = new ArrayList<>(count);
+        for(int i = 0; i < count; i++) {
+            ids.add(UUIDv7.generate());
+        }
+        int sameMilliSecond = 0;
+        for(int i = 1; i < count; i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            assertTrue(previous.getMostSignificantBits() < current.getMostSignificantBits(), previous+" < "+current);
+            assertTrue(previous.compareTo(current) < 0);
+            if(UUIDv7.getTimestamp(previous) == UUIDv7.getTimestamp(current)) {
+                sameMilliSecond++;
+            }
+        }
+        assertTrue(sameMilliSecond > 0);
+    }
+
+    @Test
+    void idsAreUniqueAndIncreasingAcrossThreads() throws InterruptedException {
+        int threads = 8;
+        int ids = 20_000;
+        Set<Long> timeAndSequences = ConcurrentHashMap.newKeySet();
+        List<String> errors = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for(int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long previous = Long.MIN_VALUE;
+                for(int i = 0; i < ids; i++) {
+                    long msb = UUIDv7.generate().getMostSignificantBits();
+                    if(msb <= previous) {
+                        synchronized (errors) {
+                            errors.add(Long.toHexString(previous)+" >= "+Long.toHexString(msb));
+                        }
+                    }
+                    previous = msb;
+                    timeAndSequences.add(msb);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        assertTrue(errors.isEmpty(), errors.toString());
+        // Time and Sequence (Most Significant Bits) are unique across the Threads
+        assertEquals(threads * ids, timeAndSequences.size());
+    }
+
+    @Test
+    void lowerBoundIsTheSmallestIdOfTheMilliSecond() {
+        UUID id = UUIDv7.generate();
+        long time = UUIDv7.getTimestamp(id);
+        UUID lower = UUIDv7.lowerBound(time);
+        UUID next = UUIDv7.lowerBound(time + 1);
+
+        assertEquals(time, UUIDv7.getTimestamp(lower));
+        assertTrue(lower.compareTo(id) <= 0);
+        assertTrue(next.compareTo(id) > 0);
+        assertTrue(UUIDv7.lowerBound(time - 1).compareTo(lower) < 0);
+        assertEquals(0L, lower.getLeastSignificantBits());
+    }
+}
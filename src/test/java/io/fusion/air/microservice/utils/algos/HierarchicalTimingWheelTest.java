@@ -0,0 +1,123 @@
+/**
+ * (C) Copyright 2023 Araf Karsh Hamid
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.fusion.air.microservice.utils.algos;
+// Other
+import org.junit.jupiter.api.Test;
+// Java
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hierarchical Timing Wheel Test (Cascade, Cancel, Overdue and Level Growth)
+ *
+ * @author: Araf Karsh Hamid
+ * @version:
+ * @date:
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+    private static final int SLOTS = 4;
+    private static final long START = 1_000;
+
+    @Test
+    void timerFiresOnTheFirstTickAfterTheDeadline() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, START);
+        wheel.schedule(START + 25, "a");
+        List<String> fired = new ArrayList<>();
+        assertEquals(0, wheel.advance(START + 20, fired::add));
+        assertEquals(1, wheel.advance(START + 30, fired::add));
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersOfTheHigherLevelsCascadeDown() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, START);
+        // Level 0 covers 40 ms, Level 1 160 ms, Level 2 640 ms
+        wheel.schedule(START + 55, "level-1");
+        wheel.schedule(START + 395, "level-2");
+        assertEquals(3, wheel.getLevels());
+        List<String> fired = new ArrayList<>();
+        for(long now = START; now <= START + 400; now += TICK) {
+            int before = fired.size();
+            wheel.advance(now, fired::add);
+            if(fired.size() > before) {
+                // Never early, late by less than 1 Tick
+                long deadline = fired.get(fired.size() - 1).equals("level-1") ? START + 55 : START + 395;
+                assertTrue(now > deadline && now <= deadline + TICK, "Fired at " + now);
+            }
+        }
+        assertEquals(List.of("level-1", "level-2"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, START);
+        HierarchicalTimingWheel.Timer<String> timer = wheel.schedule(START + 100, "cancelled");
+        wheel.schedule(START + 100, "kept");
+        assertTrue(timer.cancel());
+        assertFalse(timer.cancel());
+        assertEquals(1, wheel.size());
+        List<String> fired = new ArrayList<>();
+        wheel.advance(START + 200, fired::add);
+        assertEquals(List.of("kept"), fired);
+    }
+
+    @Test
+    void cancelAfterFiringReturnsFalse() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, START);
+        HierarchicalTimingWheel.Timer<String> timer = wheel.schedule(START + 5, "a");
+        assertEquals(1, wheel.advance(START + 10, p -> {}));
+        assertFalse(timer.cancel());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void overdueTimerFiresOnTheNextAdvance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, START);
+        wheel.advance(START + 100, p -> {});
+        wheel.schedule(START, "overdue");
+        List<String> fired = new ArrayList<>();
+        // No Tick crossed
+        assertEquals(1, wheel.advance(START + 100, fired::add));
+        assertEquals(List.of("overdue"), fired);
+    }
+
+    @Test
+    void farFutureDeadlineAddsLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, SLOTS, START);
+        assertEquals(1, wheel.getLevels());
+        // 10 x 4^5 = 10240 ms per Slot at Level 5
+        long deadline = START + 10 * 4 * 4 * 4 * 4 * 4 * 3;
+        wheel.schedule(deadline, "far");
+        assertEquals(6, wheel.getLevels());
+        List<String> fired = new ArrayList<>();
+        wheel.advance(deadline, fired::add);
+        assertTrue(fired.isEmpty());
+        wheel.advance(deadline + TICK, fired::add);
+        assertEquals(List.of("far"), fired);
+    }
+
+    @Test
+    void invalidWheelIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(0, SLOTS, START));
+        assertThrows(IllegalArgumentException.class, () -> new HierarchicalTimingWheel<String>(TICK, 1, START));
+    }
+}